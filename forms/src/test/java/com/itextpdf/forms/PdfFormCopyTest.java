@@ -23,13 +23,20 @@
 package com.itextpdf.forms;
 
 import com.itextpdf.forms.fields.PdfFormCreator;
+import com.itextpdf.forms.fields.PdfTextFormField;
+import com.itextpdf.forms.fields.TextFormFieldBuilder;
 import com.itextpdf.io.logs.IoLogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.WriterProperties;
 import com.itextpdf.kernel.utils.CompareTool;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.itextpdf.kernel.utils.PdfMergerProperties;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -38,7 +45,9 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Collections;
 
 @Tag("IntegrationTest")
 public class PdfFormCopyTest extends ExtendedITextTest {
@@ -698,4 +707,41 @@ public class PdfFormCopyTest extends ExtendedITextTest {
         resultPdfDocument.close();
         Assertions.assertNull(new CompareTool().compareByContent(destFileName, cmpFileName, destinationFolder, "diff_"));
     }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = IoLogMessageConstant.DOCUMENT_ALREADY_HAS_FIELD, count = 2)
+    })
+    public void mergeSameNamedFieldsInStreamingModeTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PdfDocument mergedDocument = new PdfDocument(new PdfWriter(baos))) {
+            PdfMerger merger = new PdfMerger(mergedDocument, new PdfMergerProperties().setStreamingMode(true));
+            for (int i = 0; i < 3; i++) {
+                try (PdfDocument sourceDocument = new PdfDocument(
+                        new PdfReader(new ByteArrayInputStream(createDocumentWithTextField("name"))))) {
+                    merger.merge(sourceDocument, Collections.singletonList(1), new PdfPageFormCopier());
+                }
+            }
+        }
+
+        try (PdfDocument resultDocument = new PdfDocument(
+                new PdfReader(new ByteArrayInputStream(baos.toByteArray())))) {
+            PdfAcroForm acroForm = PdfFormCreator.getAcroForm(resultDocument, false);
+            Assertions.assertEquals(1, acroForm.getPdfObject().getAsArray(PdfName.Fields).size());
+            Assertions.assertEquals(3, acroForm.getField("name").getKids().size());
+            Assertions.assertEquals(3, resultDocument.getNumberOfPages());
+        }
+    }
+
+    private static byte[] createDocumentWithTextField(String fieldName) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos))) {
+            PdfPage page = pdfDocument.addNewPage();
+            PdfTextFormField field = new TextFormFieldBuilder(pdfDocument, fieldName)
+                    .setWidgetRectangle(new Rectangle(36, 700, 200, 20)).createText();
+            field.setValue("value");
+            PdfFormCreator.getAcroForm(pdfDocument, true).addField(field, page);
+        }
+        return baos.toByteArray();
+    }
 }
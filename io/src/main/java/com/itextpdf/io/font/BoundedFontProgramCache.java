@@ -0,0 +1,221 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.font;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe {@link IFontProgramCache} bounded by the estimated size of the cached font programs.
+ * <p>
+ * The weight of a font program is estimated from its number of glyphs and, for TrueType and OpenType fonts which
+ * are not memory mapped, the length of the font file. When the total weight exceeds the maximum weight, the least
+ * recently used font programs are evicted first. A font program heavier than the maximum weight is not cached.
+ * <p>
+ * A font program is loaded only once: the threads which request a font program while it is being loaded wait for
+ * the loading thread instead of parsing the font again. They get the loaded font program even if it is too heavy
+ * to be cached. A font program which is not cached is loaded again when it is requested after the loading has
+ * completed.
+ * <p>
+ * Evicted font programs are not closed, as they still may be used by the documents which got them from the cache.
+ */
+public final class BoundedFontProgramCache implements IFontProgramCache {
+
+    private static final long FONT_PROGRAM_WEIGHT = 1024;
+    private static final long GLYPH_WEIGHT = 64;
+
+    private final LinkedHashMap<FontCacheKey, CacheEntry> fonts = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<FontCacheKey, LoadingFont> loadingFonts = new ConcurrentHashMap<>();
+    private final long maxWeight;
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache, which is not bounded.
+     */
+    public BoundedFontProgramCache() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxWeight the maximum total weight of the cached font programs, roughly in bytes
+     */
+    public BoundedFontProgramCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Gets the number of the font programs, which have been found in the cache.
+     *
+     * @return the number of the cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of the font programs, which haven't been found in the cache.
+     *
+     * @return the number of the cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of the font programs, which have been evicted from the cache to stay within its maximum weight.
+     *
+     * @return the number of the evicted font programs
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the total weight of the cached font programs.
+     *
+     * @return the total weight, roughly in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the number of the cached font programs.
+     *
+     * @return the number of the cached font programs
+     */
+    public synchronized int size() {
+        return fonts.size();
+    }
+
+    @Override
+    public synchronized FontProgram get(FontCacheKey key) {
+        CacheEntry entry = fonts.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.fontProgram;
+    }
+
+    @Override
+    public synchronized FontProgram put(FontCacheKey key, FontProgram fontProgram) {
+        CacheEntry entry = fonts.get(key);
+        if (entry != null) {
+            return entry.fontProgram;
+        }
+        long fontWeight = getWeight(fontProgram);
+        if (fontWeight > maxWeight) {
+            return fontProgram;
+        }
+        fonts.put(key, new CacheEntry(fontProgram, fontWeight));
+        weight += fontWeight;
+        Iterator<Map.Entry<FontCacheKey, CacheEntry>> iterator = fonts.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Map.Entry<FontCacheKey, CacheEntry> eldest = iterator.next();
+            weight -= eldest.getValue().weight;
+            iterator.remove();
+            evictionCount++;
+        }
+        return fontProgram;
+    }
+
+    @Override
+    public FontProgram getOrLoad(FontCacheKey key, IFontProgramLoader loader) throws java.io.IOException {
+        FontProgram fontFound = peek(key, false);
+        if (fontFound != null) {
+            return fontFound;
+        }
+        LoadingFont loadingFont = loadingFonts.computeIfAbsent(key, k -> new LoadingFont());
+        try {
+            synchronized (loadingFont) {
+                // another thread may have loaded the font program while this one was waiting for it,
+                // the font program may be too heavy to be cached, so it is taken from the loading first
+                if (loadingFont.fontProgram != null) {
+                    countHit();
+                    return loadingFont.fontProgram;
+                }
+                fontFound = peek(key, true);
+                if (fontFound != null) {
+                    return fontFound;
+                }
+                loadingFont.fontProgram = put(key, loader.load());
+                return loadingFont.fontProgram;
+            }
+        } finally {
+            loadingFonts.remove(key, loadingFont);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        fonts.clear();
+        weight = 0;
+    }
+
+    static long getWeight(FontProgram fontProgram) {
+        long fontWeight = FONT_PROGRAM_WEIGHT + GLYPH_WEIGHT * fontProgram.countOfGlyphs();
+        if (fontProgram instanceof TrueTypeFont) {
+            fontWeight += ((TrueTypeFont) fontProgram).getFontDataLength();
+        }
+        return fontWeight;
+    }
+
+    private synchronized FontProgram peek(FontCacheKey key, boolean countMiss) {
+        CacheEntry entry = fonts.get(key);
+        if (entry != null) {
+            hitCount++;
+            return entry.fontProgram;
+        }
+        if (countMiss) {
+            missCount++;
+        }
+        return null;
+    }
+
+    private synchronized void countHit() {
+        hitCount++;
+    }
+
+    private static final class LoadingFont {
+        private FontProgram fontProgram;
+    }
+
+    private static final class CacheEntry {
+        private final FontProgram fontProgram;
+        private final long weight;
+
+        CacheEntry(FontProgram fontProgram, long weight) {
+            this.fontProgram = fontProgram;
+            this.weight = weight;
+        }
+    }
+}
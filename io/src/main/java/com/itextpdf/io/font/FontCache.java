@@ -28,13 +28,9 @@ import com.itextpdf.io.font.cmap.CMapCidUni;
 import com.itextpdf.io.font.cmap.CMapCodepointToCid;
 import com.itextpdf.io.font.cmap.CMapUniCid;
 
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-
 public class FontCache {
 
-    private static final Map<FontCacheKey, FontProgram> fontCache = new ConcurrentHashMap<>();
+    private static volatile IFontProgramCache fontCache = new BoundedFontProgramCache();
 
     /**
      * Clears the cache by removing fonts that were added via {@link #saveFont(FontProgram, String)}.
@@ -46,6 +42,28 @@ public class FontCache {
         fontCache.clear();
     }
 
+    /**
+     * Sets the cache which keeps the font programs created via factories when {@code cached} argument is set to true.
+     * <p>
+     * By default the cache is not bounded. A {@link BoundedFontProgramCache} with a maximum weight can be set to
+     * keep the memory used by the font programs within a budget in long-running applications.
+     * The font programs from the previous cache are not moved to the new one.
+     *
+     * @param cache the font program cache to be used, or {@code null} to use a new cache, which is not bounded
+     */
+    public static void setFontProgramCache(IFontProgramCache cache) {
+        fontCache = cache != null ? cache : new BoundedFontProgramCache();
+    }
+
+    /**
+     * Gets the cache which keeps the font programs created via factories when {@code cached} argument is set to true.
+     *
+     * @return the font program cache in use
+     */
+    public static IFontProgramCache getFontProgramCache() {
+        return fontCache;
+    }
+
     public static FontProgram getFont(String fontName) {
         return fontCache.get(FontCacheKey.create(fontName));
     }
@@ -59,11 +77,10 @@ public class FontCache {
     }
 
     static FontProgram saveFont(FontProgram font, FontCacheKey key) {
-        FontProgram fontFound = fontCache.get(key);
-        if (fontFound != null) {
-            return fontFound;
-        }
-        fontCache.put(key, font);
-        return font;
+        return fontCache.put(key, font);
+    }
+
+    static FontProgram getOrLoadFont(FontCacheKey key, IFontProgramLoader loader) throws java.io.IOException {
+        return fontCache.getOrLoad(key, loader);
     }
 }
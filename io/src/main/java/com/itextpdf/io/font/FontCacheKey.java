@@ -42,6 +42,18 @@ public abstract class FontCacheKey {
         return new FontCacheTtcKey(fontProgram, ttcIndex);
     }
 
+    /**
+     * Creates the key of the font program, which is backed by a memory mapping of the font file,
+     * see {@link FontProgramFactory#createMappedFont(String, boolean)}. Such a key never matches the key of
+     * the font program, which has been read from the same file into memory.
+     *
+     * @param fontName the location of the font file
+     * @return the key of the mapped font program
+     */
+    public static FontCacheKey createMapped(String fontName) {
+        return new FontCacheMappedKey(fontName);
+    }
+
     private static class FontCacheStringKey extends FontCacheKey {
         private String fontName;
 
@@ -135,4 +147,27 @@ public abstract class FontCacheKey {
             return result;
         }
     }
+
+    private static class FontCacheMappedKey extends FontCacheKey {
+        private FontCacheKey fileKey;
+
+        FontCacheMappedKey(String fontName) {
+            this.fileKey = new FontCacheStringKey(fontName);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            FontCacheMappedKey that = (FontCacheMappedKey) o;
+
+            return fileKey.equals(that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * fileKey.hashCode() + 1;
+        }
+    }
 }
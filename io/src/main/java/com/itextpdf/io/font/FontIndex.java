@@ -0,0 +1,334 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.io.exceptions.IOException;
+import com.itextpdf.io.exceptions.IoExceptionMessageConstant;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent catalog of {@link FontProgramDescriptor}s of font files.
+ * <p>
+ * Each entry is keyed by the font name as passed to {@link FontProgramDescriptorFactory#fetchDescriptor(String)}
+ * (a path, optionally followed by a TrueType Collection index) and stores the size and the modification time of the
+ * font file together with the font names and style. An entry is used only while the font file still has the same
+ * size and modification time, otherwise the font file is parsed again and the entry is replaced. Entries of font
+ * files which no longer exist are dropped on {@link #save()}. For a TrueType Collection file the number of the fonts
+ * in it is kept too, so that the collection is registered without being opened.
+ * <p>
+ * The index is read with {@link #load(String)} and shall be written back with {@link #save()} after the fonts
+ * have been registered, so that the next start does not need to open the font files at all.
+ */
+public final class FontIndex {
+
+    private static final int MAGIC = 0x69544649;
+
+    private static final int VERSION = 2;
+
+    private final String indexPath;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, CollectionEntry> collections = new ConcurrentHashMap<>();
+
+    private volatile boolean modified;
+
+    private FontIndex(String indexPath) {
+        this.indexPath = indexPath;
+    }
+
+    /**
+     * Loads the font index from the file. If the file does not exist or cannot be read,
+     * an empty index bound to the file is returned.
+     *
+     * @param indexPath path to the index file
+     *
+     * @return the loaded {@link FontIndex}
+     */
+    public static FontIndex load(String indexPath) {
+        FontIndex index = new FontIndex(indexPath);
+        File file = new File(indexPath);
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                index.read(in);
+            } catch (Exception ignored) {
+                // A broken or outdated index is rebuilt from the font files.
+                index.entries.clear();
+                index.collections.clear();
+                index.modified = true;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the descriptor of the font. The font file is parsed only if it is not indexed yet
+     * or has been changed since it was indexed.
+     *
+     * @param fontName the font path, optionally followed by a TrueType Collection index, e.g. "font.ttc,1"
+     *
+     * @return the {@link FontProgramDescriptor} or {@code null} if the font cannot be read
+     */
+    public FontProgramDescriptor fetchDescriptor(String fontName) {
+        if (fontName == null || fontName.length() == 0) {
+            return null;
+        }
+        File file = new File(getFontFilePath(fontName));
+        if (!file.isFile()) {
+            // Built-in and predefined CID fonts have no file to be validated against.
+            return FontProgramDescriptorFactory.fetchDescriptor(fontName);
+        }
+        long size = file.length();
+        long lastModified = file.lastModified();
+        Entry entry = entries.get(fontName);
+        if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+            entry = new Entry(size, lastModified, FontProgramDescriptorFactory.fetchDescriptor(fontName));
+            entries.put(fontName, entry);
+            modified = true;
+        }
+        return entry.descriptor;
+    }
+
+    /**
+     * Gets the number of the fonts in the TrueType Collection. The collection file is parsed only if it is not
+     * indexed yet or has been changed since it was indexed.
+     *
+     * @param ttcPath the path of the TrueType Collection file
+     *
+     * @return the number of the fonts in the collection
+     *
+     * @throws java.io.IOException if the collection cannot be read
+     */
+    int fetchCollectionSize(String ttcPath) throws java.io.IOException {
+        File file = new File(ttcPath);
+        if (!file.isFile()) {
+            return new TrueTypeCollection(ttcPath).getTTCSize();
+        }
+        long size = file.length();
+        long lastModified = file.lastModified();
+        CollectionEntry entry = collections.get(ttcPath);
+        if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+            entry = new CollectionEntry(size, lastModified, new TrueTypeCollection(ttcPath).getTTCSize());
+            collections.put(ttcPath, entry);
+            modified = true;
+        }
+        return entry.fontCount;
+    }
+
+    /**
+     * Gets the number of indexed fonts.
+     *
+     * @return the number of indexed fonts
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the index to its file, if it has been changed since it was loaded.
+     * Entries of font files which no longer exist are dropped.
+     */
+    public void save() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (!new File(getFontFilePath(iterator.next().getKey())).isFile()) {
+                iterator.remove();
+                modified = true;
+            }
+        }
+        Iterator<String> collectionIterator = collections.keySet().iterator();
+        while (collectionIterator.hasNext()) {
+            if (!new File(collectionIterator.next()).isFile()) {
+                collectionIterator.remove();
+                modified = true;
+            }
+        }
+        if (!modified) {
+            return;
+        }
+        File file = new File(indexPath);
+        File tempFile = new File(indexPath + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                write(out);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+        } catch (java.io.IOException e) {
+            throw new IOException(IoExceptionMessageConstant.IO_EXCEPTION, e);
+        }
+    }
+
+    private void read(DataInputStream in) throws java.io.IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new java.io.IOException("Unsupported font index");
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String fontName = in.readUTF();
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            FontProgramDescriptor descriptor = in.readBoolean() ? readDescriptor(in) : null;
+            entries.put(fontName, new Entry(size, lastModified, descriptor));
+        }
+        int collectionCount = in.readInt();
+        for (int i = 0; i < collectionCount; i++) {
+            String ttcPath = in.readUTF();
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            collections.put(ttcPath, new CollectionEntry(size, lastModified, in.readInt()));
+        }
+    }
+
+    private void write(DataOutputStream out) throws java.io.IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        // Entries may be added concurrently, so the count is taken from a snapshot.
+        Map<String, Entry> snapshot = new HashMap<>(entries);
+        out.writeInt(snapshot.size());
+        for (Map.Entry<String, Entry> entry : snapshot.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().size);
+            out.writeLong(entry.getValue().lastModified);
+            FontProgramDescriptor descriptor = entry.getValue().descriptor;
+            out.writeBoolean(descriptor != null);
+            if (descriptor != null) {
+                writeDescriptor(out, descriptor);
+            }
+        }
+        Map<String, CollectionEntry> collectionSnapshot = new HashMap<>(collections);
+        out.writeInt(collectionSnapshot.size());
+        for (Map.Entry<String, CollectionEntry> entry : collectionSnapshot.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().size);
+            out.writeLong(entry.getValue().lastModified);
+            out.writeInt(entry.getValue().fontCount);
+        }
+    }
+
+    private static FontProgramDescriptor readDescriptor(DataInputStream in) throws java.io.IOException {
+        String fontName = in.readUTF();
+        String fullNameLowerCase = in.readUTF();
+        String familyNameLowerCase = readNullableString(in);
+        String familyName2LowerCase = readNullableString(in);
+        String style = in.readUTF();
+        int macStyle = in.readInt();
+        int weight = in.readInt();
+        float italicAngle = in.readFloat();
+        boolean isMonospace = in.readBoolean();
+        String familyNameEnglishOpenType = readNullableString(in);
+        Set<String> fullNamesAllLangs = readStrings(in);
+        Set<String> fullNamesEnglishOpenType = readStrings(in);
+        return new FontProgramDescriptor(fontName, fullNameLowerCase, familyNameLowerCase, familyName2LowerCase,
+                style, macStyle, weight, italicAngle, isMonospace, familyNameEnglishOpenType, fullNamesAllLangs,
+                fullNamesEnglishOpenType);
+    }
+
+    private static void writeDescriptor(DataOutputStream out, FontProgramDescriptor descriptor)
+            throws java.io.IOException {
+        out.writeUTF(descriptor.getFontName());
+        out.writeUTF(descriptor.getFullNameLowerCase());
+        writeNullableString(out, descriptor.getFamilyNameLowerCase());
+        writeNullableString(out, descriptor.getFamilyName2LowerCase());
+        out.writeUTF(descriptor.getStyle());
+        out.writeInt(descriptor.getMacStyle());
+        out.writeInt(descriptor.getFontWeight());
+        out.writeFloat(descriptor.getItalicAngle());
+        out.writeBoolean(descriptor.isMonospace());
+        writeNullableString(out, descriptor.getFamilyNameEnglishOpenType());
+        writeStrings(out, descriptor.getFullNameAllLangs());
+        writeStrings(out, descriptor.getFullNamesEnglishOpenType());
+    }
+
+    private static String readNullableString(DataInputStream in) throws java.io.IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws java.io.IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static Set<String> readStrings(DataInputStream in) throws java.io.IOException {
+        int count = in.readInt();
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream out, Set<String> values) throws java.io.IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String getFontFilePath(String fontName) {
+        String baseName = FontProgram.trimFontStyle(fontName);
+        int ttcSplit = baseName.toLowerCase().indexOf(".ttc,");
+        return ttcSplit > 0 ? baseName.substring(0, ttcSplit + 4) : baseName;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final FontProgramDescriptor descriptor;
+
+        Entry(long size, long lastModified, FontProgramDescriptor descriptor) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.descriptor = descriptor;
+        }
+    }
+
+    private static final class CollectionEntry {
+        private final long size;
+        private final long lastModified;
+        private final int fontCount;
+
+        CollectionEntry(long size, long lastModified, int fontCount) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fontCount = fontCount;
+        }
+    }
+}
@@ -26,8 +26,8 @@ import com.itextpdf.io.font.constants.FontMacStyleFlags;
 import com.itextpdf.io.font.constants.FontStretches;
 import com.itextpdf.io.font.constants.FontWeights;
 import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.util.IntObjectMap;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public abstract class FontProgram {
@@ -55,8 +55,8 @@ public abstract class FontProgram {
 
     // In case Type1: char code to glyph.
     // In case TrueType: glyph index to glyph.
-    protected Map<Integer, Glyph> codeToGlyph = new HashMap<>();
-    protected Map<Integer, Glyph> unicodeToGlyph = new HashMap<>();
+    protected Map<Integer, Glyph> codeToGlyph = new IntObjectMap<>();
+    protected Map<Integer, Glyph> unicodeToGlyph = new IntObjectMap<>();
     protected boolean isFontSpecific;
 
     protected FontNames fontNames;
@@ -129,12 +129,12 @@ public abstract class FontProgram {
     }
 
     public Glyph getGlyph(int unicode) {
-        return unicodeToGlyph.get(unicode);
+        return lookUpGlyph(unicodeToGlyph, unicode);
     }
 
     // char code in case Type1 or index in case OpenType
     public Glyph getGlyphByCode(int charCode) {
-        return codeToGlyph.get(charCode);
+        return lookUpGlyph(codeToGlyph, charCode);
     }
 
     public boolean hasKernPairs() {
@@ -150,7 +150,7 @@ public abstract class FontProgram {
      * @return the kerning to be applied
      */
     public int getKerning(int first, int second) {
-        return getKerning(unicodeToGlyph.get(first), unicodeToGlyph.get(second));
+        return getKerning(lookUpGlyph(unicodeToGlyph, first), lookUpGlyph(unicodeToGlyph, second));
     }
 
     /**
@@ -311,12 +311,17 @@ public abstract class FontProgram {
     }
 
     protected void fixSpaceIssue() {
-        Glyph space = unicodeToGlyph.get(32);
+        Glyph space = lookUpGlyph(unicodeToGlyph, 32);
         if (space != null) {
             codeToGlyph.put(space.getCode(), space);
         }
     }
 
+    // the maps may be replaced by subclasses, so the lookup by primitive key is used only if the map supports it
+    private static Glyph lookUpGlyph(Map<Integer, Glyph> glyphs, int key) {
+        return glyphs instanceof IntObjectMap ? ((IntObjectMap<Glyph>) glyphs).get(key) : glyphs.get(key);
+    }
+
     @Override
     public String toString() {
         String name = getFontNames().getFontName();
@@ -86,6 +86,25 @@ public class FontProgramDescriptor {
         this(fontNames, fontMetrics.getItalicAngle(), fontMetrics.isFixedPitch());
     }
 
+    FontProgramDescriptor(String fontName, String fullNameLowerCase, String familyNameLowerCase,
+                          String familyName2LowerCase, String style, int macStyle, int weight, float italicAngle,
+                          boolean isMonospace, String familyNameEnglishOpenType, Set<String> fullNamesAllLangs,
+                          Set<String> fullNamesEnglishOpenType) {
+        this.fontName = fontName;
+        this.fontNameLowerCase = fontName.toLowerCase();
+        this.fullNameLowerCase = fullNameLowerCase;
+        this.familyNameLowerCase = familyNameLowerCase;
+        this.familyName2LowerCase = familyName2LowerCase;
+        this.style = style;
+        this.macStyle = macStyle;
+        this.weight = weight;
+        this.italicAngle = italicAngle;
+        this.isMonospace = isMonospace;
+        this.familyNameEnglishOpenType = familyNameEnglishOpenType;
+        this.fullNamesAllLangs = fullNamesAllLangs;
+        this.fullNamesEnglishOpenType = fullNamesEnglishOpenType;
+    }
+
     public String getFontName() {
         return fontName;
     }
@@ -106,6 +125,10 @@ public class FontProgramDescriptor {
         return isMonospace;
     }
 
+    int getMacStyle() {
+        return macStyle;
+    }
+
     public boolean isBold() {
         return (macStyle & FontMacStyleFlags.BOLD) != 0;
     }
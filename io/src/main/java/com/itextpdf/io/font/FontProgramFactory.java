@@ -166,20 +166,21 @@ public final class FontProgramFactory {
         boolean isBuiltinFonts14 = StandardFonts.isStandardFont(name);
         boolean isCidFont = !isBuiltinFonts14 && CjkResourceLoader.isPredefinedCidFont(baseName);
 
-        FontProgram fontFound;
-        FontCacheKey fontKey = null;
-        if (cached) {
-            if (isCidFont && cmap != null) {
-                fontKey = createFontCacheKey(name + cmap, fontProgram);
-            } else {
-                fontKey = createFontCacheKey(name, fontProgram);
-            }
-            fontFound = FontCache.getFont(fontKey);
-            if (fontFound != null) {
-                return fontFound;
-            }
+        if (!cached) {
+            return createFontProgram(name, cmap, fontProgram, baseName, isBuiltinFonts14, isCidFont);
+        }
+        FontCacheKey fontKey;
+        if (isCidFont && cmap != null) {
+            fontKey = createFontCacheKey(name + cmap, fontProgram);
+        } else {
+            fontKey = createFontCacheKey(name, fontProgram);
         }
+        return FontCache.getOrLoadFont(fontKey,
+                () -> createFontProgram(name, cmap, fontProgram, baseName, isBuiltinFonts14, isCidFont));
+    }
 
+    private static FontProgram createFontProgram(String name, String cmap, byte[] fontProgram, String baseName,
+            boolean isBuiltinFonts14, boolean isCidFont) throws java.io.IOException {
         FontProgram fontBuilt = null;
         if (name == null) {
             if (fontProgram != null) {
@@ -259,7 +260,7 @@ public final class FontProgramFactory {
                 throw new IOException(IoExceptionMessageConstant.TYPE_OF_FONT_IS_NOT_RECOGNIZED);
             }
         }
-        return cached ? FontCache.saveFont(fontBuilt, fontKey) : fontBuilt;
+        return fontBuilt;
     }
 
     /**
@@ -324,15 +325,11 @@ public final class FontProgramFactory {
      * @throws java.io.IOException exception is thrown in case an I/O error occurs when reading the file
      */
     public static FontProgram createFont(String ttc, int ttcIndex, boolean cached) throws java.io.IOException {
-        FontCacheKey fontCacheKey = FontCacheKey.create(ttc, ttcIndex);
-        if (cached) {
-            FontProgram fontFound = FontCache.getFont(fontCacheKey);
-            if (fontFound != null) {
-                return fontFound;
-            }
+        if (!cached) {
+            return new TrueTypeFont(ttc, ttcIndex);
         }
-        FontProgram fontBuilt = new TrueTypeFont(ttc, ttcIndex);
-        return cached ? FontCache.saveFont(fontBuilt, fontCacheKey) : fontBuilt;
+        FontCacheKey fontCacheKey = FontCacheKey.create(ttc, ttcIndex);
+        return FontCache.getOrLoadFont(fontCacheKey, () -> new TrueTypeFont(ttc, ttcIndex));
     }
 
     /**
@@ -347,15 +344,38 @@ public final class FontProgramFactory {
      * @throws java.io.IOException exception is thrown in case an I/O error occurs when reading the file
      */
     public static FontProgram createFont(byte[] ttc, int ttcIndex, boolean cached) throws java.io.IOException {
+        if (!cached) {
+            return new TrueTypeFont(ttc, ttcIndex);
+        }
         FontCacheKey fontKey = FontCacheKey.create(ttc, ttcIndex);
-        if (cached) {
-            FontProgram fontFound = FontCache.getFont(fontKey);
-            if (fontFound != null) {
-                return fontFound;
-            }
+        return FontCache.getOrLoadFont(fontKey, () -> new TrueTypeFont(ttc, ttcIndex));
+    }
+
+    /**
+     * Creates a new TrueType or OpenType font program backed by a shared read-only memory mapping
+     * of the font file, see {@link TrueTypeFont#createMappedFont(String)}. Such a font program parses
+     * its layout tables on first use and reads subsets straight from the mapping.
+     * Fonts in TrueType Collections are addressed by index such as "msgothic.ttc,1".
+     * <p>
+     * Other kinds of font programs can't be mapped, so they are created as by {@link #createFont(String, boolean)}.
+     *
+     * @param fontPath the location of the font file
+     * @param cached whether to try to get the font program from cache and to cache it after it has been loaded
+     * @return returns a new {@link FontProgram}. This font program may come from the cache
+     * @throws java.io.IOException exception is thrown in case an I/O error occurs when reading the file
+     */
+    public static FontProgram createMappedFont(String fontPath, boolean cached) throws java.io.IOException {
+        String baseName = FontProgram.trimFontStyle(fontPath);
+        String lowerCaseName = baseName.toLowerCase();
+        if (!lowerCaseName.endsWith(".ttf") && !lowerCaseName.endsWith(".otf")
+                && lowerCaseName.indexOf(".ttc,") <= 0) {
+            return createFont(fontPath, cached);
+        }
+        if (!cached) {
+            return TrueTypeFont.createMappedFont(baseName);
         }
-        FontProgram fontBuilt = new TrueTypeFont(ttc, ttcIndex);
-        return cached ? FontCache.saveFont(fontBuilt, fontKey) : fontBuilt;
+        return FontCache.getOrLoadFont(FontCacheKey.createMapped(fontPath),
+                () -> TrueTypeFont.createMappedFont(baseName));
     }
 
     /**
@@ -443,6 +463,18 @@ public final class FontProgramFactory {
         return fontRegisterProvider.registerFontDirectory(dir);
     }
 
+    /**
+     * Register all the fonts in a directory, taking the font names from the font index where possible.
+     * Only fonts which are not indexed yet or have been changed since they were indexed are parsed.
+     *
+     * @param dir       the directory
+     * @param fontIndex the {@link FontIndex} to fetch font descriptors from
+     * @return the number of fonts registered
+     */
+    public static int registerFontDirectory(String dir, FontIndex fontIndex) {
+        return fontRegisterProvider.registerFontDirectory(dir, false, fontIndex);
+    }
+
     /**
      * Register fonts in some probable directories. It usually works in Windows,
      * Linux and Solaris.
@@ -453,6 +485,17 @@ public final class FontProgramFactory {
         return fontRegisterProvider.registerSystemFontDirectories();
     }
 
+    /**
+     * Register fonts in some probable directories, taking the font names from the font index where possible.
+     * Only fonts which are not indexed yet or have been changed since they were indexed are parsed.
+     *
+     * @param fontIndex the {@link FontIndex} to fetch font descriptors from
+     * @return the number of fonts registered
+     */
+    public static int registerSystemFontDirectories(FontIndex fontIndex) {
+        return fontRegisterProvider.registerSystemFontDirectories(fontIndex);
+    }
+
     /**
      * Gets a set of registered font names.
      *
@@ -482,18 +525,11 @@ public final class FontProgramFactory {
     }
 
     private static FontProgram createType1Font(String metricsPath, String binaryPath, byte[] afm, byte[] pfb, boolean cached) throws java.io.IOException {
-        FontProgram fontProgram;
-        FontCacheKey fontKey = null;
-        if (cached) {
-            fontKey = createFontCacheKey(metricsPath, afm);
-            fontProgram = FontCache.getFont(fontKey);
-            if (fontProgram != null) {
-                return fontProgram;
-            }
+        if (!cached) {
+            return new Type1Font(metricsPath, binaryPath, afm, pfb);
         }
-
-        fontProgram = new Type1Font(metricsPath, binaryPath, afm, pfb);
-        return cached ? FontCache.saveFont(fontProgram, fontKey) : fontProgram;
+        FontCacheKey fontKey = createFontCacheKey(metricsPath, afm);
+        return FontCache.getOrLoadFont(fontKey, () -> new Type1Font(metricsPath, binaryPath, afm, pfb));
     }
 
     private static FontCacheKey createFontCacheKey(String name, byte[] fontProgram) {
@@ -223,9 +223,13 @@ class FontRegisterProvider {
      * @param alias the alias you want to use for the font
      */
     void registerFont(String path, String alias) {
+        registerFont(path, alias, null);
+    }
+
+    private void registerFont(String path, String alias, FontIndex fontIndex) {
         try {
             if (path.toLowerCase().endsWith(".ttf") || path.toLowerCase().endsWith(".otf") || path.toLowerCase().indexOf(".ttc,") > 0) {
-                FontProgramDescriptor descriptor = FontProgramDescriptorFactory.fetchDescriptor(path);
+                FontProgramDescriptor descriptor = fetchDescriptor(path, fontIndex);
                 fontNames.put(descriptor.getFontNameLowerCase(), path);
                 if (alias != null) {
                     String lcAlias = alias.toLowerCase();
@@ -250,17 +254,14 @@ class FontRegisterProvider {
 
                 }
             } else if (path.toLowerCase().endsWith(".ttc")) {
-                TrueTypeCollection ttc = new TrueTypeCollection(path);
-                for (int i = 0; i < ttc.getTTCSize(); i++) {
+                int ttcSize = fontIndex != null ? fontIndex.fetchCollectionSize(path)
+                        : new TrueTypeCollection(path).getTTCSize();
+                for (int i = 0; i < ttcSize; i++) {
                     String fullPath = path + "," + i;
-                    if (alias != null) {
-                        registerFont(fullPath, alias + "," + i);
-                    } else {
-                        registerFont(fullPath);
-                    }
+                    registerFont(fullPath, alias != null ? alias + "," + i : null, fontIndex);
                 }
             } else if (path.toLowerCase().endsWith(".afm") || path.toLowerCase().endsWith(".pfm")) {
-                FontProgramDescriptor descriptor = FontProgramDescriptorFactory.fetchDescriptor(path);
+                FontProgramDescriptor descriptor = fetchDescriptor(path, fontIndex);
                 registerFontFamily(descriptor.getFamilyNameLowerCase(), descriptor.getFullNameLowerCase(), null);
                 fontNames.put(descriptor.getFontNameLowerCase(), path);
                 fontNames.put(descriptor.getFullNameLowerCase(), path);
@@ -271,6 +272,10 @@ class FontRegisterProvider {
         }
     }
 
+    private static FontProgramDescriptor fetchDescriptor(String path, FontIndex fontIndex) {
+        return fontIndex != null ? fontIndex.fetchDescriptor(path) : FontProgramDescriptorFactory.fetchDescriptor(path);
+    }
+
     // remove regular and correct last symbol
     // do this job to give higher priority to regular fonts in comparison with light, narrow, etc
     // Don't use this method for not regular fonts!
@@ -302,6 +307,19 @@ class FontRegisterProvider {
      * @return the number of fonts registered
      */
     int registerFontDirectory(String dir, boolean scanSubdirectories) {
+        return registerFontDirectory(dir, scanSubdirectories, null);
+    }
+
+    /**
+     * Register all the fonts in a directory and possibly its subdirectories,
+     * taking the font names from the font index where possible.
+     *
+     * @param dir                the directory
+     * @param scanSubdirectories recursively scan subdirectories if <code>true</code>
+     * @param fontIndex          the {@link FontIndex} to fetch font descriptors from, may be {@code null}
+     * @return the number of fonts registered
+     */
+    int registerFontDirectory(String dir, boolean scanSubdirectories, FontIndex fontIndex) {
         LOGGER.debug(MessageFormatUtil.format("Registering directory {0}, looking for fonts", dir));
         int count = 0;
         try {
@@ -315,11 +333,11 @@ class FontRegisterProvider {
                         /* Only register Type 1 fonts with matching .pfb files */
                         String pfb = file.substring(0, file.length() - 4) + ".pfb";
                         if (FileUtil.fileExists(pfb)) {
-                            registerFont(file, null);
+                            registerFont(file, null, fontIndex);
                             ++count;
                         }
                     } else if (".ttf".equals(suffix) || ".otf".equals(suffix) || ".ttc".equals(suffix)) {
-                        registerFont(file, null);
+                        registerFont(file, null, fontIndex);
                         ++count;
                     }
                 } catch (Exception e) {
@@ -339,6 +357,16 @@ class FontRegisterProvider {
      * @return the number of fonts registered
      */
     int registerSystemFontDirectories() {
+        return registerSystemFontDirectories(null);
+    }
+
+    /**
+     * Register fonts in some probable directories, taking the font names from the font index where possible.
+     *
+     * @param fontIndex the {@link FontIndex} to fetch font descriptors from, may be {@code null}
+     * @return the number of fonts registered
+     */
+    int registerSystemFontDirectories(FontIndex fontIndex) {
         int count = 0;
         String[] withSubDirs = {
                 FileUtil.getFontsDir(),
@@ -349,7 +377,7 @@ class FontRegisterProvider {
                 "/usr/X11R6/lib/X11/fonts"
         };
         for (String directory : withSubDirs) {
-            count += registerFontDirectory(directory, true);
+            count += registerFontDirectory(directory, true, fontIndex);
         }
 
         String[] withoutSubDirs = {
@@ -357,7 +385,7 @@ class FontRegisterProvider {
                 "/System/Library/Fonts"
         };
         for (String directory : withoutSubDirs) {
-            count += registerFontDirectory(directory, false);
+            count += registerFontDirectory(directory, false, fontIndex);
         }
 
         return count;
@@ -0,0 +1,67 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.font;
+
+/**
+ * A cache of font programs, which is used by {@link FontCache} and thus by {@link FontProgramFactory} when
+ * fonts are created with {@code cached} argument set to true.
+ * <p>
+ * Implementations shall be thread-safe, as font programs are created from many threads at the same time.
+ *
+ * @see FontCache#setFontProgramCache(IFontProgramCache)
+ */
+public interface IFontProgramCache {
+
+    /**
+     * Gets a cached font program.
+     *
+     * @param key the key of the font program
+     * @return the cached {@link FontProgram} or {@code null} if there is no font program for the key
+     */
+    FontProgram get(FontCacheKey key);
+
+    /**
+     * Adds a font program to the cache unless there is one for the key already.
+     *
+     * @param key the key of the font program
+     * @param fontProgram the font program to add
+     * @return the font program which is cached for the key, i.e. either the already cached one or the passed one
+     */
+    FontProgram put(FontCacheKey key, FontProgram fontProgram);
+
+    /**
+     * Gets a cached font program or loads it and adds it to the cache. The font program shall be loaded only once,
+     * the threads which request the same font program while it is being loaded wait for it.
+     *
+     * @param key the key of the font program
+     * @param loader the loader which creates the font program on a cache miss
+     * @return the cached or the loaded {@link FontProgram}
+     * @throws java.io.IOException in case an I/O error occurs when loading the font program
+     */
+    FontProgram getOrLoad(FontCacheKey key, IFontProgramLoader loader) throws java.io.IOException;
+
+    /**
+     * Removes all the font programs from the cache.
+     */
+    void clear();
+}
@@ -32,6 +32,7 @@ import com.itextpdf.io.util.IntHashtable;
 import java.io.Closeable;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -125,23 +126,126 @@ class OpenTypeParser implements Closeable {
 
     static class CmapTable {
         /**
-         * The map containing the code information for the table 'cmap', encoding 1.0.
-         * The key is the code and the value is an {@code int[2]} where position 0
-         * is the glyph number and position 1 is the glyph width normalized to 1000 units.
-         * @see TrueTypeFont#UNITS_NORMALIZATION
+         * The code information for the table 'cmap', encoding 1.0.
          */
-        Map<Integer, int[]> cmap10;
+        CmapSubtable cmap10;
         /**
-         * The map containing the code information for the table 'cmap', encoding 3.1 in Unicode.
-         * The key is the code and the value is an {@code int[2]} where position 0
-         * is the glyph number and position 1 is the glyph width normalized to 1000 units.
-         * @see TrueTypeFont#UNITS_NORMALIZATION
+         * The code information for the table 'cmap', encoding 3.1 in Unicode.
          */
-        Map<Integer, int[]> cmap31;
-        Map<Integer, int[]> cmapExt;
+        CmapSubtable cmap31;
+        CmapSubtable cmapExt;
         boolean fontSpecific = false;
     }
 
+    /**
+     * Mapping of character codes to glyph indices of a 'cmap' subtable, stored as two parallel arrays
+     * sorted by character code, so that large CJK cmaps take two ints per code point.
+     */
+    static class CmapSubtable {
+        private int[] codes;
+        private int[] glyphs;
+        private int size;
+        private boolean sorted = true;
+
+        CmapSubtable(int initialCapacity) {
+            codes = new int[Math.max(initialCapacity, 16)];
+            glyphs = new int[codes.length];
+        }
+
+        /**
+         * Gets the number of mapped character codes.
+         *
+         * @return the number of mapped character codes
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Gets the character code at the position.
+         *
+         * @param index the position, character codes go in ascending order
+         * @return the character code
+         */
+        int getCode(int index) {
+            return codes[index];
+        }
+
+        /**
+         * Gets the glyph index at the position.
+         *
+         * @param index the position, character codes go in ascending order
+         * @return the glyph index
+         */
+        int getGlyph(int index) {
+            return glyphs[index];
+        }
+
+        /**
+         * Gets the glyph index the character code is mapped to.
+         *
+         * @param code the character code
+         * @return the glyph index, or {@code -1} if the code is not mapped
+         */
+        int getGlyphByCode(int code) {
+            int index = Arrays.binarySearch(codes, 0, size, code);
+            return index >= 0 ? glyphs[index] : -1;
+        }
+
+        void put(int code, int glyph) {
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+                glyphs = Arrays.copyOf(glyphs, size * 2);
+            }
+            if (size > 0 && codes[size - 1] >= code) {
+                sorted = false;
+            }
+            codes[size] = code;
+            glyphs[size] = glyph;
+            size++;
+        }
+
+        /**
+         * Sorts the mappings by character code and trims the arrays. If a code is mapped several times,
+         * the last mapping wins.
+         *
+         * @return this subtable
+         */
+        CmapSubtable build() {
+            if (!sorted) {
+                // The code takes the high half of the key, the insertion order in the low half breaks the ties.
+                long[] keys = new long[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = ((long) codes[i] << 32) | i;
+                }
+                Arrays.sort(keys);
+                int[] sortedCodes = new int[size];
+                int[] sortedGlyphs = new int[size];
+                int count = 0;
+                for (int i = 0; i < keys.length; i++) {
+                    int code = (int) (keys[i] >>> 32);
+                    int glyph = glyphs[(int) keys[i]];
+                    if (count > 0 && sortedCodes[count - 1] == code) {
+                        sortedGlyphs[count - 1] = glyph;
+                    } else {
+                        sortedCodes[count] = code;
+                        sortedGlyphs[count] = glyph;
+                        count++;
+                    }
+                }
+                codes = sortedCodes;
+                glyphs = sortedGlyphs;
+                size = count;
+                sorted = true;
+            }
+            if (codes.length != size) {
+                codes = Arrays.copyOf(codes, size);
+                glyphs = Arrays.copyOf(glyphs, size);
+            }
+            return this;
+        }
+    }
+
     /** The file name. */
     protected String fileName;
     /**
@@ -213,12 +317,31 @@ class OpenTypeParser implements Closeable {
     }
 
     public OpenTypeParser(String name) throws java.io.IOException {
+        this(name, false);
+    }
+
+    /**
+     * Creates a parser for the font file with the given name.
+     * <p>
+     * If {@code mapped} is {@code true}, the file is always memory mapped, even if the whole content
+     * is read into memory by default, and the mapping can be read from several threads without locking.
+     *
+     * @param name the path to the font file, fonts in TrueType Collections are addressed by index such as
+     *             "msgothic.ttc,1"
+     * @param mapped whether the font file should be read through a shared read-only memory mapping
+     * @throws java.io.IOException in case of any I/O error
+     */
+    OpenTypeParser(String name, boolean mapped) throws java.io.IOException {
         String ttcName = getTTCName(name);
         this.fileName = ttcName;
         if (ttcName.length() < name.length()) {
             ttcIndex = Integer.parseInt(name.substring(ttcName.length() + 1));
         }
-        raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createBestSource(fileName));
+        RandomAccessSourceFactory sourceFactory = new RandomAccessSourceFactory();
+        if (mapped) {
+            sourceFactory.setForceRead(false).setConcurrentReads(true);
+        }
+        raf = new RandomAccessFileOrArray(sourceFactory.createBestSource(fileName));
         initializeSfntTables();
     }
 
@@ -951,30 +1074,26 @@ class OpenTypeParser implements Closeable {
      * The information in the maps of the table 'cmap' is coded in several formats.
      * Format 0 is the Apple standard character to glyph index mapping table.
      *
-     * @return a <CODE>HashMap</CODE> representing this map
+     * @return a {@link CmapSubtable} representing this map
      * @throws java.io.IOException the font file could not be read
      */
-    private Map<Integer, int[]> readFormat0() throws java.io.IOException {
-        Map<Integer, int[]> h = new LinkedHashMap<>();
+    private CmapSubtable readFormat0() throws java.io.IOException {
+        CmapSubtable h = new CmapSubtable(256);
         raf.skipBytes(4);
         for (int k = 0; k < 256; ++k) {
-            int[] r = new int[2];
-            r[0] = raf.readUnsignedByte();
-            r[1] = getGlyphWidth(r[0]);
-            h.put(k, r);
+            h.put(k, raf.readUnsignedByte());
         }
-        return h;
+        return h.build();
     }
 
     /**
      * The information in the maps of the table 'cmap' is coded in several formats.
      * Format 4 is the Microsoft standard character to glyph index mapping table.
      *
-     * @return a <CODE>HashMap</CODE> representing this map
+     * @return a {@link CmapSubtable} representing this map
      * @throws java.io.IOException the font file could not be read
      */
-    private Map<Integer, int[]> readFormat4(boolean fontSpecific) throws java.io.IOException {
-        Map<Integer, int[]> h = new LinkedHashMap<>();
+    private CmapSubtable readFormat4(boolean fontSpecific) throws java.io.IOException {
         int table_lenght = raf.readUnsignedShort();
         raf.skipBytes(2);
         int segCount = raf.readUnsignedShort() / 2;
@@ -1000,6 +1119,11 @@ class OpenTypeParser implements Closeable {
         for (int k = 0; k < glyphId.length; ++k) {
             glyphId[k] = raf.readUnsignedShort();
         }
+        int mappedCount = 0;
+        for (int k = 0; k < segCount; ++k) {
+            mappedCount += Math.max(0, endCount[k] - startCount[k] + 1);
+        }
+        CmapSubtable h = new CmapSubtable(fontSpecific ? mappedCount * 2 : mappedCount);
         for (int k = 0; k < segCount; ++k) {
             int glyph;
             for (int j = startCount[k]; j <= endCount[k] && j != 0xFFFF; ++j) {
@@ -1011,20 +1135,16 @@ class OpenTypeParser implements Closeable {
                         continue;
                     glyph = glyphId[idx] + idDelta[k] & 0xFFFF;
                 }
-                int[] r = new int[2];
-                r[0] = glyph;
-                r[1] = getGlyphWidth(r[0]);
-
                 // (j & 0xff00) == 0xf000) means, that it is private area of unicode
                 // So, in case symbol font (cmap 3/0) we add both char codes:
                 // j & 0xff and j. It will simplify unicode conversion in TrueTypeFont
                 if (fontSpecific && ((j & 0xff00) == 0xf000)) {
-                    h.put(j & 0xff, r);
+                    h.put(j & 0xff, glyph);
                 }
-                h.put(j, r);
+                h.put(j, glyph);
             }
         }
-        return h;
+        return h.build();
     }
 
     /**
@@ -1032,42 +1152,36 @@ class OpenTypeParser implements Closeable {
      * Format 6 is a trimmed table mapping. It is similar to format 0 but can have
      * less than 256 entries.
      *
-     * @return a <CODE>HashMap</CODE> representing this map
+     * @return a {@link CmapSubtable} representing this map
      * @throws java.io.IOException the font file could not be read
      */
-    private Map<Integer, int[]> readFormat6() throws java.io.IOException {
-        Map<Integer, int[]> h = new LinkedHashMap<>();
+    private CmapSubtable readFormat6() throws java.io.IOException {
         raf.skipBytes(4);
         int start_code = raf.readUnsignedShort();
         int code_count = raf.readUnsignedShort();
+        CmapSubtable h = new CmapSubtable(code_count);
         for (int k = 0; k < code_count; ++k) {
-            int[] r = new int[2];
-            r[0] = raf.readUnsignedShort();
-            r[1] = getGlyphWidth(r[0]);
-            h.put(k + start_code, r);
+            h.put(k + start_code, raf.readUnsignedShort());
         }
-        return h;
+        return h.build();
     }
 
-    private Map<Integer, int[]> readFormat12() throws java.io.IOException {
-        Map<Integer, int[]> h = new LinkedHashMap<>();
+    private CmapSubtable readFormat12() throws java.io.IOException {
         raf.skipBytes(2);
         @SuppressWarnings("unused")
         int table_length = raf.readInt();
         raf.skipBytes(4);
         int nGroups = raf.readInt();
+        CmapSubtable h = new CmapSubtable(nGroups);
         for (int k = 0; k < nGroups; k++) {
             int startCharCode = raf.readInt();
             int endCharCode = raf.readInt();
             int startGlyphID = raf.readInt();
             for (int i = startCharCode; i <= endCharCode; i++) {
-                int[] r = new int[2];
-                r[0] = startGlyphID;
-                r[1] = getGlyphWidth(r[0]);
-                h.put(i, r);
+                h.put(i, startGlyphID);
                 startGlyphID++;
             }
         }
-        return h;
+        return h.build();
     }
 }
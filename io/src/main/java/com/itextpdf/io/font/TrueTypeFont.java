@@ -32,6 +32,7 @@ import com.itextpdf.io.font.otf.GlyphSubstitutionTableReader;
 import com.itextpdf.io.font.otf.OpenTypeGdefTableReader;
 import com.itextpdf.io.logs.IoLogMessageConstant;
 import com.itextpdf.io.util.IntHashtable;
+import com.itextpdf.io.util.IntObjectMap;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -68,8 +69,23 @@ public class TrueTypeFont extends FontProgram {
 
     private byte[] fontStreamBytes;
 
+    /**
+     * Whether the font program is backed by a memory mapped font file. Such a font program neither keeps
+     * the font file content in memory nor reads the 'kern', 'GDEF', 'GSUB' and 'GPOS' tables until they are needed.
+     */
+    private boolean mapped;
+
+    private volatile boolean kerningPending;
+
+    private volatile boolean layoutTablesPending;
+
     private TrueTypeFont(OpenTypeParser fontParser) throws java.io.IOException {
+        this(fontParser, false);
+    }
+
+    private TrueTypeFont(OpenTypeParser fontParser, boolean mapped) throws java.io.IOException {
         this.fontParser = fontParser;
+        this.mapped = mapped;
         this.fontParser.loadTables(true);
         initializeFontProperties();
     }
@@ -94,8 +110,37 @@ public class TrueTypeFont extends FontProgram {
         this(new OpenTypeParser(ttc, ttcIndex));
     }
 
+    /**
+     * Creates a font program backed by a shared read-only memory mapping of the font file.
+     * <p>
+     * Only the tables needed to build glyphs and metrics are parsed up front. The 'kern' table and the
+     * 'GDEF', 'GSUB' and 'GPOS' tables are parsed on first use. The font file content is never copied
+     * into a single array: subsets and the font stream are read straight from the mapping, which can be
+     * shared by several threads without locking. Only the 'CFF' table of an OpenType font with CFF outlines
+     * is kept in memory once it has been read. The font program keeps the file open until {@link #close()}
+     * is called, after that the subsets and the font stream of a TrueType font can't be read.
+     *
+     * @param path the path to the font file, fonts in TrueType Collections are addressed by index such as
+     *             "msgothic.ttc,1"
+     * @return the created {@link TrueTypeFont} instance
+     * @throws java.io.IOException in case of any I/O error
+     */
+    public static TrueTypeFont createMappedFont(String path) throws java.io.IOException {
+        return new TrueTypeFont(new OpenTypeParser(path, true), true);
+    }
+
+    /**
+     * Checks whether the font program is backed by a memory mapped font file.
+     *
+     * @return {@code true} if the font program was created by {@link #createMappedFont(String)}
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
     @Override
     public boolean hasKernPairs() {
+        ensureKerningRead();
         return kerning.size() > 0;
     }
 
@@ -111,6 +156,7 @@ public class TrueTypeFont extends FontProgram {
         if (first == null || second == null) {
             return 0;
         }
+        ensureKerningRead();
         return kerning.get((first.getCode() << 16) + second.getCode());
     }
 
@@ -118,7 +164,25 @@ public class TrueTypeFont extends FontProgram {
         return fontParser.isCff();
     }
 
+    /**
+     * Gets the active 'cmap' subtable as a map of character codes to {@code int[2]} arrays, where position 0
+     * is the glyph index and position 1 is the glyph width normalized to 1000 units.
+     * <p>
+     * The map is built on each call from the compact subtable kept by the parser.
+     *
+     * @return the active 'cmap' subtable
+     */
     public Map<Integer, int[]> getActiveCmap() {
+        OpenTypeParser.CmapSubtable cmap = getActiveCmapSubtable();
+        Map<Integer, int[]> map = new LinkedHashMap<>(cmap.size());
+        for (int i = 0; i < cmap.size(); i++) {
+            int glyph = cmap.getGlyph(i);
+            map.put(cmap.getCode(i), new int[] {glyph, fontParser.getGlyphWidth(glyph)});
+        }
+        return map;
+    }
+
+    OpenTypeParser.CmapSubtable getActiveCmapSubtable() {
         OpenTypeParser.CmapTable cmaps = fontParser.getCmapTable();
         if (cmaps.cmapExt != null) {
             return cmaps.cmapExt;
@@ -136,17 +200,23 @@ public class TrueTypeFont extends FontProgram {
     public byte[] getFontStreamBytes() {
         if (fontStreamBytes != null)
             return fontStreamBytes;
+        ensureNotClosed();
+        byte[] streamBytes;
         try {
             if (fontParser.isCff()) {
-                fontStreamBytes = fontParser.readCffFont();
+                streamBytes = fontParser.readCffFont();
             } else {
-                fontStreamBytes = fontParser.getFullFont();
+                streamBytes = fontParser.getFullFont();
             }
         } catch (java.io.IOException e) {
-            fontStreamBytes = null;
             throw new IOException(IoExceptionMessageConstant.IO_EXCEPTION, e);
         }
-        return fontStreamBytes;
+        // a mapped font reads the whole file from the mapping each time instead of keeping a copy of it,
+        // while the 'CFF' table is copied out of the file anyway, so it is kept
+        if (!mapped || fontParser.isCff()) {
+            fontStreamBytes = streamBytes;
+        }
+        return streamBytes;
     }
 
     @Override
@@ -176,18 +246,22 @@ public class TrueTypeFont extends FontProgram {
     }
 
     public GlyphSubstitutionTableReader getGsubTable() {
+        ensureLayoutTablesRead();
         return gsubTable;
     }
 
     public GlyphPositioningTableReader getGposTable() {
+        ensureLayoutTablesRead();
         return gposTable;
     }
 
     public OpenTypeGdefTableReader getGdefTable() {
+        ensureLayoutTablesRead();
         return gdefTable;
     }
 
     public byte[] getSubset(Set<Integer> glyphs, boolean subset) {
+        ensureNotClosed();
         try {
             return fontParser.getSubset(glyphs, subset);
         } catch (java.io.IOException e) {
@@ -249,7 +323,11 @@ public class TrueTypeFont extends FontProgram {
         OpenTypeParser.WindowsMetrics os_2 = fontParser.getOs_2Table();
         OpenTypeParser.PostTable post = fontParser.getPostTable();
         isFontSpecific = fontParser.getCmapTable().fontSpecific;
-        kerning = fontParser.readKerning(head.unitsPerEm);
+        if (mapped) {
+            kerningPending = true;
+        } else {
+            kerning = fontParser.readKerning(head.unitsPerEm);
+        }
         bBoxes = fontParser.readBbox(head.unitsPerEm);
 
         // font names group
@@ -297,18 +375,21 @@ public class TrueTypeFont extends FontProgram {
         System.arraycopy(os_2.panose, 0, pdfPanose, 2, 10);
         fontIdentification.setPanose(pdfPanose);
 
-        Map<Integer, int[]> cmap = getActiveCmap();
+        OpenTypeParser.CmapSubtable cmap = getActiveCmapSubtable();
         int[] glyphWidths = fontParser.getGlyphWidthsByIndex();
         int numOfGlyphs = fontMetrics.getNumberOfGlyphs();
-        unicodeToGlyph = new LinkedHashMap<>(cmap.size());
-        codeToGlyph = new LinkedHashMap<>(numOfGlyphs);
+        IntObjectMap<Glyph> unicodeGlyphs = new IntObjectMap<>();
+        IntObjectMap<Glyph> codeGlyphs = new IntObjectMap<>();
+        unicodeToGlyph = unicodeGlyphs;
+        codeToGlyph = codeGlyphs;
         avgWidth = 0;
         CFFFontSubset cffFontSubset = null;
         if (isCff()) {
             cffFontSubset = new CFFFontSubset(getFontStreamBytes());
         }
-        for (int charCode : cmap.keySet()) {
-            int index = cmap.get(charCode)[0];
+        for (int i = 0; i < cmap.size(); i++) {
+            int charCode = cmap.getCode(i);
+            int index = cmap.getGlyph(i);
             if (index >= numOfGlyphs) {
                 Logger LOGGER = LoggerFactory.getLogger(TrueTypeFont.class);
                 LOGGER.warn(MessageFormatUtil.format(IoLogMessageConstant.FONT_HAS_INVALID_GLYPH,
@@ -328,21 +409,21 @@ public class TrueTypeFont extends FontProgram {
                 glyph = new Glyph(cid, glyphWidths[index], charCode, glyphBBox);
             }
 
-            unicodeToGlyph.put(charCode, glyph);
+            unicodeGlyphs.put(charCode, glyph);
             // This is done on purpose to keep the mapping to glyphs with smaller unicode values, in contrast with
             // larger values which often represent different forms of other characters.
-            if (!codeToGlyph.containsKey(cid)) {
-                codeToGlyph.put(cid, glyph);
+            if (!codeGlyphs.containsKey(cid)) {
+                codeGlyphs.put(cid, glyph);
             }
             avgWidth += glyph.getWidth();
         }
         fixSpaceIssue();
         for (int index = 0; index < glyphWidths.length; index++) {
-            if (codeToGlyph.containsKey(index)) {
+            if (codeGlyphs.containsKey(index)) {
                 continue;
             }
             Glyph glyph = new Glyph(index, glyphWidths[index], -1);
-            codeToGlyph.put(index, glyph);
+            codeGlyphs.put(index, glyph);
             avgWidth += glyph.getWidth();
         }
 
@@ -350,13 +431,55 @@ public class TrueTypeFont extends FontProgram {
             avgWidth /= codeToGlyph.size();
         }
 
-        readGdefTable();
-        readGsubTable();
-        readGposTable();
+        if (mapped) {
+            layoutTablesPending = true;
+        } else {
+            readGdefTable();
+            readGsubTable();
+            readGposTable();
+        }
 
         isVertical = false;
     }
 
+    private void ensureNotClosed() {
+        if (fontParser == null) {
+            throw new IOException(IoExceptionMessageConstant.ALREADY_CLOSED);
+        }
+    }
+
+    private void ensureKerningRead() {
+        if (kerningPending) {
+            synchronized (this) {
+                if (kerningPending) {
+                    try {
+                        kerning = fontParser.readKerning(fontMetrics.getUnitsPerEm());
+                    } catch (java.io.IOException e) {
+                        throw new IOException(IoExceptionMessageConstant.IO_EXCEPTION, e);
+                    }
+                    kerningPending = false;
+                }
+            }
+        }
+    }
+
+    private void ensureLayoutTablesRead() {
+        if (layoutTablesPending) {
+            synchronized (this) {
+                if (layoutTablesPending) {
+                    try {
+                        readGdefTable();
+                        readGsubTable();
+                        readGposTable();
+                    } catch (java.io.IOException e) {
+                        throw new IOException(IoExceptionMessageConstant.IO_EXCEPTION, e);
+                    }
+                    layoutTablesPending = false;
+                }
+            }
+        }
+    }
+
     /**
      * Gets the code pages supported by the font.
      *
@@ -382,13 +505,35 @@ public class TrueTypeFont extends FontProgram {
         return ret;
     }
 
+    /**
+     * Gets the length of the font file content, which is parsed into this font program and may be kept in memory.
+     *
+     * @return the length of the font file content or 0 if the font file is memory mapped or already closed
+     */
+    long getFontDataLength() {
+        if (mapped || fontParser == null) {
+            return 0;
+        }
+        return fontParser.raf.length();
+    }
+
     @Override
     public boolean isBuiltWith(String fontProgram) {
         return Objects.equals(fontParser.fileName, fontProgram);
     }
 
+    /**
+     * Closes the font file. The glyphs, the metrics and the layout tables stay available, but the font stream
+     * and the subsets can't be read anymore, unless the font stream has already been read and kept in memory,
+     * see {@link #getFontStreamBytes()}.
+     *
+     * @throws java.io.IOException in case of any I/O error
+     */
     public void close() throws java.io.IOException {
         if (fontParser != null) {
+            // the lazily parsed tables can't be read once the font file is closed
+            ensureKerningRead();
+            ensureLayoutTablesRead();
             fontParser.close();
         }
         fontParser = null;
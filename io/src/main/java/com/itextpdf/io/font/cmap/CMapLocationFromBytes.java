@@ -35,6 +35,7 @@ public class CMapLocationFromBytes implements ICMapLocation {
     }
 
     public PdfTokenizer getLocation(String location) {
-        return new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(data)));
+        return new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(data))
+                .enableReadWindow());
     }
 }
@@ -41,7 +41,8 @@ public class CMapLocationResource implements ICMapLocation {
         if (inp == null) {
             throw new IOException(IoExceptionMessageConstant.CMAP_WAS_NOT_FOUND).setMessageParams(fullName);
         }
-        return new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(inp)));
+        return new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(inp))
+                .enableReadWindow());
     }
 
     /**
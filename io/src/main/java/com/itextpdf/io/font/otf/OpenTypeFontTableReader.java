@@ -23,6 +23,7 @@
 package com.itextpdf.io.font.otf;
 
 import com.itextpdf.io.util.IntHashtable;
+import com.itextpdf.io.util.IntObjectMap;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 
 import java.util.ArrayList;
@@ -40,6 +41,8 @@ public abstract class OpenTypeFontTableReader {
     protected OpenTypeScript scriptsType;
     protected OpenTypeFeature featuresType;
     private final Map<Integer, Glyph> indexGlyphMap;
+    // Same map as indexGlyphMap if it supports lookups by primitive index, null otherwise.
+    private final IntObjectMap<Glyph> intIndexGlyphMap;
     private final OpenTypeGdefTableReader gdef;
 
     private final int unitsPerEm;
@@ -49,12 +52,13 @@ public abstract class OpenTypeFontTableReader {
 		this.rf = rf;
 		this.tableLocation = tableLocation;
         this.indexGlyphMap = indexGlyphMap;
+        this.intIndexGlyphMap = indexGlyphMap instanceof IntObjectMap ? (IntObjectMap<Glyph>) indexGlyphMap : null;
         this.gdef = gdef;
         this.unitsPerEm = unitsPerEm;
 	}
 
     public Glyph getGlyph(int index) {
-        return indexGlyphMap.get(index);
+        return intIndexGlyphMap != null ? intIndexGlyphMap.get(index) : indexGlyphMap.get(index);
     }
 
     public OpenTableLookup getLookupTable(int idx) {
@@ -0,0 +1,201 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.io.exceptions.IoExceptionMessageConstant;
+import com.itextpdf.io.logs.IoLogMessageConstant;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A RandomAccessSource that is based on an underlying {@link java.nio.channels.FileChannel} and can be read by
+ * several threads at the same time without locking.
+ * <p>
+ * The channel is mapped into memory page by page when a page is read for the first time. Unlike
+ * {@link PagedChannelRandomAccessSource}, which unmaps the least recently used pages, the pages stay mapped until
+ * the source is closed, so a page can't be unmapped while another thread reads it. The mapped buffers are only read
+ * with absolute gets or through duplicates, which keeps the readers independent of each other.
+ * <p>
+ * The source shall not be closed while it is being read.
+ */
+class ConcurrentChannelRandomAccessSource implements IRandomAccessSource {
+    /**
+     * The default size of the pages, which is the same as the total size of the pages
+     * {@link PagedChannelRandomAccessSource} keeps mapped
+     */
+    public static final int DEFAULT_PAGE_SIZE = PagedChannelRandomAccessSource.DEFAULT_TOTAL_BUFSIZE;
+
+    /**
+     * The channel this source is based on
+     */
+    private final FileChannel channel;
+
+    /**
+     * The size of the channel
+     */
+    private final long length;
+
+    /**
+     * The size of each of the pages, the last page may be shorter
+     */
+    private final int pageSize;
+
+    /**
+     * The mapped pages, null for the pages which haven't been read yet
+     */
+    private final AtomicReferenceArray<ByteBuffer> pages;
+
+    /**
+     * The lock which is only taken to map a page
+     */
+    private final Object mappingLock = new Object();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new {@link ConcurrentChannelRandomAccessSource} based on the specified FileChannel, with the
+     * default page size.
+     *
+     * @param channel the channel to use as the backing store
+     * @throws java.io.IOException if the channel cannot be opened or mapped
+     */
+    public ConcurrentChannelRandomAccessSource(FileChannel channel) throws java.io.IOException {
+        this(channel, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructs a new {@link ConcurrentChannelRandomAccessSource} based on the specified FileChannel, with a specific
+     * page size.
+     *
+     * @param channel the channel to use as the backing store
+     * @param pageSize the size of the pages the channel is mapped by
+     * @throws java.io.IOException if the channel cannot be opened or mapped
+     */
+    public ConcurrentChannelRandomAccessSource(FileChannel channel, int pageSize) throws java.io.IOException {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException(pageSize + " is zero or negative");
+        }
+        this.channel = channel;
+        this.length = channel.size();
+        if (length <= 0) {
+            throw new java.io.IOException("File size must be greater than zero");
+        }
+        this.pageSize = pageSize;
+        this.pages = new AtomicReferenceArray<>((int) ((length - 1) / pageSize + 1));
+        // map the first page right away, so that a failure of mapping is reported on creation
+        getPage(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position) throws java.io.IOException {
+        if (position >= length) {
+            return -1;
+        }
+        ByteBuffer page = getPage((int) (position / pageSize));
+        return page.get((int) (position % pageSize)) & 0xff;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position, byte[] bytes, int off, int len) throws java.io.IOException {
+        if (position >= length) {
+            return -1;
+        }
+        int count = 0;
+        while (count < len && position < length) {
+            ByteBuffer page = getPage((int) (position / pageSize)).duplicate();
+            page.position((int) (position % pageSize));
+            int bytesFromThisPage = Math.min(len - count, page.remaining());
+            page.get(bytes, off + count, bytesFromThisPage);
+            count += bytesFromThisPage;
+            position += bytesFromThisPage;
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Cleans the mapped byte buffers and closes the channel
+     */
+    public void close() throws java.io.IOException {
+        synchronized (mappingLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            for (int i = 0; i < pages.length(); i++) {
+                ByteBuffer page = pages.getAndSet(i, null);
+                if (page != null) {
+                    new ByteBufferRandomAccessSource(page).close();
+                }
+            }
+        } finally {
+            try {
+                channel.close();
+            } catch (Exception ex) {
+                Logger logger = LoggerFactory.getLogger(ConcurrentChannelRandomAccessSource.class);
+                logger.error(IoLogMessageConstant.FILE_CHANNEL_CLOSING_FAILED, ex);
+            }
+        }
+    }
+
+    private ByteBuffer getPage(int index) throws java.io.IOException {
+        ByteBuffer page = pages.get(index);
+        if (page != null) {
+            return page;
+        }
+        synchronized (mappingLock) {
+            if (closed) {
+                throw new IllegalStateException(IoExceptionMessageConstant.ALREADY_CLOSED);
+            }
+            page = pages.get(index);
+            if (page == null) {
+                long pageOffset = (long) index * pageSize;
+                page = channel.map(FileChannel.MapMode.READ_ONLY, pageOffset, Math.min(length - pageOffset, pageSize));
+                pages.set(index, page);
+            }
+            return page;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + " (" + length + ", " + pageSize + ")";
+    }
+}
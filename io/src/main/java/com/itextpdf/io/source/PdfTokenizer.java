@@ -105,6 +105,16 @@ public class PdfTokenizer implements Closeable {
             false, false, false, false, false, false, false, false, false, false,
             false, false, false, false, false, false, false};
 
+    private static final boolean[] whitespaces = new boolean[257];
+    private static final boolean[] commentBytes = new boolean[257];
+
+    static {
+        for (int ch = 0; ch < 256; ch++) {
+            whitespaces[ch + 1] = isWhitespace(ch);
+            commentBytes[ch + 1] = ch != '\r' && ch != '\n';
+        }
+    }
+
     /**
      * Creates a PdfTokenizer for the specified {@link RandomAccessFileOrArray}.
      * The beginning of the file is read to determine the location of the header, and the data source is adjusted
@@ -376,9 +386,8 @@ public class PdfTokenizer implements Closeable {
     public boolean nextToken() throws java.io.IOException {
         int ch;
         outBuf.reset();
-        do {
-            ch = file.read();
-        } while (ch != -1 && isWhitespace(ch));
+        // the bytes are scanned over the read window of the file instead of being read one by one
+        ch = file.readSkipping(whitespaces);
         if (ch == -1) {
             type = TokenType.EndOfFile;
             return false;
@@ -394,13 +403,7 @@ public class PdfTokenizer implements Closeable {
             }
             case '/': {
                 type = TokenType.Name;
-                while (true) {
-                    ch = file.read();
-                    if (delims[ch + 1])
-                        break;
-                    outBuf.append(ch);
-                }
-                backOnePosition(ch);
+                file.appendUntil(delims, outBuf);
                 break;
             }
             case '>': {
@@ -446,9 +449,7 @@ public class PdfTokenizer implements Closeable {
             }
             case '%': {
                 type = TokenType.Comment;
-                do {
-                    ch = file.read();
-                } while (ch != -1 && ch != '\r' && ch != '\n');
+                file.readSkipping(commentBytes);
                 break;
             }
             case '(': {
@@ -528,10 +529,9 @@ public class PdfTokenizer implements Closeable {
                     }
                 } else {
                     type = TokenType.Other;
-                    do {
-                        outBuf.append(ch);
-                        ch = file.read();
-                    } while (!delims[ch + 1]);
+                    outBuf.append(ch);
+                    file.appendUntil(delims, outBuf);
+                    break;
                 }
                 if (ch != -1)
                     backOnePosition(ch);
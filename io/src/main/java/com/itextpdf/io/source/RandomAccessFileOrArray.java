@@ -31,6 +31,11 @@ import java.io.EOFException;
  */
 public class RandomAccessFileOrArray implements DataInput {
 
+    /**
+     * The maximum size of the window of the byte source which is read at once to serve single byte reads.
+     */
+    static final int READ_WINDOW_SIZE = 8 * 1024;
+
     /**
      * The source that backs this object
      */
@@ -50,6 +55,15 @@ public class RandomAccessFileOrArray implements DataInput {
      */
     private boolean isBack = false;
 
+    /**
+     * The bytes of the byte source starting at {@link #windowStart}, which are read in bulk to serve single byte
+     * reads without calling the byte source for every byte.
+     */
+    private byte[] window;
+    private long windowStart;
+    private int windowLength;
+    private boolean readWindowEnabled;
+
     /**
      * Creates a RandomAccessFileOrArray that wraps the specified byte source.  The byte source will be closed when
      * this RandomAccessFileOrArray is closed.
@@ -60,6 +74,19 @@ public class RandomAccessFileOrArray implements DataInput {
         this.byteSource = byteSource;
     }
 
+    /**
+     * Enables reading the byte source in windows of up to several kilobytes. Single bytes are then served from
+     * the last read window instead of being requested from the byte source one by one.
+     * <br>
+     * The windows are not reread, so the content of the byte source shall not change while it is read by this object.
+     *
+     * @return this {@link RandomAccessFileOrArray} instance
+     */
+    public RandomAccessFileOrArray enableReadWindow() {
+        this.readWindowEnabled = true;
+        return this;
+    }
+
     /**
      * Creates an independent view of this object (with it's own file pointer and push back queue).  Closing the new object will not close this object.
      * Closing this object will have adverse effect on the view.
@@ -103,7 +130,15 @@ public class RandomAccessFileOrArray implements DataInput {
             isBack = false;
             return back & 0xff;
         }
-
+        long windowOffset = byteSourcePosition - windowStart;
+        if (windowOffset >= 0 && windowOffset < windowLength) {
+            ++byteSourcePosition;
+            return window[(int) windowOffset] & 0xff;
+        }
+        if (fillWindow()) {
+            ++byteSourcePosition;
+            return window[0] & 0xff;
+        }
         return byteSource.get(byteSourcePosition++);
     }
 
@@ -117,6 +152,10 @@ public class RandomAccessFileOrArray implements DataInput {
         if (isBack) {
             return back & 0xff;
         }
+        long windowOffset = byteSourcePosition - windowStart;
+        if ((windowOffset >= 0 && windowOffset < windowLength) || fillWindow()) {
+            return window[(int) (byteSourcePosition - windowStart)] & 0xff;
+        }
         return byteSource.get(byteSourcePosition);
     }
 
@@ -257,6 +296,8 @@ public class RandomAccessFileOrArray implements DataInput {
      */
     public void close() throws java.io.IOException {
         isBack = false;
+        window = null;
+        windowLength = 0;
 
         byteSource.close();
     }
@@ -606,8 +647,120 @@ public class RandomAccessFileOrArray implements DataInput {
         return new String(buf, encoding);
     }
 
+    /**
+     * Reads the bytes up to the first one which is marked in the table and appends them to the buffer.
+     * The marked byte is not consumed. The table is indexed by the byte value plus one, so its first element
+     * corresponds to the end of the source, which is consumed as {@link #read()} does.
+     *
+     * @param stopBytes the table of the bytes to stop at
+     * @param buffer    the buffer to append the bytes to
+     * @return the byte the reading stopped at, or -1 if the end of the source is reached
+     * @throws java.io.IOException in case of any reading error
+     */
+    int appendUntil(boolean[] stopBytes, ByteBuffer buffer) throws java.io.IOException {
+        if (isBack) {
+            int ch = back & 0xff;
+            if (stopBytes[ch + 1]) {
+                return ch;
+            }
+            isBack = false;
+            buffer.append(ch);
+        }
+        while (true) {
+            long windowOffset = byteSourcePosition - windowStart;
+            if (!(windowOffset >= 0 && windowOffset < windowLength) && !fillWindow()) {
+                // past the end of the source, or the window can't be used for the position
+                int ch = read();
+                if (ch == -1 || stopBytes[ch + 1]) {
+                    if (ch != -1) {
+                        --byteSourcePosition;
+                    }
+                    return ch;
+                }
+                buffer.append(ch);
+                continue;
+            }
+            int start = (int) (byteSourcePosition - windowStart);
+            int end = start;
+            while (end < windowLength && !stopBytes[(window[end] & 0xff) + 1]) {
+                ++end;
+            }
+            buffer.append(window, start, end - start);
+            byteSourcePosition += end - start;
+            if (end < windowLength) {
+                return window[end] & 0xff;
+            }
+        }
+    }
+
+    /**
+     * Reads the bytes while they are marked in the table. The first byte which is not marked is consumed.
+     * The table is indexed by the byte value plus one, so its first element corresponds to the end of the source.
+     *
+     * @param skippedBytes the table of the bytes to skip
+     * @return the first byte which is not marked, or -1 if the end of the source is reached
+     * @throws java.io.IOException in case of any reading error
+     */
+    int readSkipping(boolean[] skippedBytes) throws java.io.IOException {
+        int ch;
+        if (isBack) {
+            isBack = false;
+            ch = back & 0xff;
+            if (!skippedBytes[ch + 1]) {
+                return ch;
+            }
+        }
+        while (true) {
+            long windowOffset = byteSourcePosition - windowStart;
+            if (!(windowOffset >= 0 && windowOffset < windowLength) && !fillWindow()) {
+                ch = read();
+                if (ch == -1 || !skippedBytes[ch + 1]) {
+                    return ch;
+                }
+                continue;
+            }
+            int position = (int) (byteSourcePosition - windowStart);
+            while (position < windowLength) {
+                ch = window[position++] & 0xff;
+                if (!skippedBytes[ch + 1]) {
+                    byteSourcePosition = windowStart + position;
+                    return ch;
+                }
+            }
+            byteSourcePosition = windowStart + position;
+        }
+    }
+
+    /**
+     * Reads the window of the byte source starting at the current position.
+     *
+     * @return true, if the window contains at least one byte, false otherwise
+     * @throws java.io.IOException in case of any reading error
+     */
+    private boolean fillWindow() throws java.io.IOException {
+        if (!readWindowEnabled || byteSourcePosition < 0) {
+            return false;
+        }
+        if (window == null) {
+            long length = byteSource.length();
+            if (byteSourcePosition >= length) {
+                return false;
+            }
+            window = new byte[(int) Math.min(READ_WINDOW_SIZE, length)];
+        }
+        int count = byteSource.get(byteSourcePosition, window, 0, window.length);
+        if (count <= 0) {
+            windowLength = 0;
+            return false;
+        }
+        windowStart = byteSourcePosition;
+        windowLength = count;
+        return true;
+    }
+
     private void ensureByteSourceIsThreadSafe() {
-        if (!(byteSource instanceof ThreadSafeRandomAccessSource)) {
+        if (!(byteSource instanceof ThreadSafeRandomAccessSource)
+                && !(byteSource instanceof ConcurrentChannelRandomAccessSource)) {
             byteSource = new ThreadSafeRandomAccessSource(byteSource);
         }
     }
@@ -59,6 +59,11 @@ public final class RandomAccessSourceFactory {
      */
     private boolean exclusivelyLockFile = false;
 
+    /**
+     * Whether the memory mapped sources should support reads from several threads at the same time
+     */
+    private boolean concurrentReads = false;
+
     /**
      * Creates a factory that will give preference to accessing the underling data source using memory mapped files
      */
@@ -98,6 +103,17 @@ public final class RandomAccessSourceFactory {
         return this;
     }
 
+    /**
+     * Determines whether the memory mapped sources should be safe to read from several threads at the same time
+     * without locking. Such sources keep all the pages of the file, which have been read, mapped until they are closed.
+     * @param concurrentReads whether the memory mapped sources should support concurrent reads
+     * @return this object (this allows chaining of method calls)
+     */
+    public RandomAccessSourceFactory setConcurrentReads(boolean concurrentReads){
+        this.concurrentReads = concurrentReads;
+        return this;
+    }
+
     /**
      * Creates a {@link IRandomAccessSource} based on a byte array
      * @param data the byte array
@@ -241,11 +257,15 @@ public final class RandomAccessSourceFactory {
      * Unless you are explicitly working with a {@code FileChannel} already, it is better to use
      * {@link RandomAccessSourceFactory#createBestSource(String)}.
      * If the file is large, it will be opened using a paging strategy.
+     * If concurrent reads are enabled, the returned source can be read from several threads without locking.
      * @param channel the name of the file or resource to create the {@link IRandomAccessSource} for
      * @return the newly created {@link IRandomAccessSource}
      * @throws java.io.IOException in case of any I/O error
      */
     public IRandomAccessSource createBestSource(FileChannel channel) throws java.io.IOException {
+        if (concurrentReads) {
+            return new ConcurrentChannelRandomAccessSource(channel);
+        }
 
         // if less than the fully mapped usage of PagedFileChannelRandomAccessSource,
         // just map the whole thing and be done with it
@@ -256,6 +276,35 @@ public final class RandomAccessSourceFactory {
         }
     }
 
+    /**
+     * Creates a {@link IRandomAccessSource} for the file, which can be read by several threads at the same time
+     * without locking. The file is memory mapped page by page, regardless of the settings of this factory.
+     *
+     * @param filename the name of the file
+     * @return the newly created {@link IRandomAccessSource} or {@code null} if the file can't be read or mapped
+     * @throws java.io.IOException in case of any I/O error
+     */
+    public IRandomAccessSource createConcurrentSource(String filename) throws java.io.IOException {
+        File file = new File(filename);
+        if (!file.canRead() || file.length() <= 0) {
+            return null;
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            // ownership of the RAF passes to the created source
+            return new ConcurrentChannelRandomAccessSource(raf.getChannel());
+        } catch (java.io.IOException e) {
+            try {
+                raf.close();
+            } catch (java.io.IOException ignore) {
+            }
+            if (exceptionIsMapFailureException(e)) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
     public IRandomAccessSource createRanged(IRandomAccessSource source, long[] ranges) throws java.io.IOException {
         IRandomAccessSource[] sources = new IRandomAccessSource[ranges.length/2];
         for(int i = 0; i < ranges.length; i+=2){
@@ -0,0 +1,385 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.io.exceptions.IoExceptionMessageConstant;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ByteArrayOutputStream} which keeps only small content on the heap.
+ * <p>
+ * The content is kept in the byte array of the stream until it grows over the heap limit. Then it is moved to
+ * direct buffers allocated outside of the heap, and once it grows over the direct limit, it is spilled to
+ * a temporary file. The content of the file is read back through memory mapped windows, so writing the content
+ * to another stream doesn't need any heap but a small copy buffer. {@link #toByteArray()} still creates an array
+ * holding the whole content.
+ * <p>
+ * The direct buffers and the temporary file are released when the stream is closed or reset, or when new bytes
+ * are assigned to it. The temporary file is deleted when it is released.
+ */
+public class SpillingByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private static final int DIRECT_CHUNK_SIZE = 1024 * 1024;
+    private static final int FILE_WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int MAPPED_WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_FILE_PREFIX = "itext-stream-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final int heapLimit;
+    private final int directLimit;
+    private final File tempDirectory;
+
+    /**
+     * The direct buffers holding the content, or {@code null} if the content is not kept in direct buffers.
+     */
+    private List<ByteBuffer> directChunks;
+
+    /**
+     * The channel of the temporary file holding the content, or {@code null} if the content hasn't been spilled.
+     */
+    private FileChannel spillChannel;
+    private ByteBuffer spillWriteBuffer;
+
+    /**
+     * The size of the content, which is not kept on the heap.
+     */
+    private int offHeapSize;
+
+    /**
+     * Creates a stream, which spills its content to temporary files in the default temporary directory.
+     *
+     * @param heapLimit the maximum size of the content kept on the heap
+     * @param directLimit the maximum size of the content kept in direct buffers, if it's not greater than the heap
+     *                    limit, the content is spilled to a file right after it leaves the heap
+     */
+    public SpillingByteArrayOutputStream(int heapLimit, int directLimit) {
+        this(heapLimit, directLimit, null);
+    }
+
+    /**
+     * Creates a stream.
+     *
+     * @param heapLimit the maximum size of the content kept on the heap
+     * @param directLimit the maximum size of the content kept in direct buffers, if it's not greater than the heap
+     *                    limit, the content is spilled to a file right after it leaves the heap
+     * @param tempDirectory the directory of the temporary files, or {@code null} for the default temporary directory
+     */
+    public SpillingByteArrayOutputStream(int heapLimit, int directLimit, File tempDirectory) {
+        super(Math.min(Math.max(heapLimit, 0), 32));
+        this.heapLimit = Math.max(heapLimit, 0);
+        this.directLimit = directLimit;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Checks whether the content is kept on the heap.
+     *
+     * @return true, if the content is kept in the byte array of the stream
+     */
+    public boolean isOnHeap() {
+        return directChunks == null && spillChannel == null;
+    }
+
+    /**
+     * Checks whether the content has been spilled to a temporary file.
+     *
+     * @return true, if the content is kept in a temporary file
+     */
+    public boolean isSpilled() {
+        return spillChannel != null;
+    }
+
+    @Override
+    public void write(int b) {
+        if (isOnHeap() && count < heapLimit) {
+            super.write(b);
+            return;
+        }
+        if (isOnHeap() || directChunks != null && offHeapSize >= directLimit) {
+            moveOffHeap(size() + 1);
+        }
+        try {
+            if (directChunks != null) {
+                currentDirectChunk().put((byte) b);
+            } else {
+                if (!spillWriteBuffer.hasRemaining()) {
+                    flushSpillWriteBuffer();
+                }
+                spillWriteBuffer.put((byte) b);
+            }
+        } catch (java.io.IOException e) {
+            throw new com.itextpdf.io.exceptions.IOException(IoExceptionMessageConstant.CANNOT_WRITE_BYTE, e);
+        }
+        offHeapSize++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        long newSize = (long) size() + len;
+        if (newSize > Integer.MAX_VALUE) {
+            throw new com.itextpdf.io.exceptions.IOException(IoExceptionMessageConstant.CANNOT_WRITE_BYTES);
+        }
+        if (isOnHeap() && newSize <= heapLimit) {
+            super.write(b, off, len);
+            return;
+        }
+        if (isOnHeap() || directChunks != null && newSize > directLimit) {
+            moveOffHeap((int) newSize);
+        }
+        try {
+            if (directChunks != null) {
+                writeDirect(b, off, len);
+            } else {
+                writeSpilled(b, off, len);
+            }
+        } catch (java.io.IOException e) {
+            throw new com.itextpdf.io.exceptions.IOException(IoExceptionMessageConstant.CANNOT_WRITE_BYTES, e);
+        }
+        offHeapSize += len;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws java.io.IOException {
+        if (isOnHeap()) {
+            super.writeTo(out);
+            return;
+        }
+        byte[] copyBuffer = new byte[Math.min(COPY_BUFFER_SIZE, offHeapSize)];
+        if (directChunks != null) {
+            for (ByteBuffer chunk : directChunks) {
+                ByteBuffer content = chunk.duplicate();
+                content.flip();
+                copy(content, out, copyBuffer);
+            }
+            return;
+        }
+        flushSpillWriteBuffer();
+        for (long position = 0; position < offHeapSize; position += MAPPED_WINDOW_SIZE) {
+            long length = Math.min(MAPPED_WINDOW_SIZE, offHeapSize - position);
+            ByteBuffer window = spillChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            try {
+                copy(window, out, copyBuffer);
+            } finally {
+                new ByteBufferRandomAccessSource(window).close();
+            }
+        }
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        if (isOnHeap()) {
+            return super.toByteArray();
+        }
+        ArrayOutputStream content = new ArrayOutputStream(new byte[offHeapSize]);
+        try {
+            writeTo(content);
+        } catch (java.io.IOException e) {
+            throw new com.itextpdf.io.exceptions.IOException(IoExceptionMessageConstant.IO_EXCEPTION, e);
+        }
+        return content.bytes;
+    }
+
+    @Override
+    public int size() {
+        return isOnHeap() ? count : offHeapSize;
+    }
+
+    @Override
+    public void reset() {
+        release();
+        super.reset();
+    }
+
+    @Override
+    public ByteArrayOutputStream assignBytes(byte[] bytes, int count) {
+        release();
+        return super.assignBytes(bytes, count);
+    }
+
+    @Override
+    public ByteArrayOutputStream assignBytes(byte[] bytes) {
+        release();
+        return super.assignBytes(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return isOnHeap() ? super.toString() : new String(toByteArray());
+    }
+
+    @Override
+    public String toString(String charsetName) throws UnsupportedEncodingException {
+        return isOnHeap() ? super.toString(charsetName) : new String(toByteArray(), charsetName);
+    }
+
+    /**
+     * Releases the direct buffers and deletes the temporary file. The content of the stream is discarded.
+     */
+    @Override
+    public void close() {
+        release();
+        super.reset();
+    }
+
+    private void moveOffHeap(int newSize) {
+        try {
+            if (isOnHeap()) {
+                if (newSize <= directLimit) {
+                    directChunks = new ArrayList<>();
+                    writeDirect(buf, 0, count);
+                } else {
+                    openSpillFile();
+                    writeSpilled(buf, 0, count);
+                }
+                offHeapSize = count;
+                buf = new byte[0];
+                count = 0;
+            } else {
+                openSpillFile();
+                List<ByteBuffer> chunks = directChunks;
+                directChunks = null;
+                for (ByteBuffer chunk : chunks) {
+                    chunk.flip();
+                    while (chunk.hasRemaining()) {
+                        spillChannel.write(chunk);
+                    }
+                    new ByteBufferRandomAccessSource(chunk).close();
+                }
+            }
+        } catch (java.io.IOException e) {
+            throw new com.itextpdf.io.exceptions.IOException(IoExceptionMessageConstant.CANNOT_WRITE_BYTES, e);
+        }
+    }
+
+    private void openSpillFile() throws java.io.IOException {
+        Path file = tempDirectory == null ? Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX)
+                : Files.createTempFile(tempDirectory.toPath(), TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        spillChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        spillWriteBuffer = ByteBuffer.allocate(FILE_WRITE_BUFFER_SIZE);
+    }
+
+    private ByteBuffer currentDirectChunk() {
+        ByteBuffer chunk = directChunks.isEmpty() ? null : directChunks.get(directChunks.size() - 1);
+        if (chunk == null || !chunk.hasRemaining()) {
+            chunk = ByteBuffer.allocateDirect(DIRECT_CHUNK_SIZE);
+            directChunks.add(chunk);
+        }
+        return chunk;
+    }
+
+    private void writeDirect(byte[] b, int off, int len) {
+        while (len > 0) {
+            ByteBuffer chunk = currentDirectChunk();
+            int length = Math.min(chunk.remaining(), len);
+            chunk.put(b, off, length);
+            off += length;
+            len -= length;
+        }
+    }
+
+    private void writeSpilled(byte[] b, int off, int len) throws java.io.IOException {
+        if (len > spillWriteBuffer.remaining()) {
+            flushSpillWriteBuffer();
+        }
+        if (len < spillWriteBuffer.capacity()) {
+            spillWriteBuffer.put(b, off, len);
+        } else {
+            ByteBuffer content = ByteBuffer.wrap(b, off, len);
+            while (content.hasRemaining()) {
+                spillChannel.write(content);
+            }
+        }
+    }
+
+    private void flushSpillWriteBuffer() throws java.io.IOException {
+        spillWriteBuffer.flip();
+        while (spillWriteBuffer.hasRemaining()) {
+            spillChannel.write(spillWriteBuffer);
+        }
+        spillWriteBuffer.clear();
+    }
+
+    private void release() {
+        List<ByteBuffer> chunks = directChunks;
+        FileChannel channel = spillChannel;
+        directChunks = null;
+        spillChannel = null;
+        spillWriteBuffer = null;
+        offHeapSize = 0;
+        try {
+            if (chunks != null) {
+                for (ByteBuffer chunk : chunks) {
+                    new ByteBufferRandomAccessSource(chunk).close();
+                }
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (java.io.IOException e) {
+            throw new com.itextpdf.io.exceptions.IOException(IoExceptionMessageConstant.IO_EXCEPTION, e);
+        }
+    }
+
+    private static void copy(ByteBuffer content, OutputStream out, byte[] copyBuffer) throws java.io.IOException {
+        while (content.hasRemaining()) {
+            int length = Math.min(content.remaining(), copyBuffer.length);
+            content.get(copyBuffer, 0, length);
+            out.write(copyBuffer, 0, length);
+        }
+    }
+
+    private static final class ArrayOutputStream extends OutputStream {
+        private final byte[] bytes;
+        private int position;
+
+        ArrayOutputStream(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            System.arraycopy(b, off, bytes, position, len);
+            position += len;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map with primitive int keys, intended for glyph codes and Unicode code points.
+ * <p>
+ * Keys from {@code 0} to {@code 0x10FFFF} are stored in a two-level page table, so lookups
+ * neither box the key nor allocate, and dense key ranges take one array slot per key.
+ * Other keys are kept in a regular {@link HashMap}. Iteration goes over the paged keys
+ * in ascending order first. {@code null} values are not stored: putting {@code null}
+ * removes the key.
+ *
+ * @param <V> the type of mapped values
+ */
+public class IntObjectMap<V> extends AbstractMap<Integer, V> {
+
+    private static final int PAGE_BITS = 8;
+
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int MAX_PAGED_KEY = 0x10FFFF;
+
+    private static final Object[][] EMPTY_PAGES = new Object[0][];
+
+    private Object[][] pages = EMPTY_PAGES;
+
+    private Map<Integer, V> overflow;
+
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjectMap() {
+        // Pages are allocated on demand.
+    }
+
+    /**
+     * Creates a map with the same mappings as the specified map.
+     *
+     * @param map the map whose mappings are to be placed in this map
+     */
+    public IntObjectMap(Map<Integer, ? extends V> map) {
+        putAll(map);
+    }
+
+    /**
+     * Gets the value to which the key is mapped.
+     *
+     * @param key the key
+     *
+     * @return the value to which the key is mapped, or {@code null} if there is no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key >= 0 && key <= MAX_PAGED_KEY) {
+            int pageIndex = key >> PAGE_BITS;
+            if (pageIndex < pages.length) {
+                Object[] page = pages[pageIndex];
+                return page != null ? (V) page[key & PAGE_MASK] : null;
+            }
+            return null;
+        }
+        return overflow != null ? overflow.get(key) : null;
+    }
+
+    /**
+     * Checks whether the key is mapped to a value.
+     *
+     * @param key the key
+     *
+     * @return {@code true} if the key is mapped, {@code false} otherwise
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param key   the key
+     * @param value the value, {@code null} removes the mapping
+     *
+     * @return the value previously mapped to the key, or {@code null} if there was no mapping
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            return remove(key);
+        }
+        if (key >= 0 && key <= MAX_PAGED_KEY) {
+            int pageIndex = key >> PAGE_BITS;
+            if (pageIndex >= pages.length) {
+                Object[][] newPages = new Object[pageIndex + 1][];
+                System.arraycopy(pages, 0, newPages, 0, pages.length);
+                pages = newPages;
+            }
+            Object[] page = pages[pageIndex];
+            if (page == null) {
+                page = new Object[PAGE_SIZE];
+                pages[pageIndex] = page;
+            }
+            V previous = (V) page[key & PAGE_MASK];
+            page[key & PAGE_MASK] = value;
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+        if (overflow == null) {
+            overflow = new HashMap<>();
+        }
+        V previous = overflow.put(key, value);
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param key the key
+     *
+     * @return the value previously mapped to the key, or {@code null} if there was no mapping
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        V previous;
+        if (key >= 0 && key <= MAX_PAGED_KEY) {
+            int pageIndex = key >> PAGE_BITS;
+            Object[] page = pageIndex < pages.length ? pages[pageIndex] : null;
+            if (page == null) {
+                return null;
+            }
+            previous = (V) page[key & PAGE_MASK];
+            page[key & PAGE_MASK] = null;
+        } else {
+            previous = overflow != null ? overflow.remove(key) : null;
+        }
+        if (previous != null) {
+            size--;
+        }
+        return previous;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put((int) key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        pages = EMPTY_PAGES;
+        overflow = null;
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Integer, V>> {
+        @Override
+        public Iterator<Map.Entry<Integer, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Integer, V>> {
+        // Position of the next paged key to look at.
+        private int nextKey = 0;
+        private Iterator<Map.Entry<Integer, V>> overflowIterator;
+        private Map.Entry<Integer, V> next;
+        private int lastKey;
+        private boolean canRemove;
+
+        EntryIterator() {
+            next = findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<Integer, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Integer, V> current = next;
+            lastKey = (int) current.getKey();
+            canRemove = true;
+            next = findNext();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            canRemove = false;
+            IntObjectMap.this.remove(lastKey);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map.Entry<Integer, V> findNext() {
+            while (nextKey <= MAX_PAGED_KEY && (nextKey >> PAGE_BITS) < pages.length) {
+                Object[] page = pages[nextKey >> PAGE_BITS];
+                if (page == null) {
+                    nextKey += PAGE_SIZE;
+                    continue;
+                }
+                int key = nextKey++;
+                Object value = page[key & PAGE_MASK];
+                if (value != null) {
+                    return new Entry(key, (V) value);
+                }
+            }
+            if (overflowIterator == null) {
+                if (overflow == null) {
+                    return null;
+                }
+                // Iterating over a copy, since the next entry is looked up before the current one may be removed.
+                overflowIterator = new ArrayList<>(overflow.entrySet()).iterator();
+            }
+            if (overflowIterator.hasNext()) {
+                Map.Entry<Integer, V> entry = overflowIterator.next();
+                return new Entry(entry.getKey(), entry.getValue());
+            }
+            return null;
+        }
+    }
+
+    private final class Entry implements Map.Entry<Integer, V> {
+        private final int key;
+        private V value;
+
+        Entry(int key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (value == null) {
+                throw new IllegalArgumentException();
+            }
+            put(key, value);
+            V previous = this.value;
+            this.value = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return getKey().equals(entry.getKey()) && value.equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
@@ -22,10 +22,14 @@
  */
 package com.itextpdf.io.font;
 
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.io.font.otf.Glyph;
 import com.itextpdf.test.ExtendedITextTest;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +43,11 @@ public class FontCacheTest extends ExtendedITextTest {
         FontCache.clearSavedFonts();
     }
 
+    @AfterEach
+    public void after() {
+        FontCache.setFontProgramCache(new BoundedFontProgramCache());
+    }
+
     @Test
     public void clearFontCacheTest() {
         String fontName = "FreeSans.ttf";
@@ -93,6 +102,170 @@ public class FontCacheTest extends ExtendedITextTest {
         Assertions.assertEquals(normalMockFontProgram, FontCache.getFont(normal));
     }
 
+    @Test
+    public void boundedCacheEvictsLeastRecentlyUsedFontTest() {
+        FontProgram first = new FontProgramMock();
+        FontProgram second = new FontProgramMock();
+        FontProgram third = new FontProgramMock();
+        long fontWeight = BoundedFontProgramCache.getWeight(first);
+        BoundedFontProgramCache cache = new BoundedFontProgramCache(2 * fontWeight);
+        FontCache.setFontProgramCache(cache);
+
+        FontCache.saveFont(first, "first");
+        FontCache.saveFont(second, "second");
+        Assertions.assertEquals(first, FontCache.getFont("first"));
+        FontCache.saveFont(third, "third");
+
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(2 * fontWeight, cache.getWeight());
+        Assertions.assertNull(FontCache.getFont("second"));
+        Assertions.assertEquals(first, FontCache.getFont("first"));
+        Assertions.assertEquals(third, FontCache.getFont("third"));
+        Assertions.assertEquals(3, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void boundedCacheSkipsTooHeavyFontTest() {
+        FontProgram fontProgram = new FontProgramMock();
+        BoundedFontProgramCache cache = new BoundedFontProgramCache(BoundedFontProgramCache.getWeight(fontProgram) - 1);
+        FontCache.setFontProgramCache(cache);
+
+        Assertions.assertEquals(fontProgram, FontCache.saveFont(fontProgram, "font"));
+        Assertions.assertNull(FontCache.getFont("font"));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void fontIsLoadedOnceByConcurrentThreadsTest() throws Exception {
+        BoundedFontProgramCache cache = new BoundedFontProgramCache();
+        FontCache.setFontProgramCache(cache);
+        FontCacheKey key = FontCacheKey.create("concurrent");
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FontProgram[] loaded = new FontProgram[2];
+
+        Thread loader = new Thread(() -> {
+            try {
+                loaded[0] = FontCache.getOrLoadFont(key, () -> {
+                    loadCount.incrementAndGet();
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new java.io.IOException(e);
+                    }
+                    return new FontProgramMock();
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        loader.start();
+        loading.await();
+        Thread waiter = new Thread(() -> {
+            try {
+                loaded[1] = FontCache.getOrLoadFont(key, () -> {
+                    loadCount.incrementAndGet();
+                    return new FontProgramMock();
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        waiter.start();
+        release.countDown();
+        loader.join();
+        waiter.join();
+
+        Assertions.assertEquals(1, loadCount.get());
+        Assertions.assertNotNull(loaded[0]);
+        Assertions.assertSame(loaded[0], loaded[1]);
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void heavyFontIsLoadedOnceByConcurrentThreadsTest() throws Exception {
+        BoundedFontProgramCache cache = new BoundedFontProgramCache(0);
+        FontCache.setFontProgramCache(cache);
+        FontCacheKey key = FontCacheKey.create("heavy");
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FontProgram[] loaded = new FontProgram[2];
+
+        Thread loader = new Thread(() -> {
+            try {
+                loaded[0] = FontCache.getOrLoadFont(key, () -> {
+                    loadCount.incrementAndGet();
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new java.io.IOException(e);
+                    }
+                    return new FontProgramMock();
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        loader.start();
+        loading.await();
+        Thread waiter = new Thread(() -> {
+            try {
+                loaded[1] = FontCache.getOrLoadFont(key, () -> {
+                    loadCount.incrementAndGet();
+                    return new FontProgramMock();
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        waiter.start();
+        // the font program is too heavy to be cached, so it is shared only with the thread waiting for the loading
+        while (waiter.getState() != Thread.State.BLOCKED) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        loader.join();
+        waiter.join();
+
+        Assertions.assertEquals(1, loadCount.get());
+        Assertions.assertNotNull(loaded[0]);
+        Assertions.assertSame(loaded[0], loaded[1]);
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void nullFontProgramCacheResetsToDefaultTest() {
+        FontCache.setFontProgramCache(null);
+        Assertions.assertTrue(FontCache.getFontProgramCache() instanceof BoundedFontProgramCache);
+
+        FontProgram fontProgram = new FontProgramMock();
+        FontCache.saveFont(fontProgram, "font");
+        Assertions.assertEquals(fontProgram, FontCache.getFont("font"));
+    }
+
+    @Test
+    public void factoryUsesFontProgramCacheTest() throws java.io.IOException {
+        BoundedFontProgramCache cache = new BoundedFontProgramCache();
+        FontCache.setFontProgramCache(cache);
+
+        FontProgram fontProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA, true);
+        Assertions.assertSame(fontProgram, FontProgramFactory.createFont(StandardFonts.HELVETICA, true));
+        Assertions.assertNotSame(fontProgram, FontProgramFactory.createFont(StandardFonts.HELVETICA, false));
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertTrue(cache.getWeight() > 0);
+    }
+
     private static class FontProgramMock extends FontProgram {
 
         @Override
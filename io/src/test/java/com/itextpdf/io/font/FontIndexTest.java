@@ -0,0 +1,228 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.commons.utils.FileUtil;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class FontIndexTest extends ExtendedITextTest {
+
+    private static final String SOURCE_FOLDER = "./src/test/resources/com/itextpdf/io/font/otf/";
+    private static final String DESTINATION_FOLDER = "./target/test/com/itextpdf/io/font/FontIndexTest/";
+
+    @BeforeEach
+    public void setUp() {
+        createOrClearDestinationFolder(DESTINATION_FOLDER);
+    }
+
+    @Test
+    public void indexedDescriptorIsRestoredTest() throws Exception {
+        String fontPath = copyFont("FreeSansBold.ttf", "indexedDescriptorIsRestored.ttf");
+        String indexPath = DESTINATION_FOLDER + "indexedDescriptorIsRestored.idx";
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        FontProgramDescriptor parsed = fontIndex.fetchDescriptor(fontPath);
+        fontIndex.save();
+
+        FontProgramDescriptor restored = FontIndex.load(indexPath).fetchDescriptor(fontPath);
+        Assertions.assertNotSame(parsed, restored);
+        Assertions.assertEquals(parsed.getFontName(), restored.getFontName());
+        Assertions.assertEquals(parsed.getFontNameLowerCase(), restored.getFontNameLowerCase());
+        Assertions.assertEquals(parsed.getFullNameLowerCase(), restored.getFullNameLowerCase());
+        Assertions.assertEquals(parsed.getFamilyNameLowerCase(), restored.getFamilyNameLowerCase());
+        Assertions.assertEquals(parsed.getFamilyName2LowerCase(), restored.getFamilyName2LowerCase());
+        Assertions.assertEquals(parsed.getStyle(), restored.getStyle());
+        Assertions.assertEquals(parsed.getFontWeight(), restored.getFontWeight());
+        Assertions.assertEquals(parsed.getItalicAngle(), restored.getItalicAngle());
+        Assertions.assertEquals(parsed.isMonospace(), restored.isMonospace());
+        Assertions.assertEquals(parsed.isBold(), restored.isBold());
+        Assertions.assertEquals(parsed.isItalic(), restored.isItalic());
+        Assertions.assertEquals(parsed.getFamilyNameEnglishOpenType(), restored.getFamilyNameEnglishOpenType());
+        Assertions.assertEquals(parsed.getFullNameAllLangs(), restored.getFullNameAllLangs());
+        Assertions.assertEquals(parsed.getFullNamesEnglishOpenType(), restored.getFullNamesEnglishOpenType());
+    }
+
+    @Test
+    public void unchangedFontIsNotParsedTest() throws Exception {
+        String fontPath = copyFont("FreeSansBold.ttf", "unchangedFontIsNotParsed.ttf");
+        String indexPath = DESTINATION_FOLDER + "unchangedFontIsNotParsed.idx";
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        Assertions.assertNotNull(fontIndex.fetchDescriptor(fontPath));
+        fontIndex.save();
+
+        // Same size and modification time, but the content is not a font anymore.
+        File fontFile = new File(fontPath);
+        long lastModified = fontFile.lastModified();
+        int length = (int) fontFile.length();
+        try (OutputStream os = FileUtil.getFileOutputStream(fontPath)) {
+            os.write(new byte[length]);
+        }
+        Assertions.assertTrue(fontFile.setLastModified(lastModified));
+
+        FontProgramDescriptor descriptor = FontIndex.load(indexPath).fetchDescriptor(fontPath);
+        Assertions.assertNotNull(descriptor);
+        Assertions.assertEquals("FreeSansBold", descriptor.getFontName());
+    }
+
+    @Test
+    public void changedFontIsParsedAgainTest() throws Exception {
+        String fontPath = copyFont("FreeSansBold.ttf", "changedFontIsParsedAgain.ttf");
+        String indexPath = DESTINATION_FOLDER + "changedFontIsParsedAgain.idx";
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        Assertions.assertEquals("FreeSansBold", fontIndex.fetchDescriptor(fontPath).getFontName());
+        fontIndex.save();
+
+        copyFont("FreeSans.ttf", "changedFontIsParsedAgain.ttf");
+
+        Assertions.assertEquals("FreeSans", FontIndex.load(indexPath).fetchDescriptor(fontPath).getFontName());
+    }
+
+    @Test
+    public void removedFontIsDroppedOnSaveTest() throws Exception {
+        String fontPath = copyFont("FreeSans.ttf", "removedFontIsDroppedOnSave.ttf");
+        String indexPath = DESTINATION_FOLDER + "removedFontIsDroppedOnSave.idx";
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        fontIndex.fetchDescriptor(fontPath);
+        fontIndex.save();
+        Assertions.assertEquals(1, FontIndex.load(indexPath).size());
+
+        Assertions.assertTrue(new File(fontPath).delete());
+        fontIndex = FontIndex.load(indexPath);
+        fontIndex.save();
+        Assertions.assertEquals(0, FontIndex.load(indexPath).size());
+    }
+
+    @Test
+    public void brokenIndexIsRebuiltTest() throws Exception {
+        String fontPath = copyFont("FreeSans.ttf", "brokenIndexIsRebuilt.ttf");
+        String indexPath = DESTINATION_FOLDER + "brokenIndexIsRebuilt.idx";
+        try (OutputStream os = FileUtil.getFileOutputStream(indexPath)) {
+            os.write(new byte[] {1, 2, 3});
+        }
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        Assertions.assertEquals(0, fontIndex.size());
+        Assertions.assertEquals("FreeSans", fontIndex.fetchDescriptor(fontPath).getFontName());
+        fontIndex.save();
+        Assertions.assertEquals(1, FontIndex.load(indexPath).size());
+    }
+
+    @Test
+    public void builtinFontIsNotIndexedTest() {
+        FontIndex fontIndex = FontIndex.load(DESTINATION_FOLDER + "builtinFontIsNotIndexed.idx");
+        Assertions.assertEquals("Helvetica", fontIndex.fetchDescriptor("Helvetica").getFontName());
+        Assertions.assertEquals(0, fontIndex.size());
+    }
+
+    @Test
+    public void unchangedCollectionIsNotParsedTest() throws Exception {
+        String collectionFolder = DESTINATION_FOLDER + "unchangedCollectionIsNotParsed/";
+        createOrClearDestinationFolder(collectionFolder);
+        String ttcPath = createCollection(collectionFolder + "collection.ttc", "FreeSans.ttf", "FreeSansBold.ttf");
+        String indexPath = DESTINATION_FOLDER + "unchangedCollectionIsNotParsed.idx";
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        FontRegisterProvider provider = new FontRegisterProvider();
+        Assertions.assertEquals(1, provider.registerFontDirectory(collectionFolder, false, fontIndex));
+        Assertions.assertTrue(provider.isRegisteredFont("freesansbold"));
+        fontIndex.save();
+
+        // Same size and modification time, but the content is not a collection anymore.
+        File ttcFile = new File(ttcPath);
+        long lastModified = ttcFile.lastModified();
+        int length = (int) ttcFile.length();
+        try (OutputStream os = FileUtil.getFileOutputStream(ttcPath)) {
+            os.write(new byte[length]);
+        }
+        Assertions.assertTrue(ttcFile.setLastModified(lastModified));
+
+        fontIndex = FontIndex.load(indexPath);
+        Assertions.assertEquals(2, fontIndex.fetchCollectionSize(ttcFile.getAbsolutePath()));
+        provider = new FontRegisterProvider();
+        provider.registerFontDirectory(collectionFolder, false, fontIndex);
+        Assertions.assertTrue(provider.isRegisteredFont("freesans"));
+        Assertions.assertTrue(provider.isRegisteredFont("freesansbold"));
+    }
+
+    @Test
+    public void changedCollectionIsParsedAgainTest() throws Exception {
+        String ttcPath = createCollection(DESTINATION_FOLDER + "changedCollectionIsParsedAgain.ttc", "FreeSans.ttf");
+        String indexPath = DESTINATION_FOLDER + "changedCollectionIsParsedAgain.idx";
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        Assertions.assertEquals(1, fontIndex.fetchCollectionSize(ttcPath));
+        fontIndex.save();
+
+        createCollection(ttcPath, "FreeSans.ttf", "FreeSansBold.ttf");
+
+        Assertions.assertEquals(2, FontIndex.load(indexPath).fetchCollectionSize(ttcPath));
+    }
+
+    private static String createCollection(String ttcPath, String... sourceNames) throws Exception {
+        byte[][] fonts = new byte[sourceNames.length][];
+        int offset = 12 + 4 * sourceNames.length;
+        ByteBuffer header = ByteBuffer.allocate(offset);
+        header.put("ttcf".getBytes(StandardCharsets.US_ASCII)).putInt(0x00010000).putInt(sourceNames.length);
+        for (int i = 0; i < sourceNames.length; i++) {
+            fonts[i] = Files.readAllBytes(Paths.get(SOURCE_FOLDER + sourceNames[i]));
+            // The table offsets of a font in a collection are counted from the beginning of the collection.
+            ByteBuffer font = ByteBuffer.wrap(fonts[i]);
+            int numTables = font.getShort(4) & 0xffff;
+            for (int table = 0; table < numTables; table++) {
+                int recordOffset = 12 + 16 * table + 8;
+                font.putInt(recordOffset, font.getInt(recordOffset) + offset);
+            }
+            header.putInt(offset);
+            offset += fonts[i].length;
+        }
+        try (OutputStream os = FileUtil.getFileOutputStream(ttcPath)) {
+            os.write(header.array());
+            for (byte[] font : fonts) {
+                os.write(font);
+            }
+        }
+        return ttcPath;
+    }
+
+    private static String copyFont(String sourceName, String destinationName) throws Exception {
+        String fontPath = DESTINATION_FOLDER + destinationName;
+        Files.copy(Paths.get(SOURCE_FOLDER + sourceName), Paths.get(fontPath), StandardCopyOption.REPLACE_EXISTING);
+        return fontPath;
+    }
+}
@@ -22,6 +22,8 @@
  */
 package com.itextpdf.io.font;
 
+import com.itextpdf.io.exceptions.IoExceptionMessageConstant;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.io.font.otf.Glyph;
 import com.itextpdf.test.ExtendedITextTest;
 
@@ -39,6 +41,7 @@ import org.junit.jupiter.api.Tag;
 @Tag("UnitTest")
 public class TrueTypeFontTest extends ExtendedITextTest {
     private static final String SOURCE_FOLDER = "./src/test/resources/com/itextpdf/io/font/sharedFontsResourceFiles/";
+    private static final String OTF_SOURCE_FOLDER = "./src/test/resources/com/itextpdf/io/font/otf/";
 
     @Test
     public void notoSansJpCmapTest() throws IOException, InterruptedException {
@@ -109,6 +112,91 @@ public class TrueTypeFontTest extends ExtendedITextTest {
         checkCmapTableEntry(fontProgram, 'i', 3);
     }
 
+    @Test
+    public void mappedFontMatchesEagerlyParsedFontTest() throws IOException {
+        TrueTypeFont eagerFont = new TrueTypeFont(OTF_SOURCE_FOLDER + "FreeSans.ttf");
+        TrueTypeFont mappedFont = TrueTypeFont.createMappedFont(OTF_SOURCE_FOLDER + "FreeSans.ttf");
+        Assertions.assertFalse(eagerFont.isMapped());
+        Assertions.assertTrue(mappedFont.isMapped());
+
+        Glyph first = mappedFont.getGlyph('A');
+        Glyph second = mappedFont.getGlyph('V');
+        Assertions.assertEquals(eagerFont.hasKernPairs(), mappedFont.hasKernPairs());
+        Assertions.assertEquals(eagerFont.getKerning(eagerFont.getGlyph('A'), eagerFont.getGlyph('V')),
+                mappedFont.getKerning(first, second));
+        Assertions.assertEquals(eagerFont.getGsubTable() == null, mappedFont.getGsubTable() == null);
+        Assertions.assertEquals(eagerFont.getGposTable() == null, mappedFont.getGposTable() == null);
+        Assertions.assertNotNull(mappedFont.getGdefTable());
+
+        Set<Integer> glyphs = new HashSet<>(Arrays.asList(first.getCode(), second.getCode()));
+        Assertions.assertArrayEquals(eagerFont.getSubset(glyphs, true), mappedFont.getSubset(glyphs, true));
+        Assertions.assertArrayEquals(eagerFont.getFontStreamBytes(), mappedFont.getFontStreamBytes());
+        mappedFont.close();
+    }
+
+    @Test
+    public void mappedCffFontStreamTest() throws IOException {
+        TrueTypeFont eagerFont = new TrueTypeFont(SOURCE_FOLDER + "Puritan2.otf");
+        TrueTypeFont mappedFont = TrueTypeFont.createMappedFont(SOURCE_FOLDER + "Puritan2.otf");
+        Assertions.assertTrue(mappedFont.isCff());
+        byte[] fontStream = mappedFont.getFontStreamBytes();
+        Assertions.assertArrayEquals(eagerFont.getFontStreamBytes(), fontStream);
+        // the 'CFF' table is copied out of the mapping only once
+        Assertions.assertSame(fontStream, mappedFont.getFontStreamBytes());
+        mappedFont.close();
+        Assertions.assertSame(fontStream, mappedFont.getFontStreamBytes());
+    }
+
+    @Test
+    public void closedMappedFontStreamCannotBeReadTest() throws IOException {
+        TrueTypeFont mappedFont = TrueTypeFont.createMappedFont(OTF_SOURCE_FOLDER + "FreeSans.ttf");
+        Set<Integer> glyphs = new HashSet<>(Arrays.asList(mappedFont.getGlyph('A').getCode()));
+        mappedFont.close();
+        Exception e = Assertions.assertThrows(com.itextpdf.io.exceptions.IOException.class,
+                () -> mappedFont.getFontStreamBytes());
+        Assertions.assertEquals(IoExceptionMessageConstant.ALREADY_CLOSED, e.getMessage());
+        e = Assertions.assertThrows(com.itextpdf.io.exceptions.IOException.class,
+                () -> mappedFont.getSubset(glyphs, true));
+        Assertions.assertEquals(IoExceptionMessageConstant.ALREADY_CLOSED, e.getMessage());
+    }
+
+    @Test
+    public void closedMappedFontKeepsLayoutTablesTest() throws IOException {
+        TrueTypeFont mappedFont = TrueTypeFont.createMappedFont(OTF_SOURCE_FOLDER + "FreeSans.ttf");
+        mappedFont.close();
+        Assertions.assertNotNull(mappedFont.getGdefTable());
+        Assertions.assertNotNull(mappedFont.getGsubTable());
+    }
+
+    @Test
+    public void createMappedFontThroughFactoryTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createMappedFont(OTF_SOURCE_FOLDER + "FreeSans.ttf", false);
+        Assertions.assertTrue(fontProgram instanceof TrueTypeFont);
+        Assertions.assertTrue(((TrueTypeFont) fontProgram).isMapped());
+
+        FontProgram standardFont = FontProgramFactory.createMappedFont(StandardFonts.HELVETICA, false);
+        Assertions.assertTrue(standardFont instanceof Type1Font);
+    }
+
+    @Test
+    public void cachedMappedAndReadFontsAreNotMixedTest() throws IOException {
+        String fontPath = OTF_SOURCE_FOLDER + "FreeSans.ttf";
+        FontCache.clearSavedFonts();
+        TrueTypeFont readFont = (TrueTypeFont) FontProgramFactory.createFont(fontPath, true);
+        TrueTypeFont mappedFont = (TrueTypeFont) FontProgramFactory.createMappedFont(fontPath, true);
+        Assertions.assertFalse(readFont.isMapped());
+        Assertions.assertTrue(mappedFont.isMapped());
+        Assertions.assertSame(readFont, FontProgramFactory.createFont(fontPath, true));
+        Assertions.assertSame(mappedFont, FontProgramFactory.createMappedFont(fontPath, true));
+
+        FontCache.clearSavedFonts();
+        mappedFont = (TrueTypeFont) FontProgramFactory.createMappedFont(fontPath, true);
+        readFont = (TrueTypeFont) FontProgramFactory.createFont(fontPath, true);
+        Assertions.assertTrue(mappedFont.isMapped());
+        Assertions.assertFalse(readFont.isMapped());
+        FontCache.clearSavedFonts();
+    }
+
     private void checkCmapTableEntry(FontProgram fontProgram, char uniChar, int expectedGlyphId) {
 
         Glyph glyph = fontProgram.getGlyph(uniChar);
@@ -0,0 +1,158 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.ExtendedITextTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Tag("UnitTest")
+public class ConcurrentChannelRandomAccessSourceTest extends ExtendedITextTest {
+
+    private final static String SOURCE_FILE = "./src/test/resources/com/itextpdf/io/source/RAF.txt";
+
+    private final static byte[] CONTENT = new byte[] {72, 101, 108, 108, 111, 44, 32, 119, 111, 114, 108, 100, 33};
+
+    @Test
+    public void readBytesAcrossPagesTest() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(SOURCE_FILE, "r")) {
+            ConcurrentChannelRandomAccessSource source = new ConcurrentChannelRandomAccessSource(raf.getChannel(), 3);
+            byte[] result = new byte[13];
+            Assertions.assertEquals(13, source.get(0, result, 0, 13));
+            Assertions.assertArrayEquals(CONTENT, result);
+
+            byte[] expected = new byte[] {111, 44, 32, 119, 111, 114, 108, 100};
+            result = new byte[8];
+            Assertions.assertEquals(8, source.get(4, result, 0, 8));
+            Assertions.assertArrayEquals(expected, result);
+
+            result = new byte[10];
+            Assertions.assertEquals(3, source.get(10, result, 2, 8));
+            Assertions.assertEquals(108, result[2]);
+            Assertions.assertEquals(33, result[4]);
+            Assertions.assertEquals(-1, source.get(13, result, 0, 1));
+        }
+    }
+
+    @Test
+    public void readIntTest() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(SOURCE_FILE, "r")) {
+            ConcurrentChannelRandomAccessSource source = new ConcurrentChannelRandomAccessSource(raf.getChannel(), 4);
+            Assertions.assertEquals(13, source.length());
+            Assertions.assertEquals(72, source.get(0));
+            Assertions.assertEquals(44, source.get(5));
+            Assertions.assertEquals(33, source.get(12));
+            Assertions.assertEquals(100, source.get(11));
+            Assertions.assertEquals(-1, source.get(13));
+        }
+    }
+
+    @Test
+    public void concurrentReadsTest() throws IOException, InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (RandomAccessFile raf = new RandomAccessFile(SOURCE_FILE, "r")) {
+            final ConcurrentChannelRandomAccessSource source =
+                    new ConcurrentChannelRandomAccessSource(raf.getChannel(), 2);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                final int shift = i;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws IOException {
+                        byte[] buffer = new byte[CONTENT.length];
+                        for (int j = 0; j < 1000; j++) {
+                            int position = (shift + j) % CONTENT.length;
+                            if (source.get(position) != CONTENT[position]) {
+                                return false;
+                            }
+                            int read = source.get(position, buffer, 0, buffer.length);
+                            for (int k = 0; k < read; k++) {
+                                if (buffer[k] != CONTENT[position + k]) {
+                                    return false;
+                                }
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void readAfterCloseTest() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(SOURCE_FILE, "r");
+        FileChannel channel = raf.getChannel();
+        ConcurrentChannelRandomAccessSource source = new ConcurrentChannelRandomAccessSource(channel, 4);
+        source.close();
+        Assertions.assertFalse(channel.isOpen());
+        Assertions.assertThrows(IllegalStateException.class, () -> source.get(5));
+        raf.close();
+    }
+
+    @Test
+    public void factoryCreatesConcurrentSourceTest() throws IOException {
+        IRandomAccessSource source = new RandomAccessSourceFactory().setConcurrentReads(true)
+                .createBestSource(SOURCE_FILE);
+        try {
+            Assertions.assertTrue(source instanceof ConcurrentChannelRandomAccessSource);
+            RandomAccessFileOrArray file = new RandomAccessFileOrArray(source);
+            RandomAccessFileOrArray view = file.createView();
+            Assertions.assertEquals(72, view.read());
+            Assertions.assertEquals(72, file.read());
+            Assertions.assertEquals(101, view.read());
+        } finally {
+            source.close();
+        }
+    }
+
+    @Test
+    public void factoryCreatesConcurrentSourceRegardlessOfSettingsTest() throws IOException {
+        IRandomAccessSource source = new RandomAccessSourceFactory().setForceRead(true)
+                .createConcurrentSource(SOURCE_FILE);
+        try {
+            Assertions.assertTrue(source instanceof ConcurrentChannelRandomAccessSource);
+            Assertions.assertEquals(CONTENT.length, source.length());
+        } finally {
+            source.close();
+        }
+        Assertions.assertNull(new RandomAccessSourceFactory().createConcurrentSource(SOURCE_FILE + ".missing"));
+    }
+}
@@ -626,6 +626,60 @@ public class PdfTokenizerTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    public void readWindowTokensTest() throws IOException {
+        StringBuilder data = new StringBuilder("%PDF-1.7\n% comment\r\n");
+        for (int i = 0; data.length() < RandomAccessFileOrArray.READ_WINDOW_SIZE * 3; i++) {
+            // names, numbers, keywords and comments cross the window boundaries at different offsets
+            data.append(i).append(" 0 obj\n<</Name").append(i).append(" /Type/Page /Kids [").append(i)
+                    .append(" 0 R] /V ").append(i % 7 == 0 ? "-" : "").append(i).append(".5 /S (str")
+                    .append(i).append(")>>\nendobj % ").append(i).append('\n');
+        }
+        data.append("/LastName");
+        byte[] bytes = data.toString().getBytes(StandardCharsets.ISO_8859_1);
+        PdfTokenizer expected = new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(bytes)));
+        PdfTokenizer actual = new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(bytes)).enableReadWindow());
+        int tokens = 0;
+        while (expected.nextToken()) {
+            Assertions.assertTrue(actual.nextToken());
+            Assertions.assertEquals(expected.getTokenType(), actual.getTokenType());
+            Assertions.assertArrayEquals(expected.getByteContent(), actual.getByteContent());
+            Assertions.assertEquals(expected.getPosition(), actual.getPosition());
+            Assertions.assertEquals(expected.peek(), actual.peek());
+            tokens++;
+        }
+        Assertions.assertFalse(actual.nextToken());
+        Assertions.assertEquals(expected.getPosition(), actual.getPosition());
+        Assertions.assertTrue(tokens > 1000);
+    }
+
+    @Test
+    public void readWindowSeekAndPushBackTest() throws IOException {
+        byte[] bytes = new byte[RandomAccessFileOrArray.READ_WINDOW_SIZE * 2 + 10];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        RandomAccessFileOrArray file = new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(bytes)).enableReadWindow();
+        file.seek(RandomAccessFileOrArray.READ_WINDOW_SIZE - 1);
+        Assertions.assertEquals(bytes[RandomAccessFileOrArray.READ_WINDOW_SIZE - 1] & 0xff, file.read());
+        Assertions.assertEquals(bytes[RandomAccessFileOrArray.READ_WINDOW_SIZE] & 0xff, file.peek());
+        file.pushBack((byte) 7);
+        Assertions.assertEquals(RandomAccessFileOrArray.READ_WINDOW_SIZE - 1, file.getPosition());
+        Assertions.assertEquals(7, file.read());
+        file.seek(3);
+        Assertions.assertEquals(3, file.read());
+        byte[] read = new byte[4];
+        file.readFully(read);
+        Assertions.assertArrayEquals(new byte[] {4, 5, 6, 7}, read);
+        file.seek(bytes.length - 1);
+        Assertions.assertEquals(bytes[bytes.length - 1] & 0xff, file.read());
+        Assertions.assertEquals(-1, file.read());
+        Assertions.assertEquals(-1, file.peek());
+    }
+
     private void checkTokenValues(String data, byte[]... expectedValues) throws Exception {
         RandomAccessSourceFactory factory = new RandomAccessSourceFactory();
         PdfTokenizer tok = new PdfTokenizer(new RandomAccessFileOrArray(factory
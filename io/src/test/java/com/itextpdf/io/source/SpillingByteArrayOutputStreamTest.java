@@ -0,0 +1,139 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class SpillingByteArrayOutputStreamTest extends ExtendedITextTest {
+
+    private static final String DESTINATION_FOLDER =
+            "./target/test/com/itextpdf/io/source/SpillingByteArrayOutputStreamTest/";
+
+    @BeforeAll
+    public static void beforeClass() {
+        createOrClearDestinationFolder(DESTINATION_FOLDER);
+    }
+
+    @Test
+    public void smallContentStaysOnHeapTest() throws IOException {
+        SpillingByteArrayOutputStream stream = new SpillingByteArrayOutputStream(16, 32);
+        byte[] content = createContent(16);
+        stream.write(content, 0, content.length);
+        Assertions.assertTrue(stream.isOnHeap());
+        Assertions.assertEquals(16, stream.size());
+        Assertions.assertArrayEquals(content, stream.toByteArray());
+        Assertions.assertArrayEquals(content, writeToArray(stream));
+    }
+
+    @Test
+    public void mediumContentMovesToDirectBuffersTest() throws IOException {
+        SpillingByteArrayOutputStream stream = new SpillingByteArrayOutputStream(16, 4 * 1024 * 1024);
+        byte[] content = createContent(3 * 1024 * 1024 + 5);
+        stream.write(content, 0, 10);
+        stream.write(content[10]);
+        stream.write(content, 11, content.length - 11);
+        Assertions.assertFalse(stream.isOnHeap());
+        Assertions.assertFalse(stream.isSpilled());
+        Assertions.assertEquals(content.length, stream.size());
+        Assertions.assertArrayEquals(content, stream.toByteArray());
+        Assertions.assertArrayEquals(content, writeToArray(stream));
+    }
+
+    @Test
+    public void largeContentIsSpilledToFileTest() throws IOException {
+        File tempDirectory = new File(DESTINATION_FOLDER + "largeContentIsSpilledToFile");
+        createOrClearDestinationFolder(tempDirectory.getPath());
+        SpillingByteArrayOutputStream stream = new SpillingByteArrayOutputStream(16, 1024, tempDirectory);
+        byte[] content = createContent(200 * 1024 + 3);
+        int position = 0;
+        for (int length = 1; position < content.length; length = length * 2 + 1) {
+            length = Math.min(length, content.length - position);
+            stream.write(content, position, length);
+            position += length;
+            if (position < content.length) {
+                // single bytes are written on every stage
+                stream.write(content[position++]);
+            }
+        }
+        Assertions.assertTrue(stream.isSpilled());
+        Assertions.assertEquals(position, stream.size());
+        Assertions.assertArrayEquals(content, stream.toByteArray());
+        Assertions.assertArrayEquals(content, writeToArray(stream));
+
+        stream.close();
+        Assertions.assertEquals(0, stream.size());
+        Assertions.assertEquals(0, tempDirectory.listFiles().length);
+    }
+
+    @Test
+    public void resetReleasesContentTest() throws IOException {
+        SpillingByteArrayOutputStream stream = new SpillingByteArrayOutputStream(16, 16);
+        byte[] content = createContent(100);
+        stream.write(content, 0, content.length);
+        Assertions.assertTrue(stream.isSpilled());
+        stream.reset();
+        Assertions.assertTrue(stream.isOnHeap());
+        Assertions.assertEquals(0, stream.size());
+        stream.write(content, 0, 8);
+        Assertions.assertTrue(stream.isOnHeap());
+        Assertions.assertArrayEquals(createContent(8), stream.toByteArray());
+    }
+
+    @Test
+    public void assignBytesReleasesContentTest() throws IOException {
+        SpillingByteArrayOutputStream stream = new SpillingByteArrayOutputStream(16, 64);
+        byte[] content = createContent(100);
+        stream.write(content, 0, 50);
+        Assertions.assertFalse(stream.isOnHeap());
+        stream.assignBytes(content, 20);
+        Assertions.assertTrue(stream.isOnHeap());
+        Assertions.assertArrayEquals(createContent(20), stream.toByteArray());
+        // the assigned bytes are moved out of the heap as soon as the content grows
+        stream.write(content, 20, 80);
+        Assertions.assertTrue(stream.isSpilled());
+        Assertions.assertArrayEquals(content, stream.toByteArray());
+        stream.close();
+    }
+
+    private static byte[] writeToArray(ByteArrayOutputStream stream) throws IOException {
+        java.io.ByteArrayOutputStream result = new java.io.ByteArrayOutputStream();
+        stream.writeTo(result);
+        return result.toByteArray();
+    }
+
+    private static byte[] createContent(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31 + i / 256);
+        }
+        return content;
+    }
+}
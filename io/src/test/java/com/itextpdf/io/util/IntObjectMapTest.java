@@ -0,0 +1,127 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.io.util;
+
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class IntObjectMapTest extends ExtendedITextTest {
+
+    @Test
+    public void putGetRemoveTest() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Assertions.assertNull(map.put(0x41, "A"));
+        Assertions.assertNull(map.put(0x1F600, "smile"));
+        Assertions.assertEquals("A", map.put(0x41, "a"));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals("a", map.get(0x41));
+        Assertions.assertEquals("smile", map.get((Object) 0x1F600));
+        Assertions.assertNull(map.get(0x42));
+        Assertions.assertNull(map.get(0x20000));
+        Assertions.assertTrue(map.containsKey(0x1F600));
+        Assertions.assertFalse(map.containsKey("A"));
+
+        Assertions.assertEquals("a", map.remove(0x41));
+        Assertions.assertNull(map.remove(0x41));
+        Assertions.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void keysOutOfPagedRangeTest() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(-1, "minus one");
+        map.put(Integer.MAX_VALUE, "max");
+        map.put(0x10FFFF, "last code point");
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals("minus one", map.get(-1));
+        Assertions.assertEquals("max", map.get(Integer.MAX_VALUE));
+        Assertions.assertEquals("last code point", map.get(0x10FFFF));
+        Assertions.assertEquals("max", map.remove(Integer.MAX_VALUE));
+        Assertions.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void putNullRemovesKeyTest() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(7, "seven");
+        Assertions.assertEquals("seven", map.put(7, null));
+        Assertions.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void iterationGoesInAscendingOrderTest() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        int[] keys = {70000, 3, 256, 255, 0, 65535};
+        for (int key : keys) {
+            map.put(key, String.valueOf(key));
+        }
+        List<Integer> iterated = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : map.entrySet()) {
+            Assertions.assertEquals(String.valueOf(entry.getKey()), entry.getValue());
+            iterated.add(entry.getKey());
+        }
+        Assertions.assertEquals(Arrays.asList(0, 3, 255, 256, 65535, 70000), iterated);
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key = -5; key < 600; key++) {
+            map.put(key, String.valueOf(key));
+        }
+        Iterator<String> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            if (Integer.parseInt(iterator.next()) % 2 != 0) {
+                iterator.remove();
+            }
+        }
+        Assertions.assertEquals(302, map.size());
+        for (int key = -5; key < 600; key++) {
+            Assertions.assertEquals(key % 2 == 0, map.containsKey(key));
+        }
+    }
+
+    @Test
+    public void equalsHashMapTest() {
+        Map<Integer, String> expected = new HashMap<>();
+        expected.put(1, "one");
+        expected.put(1000, "thousand");
+        expected.put(-1000, "minus thousand");
+        IntObjectMap<String> map = new IntObjectMap<>(expected);
+        Assertions.assertEquals(expected, map);
+        Assertions.assertEquals(expected.hashCode(), map.hashCode());
+        map.clear();
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertNull(map.get(1));
+    }
+}
@@ -317,6 +317,10 @@ public final class KernelExceptionMessageConstant {
                     + "to this document ({2}).";
     public static final String PAGE_IS_NOT_SET_FOR_THE_PDF_TAG_STRUCTURE = "Page is not set for the pdf tag structure.";
     public static final String PAGE_ALREADY_FLUSHED = "The page has been already flushed.";
+    public static final String PARALLEL_CONTENT_PROCESSING_INTERRUPTED = "Parallel content processing has been "
+            + "interrupted.";
+    public static final String PARALLEL_CONTENT_PROCESSING_REQUIRES_READING_MODE = "Parallel content processing "
+            + "is only supported for documents opened in reading mode.";
     public static final String PDF_ENCRYPTION = "PdfEncryption exception.";
     public static final String PDF_DECRYPTION = "Exception occurred with PDF document decryption. One of the possible "
             + "reasons is wrong password or wrong public key certificate and private key.";
@@ -349,6 +353,8 @@ public final class KernelExceptionMessageConstant {
     public static final String SIG_OBJ_REF_NOT_SPECIFIED =
             "AuthCode dictionary doesn't contain SigObjRef entry, which is required in signature mode.";
     public static final String STDCF_NOT_FOUND_ENCRYPTION = "/StdCF not found (encryption)";
+    public static final String STREAM_COMPRESSION_INTERRUPTED = "Parallel stream compression has been "
+            + "interrupted.";
     public static final String STREAM_SHALL_END_WITH_ENDSTREAM = "Stream shall end with endstream keyword.";
     public static final String STRUCT_PARENT_INDEX_NOT_FOUND_IN_TAGGED_OBJECT = "StructParent index not found in "
             + "tagged object.";
@@ -408,6 +414,7 @@ public final class KernelExceptionMessageConstant {
             + "arguments";
     public static final String XREF_PREV_SHALL_BE_DIRECT_NUMBER_OBJECT = "Prev pointer in xref structure shall be "
             + "direct number object.";
+    public static final String XREF_REBUILD_INTERRUPTED = "Parallel xref rebuild has been interrupted.";
     public static final String XREF_SUBSECTION_NOT_FOUND = "xref subsection not found.";
     public static final String XREF_STREAM_HAS_CYCLED_REFERENCES =
             "Xref stream has cycled references. Prev pointer indicates an already visited xref stream.";
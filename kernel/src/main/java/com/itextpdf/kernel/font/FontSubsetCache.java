@@ -0,0 +1,348 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.font;
+
+import com.itextpdf.io.font.CFFFontSubset;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.TrueTypeFont;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache of font subsets, which can be shared by many documents, also the ones which are written at the same time.
+ * <p>
+ * When a document with the cache set in its {@link com.itextpdf.kernel.pdf.WriterProperties} embeds a subset of a
+ * TrueType or CFF based OpenType font, the subset is looked up by the font program and the set of the used glyphs.
+ * If another document has already embedded the same subset of the same font program, its bytes are reused instead
+ * of subsetting the font again. Font programs are compared by identity, so the documents shall share them, e.g.
+ * through {@link com.itextpdf.io.font.FontProgramFactory#createFont(String, boolean)} with caching enabled.
+ * The cache does not keep font programs from being garbage collected, the subsets of collected font programs are
+ * dropped when the next subset is added to the cache.
+ * <p>
+ * The cache is bounded by the total size of the kept subsets, the least recently used subsets are evicted first.
+ * With {@link #setReuseSupersets(boolean)} a cached subset of the same font, which contains all the used glyphs,
+ * is reused as well, and a missing subset is created for the union of the used glyphs and the glyphs of the most
+ * recently used subset of the font, so that the documents using nearly the same glyphs share a single subset.
+ */
+public final class FontSubsetCache {
+
+    /**
+     * The default maximum size of the subsets kept in the cache.
+     */
+    public static final long DEFAULT_MAX_CACHED_BYTES = 64L * 1024 * 1024;
+
+    private static final int TRUE_TYPE_SUBSET = 0;
+    private static final int TRUE_TYPE_FULL = 1;
+    private static final int CFF_SUBSET = 2;
+
+    private final LinkedHashMap<SubsetKey, byte[]> subsets = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxCachedBytes;
+    private boolean reuseSupersets;
+    private long cachedBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache, which keeps up to {@link #DEFAULT_MAX_CACHED_BYTES} of the subsets.
+     */
+    public FontSubsetCache() {
+        this(DEFAULT_MAX_CACHED_BYTES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxCachedBytes the maximum size of the subsets kept in the cache
+     */
+    public FontSubsetCache(long maxCachedBytes) {
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    /**
+     * Defines if subsets, which contain more glyphs than used, are reused.
+     * <br>
+     * The embedded font then contains glyphs which are not used in the document, in exchange for subsetting
+     * the font less often. By default only the subsets of exactly the used glyphs are reused.
+     *
+     * @param reuseSupersets {@code true} to reuse the subsets of more glyphs than used
+     * @return this {@link FontSubsetCache} instance
+     */
+    public synchronized FontSubsetCache setReuseSupersets(boolean reuseSupersets) {
+        this.reuseSupersets = reuseSupersets;
+        return this;
+    }
+
+    /**
+     * Gets the number of the subsets, which have been found in the cache.
+     *
+     * @return the number of the cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of the subsets, which haven't been found in the cache.
+     *
+     * @return the number of the cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of the subsets, which have been evicted from the cache to stay within its maximum size.
+     *
+     * @return the number of the evicted subsets
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the size of the subsets kept in the cache.
+     *
+     * @return the number of the kept bytes
+     */
+    public synchronized long getCachedBytes() {
+        removeSubsetsOfCollectedFonts();
+        return cachedBytes;
+    }
+
+    /**
+     * Removes all the subsets from the cache.
+     */
+    public synchronized void clear() {
+        subsets.clear();
+        cachedBytes = 0;
+    }
+
+    /**
+     * Gets the subset of a TrueType font, creating it and adding it to the cache if needed.
+     *
+     * @param font   the font program
+     * @param glyphs the used glyphs
+     * @param subset {@code true} to subset the font, {@code false} to extract the whole font, e.g. from a collection
+     * @return the bytes of the font program to be embedded
+     * @see TrueTypeFont#getSubset(Set, boolean)
+     */
+    byte[] getTrueTypeSubset(TrueTypeFont font, Set<Integer> glyphs, boolean subset) {
+        return getSubset(font, subset ? TRUE_TYPE_SUBSET : TRUE_TYPE_FULL, glyphs);
+    }
+
+    /**
+     * Gets the subset of a CFF font, creating it and adding it to the cache if needed.
+     *
+     * @param font the font program
+     * @param gids the glyph ids of the used glyphs
+     * @return the bytes of the CFF font program to be embedded
+     */
+    byte[] getCffSubset(TrueTypeFont font, Set<Integer> gids) {
+        return getSubset(font, CFF_SUBSET, gids);
+    }
+
+    private byte[] getSubset(TrueTypeFont font, int kind, Set<Integer> glyphs) {
+        int[] requested = toSortedArray(glyphs);
+        SubsetKey key = new SubsetKey(font, kind, requested);
+        int[] union = null;
+        SubsetKey replacedKey = null;
+        synchronized (this) {
+            byte[] cached = subsets.get(key);
+            if (cached == null && reuseSupersets && kind != TRUE_TYPE_FULL) {
+                SubsetKey latestKey = null;
+                for (Map.Entry<SubsetKey, byte[]> entry : subsets.entrySet()) {
+                    if (entry.getKey().isSameFont(key)) {
+                        if (cached == null && containsAll(entry.getKey().glyphs, requested)) {
+                            cached = entry.getValue();
+                        }
+                        latestKey = entry.getKey();
+                    }
+                }
+                if (cached == null && latestKey != null) {
+                    replacedKey = latestKey;
+                    union = unite(latestKey.glyphs, requested);
+                }
+            }
+            if (cached != null) {
+                hitCount++;
+                return cached;
+            }
+            missCount++;
+        }
+        if (union != null) {
+            key = new SubsetKey(font, kind, union);
+        }
+        byte[] bytes = createSubset(font, kind, key.glyphs);
+        synchronized (this) {
+            if (replacedKey != null) {
+                remove(replacedKey);
+            }
+            put(key, bytes);
+        }
+        return bytes;
+    }
+
+    private void put(SubsetKey key, byte[] bytes) {
+        long weight = getWeight(key, bytes);
+        if (weight > maxCachedBytes) {
+            return;
+        }
+        remove(key);
+        removeSubsetsOfCollectedFonts();
+        subsets.put(key, bytes);
+        cachedBytes += weight;
+        Iterator<Map.Entry<SubsetKey, byte[]>> iterator = subsets.entrySet().iterator();
+        while (cachedBytes > maxCachedBytes && iterator.hasNext()) {
+            Map.Entry<SubsetKey, byte[]> eldest = iterator.next();
+            cachedBytes -= getWeight(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private void remove(SubsetKey key) {
+        byte[] removed = subsets.remove(key);
+        if (removed != null) {
+            cachedBytes -= getWeight(key, removed);
+        }
+    }
+
+    private void removeSubsetsOfCollectedFonts() {
+        Iterator<Map.Entry<SubsetKey, byte[]>> iterator = subsets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<SubsetKey, byte[]> entry = iterator.next();
+            if (entry.getKey().isFontCollected()) {
+                cachedBytes -= getWeight(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private static byte[] createSubset(TrueTypeFont font, int kind, int[] glyphs) {
+        Set<Integer> glyphSet = new HashSet<>(glyphs.length);
+        for (int glyph : glyphs) {
+            glyphSet.add(glyph);
+        }
+        if (kind == CFF_SUBSET) {
+            return new CFFFontSubset(font.getFontStreamBytes(), glyphSet).Process();
+        }
+        return font.getSubset(glyphSet, kind == TRUE_TYPE_SUBSET);
+    }
+
+    private static long getWeight(SubsetKey key, byte[] bytes) {
+        return bytes.length + 4L * key.glyphs.length;
+    }
+
+    private static int[] toSortedArray(Set<Integer> glyphs) {
+        int[] array = new int[glyphs.size()];
+        int i = 0;
+        for (int glyph : glyphs) {
+            array[i++] = glyph;
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static boolean containsAll(int[] superset, int[] subset) {
+        int i = 0;
+        for (int glyph : subset) {
+            while (i < superset.length && superset[i] < glyph) {
+                i++;
+            }
+            if (i == superset.length || superset[i] != glyph) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] unite(int[] first, int[] second) {
+        int[] union = new int[first.length + second.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < first.length || j < second.length) {
+            int glyph;
+            if (j == second.length || (i < first.length && first[i] < second[j])) {
+                glyph = first[i++];
+            } else if (i == first.length || second[j] < first[i]) {
+                glyph = second[j++];
+            } else {
+                glyph = first[i++];
+                j++;
+            }
+            union[count++] = glyph;
+        }
+        return Arrays.copyOf(union, count);
+    }
+
+    private static final class SubsetKey {
+        private final WeakReference<FontProgram> font;
+        private final int fontHash;
+        private final int kind;
+        private final int[] glyphs;
+        private final int hash;
+
+        SubsetKey(FontProgram font, int kind, int[] glyphs) {
+            this.font = new WeakReference<>(font);
+            this.fontHash = System.identityHashCode(font);
+            this.kind = kind;
+            this.glyphs = glyphs;
+            this.hash = 31 * (31 * fontHash + kind) + Arrays.hashCode(glyphs);
+        }
+
+        boolean isFontCollected() {
+            return font.get() == null;
+        }
+
+        boolean isSameFont(SubsetKey other) {
+            FontProgram fontProgram = font.get();
+            return fontProgram != null && fontHash == other.fontHash && kind == other.kind
+                    && fontProgram == other.font.get();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SubsetKey)) {
+                return false;
+            }
+            SubsetKey other = (SubsetKey) obj;
+            return hash == other.hash && isSameFont(other) && Arrays.equals(glyphs, other.glyphs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
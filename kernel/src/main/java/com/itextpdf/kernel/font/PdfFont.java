@@ -30,6 +30,7 @@ import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
 import com.itextpdf.kernel.exceptions.PdfException;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
@@ -37,6 +38,7 @@ import com.itextpdf.kernel.pdf.PdfObjectWrapper;
 import com.itextpdf.kernel.pdf.PdfOutputStream;
 import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -527,6 +529,18 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
         return fontStream;
     }
 
+    /**
+     * Gets the cache of the font subsets of the document's writer.
+     *
+     * @return the {@link FontSubsetCache}, or {@code null} if the font isn't bound to a written document
+     * or the writer has no cache
+     */
+    FontSubsetCache getFontSubsetCache() {
+        PdfIndirectReference reference = getPdfObject().getIndirectReference();
+        PdfWriter writer = reference != null ? reference.getDocument().getWriter() : null;
+        return writer != null ? writer.getFontSubsetCache() : null;
+    }
+
     /**
      * Helper method for making an object indirect, if the object already is indirect.
      * Useful for FontDescriptor and FontFile to make possible immediate flushing.
@@ -183,7 +183,10 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
                     byte[] fontStreamBytes;
                     //getDirectoryOffset() > 0 means ttc, which shall be subset anyway.
                     if (subset || ((TrueTypeFont) getFontProgram()).getDirectoryOffset() > 0) {
-                        fontStreamBytes = ((TrueTypeFont) getFontProgram()).getSubset(glyphs, subset);
+                        FontSubsetCache subsetCache = getFontSubsetCache();
+                        fontStreamBytes = subsetCache != null
+                                ? subsetCache.getTrueTypeSubset((TrueTypeFont) getFontProgram(), glyphs, subset)
+                                : ((TrueTypeFont) getFontProgram()).getSubset(glyphs, subset);
                     } else {
                         fontStreamBytes = ((TrueTypeFont) getFontProgram()).getFontStreamBytes();
                     }
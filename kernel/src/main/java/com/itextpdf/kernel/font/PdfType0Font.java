@@ -797,9 +797,13 @@ public class PdfType0Font extends PdfFont {
             if (ttf.isCff()) {
                 byte[] cffBytes;
                 if (subset) {
-                    byte[] bytes = ttf.getFontStreamBytes();
                     Set<Integer> usedGids = ttf.mapGlyphsCidsToGids(usedGlyphs);
-                    cffBytes = new CFFFontSubset(bytes, usedGids).Process();
+                    FontSubsetCache subsetCache = getFontSubsetCache();
+                    if (subsetCache != null) {
+                        cffBytes = subsetCache.getCffSubset(ttf, usedGids);
+                    } else {
+                        cffBytes = new CFFFontSubset(ttf.getFontStreamBytes(), usedGids).Process();
+                    }
                 } else {
                     cffBytes = ttf.getFontStreamBytes();
                 }
@@ -814,7 +818,9 @@ public class PdfType0Font extends PdfFont {
                 //getDirectoryOffset() > 0 means ttc, which shall be subsetted anyway.
                 if (subset || ttf.getDirectoryOffset() > 0) {
                     try {
-                        ttfBytes = ttf.getSubset(usedGlyphs, subset);
+                        FontSubsetCache subsetCache = getFontSubsetCache();
+                        ttfBytes = subsetCache != null ? subsetCache.getTrueTypeSubset(ttf, usedGlyphs, subset)
+                                : ttf.getSubset(usedGlyphs, subset);
                     } catch (com.itextpdf.io.exceptions.IOException e) {
                         Logger logger = LoggerFactory.getLogger(PdfType0Font.class);
                         logger.warn(IoLogMessageConstant.FONT_SUBSET_ISSUE);
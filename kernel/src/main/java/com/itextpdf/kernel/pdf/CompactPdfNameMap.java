@@ -0,0 +1,374 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The storage of the {@link PdfDictionary} entries, which keeps the entries sorted by their keys.
+ * <p>
+ * The entries of a small dictionary are kept in flat arrays, which are scanned comparing the keys by identity
+ * and hash code first, as the names read from a document and the predefined names are mostly the same instances.
+ * The entries of a larger dictionary are looked up by a binary search in the arrays, and the entries of a large
+ * dictionary are moved to a {@link TreeMap}.
+ */
+final class CompactPdfNameMap extends AbstractMap<PdfName, PdfObject> {
+
+    /**
+     * The max number of entries, which are looked up by a linear scan.
+     */
+    static final int LINEAR_SEARCH_THRESHOLD = 8;
+
+    /**
+     * The max number of entries, which are kept in the arrays.
+     */
+    static final int ARRAY_STORAGE_THRESHOLD = 64;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private PdfName[] keys;
+    private PdfObject[] values;
+    private int size;
+    private int modCount;
+    private TreeMap<PdfName, PdfObject> treeMap;
+    private EntrySet entrySet;
+
+    CompactPdfNameMap() {
+        keys = new PdfName[INITIAL_CAPACITY];
+        values = new PdfObject[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public int size() {
+        return treeMap != null ? treeMap.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (treeMap != null) {
+            return treeMap.containsKey(key);
+        }
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public PdfObject get(Object key) {
+        if (treeMap != null) {
+            return treeMap.get(key);
+        }
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public PdfObject put(PdfName key, PdfObject value) {
+        if (treeMap != null) {
+            return treeMap.put(key, value);
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            PdfObject previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        if (size == ARRAY_STORAGE_THRESHOLD) {
+            moveToTreeMap();
+            return treeMap.put(key, value);
+        }
+        int insertionIndex = -(binarySearch(key) + 1);
+        if (size == keys.length) {
+            int capacity = Math.min(keys.length * 2, ARRAY_STORAGE_THRESHOLD);
+            PdfName[] newKeys = new PdfName[capacity];
+            PdfObject[] newValues = new PdfObject[capacity];
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            System.arraycopy(values, 0, newValues, 0, size);
+            keys = newKeys;
+            values = newValues;
+        }
+        System.arraycopy(keys, insertionIndex, keys, insertionIndex + 1, size - insertionIndex);
+        System.arraycopy(values, insertionIndex, values, insertionIndex + 1, size - insertionIndex);
+        keys[insertionIndex] = key;
+        values[insertionIndex] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public PdfObject remove(Object key) {
+        if (treeMap != null) {
+            return treeMap.remove(key);
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        PdfObject previous = values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends PdfName, ? extends PdfObject> m) {
+        if (m instanceof CompactPdfNameMap && isEmpty() && treeMap == null) {
+            CompactPdfNameMap other = (CompactPdfNameMap) m;
+            if (other.treeMap == null) {
+                keys = new PdfName[Math.max(other.size, INITIAL_CAPACITY)];
+                values = new PdfObject[keys.length];
+                System.arraycopy(other.keys, 0, keys, 0, other.size);
+                System.arraycopy(other.values, 0, values, 0, other.size);
+                size = other.size;
+                modCount++;
+                return;
+            }
+        }
+        super.putAll(m);
+    }
+
+    @Override
+    public void clear() {
+        if (treeMap != null) {
+            treeMap.clear();
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            keys[i] = null;
+            values[i] = null;
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<PdfName, PdfObject>> entrySet() {
+        if (treeMap != null) {
+            return treeMap.entrySet();
+        }
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof PdfName)) {
+            if (key == null) {
+                throw new NullPointerException();
+            }
+            return -1;
+        }
+        if (size > LINEAR_SEARCH_THRESHOLD) {
+            int index = binarySearch((PdfName) key);
+            return index >= 0 ? index : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        int hash = key.hashCode();
+        for (int i = 0; i < size; i++) {
+            if (keys[i].hashCode() == hash && keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches the key in the sorted keys.
+     *
+     * @param key the key to search
+     * @return the index of the key, or (-(insertion point) - 1) if there is no such key
+     */
+    private int binarySearch(PdfName key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keys[middle].compareTo(key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+    }
+
+    private void moveToTreeMap() {
+        TreeMap<PdfName, PdfObject> entries = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            entries.put(keys[i], values[i]);
+        }
+        treeMap = entries;
+        keys = null;
+        values = null;
+        size = 0;
+        entrySet = null;
+        modCount++;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<PdfName, PdfObject>> {
+        @Override
+        public Iterator<Map.Entry<PdfName, PdfObject>> iterator() {
+            if (treeMap != null) {
+                return treeMap.entrySet().iterator();
+            }
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactPdfNameMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactPdfNameMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<PdfName, PdfObject>> {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            if (treeMap != null) {
+                // the entries have been moved out of the arrays, so there is no way to tell the remaining ones
+                throw new ConcurrentModificationException();
+            }
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<PdfName, PdfObject> next() {
+            checkForModification();
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Entry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private final class Entry implements Map.Entry<PdfName, PdfObject> {
+        private final PdfName key;
+        private final int index;
+        private final int entryModCount = modCount;
+
+        Entry(int index) {
+            this.key = keys[index];
+            this.index = index;
+        }
+
+        @Override
+        public PdfName getKey() {
+            return key;
+        }
+
+        @Override
+        public PdfObject getValue() {
+            return isValid() ? values[index] : CompactPdfNameMap.this.get(key);
+        }
+
+        @Override
+        public PdfObject setValue(PdfObject value) {
+            if (isValid()) {
+                PdfObject previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            return CompactPdfNameMap.this.put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object value = getValue();
+            return key.equals(entry.getKey()) && (value == null ? entry.getValue() == null
+                    : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+
+        private boolean isValid() {
+            return treeMap == null && entryModCount == modCount;
+        }
+    }
+}
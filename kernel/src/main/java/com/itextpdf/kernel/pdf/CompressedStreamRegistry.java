@@ -0,0 +1,239 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
+import com.itextpdf.kernel.exceptions.PdfException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A registry of the deflated content of streams, which can be shared by many {@link PdfWriter} instances, also
+ * the ones which write documents at the same time.
+ * <p>
+ * When a writer with the registry set in its {@link WriterProperties} deflates the content of a stream, the content
+ * is looked up in the registry by its SHA-256 digest, its length and the compression level. If the same content has already been
+ * deflated by any writer sharing the registry, the deflated bytes are reused instead of being deflated again.
+ * This mostly pays off when many documents embed the same resources, e.g. fonts, ICC profiles or images of the
+ * same template.
+ * <p>
+ * The registry only keeps the deflated content, the unencrypted one. Once the registry holds the maximum number
+ * of bytes, no new content is added to it.
+ */
+public final class CompressedStreamRegistry {
+
+    /**
+     * The default maximum size of the deflated content kept in the registry.
+     */
+    public static final long DEFAULT_MAX_CACHED_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The default minimum size of the content for it to be kept in the registry.
+     */
+    public static final int DEFAULT_MIN_CONTENT_LENGTH = 1024;
+
+    private final ConcurrentHashMap<ContentKey, byte[]> compressedContents = new ConcurrentHashMap<>();
+    private final long maxCachedBytes;
+    private final int minContentLength;
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a registry, which keeps up to {@link #DEFAULT_MAX_CACHED_BYTES} of the deflated content.
+     */
+    public CompressedStreamRegistry() {
+        this(DEFAULT_MAX_CACHED_BYTES, DEFAULT_MIN_CONTENT_LENGTH);
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param maxCachedBytes the maximum size of the deflated content kept in the registry
+     * @param minContentLength the minimum size of the content, which is not deflated yet, for it to be looked up
+     *                         in the registry, the smaller content is deflated by each writer
+     */
+    public CompressedStreamRegistry(long maxCachedBytes, int minContentLength) {
+        this.maxCachedBytes = maxCachedBytes;
+        this.minContentLength = minContentLength;
+    }
+
+    /**
+     * Gets the number of the streams, whose deflated content has been found in the registry.
+     *
+     * @return the number of the registry hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of the streams, whose deflated content hasn't been found in the registry.
+     *
+     * @return the number of the registry misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the size of the deflated content kept in the registry.
+     *
+     * @return the number of the kept bytes
+     */
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    /**
+     * Removes all the deflated content from the registry.
+     */
+    public void clear() {
+        compressedContents.clear();
+        cachedBytes.set(0);
+    }
+
+    /**
+     * Gets the deflated content from the registry, deflating the content and adding it to the registry if needed.
+     *
+     * @param content the content to deflate
+     * @param compressionLevel the compression level
+     * @return the deflated content, or {@code null} if the content is too small to be kept in the registry
+     */
+    ByteArrayOutputStream getCompressedContent(ByteArrayOutputStream content, int compressionLevel) {
+        if (content.size() < minContentLength) {
+            return null;
+        }
+        ContentKey key = new ContentKey(calculateDigest(content), content.size(), compressionLevel);
+        byte[] compressed = compressedContents.get(key);
+        if (compressed != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+            compressed = deflate(content, compressionLevel);
+            register(key, compressed);
+        }
+        return new ByteArrayOutputStream(0).assignBytes(compressed);
+    }
+
+    /**
+     * Adds the content, which has already been deflated, to the registry.
+     *
+     * @param content the content
+     * @param compressionLevel the compression level
+     * @param compressedContent the deflated content
+     */
+    void registerCompressedContent(ByteArrayOutputStream content, int compressionLevel,
+            ByteArrayOutputStream compressedContent) {
+        if (content.size() >= minContentLength) {
+            register(new ContentKey(calculateDigest(content), content.size(), compressionLevel),
+                    compressedContent.toByteArray());
+        }
+    }
+
+    private void register(ContentKey key, byte[] compressed) {
+        if (cachedBytes.addAndGet(compressed.length) > maxCachedBytes
+                || compressedContents.putIfAbsent(key, compressed) != null) {
+            cachedBytes.addAndGet(-compressed.length);
+        }
+    }
+
+    private static byte[] calculateDigest(ByteArrayOutputStream content) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new PdfException(e);
+        }
+        try {
+            content.writeTo(new DigestingOutputStream(sha256));
+        } catch (IOException e) {
+            throw new PdfException(KernelExceptionMessageConstant.IO_EXCEPTION, e);
+        }
+        return sha256.digest();
+    }
+
+    private static byte[] deflate(ByteArrayOutputStream content, int compressionLevel) {
+        ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
+        try {
+            DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, compressionLevel);
+            content.writeTo(zip);
+            zip.finish();
+        } catch (IOException e) {
+            throw new PdfException(KernelExceptionMessageConstant.IO_EXCEPTION, e);
+        }
+        return byteArrayStream.toByteArray();
+    }
+
+    private static final class ContentKey {
+        private final byte[] digest;
+        private final long length;
+        private final int compressionLevel;
+
+        ContentKey(byte[] digest, long length, int compressionLevel) {
+            this.digest = digest;
+            this.length = length;
+            this.compressionLevel = compressionLevel;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ContentKey)) {
+                return false;
+            }
+            ContentKey other = (ContentKey) obj;
+            return compressionLevel == other.compressionLevel && length == other.length
+                    && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(digest) + compressionLevel;
+        }
+    }
+
+    private static final class DigestingOutputStream extends OutputStream {
+        private final MessageDigest digest;
+
+        DigestingOutputStream(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+        }
+    }
+}
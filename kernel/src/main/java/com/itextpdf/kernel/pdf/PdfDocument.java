@@ -166,7 +166,7 @@ public class PdfDocument implements Closeable {
     /**
      * Cache of already serialized objects from this document for smart mode.
      */
-    Map<PdfIndirectReference, byte[]> serializedObjectsCache = new HashMap<>();
+    Map<PdfIndirectReference, SerializedObjectContent> serializedObjectsCache = new HashMap<>();
     /**
      * Handler which will be used for decompression of pdf streams.
      */
@@ -1042,7 +1042,9 @@ public class PdfDocument implements Closeable {
                     }
 
                     writer.flushModifiedWaitingObjects(forbiddenToFlush);
-                    for (int i = 0; i < xref.size(); i++) {
+                    writer.completeCompressionPipeline();
+                    // only modified references matter here, so the references which have never been loaded are skipped
+                    for (int i = xref.nextModifiedMark(0); i >= 0; i = xref.nextModifiedMark(i + 1)) {
                         PdfIndirectReference indirectReference = xref.get(i);
                         if (indirectReference != null && !indirectReference.isFree() && indirectReference.checkState(
                                 PdfObject.MODIFIED) && !indirectReference.checkState(PdfObject.FLUSHED)
@@ -1087,6 +1089,7 @@ public class PdfDocument implements Closeable {
                     }
 
                     writer.flushWaitingObjects(forbiddenToFlush);
+                    writer.completeCompressionPipeline();
                     for (int i = 0; i < xref.size(); i++) {
                         PdfIndirectReference indirectReference = xref.get(i);
                         if (indirectReference != null && !indirectReference.isFree() && !indirectReference.checkState(
@@ -1517,6 +1520,22 @@ public class PdfDocument implements Closeable {
         }
     }
 
+    /**
+     * Flush the objects copied from the source document and remove all of them from copied cache, including the ones
+     * which have already been flushed, e.g. with the copied pages.
+     * <p>
+     * Unlike {@link #flushCopiedObjects(PdfDocument)}, the copied elements of the tag structure, which are flushed
+     * together with the pages, and the copied optional content groups are left to be written later. Note, if you
+     * will copy objects from the same document again, duplicated objects will be created.
+     *
+     * @param sourceDoc source document
+     */
+    public void releaseCopiedObjects(PdfDocument sourceDoc) {
+        if (getWriter() != null) {
+            getWriter().releaseCopiedObjects(sourceDoc.getDocumentId());
+        }
+    }
+
     /**
      * Checks, whether {@link #close()} method will close associated PdfReader.
      *
@@ -42,7 +42,7 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
     /**
      * PdfObject that current PdfIndirectReference instance refers to.
      */
-    protected PdfObject refersTo = null;
+    protected volatile PdfObject refersTo = null;
 
     /**
      * Indirect reference number of object stream containing refersTo object.
@@ -301,7 +301,12 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      * @param state special flag of current object
      */
     protected PdfObject setState(short state) {
-        return super.setState(state);
+        super.setState(state);
+        if (pdfDocument != null && (state & (MUST_BE_FLUSHED | MODIFIED)) != 0) {
+            // let the xref table find the objects to be written without scanning all the references
+            pdfDocument.getXref().markState(this);
+        }
+        return this;
     }
 
     void setObjStreamNumber(int objectStreamNumber) {
@@ -45,8 +45,23 @@ class PdfObjectStream extends PdfStream {
      */
     protected PdfOutputStream indexStream;
 
+    /**
+     * Max number of objects in this object stream.
+     */
+    private final int maxSize;
+
     public PdfObjectStream(PdfDocument doc) {
-        this(doc, new ByteArrayOutputStream());
+        this(doc, MAX_OBJ_STREAM_SIZE);
+    }
+
+    /**
+     * Creates an object stream, which can contain the specified number of objects.
+     *
+     * @param doc the document of the object stream
+     * @param maxSize max number of objects in the object stream
+     */
+    PdfObjectStream(PdfDocument doc, int maxSize) {
+        this(doc, new ByteArrayOutputStream(), maxSize);
         indexStream = new PdfOutputStream(new ByteArrayOutputStream());
     }
 
@@ -56,7 +71,7 @@ class PdfObjectStream extends PdfStream {
      * @param prev previous PdfObjectStream.
      */
     PdfObjectStream(PdfObjectStream prev) {
-        this(prev.getIndirectReference().getDocument(), prev.getOutputStream().getOutputStream());
+        this(prev.getIndirectReference().getDocument(), prev.getOutputStream().getOutputStream(), prev.maxSize);
         indexStream = new PdfOutputStream(prev.indexStream.getOutputStream());
         ((ByteArrayOutputStream)outputStream.getOutputStream()).reset();
         ((ByteArrayOutputStream)indexStream.getOutputStream()).reset();
@@ -64,8 +79,9 @@ class PdfObjectStream extends PdfStream {
         prev.releaseContent(true);
     }
 
-    private PdfObjectStream(PdfDocument doc, java.io.OutputStream outputStream) {
+    private PdfObjectStream(PdfDocument doc, java.io.OutputStream outputStream, int maxSize) {
         super(outputStream);
+        this.maxSize = maxSize;
         //avoid reuse existed references, create new, opposite to get next reference
         makeIndirect(doc, doc.getXref().createNewIndirectReference(doc));
         getOutputStream().document = doc;
@@ -80,7 +96,7 @@ class PdfObjectStream extends PdfStream {
      * @param object object to add.
      */
     public void addObject(PdfObject object) {
-        if (size.intValue() == MAX_OBJ_STREAM_SIZE) {
+        if (size.intValue() == maxSize) {
             throw new PdfException(KernelExceptionMessageConstant.PDF_OBJECT_STREAM_REACH_MAX_SIZE);
         }
         PdfOutputStream outputStream = getOutputStream();
@@ -105,6 +121,24 @@ class PdfObjectStream extends PdfStream {
         return size.intValue();
     }
 
+    /**
+     * Checks whether no more objects can be added to the object stream.
+     *
+     * @return true, if the object stream contains max number of objects, false otherwise
+     */
+    boolean isFull() {
+        return size.intValue() == maxSize;
+    }
+
+    /**
+     * Gets the length of the uncompressed content of the object stream including its index.
+     *
+     * @return the length of the content in bytes
+     */
+    long getContentLength() {
+        return getOutputStream().getCurrentPos() + indexStream.getCurrentPos();
+    }
+
     public PdfOutputStream getIndexStream() {
         return indexStream;
     }
@@ -45,6 +45,8 @@ public class PdfOutputStream extends HighPrecisionOutputStream<PdfOutputStream>
     private static final byte[] closeDict = ByteUtils.getIsoBytes(">>");
     private static final byte[] endIndirect = ByteUtils.getIsoBytes(" R");
     private static final byte[] endIndirectWithZeroGenNr = ByteUtils.getIsoBytes(" 0 R");
+    // the content read from the input streams is deflated and encrypted in chunks of this size
+    private static final int STREAM_COPY_BUFFER_SIZE = 64 * 1024;
     private static final Logger LOGGER = LoggerFactory.getLogger(PdfOutputStream.class);
 
     /**
@@ -255,15 +257,129 @@ public class PdfOutputStream extends HighPrecisionOutputStream<PdfOutputStream>
         return PdfName.XRef.equals(pdfStream.getAsName(PdfName.Type));
     }
 
-    private void write(PdfStream pdfStream) {
+    /**
+     * Gets the content of the stream which has already been deflated before the stream is written.
+     *
+     * @param pdfStream the stream which is being written
+     * @param deflatedOnWriting whether the content of the stream is to be deflated, as decided from the compression
+     *                          level and the filters of the stream before it is written
+     * @return the deflated content, or {@code null} if the content shall be deflated while writing
+     */
+    ByteArrayOutputStream getCompressedContent(PdfStream pdfStream, boolean deflatedOnWriting) {
+        return null;
+    }
+
+    /**
+     * Gets the content of the stream which has already been deflated, if needed, and encrypted before the stream
+     * is written.
+     *
+     * @param pdfStream the stream which is being written
+     * @return the encrypted content, or {@code null} if the content shall be encrypted while writing
+     */
+    ByteArrayOutputStream getEncryptedContent(PdfStream pdfStream) {
+        return null;
+    }
+
+    /**
+     * Creates a buffer for the content of a stream, using the stream buffer provider of the writer if it's set.
+     *
+     * @return the created buffer
+     */
+    ByteArrayOutputStream createContentBuffer() {
+        IStreamBufferProvider provider = document == null || document.getWriter() == null
+                ? null : document.getWriter().properties.streamBufferProvider;
+        return provider == null ? new ByteArrayOutputStream() : provider.createBuffer();
+    }
+
+    /**
+     * Moves the content written so far to the buffer, which receives all the content written afterwards.
+     *
+     * @param buffer the new buffer of this stream
+     */
+    void replaceContentBuffer(ByteArrayOutputStream buffer) {
         try {
-            boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
-            if (!userDefinedCompression) {
-                int defaultCompressionLevel = document != null ?
-                        document.getWriter().getCompressionLevel() :
-                        CompressionConstants.DEFAULT_COMPRESSION;
-                pdfStream.setCompressionLevel(defaultCompressionLevel);
+            ((ByteArrayOutputStream) outputStream).writeTo(buffer);
+        } catch (IOException e) {
+            throw new PdfException(KernelExceptionMessageConstant.IO_EXCEPTION, e);
+        }
+        outputStream = buffer;
+    }
+
+    /**
+     * Checks whether the in-memory content of the stream will be encrypted when the stream is written.
+     *
+     * @param pdfStream the stream to check
+     * @return true, if the content will be encrypted on writing, false otherwise
+     */
+    boolean isContentEncryptedOnWriting(PdfStream pdfStream) {
+        return crypto != null && !(pdfStream instanceof PdfObjectStream) && pdfStream.getInputStream() == null
+                && !pdfStream.hasRawContent() && pdfStream.outputStream != null
+                && pdfStream.outputStream.getOutputStream() instanceof ByteArrayOutputStream
+                && hasCheckableFilters(pdfStream) && checkEncryption(pdfStream);
+    }
+
+    /**
+     * Checks whether the in-memory content of the stream will be deflated when the stream is written.
+     *
+     * @param pdfStream the stream to check
+     * @return true, if the content will be deflated on writing, false otherwise
+     */
+    boolean isContentDeflatedOnWriting(PdfStream pdfStream) {
+        if (pdfStream instanceof PdfObjectStream || pdfStream.getInputStream() != null || pdfStream.hasRawContent()
+                || pdfStream.outputStream == null
+                || !(pdfStream.outputStream.getOutputStream() instanceof ByteArrayOutputStream)
+                || !hasCheckableFilters(pdfStream)) {
+            return false;
+        }
+        // the compression level is only resolved here, it is set to the stream when the stream is written
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        int compressionLevel = userDefinedCompression ? pdfStream.getCompressionLevel() : getDefaultCompressionLevel();
+        boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
+        return compressionLevel != CompressionConstants.NO_COMPRESSION
+                && !containsFlateFilter(pdfStream) && decodeParamsArrayNotFlushed(pdfStream)
+                && (allowCompression || userDefinedCompression);
+    }
+
+    private static boolean hasCheckableFilters(PdfStream pdfStream) {
+        // indirect filters may be flushed before the stream is written, such streams are checked on writing
+        return isDirectContent(pdfStream.get(PdfName.Filter, false))
+                && isDirectContent(pdfStream.get(PdfName.DecodeParms, false));
+    }
+
+    private static boolean isDirectContent(PdfObject obj) {
+        if (obj == null) {
+            return true;
+        }
+        if (obj.isIndirectReference() || obj.getIndirectReference() != null) {
+            return false;
+        }
+        if (obj.isArray()) {
+            PdfArray array = (PdfArray) obj;
+            for (int i = 0; i < array.size(); i++) {
+                PdfObject item = array.get(i, false);
+                if (item.isIndirectReference() || item.getIndirectReference() != null) {
+                    return false;
+                }
             }
+        }
+        return true;
+    }
+
+    private boolean initCompressionLevel(PdfStream pdfStream) {
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        if (!userDefinedCompression) {
+            pdfStream.setCompressionLevel(getDefaultCompressionLevel());
+        }
+        return userDefinedCompression;
+    }
+
+    private int getDefaultCompressionLevel() {
+        return document != null ? document.getWriter().getCompressionLevel() : CompressionConstants.DEFAULT_COMPRESSION;
+    }
+
+    private void write(PdfStream pdfStream) {
+        try {
+            boolean userDefinedCompression = initCompressionLevel(pdfStream);
             boolean toCompress = pdfStream.getCompressionLevel() != CompressionConstants.NO_COMPRESSION;
             boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
 
@@ -282,7 +398,7 @@ public class PdfOutputStream extends HighPrecisionOutputStream<PdfOutputStream>
                 this.write((PdfDictionary) pdfStream);
                 writeBytes(PdfOutputStream.stream);
                 long beginStreamContent = getCurrentPos();
-                byte[] buf = new byte[4192];
+                byte[] buf = new byte[STREAM_COPY_BUFFER_SIZE];
                 while (true) {
                     int n = pdfStream.getInputStream().read(buf);
                     if (n <= 0)
@@ -300,6 +416,19 @@ public class PdfOutputStream extends HighPrecisionOutputStream<PdfOutputStream>
                 pdfStream.updateLength(length.intValue());
                 writeBytes(PdfOutputStream.endstream);
             } else {
+                if (pdfStream.hasRawContent() && !checkEncryption(pdfStream) && !(toCompress
+                        && !containsFlateFilter(pdfStream) && decodeParamsArrayNotFlushed(pdfStream)
+                        && (allowCompression || userDefinedCompression))) {
+                    // the encoded bytes of a stream copied in raw mode are transferred from the source document as is
+                    int length = pdfStream.getRawContentLength();
+                    pdfStream.put(PdfName.Length, new PdfNumber(length));
+                    pdfStream.updateLength(length);
+                    this.write((PdfDictionary) pdfStream);
+                    writeBytes(PdfOutputStream.stream);
+                    pdfStream.transferRawContent(this);
+                    writeBytes(PdfOutputStream.endstream);
+                    return;
+                }
                 //When document is opened in stamping mode the output stream can be uninitialized.
                 //We have to initialize it and write all data from streams input to streams output.
                 if (pdfStream.getOutputStream() == null && pdfStream.getIndirectReference().getReader() != null) {
@@ -315,11 +444,31 @@ public class PdfOutputStream extends HighPrecisionOutputStream<PdfOutputStream>
                 assert pdfStream.getOutputStream() != null : "PdfStream lost OutputStream";
                 ByteArrayOutputStream byteArrayStream;
                 try {
-                    if (toCompress && !containsFlateFilter(pdfStream) && decodeParamsArrayNotFlushed(pdfStream)
-                            && (allowCompression || userDefinedCompression)) {
+                    ByteArrayOutputStream encryptedContent = getEncryptedContent(pdfStream);
+                    ByteArrayOutputStream compressedContent = null;
+                    boolean deflatedOnWriting = false;
+                    if (encryptedContent == null) {
+                        deflatedOnWriting = toCompress && !containsFlateFilter(pdfStream)
+                                && decodeParamsArrayNotFlushed(pdfStream)
+                                && (allowCompression || userDefinedCompression);
+                        compressedContent = getCompressedContent(pdfStream, deflatedOnWriting);
+                    }
+                    if (encryptedContent != null) {
+                        // the content has already been deflated, if needed, and encrypted by the compression
+                        // pipeline of the writer
+                        if (toCompress && !containsFlateFilter(pdfStream) && decodeParamsArrayNotFlushed(pdfStream)
+                                && (allowCompression || userDefinedCompression)) {
+                            updateCompressionFilter(pdfStream);
+                        }
+                        byteArrayStream = encryptedContent;
+                    } else if (compressedContent != null) {
+                        // the content has already been deflated by the compression pipeline of the writer
+                        updateCompressionFilter(pdfStream);
+                        byteArrayStream = compressedContent;
+                    } else if (deflatedOnWriting) {
                         // compress
                         updateCompressionFilter(pdfStream);
-                        byteArrayStream = new ByteArrayOutputStream();
+                        byteArrayStream = createContentBuffer();
                         DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
                         if (pdfStream instanceof PdfObjectStream) {
                             PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
@@ -341,11 +490,19 @@ public class PdfOutputStream extends HighPrecisionOutputStream<PdfOutputStream>
                             byteArrayStream = (ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream();
                         }
                     }
-                    if (checkEncryption(pdfStream)) {
-                        ByteArrayOutputStream encodedStream = new ByteArrayOutputStream();
+                    if (encryptedContent == null && checkEncryption(pdfStream)) {
+                        ByteArrayOutputStream encodedStream = createContentBuffer();
                         OutputStreamEncryption ose = crypto.getEncryptionStream(encodedStream);
-                        byteArrayStream.writeTo(ose);
-                        ose.finish();
+                        try {
+                            byteArrayStream.writeTo(ose);
+                            ose.finish();
+                        } finally {
+                            // the intermediate deflated content may hold a temporary file or direct buffers,
+                            // the content buffer of the stream itself is released together with the stream
+                            if (byteArrayStream != pdfStream.getOutputStream().getOutputStream()) {
+                                byteArrayStream.close();
+                            }
+                        }
                         byteArrayStream = encodedStream;
                     }
                 } catch (IOException ioe) {
@@ -524,6 +524,11 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         if (isFlushed()) {
             return;
         }
+        PdfWriter writer = getDocument().getWriter();
+        if (writer != null) {
+            // the objects of the page don't share object streams with the objects flushed before
+            writer.completePageObjectStream();
+        }
         getDocument().dispatchEvent(new PdfDocumentEvent(PdfDocumentEvent.END_PAGE, this));
 
         if (getDocument().isTagged() && !getDocument().getStructTreeRoot().isFlushed()) {
@@ -571,6 +576,9 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         releaseInstanceFields();
 
         super.flush();
+        if (writer != null) {
+            writer.completePageObjectStream();
+        }
     }
 
     /**
@@ -30,8 +30,10 @@ import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
 import com.itextpdf.kernel.exceptions.PdfException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -49,6 +51,14 @@ class PdfPagesTree {
     private ISimpleList<PdfIndirectReference> pageRefs;
     private List<PdfPages> parents;
     private ISimpleList<PdfPage> pages;
+
+    /**
+     * Zero-based indexes of the loaded page references, which map each reference to its first occurrence in
+     * {@link #pageRefs}. The indexes are rebuilt lazily after a page is inserted or removed not at the end of the tree.
+     */
+    private final Map<PdfIndirectReference, Integer> pageRefIndexes = new HashMap<>();
+    private boolean pageRefIndexesOutdated = false;
+    private boolean allPageRefsLoaded = false;
     private final PdfDocument document;
     private boolean generated = false;
     private PdfPages root;
@@ -157,6 +167,17 @@ class PdfPagesTree {
      * in this tree, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfPage page) {
+        PdfIndirectReference pageRef = page.getPdfObject().getIndirectReference();
+        if (pageRef != null) {
+            // every page in the tree has its reference loaded, so the pages which aren't indexed aren't in the tree
+            int pageNum = getIndexedPageNumber(pageRef);
+            if (pageNum < 0) {
+                return 0;
+            }
+            if (pages.get(pageNum) == page) {
+                return pageNum + 1;
+            }
+        }
         return pages.indexOf(page) + 1;
     }
 
@@ -165,18 +186,28 @@ class PdfPagesTree {
      * specified by it's PdfDictionary, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfDictionary pageDictionary) {
-        int pageNum = pageRefs.indexOf(pageDictionary.getIndirectReference());
+        PdfIndirectReference pageRef = pageDictionary.getIndirectReference();
+        if (pageRef == null) {
+            return 0;
+        }
+        int pageNum = getIndexedPageNumber(pageRef);
         if (pageNum >= 0) {
             return pageNum + 1;
         }
+        if (allPageRefsLoaded) {
+            return 0;
+        }
+        // loading a page loads the references of all the pages which share its parent
         for (int i = 0; i < pageRefs.size(); i++) {
             if (pageRefs.get(i) == null) {
                 loadPage(i);
-            }
-            if (pageRefs.get(i).equals(pageDictionary.getIndirectReference())) {
-                return i + 1;
+                pageNum = getIndexedPageNumber(pageRef);
+                if (pageNum >= 0) {
+                    return pageNum + 1;
+                }
             }
         }
+        allPageRefsLoaded = true;
 
         return 0;
     }
@@ -210,6 +241,7 @@ class PdfPagesTree {
         pdfPage.parentPages = pdfPages;
         pageRefs.add(pdfPage.getPdfObject().getIndirectReference());
         pages.add(pdfPage);
+        indexPageRef(pageRefs.size() - 1);
     }
 
     /**
@@ -236,6 +268,7 @@ class PdfPagesTree {
         correctPdfPagesFromProperty(parentIndex + 1, +1);
         pageRefs.add(index, pdfPage.getPdfObject().getIndirectReference());
         pages.add(index, pdfPage);
+        pageRefIndexesOutdated = true;
     }
 
     /**
@@ -313,6 +346,7 @@ class PdfPagesTree {
     protected void clearPageRefs() {
         pageRefs = null;
         pages = null;
+        pageRefIndexes.clear();
     }
 
     protected List<PdfPages> getParents() {
@@ -461,7 +495,7 @@ class PdfPagesTree {
                 } else {
                     pageRefs.set(from + i, kid.getIndirectReference());
                 }
-
+                indexPageRef(from + i);
             }
         }
     }
@@ -484,12 +518,40 @@ class PdfPagesTree {
             }
             pageRefs.remove(pageNum);
             pages.remove(pageNum);
+            pageRefIndexesOutdated = true;
             return true;
         } else {
             return false;
         }
     }
 
+    // zero-based index, -1 if the reference isn't loaded
+    private int getIndexedPageNumber(PdfIndirectReference pageRef) {
+        if (pageRefIndexesOutdated) {
+            pageRefIndexes.clear();
+            pageRefIndexesOutdated = false;
+            for (int i = 0; i < pageRefs.size(); i++) {
+                indexPageRef(i);
+            }
+        }
+        Integer pageNum = pageRefIndexes.get(pageRef);
+        return pageNum == null ? -1 : (int) pageNum;
+    }
+
+    // zero-based index
+    private void indexPageRef(int pageNum) {
+        if (pageRefIndexesOutdated) {
+            return;
+        }
+        PdfIndirectReference pageRef = pageRefs.get(pageNum);
+        if (pageRef != null) {
+            Integer indexedPageNum = pageRefIndexes.get(pageRef);
+            if (indexedPageNum == null || indexedPageNum > pageNum) {
+                pageRefIndexes.put(pageRef, pageNum);
+            }
+        }
+    }
+
     // zero-based index
     private int findPageParent(int pageNum) {
         int low = 0;
@@ -50,9 +50,19 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +82,9 @@ public class PdfReader implements Closeable {
     private static final String endstream4 = "\rendstream";
     private static final byte[] endstream = ByteUtils.getIsoBytes("endstream");
     private static final byte[] endobj = ByteUtils.getIsoBytes("endobj");
+    private static final long MIN_XREF_REBUILD_CHUNK_SIZE = 4L * 1024 * 1024;
+    private static final int STREAM_TRANSFER_BUFFER_SIZE = 64 * 1024;
+    private static final int DECODED_OBJECT_STREAMS_CACHE_SIZE = 16;
 
     protected static boolean correctStreamLength = true;
 
@@ -108,6 +121,20 @@ public class PdfReader implements Closeable {
     private XMPMeta xmpMeta;
     private PdfConformance pdfConformance;
 
+    // guards the shared tokenizer, decryption and decompression state once the document has been opened
+    private final Object readLock = new Object();
+
+    private ExecutorService xrefRebuildExecutor;
+
+    // the name of the file the document is read from, so that it can be mapped once more for parallel xref rebuild
+    private String sourceFileName;
+
+    // the recently used object streams by their object numbers, read in memory saving mode, from the least recent one
+    private final LinkedHashMap<Integer, DecodedObjectStream> decodedObjectStreams = new LinkedHashMap<>();
+
+    // chunks are not split further than that, so that the scheduling overhead stays small; changed in tests only
+    long xrefRebuildMinChunkSize = MIN_XREF_REBUILD_CHUNK_SIZE;
+
     /**
      * Constructs a new PdfReader.
      *
@@ -172,6 +199,7 @@ public class PdfReader implements Closeable {
                 properties,
                 true
         );
+        this.sourceFileName = filename;
     }
 
     /**
@@ -207,6 +235,7 @@ public class PdfReader implements Closeable {
      * @throws IOException on error.
      */
     public void close() throws IOException {
+        decodedObjectStreams.clear();
         tokens.close();
     }
 
@@ -238,6 +267,26 @@ public class PdfReader implements Closeable {
         return this;
     }
 
+    /**
+     * Sets the executor used to rebuild a damaged cross-reference table in parallel.
+     * <p>
+     * By default the document is scanned line by line on the calling thread. If an executor is set, documents larger
+     * than a few megabytes are split into chunks, which are scanned for object declarations and trailers
+     * concurrently. The found entries are then added in file order, so the rebuilt table is the same as the one of
+     * the sequential scan. The executor is not shut down by the reader.
+     * <p>
+     * The chunks are read through a separate memory mapping of the document file, which the scanning threads read
+     * without locking. So only the documents read from a file are scanned in parallel, the documents read from
+     * a stream or another source, and the files which can't be mapped, are scanned sequentially.
+     *
+     * @param xrefRebuildExecutor the executor to scan the chunks on, or {@code null} to rebuild sequentially
+     * @return this {@link PdfReader} instance.
+     */
+    public PdfReader setXrefRebuildExecutor(ExecutorService xrefRebuildExecutor) {
+        this.xrefRebuildExecutor = xrefRebuildExecutor;
+        return this;
+    }
+
     /**
      * Get the current {@link StrictnessLevel} of the reader.
      *
@@ -356,6 +405,7 @@ public class PdfReader implements Closeable {
     /**
      * Reads, decrypt and optionally decode stream bytes.
      * Note, this method doesn't store actual bytes in any internal structures.
+     * Reads of the same reader from different threads are serialized.
      *
      * @param stream a {@link PdfStream} stream instance to be read and optionally decoded.
      * @param decode true if to get decoded stream bytes, false if to leave it originally encoded.
@@ -363,17 +413,20 @@ public class PdfReader implements Closeable {
      * @throws IOException on error.
      */
     public byte[] readStreamBytes(PdfStream stream, boolean decode) throws IOException {
-        byte[] b = readStreamBytesRaw(stream);
-        if (decode && b != null) {
-            return decodeBytes(b, stream);
-        } else {
-            return b;
+        synchronized (readLock) {
+            byte[] b = readStreamBytesRaw(stream);
+            if (decode && b != null) {
+                return decodeBytes(b, stream);
+            } else {
+                return b;
+            }
         }
     }
 
     /**
      * Reads and decrypt stream bytes.
      * Note, this method doesn't store actual bytes in any internal structures.
+     * Reads of the same reader from different threads are serialized.
      *
      * @param stream a {@link PdfStream} stream instance to be read
      * @return byte[] array.
@@ -383,60 +436,66 @@ public class PdfReader implements Closeable {
         if (stream == null) {
             throw new PdfException(KernelExceptionMessageConstant.UNABLE_TO_READ_STREAM_BYTES);
         }
+        synchronized (readLock) {
+            return readStreamBytesRawUnderLock(stream);
+        }
+    }
 
-        PdfName type = stream.getAsName(PdfName.Type);
-        if (!PdfName.XRef.equals(type) && !PdfName.ObjStm.equals(type)) {
-            checkPdfStreamLength(stream);
+    /**
+     * Checks whether the encoded bytes of the stream are stored in the source as they are, i.e. the stream is
+     * not encrypted, so that they can be transferred with {@link #transferStreamBytesRaw} instead of being read.
+     * The length of the stream is corrected the same way as on reading.
+     *
+     * @param stream a {@link PdfStream} stream instance read by this reader
+     * @return true, if the raw bytes of the stream can be transferred
+     * @throws IOException on error.
+     */
+    boolean isStreamTransferable(PdfStream stream) throws IOException {
+        synchronized (readLock) {
+            if (decrypt != null) {
+                return false;
+            }
+            PdfName type = stream.getAsName(PdfName.Type);
+            if (!PdfName.XRef.equals(type) && !PdfName.ObjStm.equals(type)) {
+                checkPdfStreamLength(stream);
+            }
+            return stream.getOffset() > 0;
         }
-        long offset = stream.getOffset();
-        if (offset <= 0)
-            return null;
-        int length = stream.getLength();
-        if (length <= 0)
-            return new byte[0];
-        RandomAccessFileOrArray file = tokens.getSafeFile();
-        byte[] bytes = null;
-        try {
-            file.seek(offset);
-            bytes = new byte[length];
-            file.readFully(bytes);
-            boolean embeddedStream = pdfDocument.doesStreamBelongToEmbeddedFile(stream);
-            if (decrypt != null && (!decrypt.isEmbeddedFilesOnly() || embeddedStream)) {
-                PdfObject filter = stream.get(PdfName.Filter, true);
-                boolean skip = false;
-                if (filter != null) {
-                    if (filter.isFlushed()) {
-                        IndirectFilterUtils.throwFlushedFilterException(stream);
-                    }
-                    if (PdfName.Crypt.equals(filter)) {
-                        skip = true;
-                    } else if (filter.getType() == PdfObject.ARRAY) {
-                        PdfArray filters = (PdfArray) filter;
-                        for (int k = 0; k < filters.size(); k++) {
-                            if (filters.get(k).isFlushed()) {
-                                IndirectFilterUtils.throwFlushedFilterException(stream);
-                            }
-                            if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
-                                skip = true;
-                                break;
-                            }
-                        }
-                    }
-                    filter.release();
+    }
+
+    /**
+     * Writes a byte range of the source to the output through a fixed size buffer.
+     * Reads of the same reader from different threads are serialized.
+     *
+     * @param offset the position of the first byte
+     * @param length the number of bytes to transfer
+     * @param output the stream to write the bytes to
+     * @throws IOException on error.
+     */
+    void transferStreamBytesRaw(long offset, int length, java.io.OutputStream output) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        synchronized (readLock) {
+            RandomAccessFileOrArray file = tokens.getSafeFile();
+            try {
+                file.seek(offset);
+                byte[] buffer = new byte[Math.min(length, STREAM_TRANSFER_BUFFER_SIZE)];
+                int remaining = length;
+                while (remaining > 0) {
+                    int count = Math.min(remaining, buffer.length);
+                    file.readFully(buffer, 0, count);
+                    output.write(buffer, 0, count);
+                    remaining -= count;
                 }
-                if (!skip) {
-                    decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
-                    bytes = decrypt.decryptByteArray(bytes);
+            } finally {
+                try {
+                    file.close();
+                } catch (Exception e) {
+                    // ignored
                 }
             }
-        } finally {
-            try {
-                file.close();
-            } catch (Exception e) {
-                // ignored
-            }
         }
-        return bytes;
     }
 
     /**
@@ -778,40 +837,12 @@ public class PdfReader implements Closeable {
         }
 
         int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
-        int first = objectStream.getAsNumber(PdfName.First).intValue();
-        int n = objectStream.getAsNumber(PdfName.N).intValue();
-        byte[] bytes = readStreamBytes(objectStream, true);
+        DecodedObjectStream decodedObjectStream = decodeObjectStream(objectStream);
         PdfTokenizer saveTokens = tokens;
         try {
-            tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
-            int[] address = new int[n];
-            int[] objNumber = new int[n];
-            boolean ok = true;
-            for (int k = 0; k < n; ++k) {
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                objNumber[k] = tokens.getIntValue();
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                address[k] = tokens.getIntValue() + first;
-            }
-            if (!ok)
-                throw new PdfException(KernelExceptionMessageConstant.ERROR_WHILE_READING_OBJECT_STREAM);
-            for (int k = 0; k < n; ++k) {
-                tokens.seek(address[k]);
-                tokens.nextToken();
-                PdfObject obj;
-                PdfIndirectReference reference = pdfDocument.getXref().get(objNumber[k]);
+            tokens = decodedObjectStream.createTokenizer();
+            for (int k = 0; k < decodedObjectStream.objNumbers.length; ++k) {
+                PdfIndirectReference reference = pdfDocument.getXref().get(decodedObjectStream.objNumbers[k]);
                 if (reference.refersTo != null || reference.getObjStreamNumber() != objectStreamNumber) {
                     // We skip reading of objects stream's element k if either it is already available in xref
                     // or if corresponding indirect object reference points to a different object stream.
@@ -822,14 +853,7 @@ public class PdfReader implements Closeable {
 
                     continue;
                 }
-                if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
-                    // This ensure that we don't even try to read as indirect reference token (two numbers and "R")
-                    // which are forbidden in object streams.
-                    obj = new PdfNumber(tokens.getByteContent());
-                } else {
-                    tokens.seek(address[k]);
-                    obj = readObject(false, true);
-                }
+                PdfObject obj = readObjectStreamElement(decodedObjectStream.addresses[k]);
                 reference.setRefersTo(obj);
                 obj.setIndirectReference(reference);
             }
@@ -839,8 +863,22 @@ public class PdfReader implements Closeable {
         }
     }
 
+    /**
+     * Reads the object the given reference points to. The read object is set as the value of
+     * the reference before the reader is released, so concurrent requests for the same reference
+     * are resolved to a single {@link PdfObject} instance.
+     *
+     * @param reference the reference to the object to read
+     * @return the read object or {@code null} if the object can't be read
+     */
     protected PdfObject readObject(PdfIndirectReference reference) {
-        return readObject(reference, true);
+        synchronized (readLock) {
+            PdfObject object = readObject(reference, true);
+            if (reference != null && reference.refersTo == null) {
+                reference.setRefersTo(object);
+            }
+            return object;
+        }
     }
 
     protected PdfObject readObject(boolean readAsDirect) throws IOException {
@@ -1063,6 +1101,9 @@ public class PdfReader implements Closeable {
                             KernelExceptionMessageConstant.XREF_TABLE_HAS_CYCLED_REFERENCES);
                 }
             }
+            if (xrefProcessor.readKnownXref(pdfDocument.getXref(), pdfDocument, prevXrefOffset)) {
+                break;
+            }
             startxref = prevXrefOffset;
             tokens.seek(startxref);
             trailer2 = readXrefSection();
@@ -1075,6 +1116,7 @@ public class PdfReader implements Closeable {
     }
 
     protected PdfDictionary readXrefSection() throws IOException {
+        long xrefOffset = tokens.getPosition();
         tokens.nextValidToken();
         if (!tokens.tokenValueEqualsTo(PdfTokenizer.Xref))
             tokens.throwError(KernelExceptionMessageConstant.XREF_SUBSECTION_NOT_FOUND);
@@ -1116,41 +1158,43 @@ public class PdfReader implements Closeable {
                     end--;
                     continue;
                 }
+                if (xref.isNotLoaded(num)) {
+                    // the entry has already been read from a later revision
+                    continue;
+                }
                 PdfIndirectReference reference = xref.get(num);
                 boolean refReadingState = reference != null && reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen;
                 // for references that are added by xref table itself (like 0 entry)
                 boolean refFirstEncountered = reference == null
                         || !refReadingState && reference.getDocument() == null;
 
-                if (refFirstEncountered) {
-                    reference = new PdfIndirectReference(pdfDocument, num, gen, pos);
-                } else if (refReadingState) {
+                if (refReadingState) {
                     reference.setOffset(pos);
                     reference.clearState(PdfObject.READING);
-                } else {
+                } else if (!refFirstEncountered) {
                     continue;
                 }
 
+                boolean free = false;
                 if (tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
                     if (pos == 0) {
                         tokens.throwError(
                                 KernelExceptionMessageConstant.FILE_POSITION_0_CROSS_REFERENCE_ENTRY_IN_THIS_XREF_SUBSECTION);
                     }
                 } else if (tokens.tokenValueEqualsTo(PdfTokenizer.F)) {
-                    if (refFirstEncountered) {
-                        reference.setState(PdfObject.FREE);
-                    }
+                    free = true;
                 } else {
                     tokens.throwError(
                             KernelExceptionMessageConstant.INVALID_CROSS_REFERENCE_ENTRY_IN_THIS_XREF_SUBSECTION);
                 }
 
                 if (refFirstEncountered) {
-                    xref.add(reference);
+                    // the reference itself is only created when the object is requested
+                    xref.addNotLoadedEntry(pdfDocument, num, free ? 0 : 1, pos, gen);
                 }
             }
         }
-        processXref(xref);
+        processXref(xref, xrefOffset);
         PdfDictionary trailer = (PdfDictionary) readObject(false);
         PdfObject xrs = trailer.get(PdfName.XRefStm);
         if (xrs != null && xrs.getType() == PdfObject.NUMBER) {
@@ -1247,50 +1291,52 @@ public class PdfReader implements Closeable {
                         field3 = (field3 << 8) + (b[bptr++] & 0xff);
                     }
                     int base = start;
-                    PdfIndirectReference newReference;
-                    switch (type) {
-                        case 0:
-                            newReference = (PdfIndirectReference) new PdfIndirectReference(pdfDocument, base, field3, field2).setState(PdfObject.FREE);
-                            break;
-                        case 1:
-                            newReference = new PdfIndirectReference(pdfDocument, base, field3, field2);
-                            break;
-                        case 2:
-                            newReference = new PdfIndirectReference(pdfDocument, base, 0, field3);
-                            newReference.setObjStreamNumber((int) field2);
-                            break;
-                        default:
-                            throw new PdfException(KernelExceptionMessageConstant.INVALID_XREF_STREAM);
+                    if (type < 0 || type > 2) {
+                        throw new PdfException(KernelExceptionMessageConstant.INVALID_XREF_STREAM);
                     }
-
-                    PdfIndirectReference reference = xref.get(base);
-                    boolean refReadingState = reference != null && reference.checkState(PdfObject.READING) && reference.getGenNumber() == newReference.getGenNumber();
-                    // for references that are added by xref table itself (like 0 entry)
-                    boolean refFirstEncountered = reference == null
-                            || !refReadingState && reference.getDocument() == null;
-
-                    if (refFirstEncountered) {
-                        xref.add(newReference);
-                    } else if (refReadingState) {
-                        reference.setOffset(newReference.getOffset());
-                        reference.setObjStreamNumber(newReference.getObjStreamNumber());
-                        reference.clearState(PdfObject.READING);
+                    int generation = type == 2 ? 0 : field3;
+
+                    // the entries which have already been read from a later revision are skipped
+                    if (!xref.isNotLoaded(base)) {
+                        PdfIndirectReference reference = xref.get(base);
+                        boolean refReadingState = reference != null && reference.checkState(PdfObject.READING)
+                                && reference.getGenNumber() == generation;
+                        // for references that are added by xref table itself (like 0 entry)
+                        boolean refFirstEncountered = reference == null
+                                || !refReadingState && reference.getDocument() == null;
+
+                        if (refFirstEncountered) {
+                            // the reference itself is only created when the object is requested
+                            xref.addNotLoadedEntry(pdfDocument, base, type, field2, field3);
+                        } else if (refReadingState) {
+                            if (type == 2) {
+                                reference.setOffset(field3);
+                                reference.setObjStreamNumber((int) field2);
+                            } else {
+                                reference.setOffset(field2);
+                            }
+                            reference.clearState(PdfObject.READING);
+                        }
                     }
                     ++start;
                 }
             }
-            processXref(xref);
+            processXref(xref, ptr);
             ptr = prev;
             if (alreadyVisitedXrefStreams.contains(ptr)) {
                 throw new XrefCycledReferencesException(
                         KernelExceptionMessageConstant.XREF_STREAM_HAS_CYCLED_REFERENCES);
             }
+            if (ptr != -1 && xrefProcessor.readKnownXref(xref, pdfDocument, ptr)) {
+                break;
+            }
         }
         return true;
     }
 
     protected void fixXref() throws IOException {
         fixedXref = true;
+        decodedObjectStreams.clear();
         PdfXrefTable xref = pdfDocument.getXref();
         tokens.seek(0);
         ByteBuffer buffer = new ByteBuffer(24);
@@ -1328,43 +1374,32 @@ public class PdfReader implements Closeable {
         ByteBuffer buffer = new ByteBuffer(24);
         try (PdfTokenizer lineTokenizer = new PdfTokenizer(
                 new RandomAccessFileOrArray(new ReusableRandomAccessSource(buffer)))) {
-            Long trailerIndex = null;
-
-            for (; ; ) {
-                long pos = tokens.getPosition();
-                buffer.reset();
-
-                // added boolean because of mailing list issue (17 Feb. 2014)
-                if (!tokens.readLineSegment(buffer, true)) {
-                    break;
-                }
-                if (buffer.get(0) == 't') {
-                    if (!PdfTokenizer.checkTrailer(buffer)) {
-                        continue;
-                    }
-                    tokens.seek(pos);
-                    tokens.nextToken();
-                    pos = tokens.getPosition();
-                    if (isCurrentObjectATrailer()) {
-                        // if the pdf is linearized it is possible that the trailer has been read
-                        // before the actual objects it refers to this causes the trailer to have
-                        // objects in READING state that's why we keep track of the position  of the
-                        // trailer and then asign it when the whole pdf has been loaded
-                        trailerIndex = pos;
-                    } else {
-                        tokens.seek(pos);
-                    }
-                } else if (buffer.get(0) >= '0' && buffer.get(0) <= '9') {
-                    int[] obj = PdfTokenizer.checkObjectStart(lineTokenizer);
-                    if (obj == null) {
-                        continue;
-                    }
-                    int num = obj[0];
-                    int gen = obj[1];
-                    if (xref.get(num) == null || xref.get(num).getGenNumber() <= gen) {
-                        xref.add(new PdfIndirectReference(pdfDocument, num, gen, pos));
+            Long trailerIndex;
+            long length = tokens.length();
+            long chunkSize = getXrefRebuildChunkSize(length);
+            IRandomAccessSource concurrentSource = xrefRebuildExecutor != null && length > chunkSize
+                    ? createXrefRebuildSource(length) : null;
+            if (concurrentSource != null) {
+                trailerIndex = null;
+                long resumePosition = 0;
+                for (RebuiltXrefCandidates candidates : scanXrefRebuildChunks(concurrentSource, length, chunkSize)) {
+                    for (int i = 0; i < candidates.size; i++) {
+                        long pos = candidates.offsets[i];
+                        // lines which were consumed while reading a trailer dictionary are skipped
+                        if (pos < resumePosition) {
+                            continue;
+                        }
+                        if (candidates.trailers[i]) {
+                            tokens.seek(pos);
+                            trailerIndex = rebuildXrefLines(lineTokenizer, buffer, trailerIndex, true);
+                            resumePosition = tokens.getPosition();
+                        } else {
+                            addRebuiltReference(xref, candidates.numbers[i], candidates.generations[i], pos);
+                        }
                     }
                 }
+            } else {
+                trailerIndex = rebuildXrefLines(lineTokenizer, buffer, null, false);
             }
             // now that the document has been read fully the underlying trailer references won't be
             // in READING state when the pdf has been linearised now we can assign the trailer
@@ -1373,6 +1408,143 @@ public class PdfReader implements Closeable {
         }
     }
 
+    /**
+     * Reads lines from the current position of the tokenizer and adds the found object declarations to the
+     * cross-reference table.
+     *
+     * @param lineTokenizer the tokenizer built over the line buffer
+     * @param buffer the line buffer
+     * @param trailerIndex the position of the last found trailer, or {@code null} if none was found yet
+     * @param untilLineStart if {@code true}, reading stops after the first line which ends at an end of line, so that
+     *                       the position of the tokenizer is a line start again
+     * @return the position of the last found trailer, or {@code null} if none was found
+     * @throws IOException if an I/O error occurs
+     */
+    private Long rebuildXrefLines(PdfTokenizer lineTokenizer, ByteBuffer buffer, Long trailerIndex,
+            boolean untilLineStart) throws IOException {
+        PdfXrefTable xref = pdfDocument.getXref();
+        for (; ; ) {
+            long pos = tokens.getPosition();
+            buffer.reset();
+
+            // added boolean because of mailing list issue (17 Feb. 2014)
+            if (!tokens.readLineSegment(buffer, true)) {
+                break;
+            }
+            if (buffer.get(0) == 't' && PdfTokenizer.checkTrailer(buffer)) {
+                tokens.seek(pos);
+                tokens.nextToken();
+                pos = tokens.getPosition();
+                if (isCurrentObjectATrailer()) {
+                    // if the pdf is linearized it is possible that the trailer has been read
+                    // before the actual objects it refers to this causes the trailer to have
+                    // objects in READING state that's why we keep track of the position  of the
+                    // trailer and then asign it when the whole pdf has been loaded
+                    trailerIndex = pos;
+                } else {
+                    tokens.seek(pos);
+                }
+                continue;
+            }
+            if (buffer.get(0) >= '0' && buffer.get(0) <= '9') {
+                int[] obj = PdfTokenizer.checkObjectStart(lineTokenizer);
+                if (obj != null) {
+                    addRebuiltReference(xref, obj[0], obj[1], pos);
+                }
+            }
+            if (untilLineStart) {
+                break;
+            }
+        }
+        return trailerIndex;
+    }
+
+    private void addRebuiltReference(PdfXrefTable xref, int num, int gen, long pos) {
+        if (xref.get(num) == null || xref.get(num).getGenNumber() <= gen) {
+            xref.add(new PdfIndirectReference(pdfDocument, num, gen, pos));
+        }
+    }
+
+    private long getXrefRebuildChunkSize(long length) {
+        int parallelism = Math.max(Runtime.getRuntime().availableProcessors(), 1);
+        return Math.max(xrefRebuildMinChunkSize, length / (parallelism * 4L) + 1);
+    }
+
+    /**
+     * Creates a source over the document file, which the chunk scanners can read concurrently without locking.
+     *
+     * @param length the length of the document as read by the reader
+     * @return the source or {@code null} if the document isn't read from a file or the file can't be mapped
+     * @throws IOException if an I/O error occurs
+     */
+    private IRandomAccessSource createXrefRebuildSource(long length) throws IOException {
+        if (sourceFileName == null) {
+            return null;
+        }
+        IRandomAccessSource source = new RandomAccessSourceFactory().createConcurrentSource(sourceFileName);
+        if (source == null) {
+            return null;
+        }
+        // the document may start after some garbage, which the reader skips
+        long headerOffset = source.length() - length;
+        if (headerOffset < 0) {
+            source.close();
+            return null;
+        }
+        return headerOffset == 0 ? source : new WindowRandomAccessSource(source, headerOffset);
+    }
+
+    /**
+     * Scans the chunks of the document on the executor. The source is closed once all the chunks have been scanned.
+     */
+    private List<RebuiltXrefCandidates> scanXrefRebuildChunks(IRandomAccessSource source, long length,
+            long chunkSize) throws IOException {
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        List<Future<RebuiltXrefCandidates>> futures = new ArrayList<>();
+        for (long start = 0; start < length; start += chunkSize) {
+            futures.add(xrefRebuildExecutor.submit(new XrefRebuildChunkScanner(source, start,
+                    Math.min(start + chunkSize, length), cancelled)));
+        }
+        List<RebuiltXrefCandidates> result = new ArrayList<>(futures.size());
+        Throwable failure = null;
+        InterruptedException interruption = null;
+        try {
+            for (Future<RebuiltXrefCandidates> future : futures) {
+                boolean done = false;
+                while (!done) {
+                    try {
+                        result.add(future.get());
+                        done = true;
+                    } catch (InterruptedException e) {
+                        // keep waiting for the cancelled tasks, so that none of them reads the source after it is closed
+                        cancelled.set(true);
+                        interruption = e;
+                    } catch (ExecutionException e) {
+                        cancelled.set(true);
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
+                        done = true;
+                    }
+                }
+            }
+        } finally {
+            source.close();
+        }
+        if (interruption != null) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(KernelExceptionMessageConstant.XREF_REBUILD_INTERRUPTED, interruption);
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new PdfException(failure);
+        }
+        return result;
+    }
+
     private boolean isCurrentObjectATrailer() {
         try {
             final PdfDictionary dic = (PdfDictionary) readObject(false);
@@ -1477,6 +1649,9 @@ public class PdfReader implements Closeable {
                             , reference.getObjStreamNumber(), reference.getIndex()));
                 }
 
+                if (memorySavingMode) {
+                    return readObjectFromObjectStream(objectStream, reference);
+                }
                 readObjectStream(objectStream);
                 return reference.refersTo;
             } else if (reference.getOffset() > 0) {
@@ -1508,6 +1683,143 @@ public class PdfReader implements Closeable {
         }
     }
 
+    /**
+     * Reads a single object from the object stream. The decoded content of the recently used object streams
+     * is kept, so that the objects released in memory saving mode are read again without decoding the stream.
+     *
+     * @param objectStream the object stream, which contains the object
+     * @param reference the reference to the object to read
+     * @return the read object or {@code null} if the object stream doesn't contain the object
+     * @throws IOException if the object stream can't be read
+     */
+    private PdfObject readObjectFromObjectStream(PdfStream objectStream, PdfIndirectReference reference)
+            throws IOException {
+        int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
+        DecodedObjectStream decodedObjectStream = decodedObjectStreams.remove(objectStreamNumber);
+        if (decodedObjectStream == null) {
+            decodedObjectStream = decodeObjectStream(objectStream);
+        }
+        decodedObjectStreams.put(objectStreamNumber, decodedObjectStream);
+        if (decodedObjectStreams.size() > DECODED_OBJECT_STREAMS_CACHE_SIZE) {
+            Iterator<Integer> leastRecentlyUsed = decodedObjectStreams.keySet().iterator();
+            leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+        }
+        objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
+
+        int k = decodedObjectStream.indexOf(reference.getObjNumber(), reference.getIndex());
+        if (k < 0) {
+            return null;
+        }
+        PdfTokenizer saveTokens = tokens;
+        try {
+            tokens = decodedObjectStream.createTokenizer();
+            PdfObject obj = readObjectStreamElement(decodedObjectStream.addresses[k]);
+            reference.setRefersTo(obj);
+            obj.setIndirectReference(reference);
+            return obj;
+        } finally {
+            tokens = saveTokens;
+        }
+    }
+
+    private DecodedObjectStream decodeObjectStream(PdfStream objectStream) throws IOException {
+        int first = objectStream.getAsNumber(PdfName.First).intValue();
+        int n = objectStream.getAsNumber(PdfName.N).intValue();
+        DecodedObjectStream decodedObjectStream = new DecodedObjectStream(readStreamBytes(objectStream, true), n);
+        PdfTokenizer headerTokens = decodedObjectStream.createTokenizer();
+        boolean ok = true;
+        for (int k = 0; k < n; ++k) {
+            ok = headerTokens.nextToken();
+            if (!ok)
+                break;
+            if (headerTokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            decodedObjectStream.objNumbers[k] = headerTokens.getIntValue();
+            ok = headerTokens.nextToken();
+            if (!ok)
+                break;
+            if (headerTokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            decodedObjectStream.addresses[k] = headerTokens.getIntValue() + first;
+        }
+        if (!ok)
+            throw new PdfException(KernelExceptionMessageConstant.ERROR_WHILE_READING_OBJECT_STREAM);
+        return decodedObjectStream;
+    }
+
+    private PdfObject readObjectStreamElement(int address) throws IOException {
+        tokens.seek(address);
+        tokens.nextToken();
+        if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
+            // This ensure that we don't even try to read as indirect reference token (two numbers and "R")
+            // which are forbidden in object streams.
+            return new PdfNumber(tokens.getByteContent());
+        }
+        tokens.seek(address);
+        return readObject(false, true);
+    }
+
+    private byte[] readStreamBytesRawUnderLock(PdfStream stream) throws IOException {
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRef.equals(type) && !PdfName.ObjStm.equals(type)) {
+            checkPdfStreamLength(stream);
+        }
+        long offset = stream.getOffset();
+        if (offset <= 0)
+            return null;
+        int length = stream.getLength();
+        if (length <= 0)
+            return new byte[0];
+        RandomAccessFileOrArray file = tokens.getSafeFile();
+        byte[] bytes = null;
+        try {
+            file.seek(offset);
+            bytes = new byte[length];
+            file.readFully(bytes);
+            boolean embeddedStream = pdfDocument.doesStreamBelongToEmbeddedFile(stream);
+            if (decrypt != null && (!decrypt.isEmbeddedFilesOnly() || embeddedStream)) {
+                PdfObject filter = stream.get(PdfName.Filter, true);
+                boolean skip = false;
+                if (filter != null) {
+                    if (filter.isFlushed()) {
+                        IndirectFilterUtils.throwFlushedFilterException(stream);
+                    }
+                    if (PdfName.Crypt.equals(filter)) {
+                        skip = true;
+                    } else if (filter.getType() == PdfObject.ARRAY) {
+                        PdfArray filters = (PdfArray) filter;
+                        for (int k = 0; k < filters.size(); k++) {
+                            if (filters.get(k).isFlushed()) {
+                                IndirectFilterUtils.throwFlushedFilterException(stream);
+                            }
+                            if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
+                                skip = true;
+                                break;
+                            }
+                        }
+                    }
+                    filter.release();
+                }
+                if (!skip) {
+                    decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
+                    bytes = decrypt.decryptByteArray(bytes);
+                }
+            }
+        } finally {
+            try {
+                file.close();
+            } catch (Exception e) {
+                // ignored
+            }
+        }
+        return bytes;
+    }
+
     private void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
         if (!correctStreamLength)
             return;
@@ -1591,7 +1903,7 @@ public class PdfReader implements Closeable {
      */
     private static PdfTokenizer getOffsetTokeniser(IRandomAccessSource byteSource, boolean closeStream)
             throws IOException {
-        PdfTokenizer tok = new PdfTokenizer(new RandomAccessFileOrArray(byteSource));
+        PdfTokenizer tok = new PdfTokenizer(new RandomAccessFileOrArray(byteSource).enableReadWindow());
         int offset;
         try {
             offset = tok.getHeaderOffset();
@@ -1603,15 +1915,15 @@ public class PdfReader implements Closeable {
         }
         if (offset != 0) {
             IRandomAccessSource offsetSource = new WindowRandomAccessSource(byteSource, offset);
-            tok = new PdfTokenizer(new RandomAccessFileOrArray(offsetSource));
+            tok = new PdfTokenizer(new RandomAccessFileOrArray(offsetSource).enableReadWindow());
         }
         return tok;
     }
 
-    private void processXref(PdfXrefTable xrefTable) throws IOException {
+    private void processXref(PdfXrefTable xrefTable, long xrefOffset) throws IOException {
         long currentPosition = tokens.getPosition();
         try {
-            xrefProcessor.processXref(xrefTable, tokens);
+            xrefProcessor.processXref(xrefTable, tokens, xrefOffset);
         } finally {
             tokens.seek(currentPosition);
         }
@@ -1632,6 +1944,162 @@ public class PdfReader implements Closeable {
         }
     }
 
+    /**
+     * The decoded content of an object stream together with the numbers and the offsets of its objects.
+     */
+    private static final class DecodedObjectStream {
+        private final byte[] bytes;
+        private final int[] objNumbers;
+        private final int[] addresses;
+
+        DecodedObjectStream(byte[] bytes, int n) {
+            this.bytes = bytes;
+            this.objNumbers = new int[n];
+            this.addresses = new int[n];
+        }
+
+        PdfTokenizer createTokenizer() {
+            return new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes))
+                    .enableReadWindow());
+        }
+
+        int indexOf(int objNumber, int expectedIndex) {
+            if (expectedIndex >= 0 && expectedIndex < objNumbers.length && objNumbers[expectedIndex] == objNumber) {
+                return expectedIndex;
+            }
+            for (int k = 0; k < objNumbers.length; ++k) {
+                if (objNumbers[k] == objNumber) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Object declarations and trailer keywords found in a chunk of a document whose cross-reference table
+     * is being rebuilt. Offsets are the positions from which the sequential rebuild would read the lines.
+     */
+    private static final class RebuiltXrefCandidates {
+        private long[] offsets = new long[16];
+        private int[] numbers = new int[16];
+        private int[] generations = new int[16];
+        private boolean[] trailers = new boolean[16];
+        private int size;
+
+        void add(long offset, int number, int generation, boolean trailer) {
+            if (size == offsets.length) {
+                int newLength = size << 1;
+                offsets = Arrays.copyOf(offsets, newLength);
+                numbers = Arrays.copyOf(numbers, newLength);
+                generations = Arrays.copyOf(generations, newLength);
+                trailers = Arrays.copyOf(trailers, newLength);
+            }
+            offsets[size] = offset;
+            numbers[size] = number;
+            generations[size] = generation;
+            trailers[size] = trailer;
+            size++;
+        }
+    }
+
+    /**
+     * Scans the lines starting in [start, end) the same way {@link #rebuildXref()} reads them. Lines are split
+     * on the first end of line after their first non-whitespace byte, so the first line start of a chunk can be
+     * found from the neighbouring bytes only.
+     */
+    private static final class XrefRebuildChunkScanner implements Callable<RebuiltXrefCandidates> {
+        private final IRandomAccessSource source;
+        private final long start;
+        private final long end;
+        private final AtomicBoolean cancelled;
+
+        XrefRebuildChunkScanner(IRandomAccessSource source, long start, long end, AtomicBoolean cancelled) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public RebuiltXrefCandidates call() throws IOException {
+            RebuiltXrefCandidates candidates = new RebuiltXrefCandidates();
+            ByteBuffer buffer = new ByteBuffer(24);
+            PdfTokenizer lineTokenizer = new PdfTokenizer(
+                    new RandomAccessFileOrArray(new ReusableRandomAccessSource(buffer)));
+            PdfTokenizer chunkTokens = new PdfTokenizer(new RandomAccessFileOrArray(source).enableReadWindow());
+            chunkTokens.seek(findFirstLineStart(chunkTokens));
+            while (!cancelled.get()) {
+                long pos = chunkTokens.getPosition();
+                if (pos >= end) {
+                    break;
+                }
+                buffer.reset();
+                if (!chunkTokens.readLineSegment(buffer, true)) {
+                    break;
+                }
+                if (buffer.get(0) == 't') {
+                    if (PdfTokenizer.checkTrailer(buffer)) {
+                        candidates.add(pos, 0, 0, true);
+                    }
+                } else if (buffer.get(0) >= '0' && buffer.get(0) <= '9') {
+                    int[] obj = PdfTokenizer.checkObjectStart(lineTokenizer);
+                    if (obj != null) {
+                        candidates.add(pos, obj[0], obj[1], false);
+                    }
+                }
+            }
+            return candidates;
+        }
+
+        private long findFirstLineStart(PdfTokenizer chunkTokens) throws IOException {
+            if (start == 0) {
+                return 0;
+            }
+            // the last non-whitespace byte before the chunk belongs to a line which ends at the next end of line
+            long pos = start - 1;
+            while (pos >= 0 && PdfTokenizer.isWhitespace(source.get(pos))) {
+                pos--;
+            }
+            if (pos < 0) {
+                pos = findNonWhitespace(chunkTokens);
+            }
+            while (pos >= 0) {
+                chunkTokens.seek(pos);
+                int ch;
+                do {
+                    ch = chunkTokens.read();
+                } while (ch != -1 && ch != '\n' && ch != '\r');
+                if (ch == -1) {
+                    break;
+                }
+                if (ch == '\r') {
+                    long cur = chunkTokens.getPosition();
+                    if (chunkTokens.read() != '\n') {
+                        chunkTokens.seek(cur);
+                    }
+                }
+                if (chunkTokens.getPosition() >= start) {
+                    return chunkTokens.getPosition();
+                }
+                // the next line starts in this chunk, but the preceding chunk reads it
+                pos = findNonWhitespace(chunkTokens);
+            }
+            return end;
+        }
+
+        private long findNonWhitespace(PdfTokenizer chunkTokens) throws IOException {
+            chunkTokens.seek(start);
+            int ch;
+            while ((ch = chunkTokens.read()) != -1) {
+                if (!PdfTokenizer.isWhitespace(ch)) {
+                    return chunkTokens.getPosition() - 1;
+                }
+            }
+            return -1;
+        }
+    }
+
     protected static class ReusableRandomAccessSource implements IRandomAccessSource {
         private ByteBuffer buffer;
 
@@ -1716,11 +2184,28 @@ public class PdfReader implements Closeable {
          *
          * @param xrefTable {@link PdfXrefTable} to be processed
          * @param tokenizer {@link PdfTokenizer} to be processed
+         * @param xrefOffset the offset of the processed cross-reference section
          *
          * @throws IOException in case of input-output related exceptions during PDF document reading
          */
-        void processXref(PdfXrefTable xrefTable, PdfTokenizer tokenizer) throws IOException {
+        void processXref(PdfXrefTable xrefTable, PdfTokenizer tokenizer, long xrefOffset) throws IOException {
             // Do nothing.
         }
+
+        /**
+         * Fills the xref table with the entries of the cross-reference section at the given offset and all the
+         * previous sections, if they are already known, so that they aren't read from the document again.
+         * The entries, which have already been read from a later section, are kept.
+         *
+         * @param xrefTable {@link PdfXrefTable} to be filled
+         * @param document the document the entries belong to
+         * @param xrefOffset the offset of the cross-reference section
+         *
+         * @return {@code true} if the entries of the section have been added, {@code false} if the section
+         * is to be read from the document
+         */
+        boolean readKnownXref(PdfXrefTable xrefTable, PdfDocument document, long xrefOffset) {
+            return false;
+        }
     }
 }
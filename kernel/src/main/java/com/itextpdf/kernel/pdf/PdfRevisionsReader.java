@@ -43,6 +43,7 @@ import java.util.Set;
 public class PdfRevisionsReader {
     private final PdfReader reader;
     private List<DocumentRevision> documentRevisions = null;
+    private List<XrefSectionEntries> xrefSections = null;
     private IMetaInfo metaInfo;
 
     /**
@@ -86,17 +87,44 @@ public class PdfRevisionsReader {
                 newReader.setXrefProcessor(xrefProcessor);
                 newReader.readXref();
                 documentRevisions = xrefProcessor.getDocumentRevisions();
+                xrefSections = xrefProcessor.getXrefSections();
             }
             Collections.reverse(documentRevisions);
         }
         return documentRevisions;
     }
 
+    /**
+     * Creates a {@link PdfReader} of the document as it was at the given revision.
+     * <p>
+     * The created reader reads the bytes of the original document up to the end of the revision without copying them.
+     * The cross-reference sections, which have already been parsed while collecting the revisions, are shared with
+     * the created reader, so that only the last cross-reference section of the revision is read again.
+     * Validating all the revisions of a document thus doesn't require parsing the cross-reference sections of
+     * the previous revisions again and again.
+     *
+     * @param revision {@link DocumentRevision} to create the reader for
+     *
+     * @return {@link PdfReader} of the document revision
+     *
+     * @throws IOException in case of input-output related exceptions during PDF document reading
+     */
+    public PdfReader createRevisionReader(DocumentRevision revision) throws IOException {
+        getAllRevisions();
+        RandomAccessFileOrArray raf = reader.getSafeFile();
+        WindowRandomAccessSource source = new WindowRandomAccessSource(
+                raf.createSourceView(), 0, revision.getEofOffset());
+        PdfReader revisionReader = new PdfReader(source, reader.getPropertiesCopy(), true);
+        revisionReader.setXrefProcessor(new KnownXrefProcessor(xrefSections));
+        return revisionReader;
+    }
+
     static class RevisionsXrefProcessor extends XrefProcessor {
         private final List<DocumentRevision> documentRevisions = new ArrayList<>();
+        private final List<XrefSectionEntries> xrefSections = new ArrayList<>();
 
         @Override
-        void processXref(PdfXrefTable xrefTable, PdfTokenizer tokenizer) throws IOException {
+        void processXref(PdfXrefTable xrefTable, PdfTokenizer tokenizer, long xrefOffset) throws IOException {
             Set<PdfIndirectReference> modifiedObjects = new HashSet<>();
             for (int i = 0; i < xrefTable.size(); ++i) {
                 if (xrefTable.get(i) != null) {
@@ -105,11 +133,118 @@ public class PdfRevisionsReader {
             }
             long eofOffset = tokenizer.getNextEof();
             documentRevisions.add(new DocumentRevision(eofOffset, modifiedObjects));
+            xrefSections.add(new XrefSectionEntries(xrefOffset, modifiedObjects));
             xrefTable.clearAllReferences();
         }
 
         List<DocumentRevision> getDocumentRevisions() {
             return documentRevisions;
         }
+
+        List<XrefSectionEntries> getXrefSections() {
+            return xrefSections;
+        }
+    }
+
+    /**
+     * {@link XrefProcessor}, which fills the xref table with the already parsed entries of the cross-reference
+     * sections instead of reading the sections from the document again.
+     */
+    private static final class KnownXrefProcessor extends XrefProcessor {
+        // the sections in the order they are read, from the last one to the first one
+        private final List<XrefSectionEntries> xrefSections;
+
+        KnownXrefProcessor(List<XrefSectionEntries> xrefSections) {
+            this.xrefSections = xrefSections;
+        }
+
+        @Override
+        boolean readKnownXref(PdfXrefTable xrefTable, PdfDocument document, long xrefOffset) {
+            int first = -1;
+            for (int i = 0; i < xrefSections.size() && first < 0; ++i) {
+                if (xrefSections.get(i).xrefOffset == xrefOffset) {
+                    first = i;
+                }
+            }
+            if (first < 0) {
+                return false;
+            }
+            for (int i = first; i < xrefSections.size(); ++i) {
+                xrefSections.get(i).fillXrefTable(xrefTable, document);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The entries of a cross-reference section, stored the way they are read from the document.
+     */
+    private static final class XrefSectionEntries {
+        private final long xrefOffset;
+        private final int[] objNumbers;
+        private final int[] types;
+        private final long[] fields2;
+        private final int[] fields3;
+
+        XrefSectionEntries(long xrefOffset, Set<PdfIndirectReference> references) {
+            this.xrefOffset = xrefOffset;
+            List<PdfIndirectReference> readReferences = new ArrayList<>(references.size());
+            for (PdfIndirectReference reference : references) {
+                // the references, which are still being read, belong to the previous sections
+                if (!reference.checkState(PdfObject.READING)) {
+                    readReferences.add(reference);
+                }
+            }
+            int size = readReferences.size();
+            objNumbers = new int[size];
+            types = new int[size];
+            fields2 = new long[size];
+            fields3 = new int[size];
+            for (int i = 0; i < size; ++i) {
+                PdfIndirectReference reference = readReferences.get(i);
+                objNumbers[i] = reference.getObjNumber();
+                if (reference.isFree()) {
+                    fields2[i] = reference.getOffset();
+                    fields3[i] = reference.getGenNumber();
+                } else if (reference.getObjStreamNumber() > 0) {
+                    types[i] = 2;
+                    fields2[i] = reference.getObjStreamNumber();
+                    fields3[i] = reference.getIndex();
+                } else {
+                    types[i] = 1;
+                    fields2[i] = reference.getOffset();
+                    fields3[i] = reference.getGenNumber();
+                }
+            }
+        }
+
+        void fillXrefTable(PdfXrefTable xrefTable, PdfDocument document) {
+            for (int i = 0; i < objNumbers.length; ++i) {
+                int objNumber = objNumbers[i];
+                // the entries which have already been read from a later revision are skipped
+                if (xrefTable.isNotLoaded(objNumber)) {
+                    continue;
+                }
+                int generation = types[i] == 2 ? 0 : fields3[i];
+                PdfIndirectReference reference = xrefTable.get(objNumber);
+                boolean refReadingState = reference != null && reference.checkState(PdfObject.READING)
+                        && reference.getGenNumber() == generation;
+                // for references that are added by xref table itself (like 0 entry)
+                boolean refFirstEncountered = reference == null
+                        || !refReadingState && reference.getDocument() == null;
+
+                if (refFirstEncountered) {
+                    xrefTable.addNotLoadedEntry(document, objNumber, types[i], fields2[i], fields3[i]);
+                } else if (refReadingState) {
+                    if (types[i] == 2) {
+                        reference.setOffset(fields3[i]);
+                        reference.setObjStreamNumber((int) fields2[i]);
+                    } else {
+                        reference.setOffset(fields2[i]);
+                    }
+                    reference.clearState(PdfObject.READING);
+                }
+            }
+        }
     }
 }
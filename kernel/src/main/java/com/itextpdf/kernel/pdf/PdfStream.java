@@ -46,6 +46,11 @@ public class PdfStream extends PdfDictionary {
     private long offset;
     private int length = -1;
 
+    // a stream copied in raw mode keeps the range of its encoded bytes in the source instead of the bytes
+    private PdfReader rawContentReader;
+    private long rawContentOffset;
+    private int rawContentLength;
+
     /**
      * Constructs a {@code PdfStream}-object.
      *
@@ -160,12 +165,32 @@ public class PdfStream extends PdfDictionary {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the stream buffer provider is set in the {@link WriterProperties} of the document, the content of the
+     * stream is moved to a buffer created by the provider.
+     */
+    @Override
+    public PdfObject makeIndirect(PdfDocument document, PdfIndirectReference reference) {
+        boolean madeIndirect = document != null && getIndirectReference() == null;
+        super.makeIndirect(document, reference);
+        IStreamBufferProvider provider = madeIndirect ? document.getWriter().properties.streamBufferProvider : null;
+        // only the buffer created by the stream itself is replaced, not the one passed by the caller
+        if (provider != null && outputStream != null && outputStream.getOutputStream() != null
+                && outputStream.getOutputStream().getClass() == ByteArrayOutputStream.class) {
+            outputStream.replaceContentBuffer(provider.createBuffer());
+        }
+        return this;
+    }
+
     /**
      * Gets output stream.
      *
      * @return output stream
      */
     public PdfOutputStream getOutputStream() {
+        readRawContent();
         return outputStream;
     }
 
@@ -226,6 +251,7 @@ public class PdfStream extends PdfDictionary {
                     "getBytes() always returns null in this case");
             return null;
         }
+        readRawContent();
         byte[] bytes = null;
         if (outputStream != null && outputStream.getOutputStream() != null) {
             assert outputStream.getOutputStream() instanceof ByteArrayOutputStream
@@ -284,6 +310,11 @@ public class PdfStream extends PdfDictionary {
             throw new PdfException(
                     KernelExceptionMessageConstant.CANNOT_SET_DATA_TO_PDF_STREAM_WHICH_WAS_CREATED_BY_INPUT_STREAM);
         }
+        if (append) {
+            readRawContent();
+        } else {
+            rawContentReader = null;
+        }
 
         boolean outputStreamIsUninitialized = outputStream == null;
         if (outputStreamIsUninitialized) {
@@ -353,6 +384,10 @@ public class PdfStream extends PdfDictionary {
         super.copyContent(from, document, copyFilter);
         PdfStream stream = (PdfStream) from;
         assert inputStream == null : "Try to copy the PdfStream that has been just created.";
+        if (document != null && document.getWriter() != null && document.getWriter().properties.rawStreamCopy
+                && copyRawContent(stream)) {
+            return;
+        }
         byte[] bytes = stream.getBytes(false);
         try {
             outputStream.write(bytes);
@@ -361,6 +396,36 @@ public class PdfStream extends PdfDictionary {
         }
     }
 
+    /**
+     * Checks whether the stream holds only the range of its encoded bytes in the source document.
+     *
+     * @return true, if the stream was copied in raw mode and its content has not been read yet
+     */
+    boolean hasRawContent() {
+        return rawContentReader != null;
+    }
+
+    /**
+     * Gets the length of the encoded content of a stream copied in raw mode.
+     *
+     * @return the number of bytes of the content in the source document
+     */
+    int getRawContentLength() {
+        return rawContentLength;
+    }
+
+    /**
+     * Writes the encoded bytes of a stream copied in raw mode from the source document to the output.
+     *
+     * @param output the stream to write the bytes to
+     * @throws IOException on error
+     */
+    void transferRawContent(java.io.OutputStream output) throws IOException {
+        PdfReader reader = rawContentReader;
+        rawContentReader = null;
+        reader.transferStreamBytesRaw(rawContentOffset, rawContentLength, output);
+    }
+
     protected void initOutputStream(java.io.OutputStream stream) {
         if (getOutputStream() == null && inputStream == null)
             outputStream = new PdfOutputStream(stream != null ? stream : new ByteArrayOutputStream());
@@ -371,6 +436,7 @@ public class PdfStream extends PdfDictionary {
      */
     protected void releaseContent() {
         super.releaseContent();
+        rawContentReader = null;
         try {
             if (outputStream != null) {
                 outputStream.close();
@@ -384,4 +450,37 @@ public class PdfStream extends PdfDictionary {
     protected InputStream getInputStream() {
         return inputStream;
     }
+
+    private boolean copyRawContent(PdfStream stream) {
+        // only the content of streams which were read and have not been changed since is stored in the source
+        if (stream.outputStream != null || stream.isFlushed() || stream.getIndirectReference() == null) {
+            return false;
+        }
+        PdfReader reader = stream.getIndirectReference().getReader();
+        try {
+            if (reader == null || !reader.isStreamTransferable(stream)) {
+                return false;
+            }
+        } catch (IOException ioe) {
+            throw new PdfException(KernelExceptionMessageConstant.CANNOT_COPY_OBJECT_CONTENT, ioe, stream);
+        }
+        rawContentReader = reader;
+        rawContentOffset = stream.getOffset();
+        rawContentLength = Math.max(stream.getLength(), 0);
+        return true;
+    }
+
+    private void readRawContent() {
+        if (rawContentReader == null) {
+            return;
+        }
+        if (outputStream == null) {
+            outputStream = new PdfOutputStream(new ByteArrayOutputStream(rawContentLength));
+        }
+        try {
+            transferRawContent(outputStream);
+        } catch (IOException ioe) {
+            throw new PdfException(KernelExceptionMessageConstant.CANNOT_GET_PDF_STREAM_BYTES, ioe, this);
+        }
+    }
 }
@@ -27,9 +27,11 @@ import com.itextpdf.io.logs.IoLogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.font.FontSubsetCache;
 import com.itextpdf.kernel.mac.AbstractMacIntegrityProtector;
 import com.itextpdf.kernel.mac.IMacContainerLocator;
 import com.itextpdf.kernel.pdf.event.PdfDocumentEvent;
+import com.itextpdf.kernel.pdf.tagging.PdfStructElem;
 import com.itextpdf.kernel.utils.ICopyFilter;
 import com.itextpdf.kernel.utils.NullCopyFilter;
 
@@ -37,6 +39,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,8 +68,13 @@ public class PdfWriter extends PdfOutputStream {
     /**
      * Is used in smart mode to serialize and store serialized objects content.
      */
-    private final SmartModePdfObjectsSerializer smartModeSerializer = new SmartModePdfObjectsSerializer();
+    private SmartModePdfObjectsSerializer smartModeSerializer;
     private OutputStream originalOutputStream;
+    /**
+     * Deflates the content of the flushed streams if the compression executor is set.
+     */
+    private StreamCompressionPipeline compressionPipeline;
+    private boolean compressionPipelineCompleted;
 
     /**
      * Create a PdfWriter writing to the passed File and with default writer properties.
@@ -179,6 +187,15 @@ public class PdfWriter extends PdfOutputStream {
         return properties;
     }
 
+    /**
+     * Gets the cache of the font subsets shared with other writers.
+     *
+     * @return the {@link FontSubsetCache} set in the {@link WriterProperties}, or {@code null}
+     */
+    public FontSubsetCache getFontSubsetCache() {
+        return properties.fontSubsetCache;
+    }
+
     /**
      * Sets the smart mode.
      * <br>
@@ -197,6 +214,26 @@ public class PdfWriter extends PdfOutputStream {
         return this;
     }
 
+    /**
+     * Gets the number of the objects copied in smart mode, which have been replaced with the already copied
+     * objects with the same content.
+     *
+     * @return the number of the smart mode cache hits
+     */
+    public long getSmartModeHitCount() {
+        return smartModeSerializer == null ? 0 : smartModeSerializer.getHitCount();
+    }
+
+    /**
+     * Gets the number of the objects copied in smart mode, for which no already copied object with the same
+     * content has been found.
+     *
+     * @return the number of the smart mode cache misses
+     */
+    public long getSmartModeMissCount() {
+        return smartModeSerializer == null ? 0 : smartModeSerializer.getMissCount();
+    }
+
     /**
      * Initializes {@link PdfEncryption} object if any encryption is specified in {@link WriterProperties}.
      *
@@ -246,32 +283,23 @@ public class PdfWriter extends PdfOutputStream {
             PdfObjectStream objectStream = getObjectStream();
             objectStream.addObject(pdfObject);
         } else {
+            StreamCompressionPipeline pipeline = getCompressionPipeline();
+            if (pipeline != null) {
+                // the direct objects which must be indirect are numbered as if the object was written right away
+                makeContentIndirect(pdfObject);
+                indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+                markContentToFlush(pdfObject);
+                if (pipeline.add(pdfObject)) {
+                    // the object is written and released by the pipeline in flushing order
+                    return;
+                }
+            }
             indirectReference.setOffset(getCurrentPos());
             writeToBody(pdfObject);
         }
         indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
-        switch (pdfObject.getType()) {
-            case PdfObject.BOOLEAN:
-            case PdfObject.NAME:
-            case PdfObject.NULL:
-            case PdfObject.NUMBER:
-            case PdfObject.STRING:
-                ((PdfPrimitiveObject) pdfObject).content = null;
-                break;
-            case PdfObject.ARRAY:
-                PdfArray array = ((PdfArray) pdfObject);
-                markArrayContentToFlush(array);
-                array.releaseContent();
-                break;
-            case PdfObject.STREAM:
-            case PdfObject.DICTIONARY:
-                PdfDictionary dictionary = ((PdfDictionary) pdfObject);
-                markDictionaryContentToFlush(dictionary);
-                dictionary.releaseContent();
-                break;
-            case PdfObject.INDIRECT_REFERENCE:
-                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
-        }
+        markContentToFlush(pdfObject);
+        releaseFlushedContent(pdfObject);
     }
 
     /**
@@ -325,6 +353,9 @@ public class PdfWriter extends PdfOutputStream {
         SerializedObjectContent serializedContent = null;
         if (properties.smartMode && tryToFindDuplicate && !checkTypeOfPdfDictionary(obj, PdfName.Page) &&
                 !checkTypeOfPdfDictionary(obj, PdfName.OCG) && !checkTypeOfPdfDictionary(obj, PdfName.OCMD)) {
+            if (smartModeSerializer == null) {
+                smartModeSerializer = new SmartModePdfObjectsSerializer(properties.smartModeCacheSize);
+            }
             serializedContent = smartModeSerializer.serializeObject(obj);
             PdfIndirectReference objectRef = smartModeSerializer.getSavedSerializedObject(serializedContent);
             if (objectRef != null) {
@@ -383,7 +414,8 @@ public class PdfWriter extends PdfOutputStream {
         boolean needFlush = true;
         while (needFlush) {
             needFlush = false;
-            for (int i = 1; i < xref.size(); i++) {
+            // only the marked objects are visited, in the same order as a full scan of the table would visit them
+            for (int i = xref.nextMustBeFlushedMark(1); i >= 0; i = xref.nextMustBeFlushedMark(i + 1)) {
                 PdfIndirectReference indirectReference = xref.get(i);
                 if (indirectReference != null && !indirectReference.isFree()
                         && indirectReference.checkState(PdfObject.MUST_BE_FLUSHED)
@@ -394,6 +426,9 @@ public class PdfWriter extends PdfOutputStream {
                         needFlush = true;
                     }
                 }
+                if (indirectReference == null || !indirectReference.checkState(PdfObject.MUST_BE_FLUSHED)) {
+                    xref.clearMustBeFlushedMark(i);
+                }
             }
         }
         if (objectStream != null && objectStream.getSize() > 0) {
@@ -410,17 +445,17 @@ public class PdfWriter extends PdfOutputStream {
      */
     protected void flushModifiedWaitingObjects(Set<PdfIndirectReference> forbiddenToFlush) {
         PdfXrefTable xref = document.getXref();
-        for (int i = 1; i < xref.size(); i++) {
+        for (int i = xref.nextModifiedMark(1); i >= 0; i = xref.nextModifiedMark(i + 1)) {
             PdfIndirectReference indirectReference = xref.get(i);
-            if (null != indirectReference && !indirectReference.isFree() && !forbiddenToFlush.contains(
-                    indirectReference)) {
-                boolean isModified = indirectReference.checkState(PdfObject.MODIFIED);
-                if (isModified) {
-                    PdfObject obj = indirectReference.getRefersTo(false);
-                    if (obj != null) {
-                        if (!obj.equals(objectStream)) {
-                            obj.flush();
-                        }
+            if (indirectReference == null || !indirectReference.checkState(PdfObject.MODIFIED)) {
+                xref.clearModifiedMark(i);
+                continue;
+            }
+            if (!indirectReference.isFree() && !forbiddenToFlush.contains(indirectReference)) {
+                PdfObject obj = indirectReference.getRefersTo(false);
+                if (obj != null) {
+                    if (!obj.equals(objectStream)) {
+                        obj.flush();
                     }
                 }
             }
@@ -454,14 +489,27 @@ public class PdfWriter extends PdfOutputStream {
             return null;
         }
         if (objectStream == null) {
-            objectStream = new PdfObjectStream(document);
-        } else if (objectStream.getSize() == PdfObjectStream.MAX_OBJ_STREAM_SIZE) {
+            objectStream = properties.objectStreamByteBudget > 0
+                    ? new PdfObjectStream(document, Integer.MAX_VALUE) : new PdfObjectStream(document);
+        } else if (objectStream.isFull() || properties.objectStreamByteBudget > 0
+                && objectStream.getContentLength() >= properties.objectStreamByteBudget) {
             objectStream.flush();
             objectStream = new PdfObjectStream(objectStream);
         }
         return objectStream;
     }
 
+    /**
+     * Completes the current object stream, if the objects are packed into object streams by pages, so the objects
+     * flushed afterwards are put into a new object stream.
+     */
+    void completePageObjectStream() {
+        if (properties.objectStreamByteBudget > 0 && objectStream != null && objectStream.getSize() > 0) {
+            objectStream.flush();
+            objectStream = null;
+        }
+    }
+
     /**
      * Flush all copied objects.
      *
@@ -483,6 +531,35 @@ public class PdfWriter extends PdfOutputStream {
         }
     }
 
+    /**
+     * Flushes the objects copied from the document and removes all the objects copied from it from the cache,
+     * including the ones which have already been flushed.
+     * <p>
+     * The elements of the tag structure, the namespaces and the optional content groups are not flushed, as they
+     * are collected into the document structures later and are written with them. The form fields, the widget
+     * annotations and the pages, which haven't been flushed yet, are not flushed either, since the fields copied
+     * later may be merged with them.
+     *
+     * @param docId the id of the source document
+     */
+    void releaseCopiedObjects(long docId) {
+        boolean keepTagStructure = document.isTagged() && !document.getStructTreeRoot().isFlushed();
+        Iterator<Map.Entry<PdfIndirectReference, PdfIndirectReference>> iterator =
+                copiedObjects.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PdfIndirectReference, PdfIndirectReference> copiedObject = iterator.next();
+            PdfDocument source = copiedObject.getKey().getDocument();
+            if (source == null || source.getDocumentId() != docId) {
+                continue;
+            }
+            PdfObject object = copiedObject.getValue().refersTo;
+            if (object != null && !object.isFlushed() && !isCollectedOnClosing(object, keepTagStructure)) {
+                object.flush();
+            }
+            iterator.remove();
+        }
+    }
+
     void enableByteArrayWritingMode() {
         if (isByteArrayWritingMode()) {
             throw new PdfException("Byte array writing mode is already enabled");
@@ -492,6 +569,23 @@ public class PdfWriter extends PdfOutputStream {
         }
     }
 
+    private static boolean isCollectedOnClosing(PdfObject object, boolean keepTagStructure) {
+        if (object.getType() != PdfObject.DICTIONARY) {
+            return false;
+        }
+        PdfDictionary dictionary = (PdfDictionary) object;
+        if (checkTypeOfPdfDictionary(dictionary, PdfName.OCG) || checkTypeOfPdfDictionary(dictionary, PdfName.OCMD)
+                || checkTypeOfPdfDictionary(dictionary, PdfName.Page)) {
+            return true;
+        }
+        if (dictionary.containsKey(PdfName.FT) || dictionary.containsKey(PdfName.T)
+                || dictionary.containsKey(PdfName.Kids) || PdfName.Widget.equals(dictionary.getAsName(PdfName.Subtype))) {
+            return true;
+        }
+        return keepTagStructure && (PdfStructElem.isStructElem(dictionary)
+                || checkTypeOfPdfDictionary(dictionary, PdfName.Namespace));
+    }
+
     private void completeByteArrayWritingMode() throws IOException {
         byte[] baos = ((ByteArrayOutputStream) getOutputStream()).toByteArray();
         originalOutputStream.write(baos, 0, baos.length);
@@ -502,6 +596,121 @@ public class PdfWriter extends PdfOutputStream {
         return originalOutputStream != null;
     }
 
+    /**
+     * Writes an object which has been flushed to the compression pipeline.
+     *
+     * @param pdfObject the flushed object
+     */
+    void writePendingObject(PdfObject pdfObject) {
+        pdfObject.getIndirectReference().setOffset(getCurrentPos());
+        writeToBody(pdfObject);
+        releaseFlushedContent(pdfObject);
+    }
+
+    /**
+     * Writes all the objects waiting in the compression pipeline and stops deflating the content of streams
+     * in parallel, so the objects flushed afterwards are written right away.
+     */
+    void completeCompressionPipeline() {
+        if (compressionPipeline != null) {
+            compressionPipeline.writeAll();
+            compressionPipeline = null;
+        }
+        compressionPipelineCompleted = true;
+    }
+
+    @Override
+    ByteArrayOutputStream getEncryptedContent(PdfStream pdfStream) {
+        return compressionPipeline == null ? null : compressionPipeline.getEncryptedContent(pdfStream);
+    }
+
+    @Override
+    ByteArrayOutputStream getCompressedContent(PdfStream pdfStream, boolean deflatedOnWriting) {
+        ByteArrayOutputStream compressedContent = compressionPipeline == null
+                ? null : compressionPipeline.getCompressedContent(pdfStream);
+        CompressedStreamRegistry registry = properties.compressedStreamRegistry;
+        // the compression level of the stream is already resolved here, so the decision made before that is used
+        if (registry == null || !deflatedOnWriting || pdfStream instanceof PdfObjectStream
+                || !(pdfStream.getOutputStream().getOutputStream() instanceof ByteArrayOutputStream)) {
+            return compressedContent;
+        }
+        ByteArrayOutputStream content = (ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream();
+        if (compressedContent == null) {
+            return registry.getCompressedContent(content, pdfStream.getCompressionLevel());
+        }
+        // the large content is deflated by the pipeline in blocks, which differ from the content deflated at once
+        if (content.size() < StreamCompressionPipeline.BLOCK_DEFLATE_THRESHOLD) {
+            registry.registerCompressedContent(content, pdfStream.getCompressionLevel(), compressedContent);
+        }
+        return compressedContent;
+    }
+
+    private StreamCompressionPipeline getCompressionPipeline() {
+        if (compressionPipeline == null && !compressionPipelineCompleted && properties.compressionExecutor != null) {
+            compressionPipeline = new StreamCompressionPipeline(this, properties.compressionExecutor);
+        }
+        return compressionPipeline;
+    }
+
+    private void makeContentIndirect(PdfObject pdfObject) {
+        // traverses the content in the same order as PdfOutputStream#write does
+        if (pdfObject.getType() == PdfObject.ARRAY) {
+            PdfArray array = (PdfArray) pdfObject;
+            for (int i = 0; i < array.size(); i++) {
+                makeIndirectIfRequired(array.get(i, false));
+            }
+        } else if (pdfObject.getType() == PdfObject.DICTIONARY || pdfObject.getType() == PdfObject.STREAM) {
+            PdfDictionary dictionary = (PdfDictionary) pdfObject;
+            for (PdfName key : dictionary.keySet()) {
+                makeIndirectIfRequired(dictionary.get(key, false));
+            }
+        }
+    }
+
+    private void makeIndirectIfRequired(PdfObject value) {
+        if (value == null || value.getIndirectReference() != null) {
+            return;
+        }
+        if (value.checkState(PdfObject.MUST_BE_INDIRECT)) {
+            value.makeIndirect(document);
+        } else if (value.getType() == PdfObject.ARRAY || value.getType() == PdfObject.DICTIONARY) {
+            makeContentIndirect(value);
+        }
+    }
+
+    private void markContentToFlush(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.ARRAY:
+                markArrayContentToFlush((PdfArray) pdfObject);
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                markDictionaryContentToFlush((PdfDictionary) pdfObject);
+                break;
+            case PdfObject.INDIRECT_REFERENCE:
+                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
+        }
+    }
+
+    private static void releaseFlushedContent(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.BOOLEAN:
+            case PdfObject.NAME:
+            case PdfObject.NULL:
+            case PdfObject.NUMBER:
+            case PdfObject.STRING:
+                ((PdfPrimitiveObject) pdfObject).content = null;
+                break;
+            case PdfObject.ARRAY:
+                ((PdfArray) pdfObject).releaseContent();
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                ((PdfDictionary) pdfObject).releaseContent();
+                break;
+        }
+    }
+
     private void markArrayContentToFlush(PdfArray array) {
         for (int i = 0; i < array.size(); i++) {
             markObjectToFlush(array.get(i, false));
@@ -33,6 +33,7 @@ import com.itextpdf.kernel.validation.context.XrefTableValidationContext;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -49,6 +50,14 @@ public class PdfXrefTable {
     private static final int INITIAL_CAPACITY = 32;
     private static final int MAX_GENERATION = 65535;
 
+    /**
+     * Kinds of the entries which have been read from the document, but whose references haven't been created yet.
+     * The values are the cross-reference stream entry types increased by one, so that zero means no such entry.
+     */
+    private static final byte NOT_LOADED_FREE = 1;
+    private static final byte NOT_LOADED_IN_USE = 2;
+    private static final byte NOT_LOADED_COMPRESSED = 3;
+
     /**
      * The maximum offset in a cross-reference stream. This is a limitation of the PDF specification.
      * SPEC1.7: 7.5.4 Cross reference trailer
@@ -63,6 +72,23 @@ public class PdfXrefTable {
 
     private PdfIndirectReference[] xref;
     private int count = 0;
+
+    /**
+     * The entries read from the document are kept in these arrays until their references are requested.
+     * The second and the third fields have the same meaning as in cross-reference stream entries: the offset
+     * (or the object stream number) and the generation number (or the index in the object stream).
+     * The arrays are created with the first such entry and have the same length as {@link #xref}.
+     */
+    private PdfDocument notLoadedEntriesDocument;
+    private byte[] notLoadedEntryKinds;
+    private long[] notLoadedEntryOffsets;
+    private int[] notLoadedEntryNumbers;
+    /**
+     * Guards the entries array and the not loaded entries, so that references can be requested from several
+     * threads while a document is read, e.g. by parallel content processing. Other operations, like writing the
+     * table, are expected to be performed by a single thread.
+     */
+    private final Object entriesLock = new Object();
     private boolean readingCompleted;
     private MemoryLimitsAwareHandler memoryLimitsAwareHandler;
 
@@ -73,6 +99,14 @@ public class PdfXrefTable {
      */
     private final TreeMap<Integer, PdfIndirectReference> freeReferencesLinkedList;
 
+    /**
+     * Numbers of the objects whose references have been set to {@link PdfObject#MUST_BE_FLUSHED} and
+     * {@link PdfObject#MODIFIED} states. The marks are not removed when the state is cleared,
+     * so the state of the reference shall be checked anyway.
+     */
+    private final BitSet mustBeFlushedMarks = new BitSet();
+    private final BitSet modifiedMarks = new BitSet();
+
     /**
      * Creates a {@link PdfXrefTable} which will be used to store xref structure of the pdf document.
      * Capacity and {@link MemoryLimitsAwareHandler} instance would be set by default values.
@@ -139,9 +173,15 @@ public class PdfXrefTable {
             return null;
         }
         int objNr = reference.getObjNumber();
-        this.count = Math.max(this.count, objNr);
-        ensureCount(objNr);
-        xref[objNr] = reference;
+        synchronized (entriesLock) {
+            this.count = Math.max(this.count, objNr);
+            ensureCount(objNr);
+            xref[objNr] = reference;
+            if (notLoadedEntryKinds != null) {
+                notLoadedEntryKinds[objNr] = 0;
+            }
+        }
+        markState(reference);
         return reference;
     }
 
@@ -162,8 +202,9 @@ public class PdfXrefTable {
     public int getCountOfIndirectObjects() {
         int countOfIndirectObjects = 0;
 
-        for (final PdfIndirectReference ref: xref) {
-            if (ref != null && ! ref.isFree()) {
+        for (int i = 0; i < xref.length; i++) {
+            PdfIndirectReference ref = xref[i];
+            if (ref != null ? !ref.isFree() : getNotLoadedEntryKind(i) > NOT_LOADED_FREE) {
                 countOfIndirectObjects++;
             }
         }
@@ -173,15 +214,23 @@ public class PdfXrefTable {
 
     /**
      * Get appropriate reference to indirect object.
+     * <p>
+     * The method can be called from several threads at the same time.
      *
      * @param index is the index of required object
      * @return reference to object with the provided index
      */
     public PdfIndirectReference get(int index) {
-        if (index > count) {
-            return null;
+        synchronized (entriesLock) {
+            if (index > count) {
+                return null;
+            }
+            PdfIndirectReference reference = xref[index];
+            if (reference == null && getNotLoadedEntryKind(index) != 0) {
+                reference = loadEntry(index);
+            }
+            return reference;
         }
-        return xref[index];
     }
 
     /**
@@ -241,8 +290,10 @@ public class PdfXrefTable {
      * @param capacity is a new capacity to set
      */
     protected void setCapacity(int capacity) {
-        if (capacity > xref.length) {
-            extendXref(capacity);
+        synchronized (entriesLock) {
+            if (capacity > xref.length) {
+                extendXref(capacity);
+            }
         }
     }
 
@@ -259,7 +310,7 @@ public class PdfXrefTable {
 
         if (!document.properties.appendMode) {
             for (int i = count; i > 0; --i) {
-                PdfIndirectReference lastRef = xref[i];
+                PdfIndirectReference lastRef = get(i);
                 if (lastRef == null || lastRef.isFree()) {
                     removeFreeRefFromList(i);
                     --count;
@@ -435,33 +486,34 @@ public class PdfXrefTable {
         freeReferencesLinkedList.clear();
 
         // ensure zero object is free
-        xref[0].setState(PdfObject.FREE);
+        get(0).setState(PdfObject.FREE);
         TreeSet<Integer> freeReferences = new TreeSet<>();
         for (int i = 1; i < size() && i < xref.length; ++i) {
             PdfIndirectReference ref = xref[i];
-            if (ref == null || ref.isFree()) {
+            // the entries which are in use are not loaded here
+            if (ref == null ? getNotLoadedEntryKind(i) <= NOT_LOADED_FREE : ref.isFree()) {
                 freeReferences.add(i);
             }
         }
 
-        PdfIndirectReference prevFreeRef = xref[0];
+        PdfIndirectReference prevFreeRef = get(0);
         while (!freeReferences.<Integer>isEmpty()) {
             int currFreeRefObjNr = -1;
             if (prevFreeRef.getOffset() <= Integer.MAX_VALUE) {
                 currFreeRefObjNr = (int) prevFreeRef.getOffset();
             }
-            if (!freeReferences.contains(currFreeRefObjNr) || xref[currFreeRefObjNr] == null) {
+            if (!freeReferences.contains(currFreeRefObjNr) || get(currFreeRefObjNr) == null) {
                 break;
             }
 
             freeReferencesLinkedList.put(currFreeRefObjNr, prevFreeRef);
-            prevFreeRef = xref[currFreeRefObjNr];
+            prevFreeRef = get(currFreeRefObjNr);
             freeReferences.remove(currFreeRefObjNr);
         }
 
         while (!freeReferences.<Integer>isEmpty()) {
             int next = freeReferences.pollFirst();
-            if (xref[next] == null) {
+            if (get(next) == null) {
                 if (pdfDocument.properties.appendMode) {
                     continue;
                 }
@@ -499,10 +551,13 @@ public class PdfXrefTable {
      */
     void clear() {
         for (int i = 1; i <= count; i++) {
-            if (xref[i] != null && xref[i].isFree()) {
+            if (xref[i] != null ? xref[i].isFree() : getNotLoadedEntryKind(i) == NOT_LOADED_FREE) {
                 continue;
             }
             xref[i] = null;
+            if (notLoadedEntryKinds != null) {
+                notLoadedEntryKinds[i] = 0;
+            }
         }
         count = 1;
     }
@@ -514,7 +569,103 @@ public class PdfXrefTable {
         for (int i = 1; i <= count; i++) {
             xref[i] = null;
         }
+        if (notLoadedEntryKinds != null) {
+            Arrays.fill(notLoadedEntryKinds, (byte) 0);
+        }
         count = 1;
+        clearStateMarks();
+    }
+
+    /**
+     * Adds the entry read from the document. The reference for the entry is only created when it is requested,
+     * so documents with lots of objects can be opened without creating a reference for each of them.
+     *
+     * @param document the document the entry belongs to
+     * @param objNr    the object number
+     * @param type     the type of the entry, as in cross-reference streams: 0 for free entries, 1 for the objects
+     *                 in use and 2 for the objects in object streams
+     * @param field2   the offset of the object, the next free object number or the number of the object stream
+     * @param field3   the generation number or the index of the object in the object stream
+     */
+    void addNotLoadedEntry(PdfDocument document, int objNr, int type, long field2, int field3) {
+        synchronized (entriesLock) {
+            this.count = Math.max(this.count, objNr);
+            ensureCount(objNr);
+            if (notLoadedEntryKinds == null) {
+                extendNotLoadedEntries(xref.length);
+            }
+            notLoadedEntriesDocument = document;
+            xref[objNr] = null;
+            notLoadedEntryKinds[objNr] = (byte) (type + 1);
+            notLoadedEntryOffsets[objNr] = field2;
+            notLoadedEntryNumbers[objNr] = field3;
+        }
+    }
+
+    /**
+     * Checks whether the entry has been read from the document, but its reference hasn't been created yet.
+     *
+     * @param objNr the object number
+     * @return {@code true} if the entry isn't loaded yet
+     */
+    boolean isNotLoaded(int objNr) {
+        synchronized (entriesLock) {
+            return objNr <= count && xref[objNr] == null && getNotLoadedEntryKind(objNr) != 0;
+        }
+    }
+
+    /**
+     * Remembers the object number of the reference if it is in {@link PdfObject#MUST_BE_FLUSHED}
+     * or {@link PdfObject#MODIFIED} state, so that it can be found without scanning the whole table.
+     *
+     * @param reference the reference whose state has been changed
+     */
+    void markState(PdfIndirectReference reference) {
+        int objNr = reference.getObjNumber();
+        if (objNr <= 0) {
+            return;
+        }
+        if (reference.checkState(PdfObject.MUST_BE_FLUSHED)) {
+            mustBeFlushedMarks.set(objNr);
+        }
+        if (reference.checkState(PdfObject.MODIFIED)) {
+            modifiedMarks.set(objNr);
+        }
+    }
+
+    /**
+     * Gets the next object number, starting from the given one, which may have a reference in
+     * {@link PdfObject#MUST_BE_FLUSHED} state.
+     *
+     * @param objNr the object number to start from
+     * @return the object number or -1 if there are no more such objects
+     */
+    int nextMustBeFlushedMark(int objNr) {
+        return mustBeFlushedMarks.nextSetBit(objNr);
+    }
+
+    /**
+     * Gets the next object number, starting from the given one, which may have a reference in
+     * {@link PdfObject#MODIFIED} state.
+     *
+     * @param objNr the object number to start from
+     * @return the object number or -1 if there are no more such objects
+     */
+    int nextModifiedMark(int objNr) {
+        return modifiedMarks.nextSetBit(objNr);
+    }
+
+    void clearMustBeFlushedMark(int objNr) {
+        mustBeFlushedMarks.clear(objNr);
+    }
+
+    void clearModifiedMark(int objNr) {
+        modifiedMarks.clear(objNr);
+    }
+
+    private void clearStateMarks() {
+        mustBeFlushedMarks.clear();
+        modifiedMarks.clear();
     }
 
     private List<Integer> createSections(PdfDocument document, boolean dropObjectsFromObjectStream) {
@@ -522,7 +673,8 @@ public class PdfXrefTable {
         int first = 0;
         int len = 0;
         for (int i = 0; i < size(); i++) {
-            PdfIndirectReference reference = xref[i];
+            // in append mode the references which have never been loaded are not modified, so they are skipped
+            PdfIndirectReference reference = document.properties.appendMode ? xref[i] : get(i);
             if (document.properties.appendMode && reference != null &&
                     (!reference.checkState(PdfObject.MODIFIED) || (dropObjectsFromObjectStream && reference.getObjStreamNumber() != 0))) {
                 reference = null;
@@ -602,7 +754,7 @@ public class PdfXrefTable {
         if (freeRefObjNr < 0) {
             Integer leastFreeRefObjNum = null;
             for (Map.Entry<Integer, PdfIndirectReference> entry : freeReferencesLinkedList.entrySet()) {
-                if (entry.getKey() <= 0 || xref[entry.getKey()].getGenNumber() >= MAX_GENERATION) {
+                if (entry.getKey() <= 0 || get((int) entry.getKey()).getGenNumber() >= MAX_GENERATION) {
                     continue;
                 }
                 leastFreeRefObjNum = entry.getKey();
@@ -614,7 +766,7 @@ public class PdfXrefTable {
             freeRefObjNr = (int)leastFreeRefObjNum;
         }
 
-        PdfIndirectReference freeRef = xref[freeRefObjNr];
+        PdfIndirectReference freeRef = get(freeRefObjNr);
         if (!freeRef.isFree()) {
             return null;
         }
@@ -641,5 +793,58 @@ public class PdfXrefTable {
         PdfIndirectReference[] newXref = new PdfIndirectReference[capacity];
         System.arraycopy(this.xref, 0, newXref, 0, this.xref.length);
         this.xref = newXref;
+        if (notLoadedEntryKinds != null) {
+            extendNotLoadedEntries(capacity);
+        }
+    }
+
+    private void extendNotLoadedEntries(int capacity) {
+        byte[] newKinds = new byte[capacity];
+        long[] newOffsets = new long[capacity];
+        int[] newNumbers = new int[capacity];
+        if (notLoadedEntryKinds != null) {
+            System.arraycopy(notLoadedEntryKinds, 0, newKinds, 0, notLoadedEntryKinds.length);
+            System.arraycopy(notLoadedEntryOffsets, 0, newOffsets, 0, notLoadedEntryOffsets.length);
+            System.arraycopy(notLoadedEntryNumbers, 0, newNumbers, 0, notLoadedEntryNumbers.length);
+        }
+        notLoadedEntryKinds = newKinds;
+        notLoadedEntryOffsets = newOffsets;
+        notLoadedEntryNumbers = newNumbers;
+    }
+
+    private byte getNotLoadedEntryKind(int objNr) {
+        if (notLoadedEntryKinds == null || objNr >= notLoadedEntryKinds.length) {
+            return 0;
+        }
+        return notLoadedEntryKinds[objNr];
+    }
+
+    private PdfIndirectReference loadEntry(int objNr) {
+        synchronized (entriesLock) {
+            // the entry could have been loaded by another thread
+            PdfIndirectReference reference = xref[objNr];
+            if (reference != null || notLoadedEntryKinds[objNr] == 0) {
+                return reference;
+            }
+            long field2 = notLoadedEntryOffsets[objNr];
+            int field3 = notLoadedEntryNumbers[objNr];
+            switch (notLoadedEntryKinds[objNr]) {
+                case NOT_LOADED_FREE:
+                    reference = (PdfIndirectReference) new PdfIndirectReference(notLoadedEntriesDocument, objNr,
+                            field3, field2).setState(PdfObject.FREE);
+                    break;
+                case NOT_LOADED_IN_USE:
+                    reference = new PdfIndirectReference(notLoadedEntriesDocument, objNr, field3, field2);
+                    break;
+                case NOT_LOADED_COMPRESSED:
+                default:
+                    reference = new PdfIndirectReference(notLoadedEntriesDocument, objNr, 0, field3);
+                    reference.setObjStreamNumber((int) field2);
+                    break;
+            }
+            xref[objNr] = reference;
+            notLoadedEntryKinds[objNr] = 0;
+            return reference;
+        }
     }
 }
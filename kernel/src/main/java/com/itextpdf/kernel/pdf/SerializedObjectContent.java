@@ -22,35 +22,212 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.kernel.exceptions.PdfException;
+
+import java.security.MessageDigest;
 import java.util.Arrays;
 
+/**
+ * The fingerprint of the serialized content of an object, which is used in smart mode to find the objects with
+ * the same content. Only the 128-bit MurmurHash3 of the content and its length are used as the fingerprint.
+ * The SHA-256 digest of the content is calculated in the same pass, so that {@link SmartModePdfObjectsSerializer}
+ * could verify that the objects with equal fingerprints have the same content without keeping the content itself.
+ */
 class SerializedObjectContent {
-    private final byte[] serializedContent;
-    private final int hash;
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final int BLOCK_SIZE = 16;
+
+    private final long hash1;
+    private final long hash2;
+    private final long length;
+    private final byte[] digest;
 
     SerializedObjectContent(byte[] serializedContent) {
-        this.serializedContent = serializedContent;
-        this.hash = calculateHash(serializedContent);
+        this(new Builder().append(serializedContent, 0, serializedContent.length));
+    }
+
+    private SerializedObjectContent(Builder builder) {
+        builder.finish();
+        this.hash1 = builder.h1;
+        this.hash2 = builder.h2;
+        this.length = builder.length;
+        this.digest = builder.digest.digest();
+    }
+
+    /**
+     * Checks whether the content has the same digest as the other content. Unlike {@link #equals(Object)},
+     * which compares only the fingerprints, the digests are calculated with an independent hash function.
+     *
+     * @param other the content to compare the digest with
+     *
+     * @return {@code true} if the digests are equal, {@code false} otherwise
+     */
+    boolean hasSameDigest(SerializedObjectContent other) {
+        return Arrays.equals(digest, other.digest);
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof SerializedObjectContent
-                && hashCode() == obj.hashCode()
-                && Arrays.equals(serializedContent, ((SerializedObjectContent) obj).serializedContent);
+        if (!(obj instanceof SerializedObjectContent)) {
+            return false;
+        }
+        SerializedObjectContent other = (SerializedObjectContent) obj;
+        return hash1 == other.hash1 && hash2 == other.hash2 && length == other.length;
     }
 
     @Override
     public int hashCode() {
-        return hash;
+        return (int) hash1;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
     }
 
-    private static int calculateHash(byte[] b) {
-        int hash = 0;
-        int len = b.length;
-        for (int k = 0; k < len; ++k) {
-            hash = hash * 31 + (b[k] & 0xff);
+    private static long getLong(byte[] b, int off) {
+        return (b[off] & 0xffL)
+                | (b[off + 1] & 0xffL) << 8
+                | (b[off + 2] & 0xffL) << 16
+                | (b[off + 3] & 0xffL) << 24
+                | (b[off + 4] & 0xffL) << 32
+                | (b[off + 5] & 0xffL) << 40
+                | (b[off + 6] & 0xffL) << 48
+                | (b[off + 7] & 0xffL) << 56;
+    }
+
+    /**
+     * Calculates the fingerprint of the content, which is appended part by part, without keeping the content.
+     */
+    static final class Builder {
+        private final MessageDigest digest;
+        private final byte[] tail = new byte[BLOCK_SIZE];
+        private int tailLength = 0;
+        private long h1 = 0;
+        private long h2 = 0;
+        private long length = 0;
+
+        Builder() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (Exception e) {
+                throw new PdfException(e);
+            }
+        }
+
+        Builder append(byte b) {
+            digest.update(b);
+            tail[tailLength++] = b;
+            length++;
+            if (tailLength == BLOCK_SIZE) {
+                processBlock(tail, 0);
+                tailLength = 0;
+            }
+            return this;
+        }
+
+        Builder append(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+            length += len;
+            if (tailLength > 0) {
+                int toCopy = Math.min(len, BLOCK_SIZE - tailLength);
+                System.arraycopy(b, off, tail, tailLength, toCopy);
+                tailLength += toCopy;
+                off += toCopy;
+                len -= toCopy;
+                if (tailLength < BLOCK_SIZE) {
+                    return this;
+                }
+                processBlock(tail, 0);
+                tailLength = 0;
+            }
+            while (len >= BLOCK_SIZE) {
+                processBlock(b, off);
+                off += BLOCK_SIZE;
+                len -= BLOCK_SIZE;
+            }
+            System.arraycopy(b, off, tail, 0, len);
+            tailLength = len;
+            return this;
+        }
+
+        Builder append(String str) {
+            for (int i = 0; i < str.length(); i++) {
+                append((byte) str.charAt(i));
+            }
+            return this;
+        }
+
+        Builder append(long value) {
+            for (int i = 0; i < 8; i++) {
+                append((byte) (value >>> (i * 8)));
+            }
+            return this;
+        }
+
+        Builder append(SerializedObjectContent content) {
+            append(content.hash1).append(content.hash2).append(content.length);
+            return append(content.digest, 0, content.digest.length);
+        }
+
+        SerializedObjectContent build() {
+            return new SerializedObjectContent(this);
+        }
+
+        private void processBlock(byte[] b, int off) {
+            h1 ^= mixK1(getLong(b, off));
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(getLong(b, off + 8));
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        private void finish() {
+            long k1 = 0;
+            long k2 = 0;
+            for (int i = tailLength - 1; i >= 8; i--) {
+                k2 ^= (tail[i] & 0xffL) << ((i - 8) * 8);
+            }
+            for (int i = Math.min(tailLength, 8) - 1; i >= 0; i--) {
+                k1 ^= (tail[i] & 0xffL) << (i * 8);
+            }
+            if (tailLength > 8) {
+                h2 ^= mixK2(k2);
+            }
+            if (tailLength > 0) {
+                h1 ^= mixK1(k1);
+            }
+            tailLength = 0;
+
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix64(h1);
+            h2 = fmix64(h2);
+            h1 += h2;
+            h2 += h1;
         }
-        return hash;
     }
 }
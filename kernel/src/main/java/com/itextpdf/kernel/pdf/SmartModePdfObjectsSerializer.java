@@ -22,32 +22,68 @@
  */
 package com.itextpdf.kernel.pdf;
 
-import com.itextpdf.io.source.ByteBuffer;
-import com.itextpdf.kernel.exceptions.PdfException;
-
-import java.security.MessageDigest;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 class SmartModePdfObjectsSerializer {
-    private MessageDigest sha512;
-    private HashMap<SerializedObjectContent, PdfIndirectReference> serializedContentToObj = new HashMap<>();
+    /**
+     * The default maximum number of the copied objects, which are remembered to be reused.
+     */
+    static final int DEFAULT_MAX_CACHED_OBJECTS = 100000;
+
+    private final int maxCachedObjects;
+
+    /**
+     * The copied objects by the fingerprints of their content, from the least to the most recently used one.
+     */
+    private final LinkedHashMap<SerializedObjectContent, SavedObject> serializedContentToObj = new LinkedHashMap<>();
+    private long hitCount;
+    private long missCount;
 
     SmartModePdfObjectsSerializer() {
-        try {
-            sha512 = MessageDigest.getInstance("SHA-512");
-        } catch (Exception e) {
-            throw new PdfException(e);
-        }
+        this(DEFAULT_MAX_CACHED_OBJECTS);
     }
 
+    SmartModePdfObjectsSerializer(int maxCachedObjects) {
+        this.maxCachedObjects = maxCachedObjects;
+    }
+
+    /**
+     * Saves the copy of the object, so that the objects with the same content could be replaced with it.
+     * Only the fingerprint and the digest of the object content are kept.
+     *
+     * @param serializedContent the fingerprint of the object content
+     * @param objectReference the reference to the copy of the object
+     */
     public void saveSerializedObject(SerializedObjectContent serializedContent, PdfIndirectReference objectReference) {
-        serializedContentToObj.put(serializedContent, objectReference);
+        serializedContentToObj.put(serializedContent, new SavedObject(serializedContent, objectReference));
+        if (serializedContentToObj.size() > maxCachedObjects) {
+            Iterator<SerializedObjectContent> leastRecentlyUsed = serializedContentToObj.keySet().iterator();
+            leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+        }
     }
 
+    /**
+     * Gets the saved copy of the object with the same content. When the fingerprints match, the digests of
+     * the contents are compared as well, so that a collision of the fingerprints doesn't merge different objects.
+     *
+     * @param serializedContent the fingerprint of the object content
+     *
+     * @return the reference to the copy of the object with the same content or {@code null} if there is none
+     */
     public PdfIndirectReference getSavedSerializedObject(SerializedObjectContent serializedContent) {
         if (serializedContent != null) {
-            return serializedContentToObj.get(serializedContent);
+            SavedObject savedObject = serializedContentToObj.remove(serializedContent);
+            if (savedObject != null) {
+                serializedContentToObj.put(savedObject.content, savedObject);
+                if (savedObject.content.hasSameDigest(serializedContent)) {
+                    hitCount++;
+                    return savedObject.reference;
+                }
+            }
+            missCount++;
         }
         return null;
     }
@@ -58,103 +94,129 @@ class SmartModePdfObjectsSerializer {
         }
         PdfIndirectReference indRef = obj.getIndirectReference();
         assert indRef != null;
-        Map<PdfIndirectReference, byte[]> serializedCache = indRef.getDocument().serializedObjectsCache;
+        Map<PdfIndirectReference, SerializedObjectContent> serializedCache =
+                indRef.getDocument().serializedObjectsCache;
 
-        byte[] content = serializedCache.get(indRef);
+        SerializedObjectContent content = serializedCache.get(indRef);
         if (content == null) {
-            ByteBuffer bb = new ByteBuffer();
+            SerializedObjectContent.Builder builder = new SerializedObjectContent.Builder();
             int level = 100;
             try {
-                serObject(obj, bb, level, serializedCache);
+                serObject(obj, builder, level, serializedCache);
             } catch (SelfReferenceException e) {
                 return null;
             }
-            content = bb.toByteArray();
+            content = builder.build();
+            serializedCache.put(indRef, content);
         }
-        return new SerializedObjectContent(content);
+        return content;
     }
 
-    private void serObject(PdfObject obj, ByteBuffer bb, int level, Map<PdfIndirectReference, byte[]> serializedCache) throws SelfReferenceException {
+    /**
+     * Gets the number of the objects, which have been looked up and found among the saved ones.
+     *
+     * @return the number of the found objects
+     */
+    long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of the objects, which have been looked up and not found among the saved ones.
+     *
+     * @return the number of the objects, which haven't been found
+     */
+    long getMissCount() {
+        return missCount;
+    }
+
+    private void serObject(PdfObject obj, SerializedObjectContent.Builder builder, int level,
+                           Map<PdfIndirectReference, SerializedObjectContent> serializedCache)
+            throws SelfReferenceException {
         if (level <= 0) {
             return;
         }
         if (obj == null) {
-            bb.append("$Lnull");
+            builder.append("$Lnull");
             return;
         }
         PdfIndirectReference reference = null;
-        ByteBuffer savedBb = null;
+        SerializedObjectContent.Builder savedBuilder = null;
 
         if (obj.isIndirectReference()) {
             reference = (PdfIndirectReference) obj;
-            byte[] cached = serializedCache.get(reference);
+            SerializedObjectContent cached = serializedCache.get(reference);
             if (cached != null) {
-                bb.append(cached);
+                builder.append("$R").append(cached);
                 return;
             } else {
 
-                if (serializedCache.keySet().contains(reference)) {
+                if (serializedCache.containsKey(reference)) {
                     //referencing itself
                     throw new SelfReferenceException();
                 }
                 serializedCache.put(reference, null);
 
-                savedBb = bb;
-                bb = new ByteBuffer();
+                savedBuilder = builder;
+                builder = new SerializedObjectContent.Builder();
                 obj = reference.getRefersTo();
             }
         }
 
         if (obj.isStream()) {
-            serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
-            bb.append("$B");
+            serDic((PdfDictionary) obj, builder, level - 1, serializedCache);
+            builder.append("$B");
             if (level > 0) {
-                bb.append(sha512.digest(((PdfStream) obj).getBytes(false)));
+                byte[] bytes = ((PdfStream) obj).getBytes(false);
+                builder.append(bytes, 0, bytes.length);
             }
         } else if (obj.isDictionary()) {
-            serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
+            serDic((PdfDictionary) obj, builder, level - 1, serializedCache);
         } else if (obj.isArray()) {
-            serArray((PdfArray) obj, bb, level - 1, serializedCache);
+            serArray((PdfArray) obj, builder, level - 1, serializedCache);
         } else if (obj.isString()) {
-            bb.append("$S").append(obj.toString());
+            builder.append("$S").append(obj.toString());
         } else if (obj.isName()) {
-            bb.append("$N").append(obj.toString());
+            builder.append("$N").append(obj.toString());
         } else {
             // PdfNull case is also here
-            bb.append("$L").append(obj.toString());
+            builder.append("$L").append(obj.toString());
         }
 
-        if (savedBb != null) {
-            serializedCache.put(reference, bb.toByteArray());
-            savedBb.append(bb.getInternalBuffer(), 0, bb.size());
+        if (savedBuilder != null) {
+            SerializedObjectContent content = builder.build();
+            serializedCache.put(reference, content);
+            savedBuilder.append("$R").append(content);
         }
     }
 
-    private void serDic(PdfDictionary dic, ByteBuffer bb, int level,
-                        Map<PdfIndirectReference, byte[]> serializedCache) throws SelfReferenceException {
-        bb.append("$D");
+    private void serDic(PdfDictionary dic, SerializedObjectContent.Builder builder, int level,
+                        Map<PdfIndirectReference, SerializedObjectContent> serializedCache)
+            throws SelfReferenceException {
+        builder.append("$D");
         if (level <= 0)
             return;
         for (PdfName key : dic.keySet()) {
             if (isKeyRefersBack(dic, key)) {
                 continue;
             }
-            serObject(key, bb, level, serializedCache);
-            serObject(dic.get(key, false), bb, level, serializedCache);
+            serObject(key, builder, level, serializedCache);
+            serObject(dic.get(key, false), builder, level, serializedCache);
 
         }
-        bb.append("$\\D");
+        builder.append("$\\D");
     }
 
-    private void serArray(PdfArray array, ByteBuffer bb, int level,
-                          Map<PdfIndirectReference, byte[]> serializedCache) throws SelfReferenceException {
-        bb.append("$A");
+    private void serArray(PdfArray array, SerializedObjectContent.Builder builder, int level,
+                          Map<PdfIndirectReference, SerializedObjectContent> serializedCache)
+            throws SelfReferenceException {
+        builder.append("$A");
         if (level <= 0)
             return;
         for (int k = 0; k < array.size(); ++k) {
-            serObject(array.get(k, false), bb, level, serializedCache);
+            serObject(array.get(k, false), builder, level, serializedCache);
         }
-        bb.append("$\\A");
+        builder.append("$\\A");
     }
 
     private boolean isKeyRefersBack(PdfDictionary dic, PdfName key) {
@@ -165,4 +227,14 @@ class SmartModePdfObjectsSerializer {
 
     private static class SelfReferenceException extends Exception {
     }
+
+    private static final class SavedObject {
+        final SerializedObjectContent content;
+        final PdfIndirectReference reference;
+
+        SavedObject(SerializedObjectContent content, PdfIndirectReference reference) {
+            this.content = content;
+            this.reference = reference;
+        }
+    }
 }
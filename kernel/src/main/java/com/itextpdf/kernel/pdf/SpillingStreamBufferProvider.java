@@ -0,0 +1,87 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.SpillingByteArrayOutputStream;
+
+import java.io.File;
+
+/**
+ * An {@link IStreamBufferProvider}, which keeps the small content of the streams on the heap, the medium one in
+ * direct buffers outside of the heap and spills the large one to temporary files.
+ *
+ * @see SpillingByteArrayOutputStream
+ */
+public class SpillingStreamBufferProvider implements IStreamBufferProvider {
+
+    /**
+     * The default maximum size of the content of a stream kept on the heap.
+     */
+    public static final int DEFAULT_HEAP_LIMIT = 1024 * 1024;
+
+    /**
+     * The default maximum size of the content of a stream kept in direct buffers.
+     */
+    public static final int DEFAULT_DIRECT_LIMIT = 32 * 1024 * 1024;
+
+    private final int heapLimit;
+    private final int directLimit;
+    private final File tempDirectory;
+
+    /**
+     * Creates a provider with the default limits, which spills the content to the default temporary directory.
+     */
+    public SpillingStreamBufferProvider() {
+        this(DEFAULT_HEAP_LIMIT, DEFAULT_DIRECT_LIMIT, null);
+    }
+
+    /**
+     * Creates a provider, which spills the content to the default temporary directory.
+     *
+     * @param heapLimit the maximum size of the content of a stream kept on the heap
+     * @param directLimit the maximum size of the content of a stream kept in direct buffers
+     */
+    public SpillingStreamBufferProvider(int heapLimit, int directLimit) {
+        this(heapLimit, directLimit, null);
+    }
+
+    /**
+     * Creates a provider.
+     *
+     * @param heapLimit the maximum size of the content of a stream kept on the heap
+     * @param directLimit the maximum size of the content of a stream kept in direct buffers
+     * @param tempDirectory the directory of the temporary files, or {@code null} for the default temporary
+     *                      directory
+     */
+    public SpillingStreamBufferProvider(int heapLimit, int directLimit, File tempDirectory) {
+        this.heapLimit = heapLimit;
+        this.directLimit = directLimit;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @Override
+    public ByteArrayOutputStream createBuffer() {
+        return new SpillingByteArrayOutputStream(heapLimit, directLimit, tempDirectory);
+    }
+}
@@ -0,0 +1,403 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.io.source.SpillingByteArrayOutputStream;
+import com.itextpdf.kernel.crypto.OutputStreamEncryption;
+import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
+import com.itextpdf.kernel.exceptions.PdfException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+/**
+ * Deflates the content of the streams flushed by a {@link PdfWriter} on an executor.
+ * <p>
+ * The objects flushed after a stream which is being compressed wait in the pipeline and are written to the body
+ * in flushing order, so the offsets and the lengths are the same as if the streams were compressed by the writer.
+ * Streams up to {@link #BLOCK_DEFLATE_THRESHOLD} bytes are deflated by a single task and their compressed bytes
+ * are identical to the ones of the writer. Larger streams are split into blocks which are deflated in parallel,
+ * each block using the end of the previous one as the dictionary.
+ * <p>
+ * If the document is encrypted, the content of the streams, which are to be encrypted, is deflated if needed and
+ * encrypted by a single task, as each object is encrypted with its own key. The encryption stream is created on
+ * the writer thread, so the security handler is only used there.
+ */
+final class StreamCompressionPipeline {
+
+    static final int BLOCK_DEFLATE_THRESHOLD = 4 * 1024 * 1024;
+
+    private static final int DEFLATE_BLOCK_SIZE = 1024 * 1024;
+    private static final int DEFLATE_DICTIONARY_SIZE = 32 * 1024;
+    private static final int MAX_PENDING_OBJECTS = 1024;
+
+    private final PdfWriter writer;
+    private final ExecutorService executor;
+    private final int maxPendingCompressions;
+    private final LinkedList<PendingObject> pendingObjects = new LinkedList<>();
+    private int pendingCompressions;
+    private PendingObject currentObject;
+
+    StreamCompressionPipeline(PdfWriter writer, ExecutorService executor) {
+        this.writer = writer;
+        this.executor = executor;
+        this.maxPendingCompressions = 2 * Math.max(Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    /**
+     * Adds a flushed object to the pipeline.
+     *
+     * @param object the flushed object
+     * @return true, if the object will be written by the pipeline, false, if it shall be written right away
+     */
+    boolean add(PdfObject object) {
+        List<Future<byte[]>> compressedBlocks = null;
+        Future<ByteArrayOutputStream> encryptedContent = null;
+        if (object.getType() == PdfObject.STREAM) {
+            PdfStream stream = (PdfStream) object;
+            if (!isContentInMemory(stream)) {
+                // the content is read from outside of the document, which may change after the stream is flushed,
+                // or it is too large to be kept in memory
+                writeAll();
+                return false;
+            }
+            if (writer.isContentEncryptedOnWriting(stream)) {
+                encryptedContent = submitEncryption(stream);
+            } else if (writer.isContentDeflatedOnWriting(stream)) {
+                compressedBlocks = submitCompression(stream);
+            }
+        }
+        if (compressedBlocks == null && encryptedContent == null && pendingObjects.isEmpty()) {
+            return false;
+        }
+        pendingObjects.add(new PendingObject(object, compressedBlocks, encryptedContent));
+        if (compressedBlocks != null || encryptedContent != null) {
+            pendingCompressions++;
+        }
+        writeCompleted();
+        while (pendingCompressions > maxPendingCompressions || pendingObjects.size() > MAX_PENDING_OBJECTS) {
+            writeNext();
+        }
+        return true;
+    }
+
+    /**
+     * Writes all the objects of the pipeline, waiting for their compression if needed.
+     *
+     * @return true, if any object has been written
+     */
+    boolean writeAll() {
+        boolean written = !pendingObjects.isEmpty();
+        while (!pendingObjects.isEmpty()) {
+            writeNext();
+        }
+        return written;
+    }
+
+    /**
+     * Gets the compressed content of the stream which is being written by the pipeline.
+     *
+     * @param stream the stream which is being written
+     * @return the deflated content, or {@code null} if the stream has not been compressed by the pipeline
+     */
+    ByteArrayOutputStream getCompressedContent(PdfStream stream) {
+        if (currentObject == null || currentObject.object != stream || currentObject.compressedBlocks == null) {
+            return null;
+        }
+        List<byte[]> blocks = new ArrayList<>(currentObject.compressedBlocks.size());
+        int size = 0;
+        for (Future<byte[]> compressedBlock : currentObject.compressedBlocks) {
+            byte[] block = getTaskResult(compressedBlock);
+            blocks.add(block);
+            size += block.length;
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream(size);
+        for (byte[] block : blocks) {
+            content.write(block, 0, block.length);
+        }
+        return content;
+    }
+
+    /**
+     * Gets the encrypted content of the stream which is being written by the pipeline.
+     *
+     * @param stream the stream which is being written
+     * @return the encrypted content, or {@code null} if the stream has not been encrypted by the pipeline
+     */
+    ByteArrayOutputStream getEncryptedContent(PdfStream stream) {
+        if (currentObject == null || currentObject.object != stream || currentObject.encryptedContent == null) {
+            return null;
+        }
+        return getTaskResult(currentObject.encryptedContent);
+    }
+
+    private void writeCompleted() {
+        while (!pendingObjects.isEmpty() && pendingObjects.getFirst().isCompressed()) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() {
+        PendingObject pendingObject = pendingObjects.removeFirst();
+        if (pendingObject.compressedBlocks != null || pendingObject.encryptedContent != null) {
+            pendingCompressions--;
+        }
+        currentObject = pendingObject;
+        try {
+            writer.writePendingObject(pendingObject.object);
+        } finally {
+            currentObject = null;
+        }
+    }
+
+    private List<Future<byte[]>> submitCompression(PdfStream stream) {
+        ByteArrayOutputStream content = (ByteArrayOutputStream) stream.getOutputStream().getOutputStream();
+        int level = stream.getCompressionLevel() == CompressionConstants.UNDEFINED_COMPRESSION
+                ? writer.getCompressionLevel() : stream.getCompressionLevel();
+        List<Future<byte[]>> compressedBlocks = new ArrayList<>();
+        if (content.size() < BLOCK_DEFLATE_THRESHOLD) {
+            compressedBlocks.add(executor.submit(new StreamDeflateTask(content, level)));
+        } else {
+            byte[] bytes = content.toByteArray();
+            for (int start = 0; start < bytes.length; start += DEFLATE_BLOCK_SIZE) {
+                compressedBlocks.add(executor.submit(new BlockDeflateTask(bytes, start,
+                        Math.min(DEFLATE_BLOCK_SIZE, bytes.length - start), level)));
+            }
+        }
+        return compressedBlocks;
+    }
+
+    private Future<ByteArrayOutputStream> submitEncryption(PdfStream stream) {
+        ByteArrayOutputStream content = (ByteArrayOutputStream) stream.getOutputStream().getOutputStream();
+        int level = CompressionConstants.NO_COMPRESSION;
+        if (writer.isContentDeflatedOnWriting(stream)) {
+            level = stream.getCompressionLevel() == CompressionConstants.UNDEFINED_COMPRESSION
+                    ? writer.getCompressionLevel() : stream.getCompressionLevel();
+        }
+        // the encryption stream keeps its own copy of the key of the object
+        PdfIndirectReference reference = stream.getIndirectReference();
+        writer.crypto.setHashKeyForNextObject(reference.getObjNumber(), reference.getGenNumber());
+        ByteArrayOutputStream encryptedContent = new ByteArrayOutputStream(content.size() + 64);
+        OutputStreamEncryption encryption = writer.crypto.getEncryptionStream(encryptedContent);
+        return executor.submit(new StreamEncryptTask(content, level, encryption, encryptedContent));
+    }
+
+    private static boolean isContentInMemory(PdfStream stream) {
+        return !(stream instanceof PdfObjectStream) && stream.getInputStream() == null && !stream.hasRawContent()
+                && stream.outputStream != null
+                && stream.outputStream.getOutputStream() instanceof ByteArrayOutputStream
+                && isOnHeap((ByteArrayOutputStream) stream.outputStream.getOutputStream());
+    }
+
+    private static boolean isOnHeap(ByteArrayOutputStream content) {
+        // the content moved out of the heap by the stream buffer provider is encoded while writing, so the encoded
+        // bytes don't pile up on the heap while waiting in the pipeline
+        return !(content instanceof SpillingByteArrayOutputStream)
+                || ((SpillingByteArrayOutputStream) content).isOnHeap();
+    }
+
+    private static <T> T getTaskResult(Future<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(KernelExceptionMessageConstant.STREAM_COMPRESSION_INTERRUPTED, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PdfException(KernelExceptionMessageConstant.IO_EXCEPTION, e.getCause());
+        }
+    }
+
+    private static final class PendingObject {
+        private final PdfObject object;
+        private final List<Future<byte[]>> compressedBlocks;
+        private final Future<ByteArrayOutputStream> encryptedContent;
+
+        PendingObject(PdfObject object, List<Future<byte[]>> compressedBlocks,
+                Future<ByteArrayOutputStream> encryptedContent) {
+            this.object = object;
+            this.compressedBlocks = compressedBlocks;
+            this.encryptedContent = encryptedContent;
+        }
+
+        boolean isCompressed() {
+            if (encryptedContent != null && !encryptedContent.isDone()) {
+                return false;
+            }
+            if (compressedBlocks != null) {
+                for (Future<byte[]> compressedBlock : compressedBlocks) {
+                    if (!compressedBlock.isDone()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Deflates the whole content the same way {@link PdfOutputStream} does.
+     */
+    private static final class StreamDeflateTask implements Callable<byte[]> {
+        private final ByteArrayOutputStream content;
+        private final int level;
+
+        StreamDeflateTask(ByteArrayOutputStream content, int level) {
+            this.content = content;
+            this.level = level;
+        }
+
+        @Override
+        public byte[] call() throws IOException {
+            ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
+            DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, level);
+            content.writeTo(zip);
+            zip.finish();
+            return byteArrayStream.toByteArray();
+        }
+    }
+
+    /**
+     * Deflates the whole content the same way {@link PdfOutputStream} does, if needed, and encrypts it at once.
+     */
+    private static final class StreamEncryptTask implements Callable<ByteArrayOutputStream> {
+        private final ByteArrayOutputStream content;
+        private final int level;
+        private final OutputStreamEncryption encryption;
+        private final ByteArrayOutputStream encryptedContent;
+
+        StreamEncryptTask(ByteArrayOutputStream content, int level, OutputStreamEncryption encryption,
+                ByteArrayOutputStream encryptedContent) {
+            this.content = content;
+            this.level = level;
+            this.encryption = encryption;
+            this.encryptedContent = encryptedContent;
+        }
+
+        @Override
+        public ByteArrayOutputStream call() throws IOException {
+            if (level == CompressionConstants.NO_COMPRESSION) {
+                content.writeTo(encryption);
+            } else {
+                ByteArrayOutputStream deflatedContent = new ByteArrayOutputStream();
+                DeflaterOutputStream zip = new DeflaterOutputStream(deflatedContent, level);
+                content.writeTo(zip);
+                zip.finish();
+                deflatedContent.writeTo(encryption);
+            }
+            encryption.finish();
+            return encryptedContent;
+        }
+    }
+
+    /**
+     * Deflates a block of the content into raw deflate data ending on a byte boundary. The first block is
+     * preceded by the zlib header and the last one is finished and followed by the checksum of the whole content.
+     */
+    private static final class BlockDeflateTask implements Callable<byte[]> {
+        private final byte[] content;
+        private final int start;
+        private final int length;
+        private final int level;
+
+        BlockDeflateTask(byte[] content, int start, int length, int level) {
+            this.content = content;
+            this.start = start;
+            this.length = length;
+            this.level = level;
+        }
+
+        @Override
+        public byte[] call() {
+            boolean last = start + length == content.length;
+            ByteArrayOutputStream output = new ByteArrayOutputStream(length / 2 + 64);
+            if (start == 0) {
+                writeZlibHeader(output);
+            }
+            Deflater deflater = new Deflater(level, true);
+            try {
+                if (start > 0) {
+                    int dictionaryLength = Math.min(start, DEFLATE_DICTIONARY_SIZE);
+                    deflater.setDictionary(content, start - dictionaryLength, dictionaryLength);
+                }
+                deflater.setInput(content, start, length);
+                byte[] buffer = new byte[64 * 1024];
+                if (last) {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        int count = deflater.deflate(buffer);
+                        output.write(buffer, 0, count);
+                    }
+                } else {
+                    int count;
+                    do {
+                        count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                        output.write(buffer, 0, count);
+                    } while (count == buffer.length);
+                }
+            } finally {
+                deflater.end();
+            }
+            if (last) {
+                Adler32 checksum = new Adler32();
+                checksum.update(content, 0, content.length);
+                long value = checksum.getValue();
+                output.write((int) (value >>> 24) & 0xff);
+                output.write((int) (value >>> 16) & 0xff);
+                output.write((int) (value >>> 8) & 0xff);
+                output.write((int) value & 0xff);
+            }
+            return output.toByteArray();
+        }
+
+        private void writeZlibHeader(ByteArrayOutputStream output) {
+            // deflate with a 32K window, the level flags are the ones zlib writes for the level
+            int levelFlags;
+            if (level == Deflater.DEFAULT_COMPRESSION || level == 6) {
+                levelFlags = 2;
+            } else if (level < 2) {
+                levelFlags = 0;
+            } else if (level < 6) {
+                levelFlags = 1;
+            } else {
+                levelFlags = 3;
+            }
+            int header = (0x78 << 8) | (levelFlags << 6);
+            header += 31 - header % 31;
+            output.write(header >> 8);
+            output.write(header & 0xff);
+        }
+    }
+}
@@ -23,9 +23,11 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.bouncycastleconnector.BouncyCastleFactoryCreator;
+import com.itextpdf.kernel.font.FontSubsetCache;
 import com.itextpdf.kernel.mac.MacProperties;
 
 import java.security.cert.Certificate;
+import java.util.concurrent.ExecutorService;
 
 public class WriterProperties {
 
@@ -36,11 +38,51 @@ public class WriterProperties {
      */
     protected Boolean isFullCompression;
 
+    /**
+     * The max length of the uncompressed content of an object stream in full compression mode, or 0 if object
+     * streams are limited by the number of objects only.
+     */
+    protected int objectStreamByteBudget;
+
+    /**
+     * The executor which deflates the content of the flushed streams, or {@code null} to deflate the content while
+     * writing.
+     */
+    protected ExecutorService compressionExecutor;
+
+    /**
+     * The registry of the deflated stream content shared with other writers, or {@code null} if the content is
+     * deflated by each writer.
+     */
+    protected CompressedStreamRegistry compressedStreamRegistry;
+
+    /**
+     * The provider of the buffers for the content of the streams, or {@code null} to keep the content on the heap.
+     */
+    protected IStreamBufferProvider streamBufferProvider;
+
+    /**
+     * The cache of the font subsets shared with other writers, or {@code null} if the fonts are subset
+     * by each document.
+     */
+    protected FontSubsetCache fontSubsetCache;
+
     /**
      * Indicates if the writer copy objects in a smart mode. If so PdfDictionary and PdfStream will be hashed
      * and reused if there's an object with the same content later.
      */
     protected boolean smartMode;
+
+    /**
+     * The maximum number of the copied objects, which are remembered in smart mode to be reused.
+     */
+    protected int smartModeCacheSize;
+
+    /**
+     * Indicates if the encoded content of streams copied from other documents is transferred from the source
+     * documents on writing instead of being copied into memory.
+     */
+    protected boolean rawStreamCopy;
     protected boolean addXmpMetadata;
     protected PdfAConformance addPdfAXmpMetadata = null;
     protected PdfUAConformance addPdfUaXmpMetadata = null;
@@ -58,6 +100,7 @@ public class WriterProperties {
 
     public WriterProperties() {
         smartMode = false;
+        smartModeCacheSize = SmartModePdfObjectsSerializer.DEFAULT_MAX_CACHED_OBJECTS;
         compressionLevel = CompressionConstants.DEFAULT_COMPRESSION;
         isFullCompression = null;
         encryptionProperties = new EncryptionProperties();
@@ -90,6 +133,40 @@ public class WriterProperties {
         return this;
     }
 
+    /**
+     * Limits the number of the copied objects, which are remembered in smart mode to be reused.
+     * <br>
+     * Smart mode looks the copied objects up by the fingerprints of their content and keeps only the fingerprint
+     * and the digest of the content of each remembered object. When the limit is reached, the least recently
+     * reused object is forgotten, so the objects with the same content, which are copied later, are written again.
+     * By default up to 100000 objects are remembered.
+     *
+     * @param maxCachedObjects the maximum number of the remembered objects, shall be positive
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setSmartModeCacheSize(int maxCachedObjects) {
+        this.smartModeCacheSize = maxCachedObjects;
+        return this;
+    }
+
+    /**
+     * Enables raw stream copy mode.
+     * <br>
+     * In this mode a stream copied from another document, e.g. by {@link PdfPage#copyTo(PdfDocument)} or
+     * {@link com.itextpdf.kernel.utils.PdfMerger}, keeps only the position and the length of its encoded content
+     * in the source document. When the stream is written, its content is transferred from the source to the output
+     * without reading the whole stream into memory. The content is read into memory only if it is accessed or has to
+     * be compressed or encrypted on writing. Streams of encrypted source documents are always copied into memory.
+     * <br>
+     * The source documents shall not be closed until all the objects copied from them are flushed.
+     *
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties useRawStreamCopy() {
+        this.rawStreamCopy = true;
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * For PDF 2.0 documents, metadata will be added in any case.
@@ -155,6 +232,71 @@ public class WriterProperties {
         return this;
     }
 
+    /**
+     * Sets the executor which deflates the content of the streams flushed by the writer.
+     * <br>
+     * The content of the flushed streams is compressed by the tasks of the executor while the document keeps being
+     * written. The objects are still written in flushing order and the streams are compressed with the same
+     * compression levels, so only the compressed bytes of streams larger than several megabytes, which are split
+     * into blocks compressed in parallel, may differ from the ones written without an executor.
+     * <br>
+     * The executor is not shut down by the document. By default no executor is used and the content of the streams
+     * is compressed while writing.
+     *
+     * @param compressionExecutor the executor to compress the content of streams, or {@code null}
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setCompressionExecutor(ExecutorService compressionExecutor) {
+        this.compressionExecutor = compressionExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the registry of the deflated stream content, which is shared with other writers.
+     * <br>
+     * The content of the streams deflated on writing is looked up in the registry, so the same content, e.g. of
+     * the fonts or images used in many documents, is deflated only once for all the writers sharing the registry.
+     * The deflated bytes are the same as the ones written without the registry. By default no registry is used.
+     *
+     * @param compressedStreamRegistry the registry of the deflated stream content, or {@code null}
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setCompressedStreamRegistry(CompressedStreamRegistry compressedStreamRegistry) {
+        this.compressedStreamRegistry = compressedStreamRegistry;
+        return this;
+    }
+
+    /**
+     * Sets the provider of the buffers, which keep the content of the streams until the streams are written.
+     * <br>
+     * The provider is used for the content written to the streams after they are made indirect, e.g. the content
+     * of the pages written by {@link com.itextpdf.kernel.pdf.canvas.PdfCanvas}, and for the encoded content created
+     * while the streams are written. With {@link SpillingStreamBufferProvider} the size of the content is not bound
+     * by the heap. By default the content is kept on the heap.
+     *
+     * @param streamBufferProvider the provider of the stream buffers, or {@code null}
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setStreamBufferProvider(IStreamBufferProvider streamBufferProvider) {
+        this.streamBufferProvider = streamBufferProvider;
+        return this;
+    }
+
+    /**
+     * Sets the cache of the font subsets, which is shared with other writers.
+     * <br>
+     * The subsets of the embedded TrueType and CFF based fonts are looked up in the cache, so the same subset of
+     * the same font program, e.g. used by many documents created from the same template, is created only once
+     * for all the writers sharing the cache. By default no cache is used.
+     *
+     * @param fontSubsetCache the cache of the font subsets, or {@code null}
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties setFontSubsetCache(FontSubsetCache fontSubsetCache) {
+        this.fontSubsetCache = fontSubsetCache;
+        return this;
+    }
+
     /**
      * Defines if full compression mode is enabled. If enabled, not only the content of the pdf document will be
      * compressed, but also the pdf document inner structure.
@@ -167,6 +309,24 @@ public class WriterProperties {
         return this;
     }
 
+    /**
+     * Enables the packing of objects into object streams by pages in full compression mode.
+     * <br>
+     * The objects flushed together with a page, e.g. the page dictionary, its annotations, resources and tags, are
+     * put into object streams which don't contain objects of other pages, so a reader only needs to decompress
+     * the object streams of the page it reads. An object stream is completed once its uncompressed content reaches
+     * the specified number of bytes instead of once it contains a fixed number of objects. By default object
+     * streams are only limited by the number of objects.
+     *
+     * @param objectStreamByteBudget the max length of the uncompressed content of an object stream, in bytes.
+     *                               The last object added to a stream may exceed it
+     * @return this {@link WriterProperties} instance
+     */
+    public WriterProperties useObjectStreamsPerPage(int objectStreamByteBudget) {
+        this.objectStreamByteBudget = objectStreamByteBudget;
+        return this;
+    }
+
     /**
      * Sets the encryption options for the document.
      *
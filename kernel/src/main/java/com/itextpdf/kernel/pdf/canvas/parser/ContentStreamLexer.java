@@ -0,0 +1,430 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.canvas.parser.util.InlineImageParsingUtils;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Splits content stream bytes into operators and their operands.
+ * <p>
+ * Numeric operands and operators are read directly from the content bytes: numbers are kept in a primitive
+ * operand stack and operators are identified by an integer code, so no objects are created for them.
+ * Other operands (names, strings, arrays, dictionaries) and inline images are read with {@link PdfCanvasParser},
+ * which is only created if the content contains such tokens. The tokens are split exactly as
+ * {@link PdfCanvasParser#parse(List)} splits them.
+ */
+final class ContentStreamLexer {
+
+    /**
+     * The code of the operators which are longer than three bytes and therefore don't have an integer code.
+     */
+    static final int NO_OPERATOR_CODE = -1;
+
+    private static final int INITIAL_OPERANDS_CAPACITY = 16;
+
+    // the greatest integer value up to which all the integers are exactly representable by double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final byte[] BI_OPERATOR = new byte[] {'B', 'I'};
+
+    private static final byte[] EI_OPERATOR = new byte[] {'E', 'I'};
+
+    private static final boolean[] DELIMITERS = new boolean[256];
+
+    static {
+        byte[] delimiters = new byte[] {0, 9, 10, 12, 13, 32, '(', ')', '<', '>', '[', ']', '/', '%'};
+        for (byte delimiter : delimiters) {
+            DELIMITERS[delimiter] = true;
+        }
+    }
+
+    private final byte[] content;
+
+    private final PdfResources resources;
+
+    private int position;
+
+    private PdfCanvasParser objectParser;
+
+    private double[] numericOperands = new double[INITIAL_OPERANDS_CAPACITY];
+
+    private int[] numericOperandStarts = new int[INITIAL_OPERANDS_CAPACITY];
+
+    private int[] numericOperandEnds = new int[INITIAL_OPERANDS_CAPACITY];
+
+    // null for the numeric operands
+    private PdfObject[] objectOperands = new PdfObject[INITIAL_OPERANDS_CAPACITY];
+
+    private int operandsCount;
+
+    private boolean onlyNumericOperands;
+
+    private byte[] operatorSource;
+
+    private int operatorStart;
+
+    private int operatorEnd;
+
+    /**
+     * Creates a lexer over the content stream bytes.
+     *
+     * @param content   the content stream bytes
+     * @param resources the resources of the content stream, used to parse inline images
+     */
+    ContentStreamLexer(byte[] content, PdfResources resources) {
+        this.content = content;
+        this.resources = resources;
+    }
+
+    /**
+     * Calculates the integer code of an operator. The codes of different operators are always different.
+     *
+     * @param operator the operator
+     * @return the code of the operator or {@link #NO_OPERATOR_CODE} if the operator is longer than three bytes
+     */
+    static int getOperatorCode(String operator) {
+        byte[] bytes = operator.getBytes(StandardCharsets.ISO_8859_1);
+        return getOperatorCode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads the operands and the operator of the next command of the content stream.
+     * <p>
+     * Inline images are returned as an {@code EI} operator which has the image as its only operand.
+     *
+     * @return {@code true} if a command has been read, {@code false} if the end of content has been reached
+     * @throws IOException on error
+     */
+    boolean nextOperator() throws IOException {
+        operandsCount = 0;
+        onlyNumericOperands = true;
+        while (true) {
+            while (position < content.length && PdfTokenizer.isWhitespace(content[position] & 0xff)) {
+                position++;
+            }
+            if (position >= content.length) {
+                return false;
+            }
+            int ch = content[position];
+            switch (ch) {
+                case '%':
+                    while (position < content.length && content[position] != '\r' && content[position] != '\n') {
+                        position++;
+                    }
+                    break;
+                case '[':
+                case ']':
+                case '/':
+                case '<':
+                case '>':
+                case '(':
+                    pushObjectOperand(readObject());
+                    break;
+                default:
+                    if (ch == '-' || ch == '+' || ch == '.' || (ch >= '0' && ch <= '9')) {
+                        if (!readNumber()) {
+                            // irregular numbers, like "--5", are normalized by the tokenizer
+                            pushObjectOperand(readObject());
+                        }
+                    } else {
+                        readOperator();
+                        if (isOperator(BI_OPERATOR)) {
+                            readInlineImage();
+                        }
+                        return true;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Gets the integer code of the last read operator.
+     *
+     * @return the code of the operator or {@link #NO_OPERATOR_CODE} if the operator is longer than three bytes
+     */
+    int getOperatorCode() {
+        return getOperatorCode(operatorSource, operatorStart, operatorEnd);
+    }
+
+    /**
+     * Creates a new {@link PdfLiteral} for the last read operator.
+     *
+     * @return the operator literal
+     */
+    PdfLiteral createOperatorLiteral() {
+        byte[] operator = new byte[operatorEnd - operatorStart];
+        System.arraycopy(operatorSource, operatorStart, operator, 0, operator.length);
+        return new PdfLiteral(operator);
+    }
+
+    /**
+     * Gets the number of operands of the last read operator.
+     *
+     * @return the number of operands
+     */
+    int getOperandsCount() {
+        return operandsCount;
+    }
+
+    /**
+     * Checks whether all operands of the last read operator are numbers.
+     *
+     * @return {@code true} if there are no operands other than numbers
+     */
+    boolean hasOnlyNumericOperands() {
+        return onlyNumericOperands;
+    }
+
+    /**
+     * Gets the values of the operands of the last read operator. The values are only valid if
+     * {@link #hasOnlyNumericOperands()} is {@code true} and only until the next call of {@link #nextOperator()}.
+     *
+     * @return the operand stack, which contains {@link #getOperandsCount()} meaningful values
+     */
+    double[] getNumericOperands() {
+        return numericOperands;
+    }
+
+    /**
+     * Fills the list with the operands of the last read operator followed by the operator,
+     * as {@link PdfCanvasParser#parse(List)} does.
+     *
+     * @param operands the list to fill, it will be cleared before using
+     * @param operator the operator literal
+     * @return the same list
+     */
+    List<PdfObject> getOperands(List<PdfObject> operands, PdfLiteral operator) {
+        operands.clear();
+        for (int i = 0; i < operandsCount; i++) {
+            PdfObject operand = objectOperands[i];
+            if (operand == null) {
+                // use PdfNumber(byte[]) here, as PdfCanvasParser does
+                byte[] number = new byte[numericOperandEnds[i] - numericOperandStarts[i]];
+                System.arraycopy(content, numericOperandStarts[i], number, 0, number.length);
+                operand = new PdfNumber(number);
+            }
+            operands.add(operand);
+        }
+        operands.add(operator);
+        return operands;
+    }
+
+    private static int getOperatorCode(byte[] bytes, int start, int end) {
+        int length = end - start;
+        if (length == 0 || length > 3) {
+            return NO_OPERATOR_CODE;
+        }
+        int code = 0;
+        for (int i = end - 1; i >= start; i--) {
+            code = (code << 8) | (bytes[i] & 0xff);
+        }
+        // the length is encoded as well to distinguish operators which contain zero bytes
+        return (code << 2) | length;
+    }
+
+    private boolean isOperator(byte[] operator) {
+        if (operatorEnd - operatorStart != operator.length) {
+            return false;
+        }
+        for (int i = 0; i < operator.length; i++) {
+            if (operatorSource[operatorStart + i] != operator[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readOperator() {
+        operatorSource = content;
+        operatorStart = position;
+        do {
+            position++;
+        } while (position < content.length && !DELIMITERS[content[position] & 0xff]);
+        operatorEnd = position;
+    }
+
+    /**
+     * Reads a number in the same way as {@link PdfTokenizer} does.
+     *
+     * @return {@code false} if the number has an irregular form which is normalized by the tokenizer,
+     * in this case the position is not changed
+     */
+    private boolean readNumber() {
+        int start = position;
+        int current = position;
+        boolean negative = false;
+        if (content[current] == '-' || content[current] == '+') {
+            negative = content[current] == '-';
+            current++;
+            if (negative && current < content.length && content[current] == '-') {
+                return false;
+            }
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean exact = true;
+        boolean leadingDot = current == start && content[current] == '.';
+        if (leadingDot) {
+            current++;
+        }
+        while (current < content.length && content[current] >= '0' && content[current] <= '9') {
+            if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                mantissa = mantissa * 10 + (content[current] - '0');
+            } else {
+                exact = false;
+            }
+            digits++;
+            current++;
+        }
+        if (leadingDot) {
+            fractionDigits = digits;
+        }
+        if (current < content.length && content[current] == '.') {
+            if (leadingDot) {
+                return false;
+            }
+            current++;
+            if (current < content.length && content[current] == '-') {
+                return false;
+            }
+            while (current < content.length && content[current] >= '0' && content[current] <= '9') {
+                if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                    mantissa = mantissa * 10 + (content[current] - '0');
+                } else {
+                    exact = false;
+                }
+                digits++;
+                fractionDigits++;
+                current++;
+            }
+        }
+        double value;
+        if (digits == 0) {
+            // the same as Double.parseDouble would fail for "-", "+" or "."
+            value = Double.NaN;
+        } else if (exact && fractionDigits < POWERS_OF_TEN.length) {
+            // both values are exact, so the division is rounded in the same way as Double.parseDouble does
+            value = mantissa / POWERS_OF_TEN[fractionDigits];
+            if (negative) {
+                value = -value;
+            }
+        } else {
+            value = parseDouble(start, current);
+        }
+        position = current;
+        pushNumericOperand(value, start, current);
+        return true;
+    }
+
+    private double parseDouble(int start, int end) {
+        try {
+            return Double.parseDouble(new String(content, start, end - start, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private PdfObject readObject() throws IOException {
+        PdfCanvasParser parser = getObjectParser();
+        parser.getTokeniser().seek(position);
+        PdfObject object = parser.readObject();
+        position = (int) parser.getTokeniser().getPosition();
+        return object;
+    }
+
+    private void readInlineImage() throws IOException {
+        PdfCanvasParser parser = getObjectParser();
+        parser.getTokeniser().seek(position);
+        PdfObject inlineImage = InlineImageParsingUtils.parse(parser, resources.getResource(PdfName.ColorSpace));
+        position = (int) parser.getTokeniser().getPosition();
+        operandsCount = 0;
+        onlyNumericOperands = false;
+        pushObjectOperand(inlineImage);
+        operatorSource = EI_OPERATOR;
+        operatorStart = 0;
+        operatorEnd = EI_OPERATOR.length;
+    }
+
+    private PdfCanvasParser getObjectParser() {
+        if (objectParser == null) {
+            PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(
+                    new RandomAccessSourceFactory().createSource(content)).enableReadWindow());
+            objectParser = new PdfCanvasParser(tokeniser, resources);
+        }
+        return objectParser;
+    }
+
+    private void pushNumericOperand(double value, int start, int end) {
+        ensureOperandsCapacity();
+        numericOperands[operandsCount] = value;
+        numericOperandStarts[operandsCount] = start;
+        numericOperandEnds[operandsCount] = end;
+        objectOperands[operandsCount] = null;
+        operandsCount++;
+    }
+
+    private void pushObjectOperand(PdfObject operand) {
+        ensureOperandsCapacity();
+        objectOperands[operandsCount] = operand;
+        operandsCount++;
+        onlyNumericOperands = false;
+    }
+
+    private void ensureOperandsCapacity() {
+        if (operandsCount == objectOperands.length) {
+            int capacity = operandsCount * 2;
+            double[] newNumericOperands = new double[capacity];
+            System.arraycopy(numericOperands, 0, newNumericOperands, 0, operandsCount);
+            numericOperands = newNumericOperands;
+            int[] newStarts = new int[capacity];
+            System.arraycopy(numericOperandStarts, 0, newStarts, 0, operandsCount);
+            numericOperandStarts = newStarts;
+            int[] newEnds = new int[capacity];
+            System.arraycopy(numericOperandEnds, 0, newEnds, 0, operandsCount);
+            numericOperandEnds = newEnds;
+            PdfObject[] newObjectOperands = new PdfObject[capacity];
+            System.arraycopy(objectOperands, 0, newObjectOperands, 0, operandsCount);
+            objectOperands = newObjectOperands;
+        }
+    }
+}
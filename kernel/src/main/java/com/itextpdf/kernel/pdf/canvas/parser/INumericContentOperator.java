@@ -0,0 +1,59 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.kernel.pdf.PdfLiteral;
+
+/**
+ * A content stream operator handler which is able to process numeric operands without them being
+ * wrapped into {@link com.itextpdf.kernel.pdf.PdfNumber} objects.
+ * <p>
+ * {@link PdfCanvasProcessor} calls {@link #invoke(PdfCanvasProcessor, PdfLiteral, double[], int)} if all
+ * the operands of the operator are numbers and there are at least {@link #getNumericOperandsCount()} of them.
+ * Otherwise {@link IContentOperator#invoke(PdfCanvasProcessor, PdfLiteral, java.util.List)} is called,
+ * so both methods shall process the operator in the same way.
+ * <p>
+ * The numeric method bypasses {@link PdfCanvasProcessor#invokeOperator(PdfLiteral, java.util.List)}.
+ * Processors which override the latter and need to see every operator shall disable the numeric method
+ * via {@link PdfCanvasProcessor#isNumericOperatorFastPathAllowed()}.
+ */
+public interface INumericContentOperator extends IContentOperator {
+
+    /**
+     * Gets the number of operands the operator reads.
+     *
+     * @return the number of operands
+     */
+    int getNumericOperandsCount();
+
+    /**
+     * Called when a content operator with numeric operands should be processed.
+     *
+     * @param processor     the processor that is dealing with the PDF content stream
+     * @param operator      the literal PDF syntax of the operator
+     * @param operands      the values of the operands, the array is reused by the processor, so it
+     *                      is only valid during the call
+     * @param operandsCount the number of operands in the array
+     */
+    void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount);
+}
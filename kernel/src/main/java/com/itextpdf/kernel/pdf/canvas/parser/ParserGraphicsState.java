@@ -23,7 +23,11 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 
+import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
+import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.geom.AffineTransform;
 import com.itextpdf.kernel.geom.Matrix;
+import com.itextpdf.kernel.geom.NoninvertibleTransformException;
 import com.itextpdf.kernel.geom.Path;
 import com.itextpdf.kernel.geom.ShapeTransformUtil;
 import com.itextpdf.kernel.pdf.canvas.CanvasGraphicsState;
@@ -33,13 +37,19 @@ import com.itextpdf.kernel.pdf.canvas.parser.clipper.DefaultClipper;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.IClipper;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.PolyTree;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Internal class which is essentially a {@link CanvasGraphicsState} which supports tracking of
  * clipping path state and changes.
+ * <p>
+ * Clipping path changes are recorded and only applied when the clipping path is requested, so
+ * the content which never asks for the clipping path doesn't pay for the path intersections.
  */
 public class ParserGraphicsState extends CanvasGraphicsState {
     // NOTE: From the spec default value of this field should be the boundary of the entire imageable portion of the output page.
-    private Path clippingPath;
+    private LazyClippingPath clippingPath;
 
     /**
      * Internal empty and default constructor.
@@ -57,7 +67,10 @@ public class ParserGraphicsState extends CanvasGraphicsState {
         super(source);
 
         if (source.clippingPath != null) {
-            clippingPath = new Path(source.clippingPath);
+            clippingPath = source.clippingPath.isCalculated()
+                    ? new LazyClippingPath(new Path(source.clippingPath.getPath()))
+                    // the pending changes are shared, as they are never modified
+                    : source.clippingPath;
         }
     }
 
@@ -65,7 +78,8 @@ public class ParserGraphicsState extends CanvasGraphicsState {
     public void updateCtm(Matrix newCtm) {
         super.updateCtm(newCtm);
         if (clippingPath != null) {
-            transformClippingPath(newCtm);
+            checkInvertible(newCtm);
+            clippingPath = new LazyClippingPath(clippingPath, null, 0, newCtm);
         }
     }
 
@@ -82,22 +96,11 @@ public class ParserGraphicsState extends CanvasGraphicsState {
      *                    {@link FillingRule#NONZERO_WINDING}
      */
     public void clip(Path path, int fillingRule) {
-        if (clippingPath == null || clippingPath.isEmpty()) {
+        if (clippingPath == null || (clippingPath.isCalculated() && clippingPath.getPath().isEmpty())) {
             return;
         }
 
-        Path pathCopy = new Path(path);
-        pathCopy.closeAllSubpaths();
-
-        IClipper clipper = new DefaultClipper();
-        ClipperBridge clipperBridge = new ClipperBridge(clippingPath, pathCopy);
-        clipperBridge.addPath(clipper, clippingPath, IClipper.PolyType.SUBJECT);
-        clipperBridge.addPath(clipper, pathCopy, IClipper.PolyType.CLIP);
-
-        PolyTree resultTree = new PolyTree();
-        clipper.execute(IClipper.ClipType.INTERSECTION, resultTree, IClipper.PolyFillType.NON_ZERO, ClipperBridge.getFillType(fillingRule));
-
-        clippingPath = clipperBridge.convertToPath(resultTree);
+        clippingPath = new LazyClippingPath(clippingPath, new Path(path), fillingRule, null);
     }
 
     /**
@@ -110,7 +113,7 @@ public class ParserGraphicsState extends CanvasGraphicsState {
      * @return The current clipping path.
      */
     public Path getClippingPath() {
-        return clippingPath;
+        return clippingPath == null ? null : clippingPath.getPath();
     }
 
     /**
@@ -125,10 +128,98 @@ public class ParserGraphicsState extends CanvasGraphicsState {
     public void setClippingPath(Path clippingPath) {
         Path pathCopy = new Path(clippingPath);
         pathCopy.closeAllSubpaths();
-        this.clippingPath = pathCopy;
+        this.clippingPath = new LazyClippingPath(pathCopy);
+    }
+
+    /**
+     * Gets the current clipping path without applying the pending changes to it.
+     *
+     * @return the current clipping path or {@code null} if it isn't set
+     */
+    LazyClippingPath getLazyClippingPath() {
+        return clippingPath;
+    }
+
+    private static void checkInvertible(Matrix matrix) {
+        // the same check as the one ShapeTransformUtil does when the clipping path is transformed
+        try {
+            new AffineTransform(matrix.get(Matrix.I11), matrix.get(Matrix.I12), matrix.get(Matrix.I21),
+                    matrix.get(Matrix.I22), matrix.get(Matrix.I31), matrix.get(Matrix.I32)).createInverse();
+        } catch (NoninvertibleTransformException e) {
+            throw new PdfException(KernelExceptionMessageConstant.NONINVERTIBLE_MATRIX_CANNOT_BE_PROCESSED, e);
+        }
     }
 
-    private void transformClippingPath(Matrix newCtm) {
-        clippingPath = ShapeTransformUtil.transformPath(clippingPath, newCtm);
+    /**
+     * A clipping path which is either calculated or is defined by the clipping path it is derived from and
+     * the change (intersection or transformation) to apply to it. The change is applied on the first request
+     * of the path, after that the path it was derived from is released.
+     */
+    static final class LazyClippingPath {
+        private LazyClippingPath origin;
+        private Path clip;
+        private int fillingRule;
+        private Matrix transform;
+        private Path path;
+
+        LazyClippingPath(Path path) {
+            this.path = path;
+        }
+
+        LazyClippingPath(LazyClippingPath origin, Path clip, int fillingRule, Matrix transform) {
+            this.origin = origin;
+            this.clip = clip;
+            this.fillingRule = fillingRule;
+            this.transform = transform;
+        }
+
+        boolean isCalculated() {
+            return origin == null;
+        }
+
+        Path getPath() {
+            if (origin == null) {
+                return path;
+            }
+            // the chains may be long, so they are walked without recursion
+            List<LazyClippingPath> pending = new ArrayList<>();
+            LazyClippingPath calculated = this;
+            while (calculated.origin != null) {
+                pending.add(calculated);
+                calculated = calculated.origin;
+            }
+            Path result = calculated.path;
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                LazyClippingPath change = pending.get(i);
+                result = change.apply(result);
+                change.path = result;
+                change.origin = null;
+                change.clip = null;
+                change.transform = null;
+            }
+            return result;
+        }
+
+        private Path apply(Path clippingPath) {
+            if (transform != null) {
+                return ShapeTransformUtil.transformPath(clippingPath, transform);
+            }
+            if (clippingPath.isEmpty()) {
+                return clippingPath;
+            }
+
+            clip.closeAllSubpaths();
+
+            IClipper clipper = new DefaultClipper();
+            ClipperBridge clipperBridge = new ClipperBridge(clippingPath, clip);
+            clipperBridge.addPath(clipper, clippingPath, IClipper.PolyType.SUBJECT);
+            clipperBridge.addPath(clipper, clip, IClipper.PolyType.CLIP);
+
+            PolyTree resultTree = new PolyTree();
+            clipper.execute(IClipper.ClipType.INTERSECTION, resultTree, IClipper.PolyFillType.NON_ZERO,
+                    ClipperBridge.getFillType(fillingRule));
+
+            return clipperBridge.convertToPath(resultTree);
+        }
     }
 }
@@ -24,9 +24,6 @@ package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.io.logs.IoLogMessageConstant;
-import com.itextpdf.io.source.PdfTokenizer;
-import com.itextpdf.io.source.RandomAccessFileOrArray;
-import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.commons.utils.MessageFormatUtil;
 import com.itextpdf.kernel.logs.KernelLogMessageConstant;
 import com.itextpdf.kernel.exceptions.PdfException;
@@ -70,7 +67,6 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
-import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.kernel.pdf.colorspace.PdfCieBasedCs;
 import com.itextpdf.kernel.pdf.colorspace.PdfColorSpace;
 import com.itextpdf.kernel.pdf.colorspace.PdfPattern;
@@ -119,6 +115,18 @@ public class PdfCanvasProcessor {
      */
     private Map<String, IContentOperator> operators;
 
+    /**
+     * The registered operators which are short enough to be found by their integer code.
+     */
+    private final ContentOperatorTable operatorTable = new ContentOperatorTable();
+
+    /**
+     * The operator literal which is being dispatched from {@link #processContent(byte[], PdfResources)}
+     * and the operator registered for it, used to skip the lookup by operator string.
+     */
+    private PdfLiteral dispatchedOperatorLiteral;
+    private IContentOperator dispatchedOperator;
+
     /**
      * Resources for the content stream.
      * Current resources are always at the top of the stack.
@@ -217,6 +225,10 @@ public class PdfCanvasProcessor {
      * @return the existing registered operator, if any
      */
     public IContentOperator registerContentOperator(String operatorString, IContentOperator operator) {
+        int operatorCode = ContentStreamLexer.getOperatorCode(operatorString);
+        if (operatorCode != ContentStreamLexer.NO_OPERATOR_CODE) {
+            operatorTable.put(operatorCode, operatorString, operator);
+        }
         return operators.put(operatorString, operator);
     }
 
@@ -270,16 +282,31 @@ public class PdfCanvasProcessor {
         }
 
         this.resourcesStack.add(resources);
-        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(contentBytes)));
-        PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
+        ContentStreamLexer lexer = new ContentStreamLexer(contentBytes, resources);
         List<PdfObject> operands = new ArrayList<>();
+        boolean numericFastPathAllowed = isNumericOperatorFastPathAllowed();
         try {
-            while (ps.parse(operands).size() > 0) {
-                PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
-                invokeOperator(operator, operands);
+            while (lexer.nextOperator()) {
+                int slot = operatorTable.indexOf(lexer.getOperatorCode());
+                IContentOperator operator = slot < 0 ? null : operatorTable.getOperator(slot);
+                if (numericFastPathAllowed && operator instanceof INumericContentOperator
+                        && lexer.hasOnlyNumericOperands()
+                        && lexer.getOperandsCount() >= ((INumericContentOperator) operator).getNumericOperandsCount()) {
+                    ((INumericContentOperator) operator).invoke(this, operatorTable.getLiteral(slot),
+                            lexer.getNumericOperands(), lexer.getOperandsCount());
+                } else {
+                    PdfLiteral operatorLiteral = slot < 0 ? lexer.createOperatorLiteral()
+                            : operatorTable.getLiteral(slot);
+                    dispatchedOperatorLiteral = operatorLiteral;
+                    dispatchedOperator = operator;
+                    invokeOperator(operatorLiteral, lexer.getOperands(operands, operatorLiteral));
+                }
             }
         } catch (IOException e) {
             throw new PdfException(KernelExceptionMessageConstant.CANNOT_PARSE_CONTENT_STREAM, e);
+        } finally {
+            dispatchedOperatorLiteral = null;
+            dispatchedOperator = null;
         }
 
         this.resourcesStack.remove(resourcesStack.size() - 1);
@@ -296,8 +323,7 @@ public class PdfCanvasProcessor {
     public void processPageContent(PdfPage page) {
         this.memoryLimitsHandler = page.getDocument().getMemoryLimitsAwareHandler();
         initClippingPath(page);
-        ParserGraphicsState gs = getGraphicsState();
-        eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+        eventOccurred(createClippingPathInfo(getGraphicsState()), EventType.CLIP_PATH_CHANGED);
         processContent(page.getContentBytes(), page.getResources());
     }
 
@@ -432,7 +458,7 @@ public class PdfCanvasProcessor {
         if (isClip) {
             isClip = false;
             gs.clip(currentPath, clippingRule);
-            eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            eventOccurred(createClippingPathInfo(gs), EventType.CLIP_PATH_CHANGED);
         }
 
         currentPath = new Path();
@@ -445,13 +471,27 @@ public class PdfCanvasProcessor {
      * @param operands a list with operands
      */
     protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
-        IContentOperator op = operators.get(operator.toString());
+        IContentOperator op = operator == dispatchedOperatorLiteral ? dispatchedOperator
+                : operators.get(operator.toString());
         if (op == null) {
             op = operators.get(DEFAULT_OPERATOR);
         }
         op.invoke(this, operator, operands);
     }
 
+    /**
+     * Defines whether the operators implementing {@link INumericContentOperator} may be invoked directly
+     * with numeric operands, bypassing {@link #invokeOperator(PdfLiteral, List)}.
+     * <p>
+     * Subclasses which override {@link #invokeOperator(PdfLiteral, List)} and need to see every operator
+     * shall return {@code false}.
+     *
+     * @return {@code true} if numeric operators may be invoked directly, {@code false} otherwise
+     */
+    protected boolean isNumericOperatorFastPathAllowed() {
+        return true;
+    }
+
     protected PdfStream getXObjectStream(PdfName xobjectName) {
         PdfDictionary xobjects = getResources().getResource(PdfName.XObject);
         return xobjects.getAsStream(xobjectName);
@@ -585,6 +625,16 @@ public class PdfCanvasProcessor {
         textMatrix = new Matrix(adjustBy, 0).multiply(textMatrix);
     }
 
+    /**
+     * Creates the clipping path event data. The clipping path is only calculated if the listener requests it.
+     *
+     * @param gs the graphics state to take the current clipping path from
+     * @return the clipping path event data
+     */
+    private static ClippingPathInfo createClippingPathInfo(ParserGraphicsState gs) {
+        return new LazyClippingPathInfo(gs, gs.getLazyClippingPath());
+    }
+
     private void initClippingPath(PdfPage page) {
         Path clippingPath = new Path();
         clippingPath.rectangle(page.getCropBox());
@@ -734,7 +784,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (Tm). For more information see Table 51 ISO-32000-1
      */
-    private static class TextSetTextMatrixOperator implements IContentOperator {
+    private static class TextSetTextMatrixOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -749,12 +799,28 @@ public class PdfCanvasProcessor {
             processor.textLineMatrix = new Matrix(a, b, c, d, e, f);
             processor.textMatrix = processor.textLineMatrix;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 6;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.textLineMatrix = new Matrix((float) operands[0], (float) operands[1], (float) operands[2],
+                    (float) operands[3], (float) operands[4], (float) operands[5]);
+            processor.textMatrix = processor.textLineMatrix;
+        }
     }
 
     /**
      * A handler that implements operator (TD). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineWithLeadingOperator implements IContentOperator {
+    private static class TextMoveStartNextLineWithLeadingOperator implements INumericContentOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
         private final SetTextLeadingOperator setTextLeading;
 
@@ -774,12 +840,27 @@ public class PdfCanvasProcessor {
             setTextLeading.invoke(processor, null, tlOperands);
             moveStartNextLine.invoke(processor, null, operands);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setLeading(-(float) operands[1]);
+            moveStartNextLine.invoke(processor, null, operands, operandsCount);
+        }
     }
 
     /**
      * A handler that implements operator (Td). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineOperator implements IContentOperator {
+    private static class TextMoveStartNextLineOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -791,6 +872,22 @@ public class PdfCanvasProcessor {
             processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
             processor.textLineMatrix = processor.textMatrix;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            Matrix translationMatrix = new Matrix((float) operands[0], (float) operands[1]);
+            processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
+            processor.textLineMatrix = processor.textMatrix;
+        }
     }
 
     /**
@@ -831,7 +928,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (Ts). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextRiseOperator implements IContentOperator {
+    private static class SetTextRiseOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -839,12 +936,26 @@ public class PdfCanvasProcessor {
             PdfNumber rise = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setTextRise(rise.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setTextRise((float) operands[0]);
+        }
     }
 
     /**
      * A handler that implements operator (TL). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextLeadingOperator implements IContentOperator {
+    private static class SetTextLeadingOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -852,12 +963,26 @@ public class PdfCanvasProcessor {
             PdfNumber leading = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setLeading(leading.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setLeading((float) operands[0]);
+        }
     }
 
     /**
      * A handler that implements operator (Tz). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextHorizontalScalingOperator implements IContentOperator {
+    private static class SetTextHorizontalScalingOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -865,12 +990,26 @@ public class PdfCanvasProcessor {
             PdfNumber scale = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setHorizontalScaling(scale.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setHorizontalScaling((float) operands[0]);
+        }
     }
 
     /**
      * A handler that implements operator (Tc). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextCharacterSpacingOperator implements IContentOperator {
+    private static class SetTextCharacterSpacingOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -878,12 +1017,26 @@ public class PdfCanvasProcessor {
             PdfNumber charSpace = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setCharSpacing(charSpace.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setCharSpacing((float) operands[0]);
+        }
     }
 
     /**
      * A handler that implements operator (Tw). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextWordSpacingOperator implements IContentOperator {
+    private static class SetTextWordSpacingOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -891,6 +1044,20 @@ public class PdfCanvasProcessor {
             PdfNumber wordSpace = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setWordSpacing(wordSpace.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setWordSpacing((float) operands[0]);
+        }
     }
 
     /**
@@ -944,7 +1111,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (cm). For more information see Table 51 ISO-32000-1
      */
-    private static class ModifyCurrentTransformationMatrixOperator implements IContentOperator {
+    private static class ModifyCurrentTransformationMatrixOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -955,7 +1122,25 @@ public class PdfCanvasProcessor {
             float d = ((PdfNumber) operands.get(3)).floatValue();
             float e = ((PdfNumber) operands.get(4)).floatValue();
             float f = ((PdfNumber) operands.get(5)).floatValue();
-            Matrix matrix = new Matrix(a, b, c, d, e, f);
+            updateCtm(processor, new Matrix(a, b, c, d, e, f));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 6;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            updateCtm(processor, new Matrix((float) operands[0], (float) operands[1], (float) operands[2],
+                    (float) operands[3], (float) operands[4], (float) operands[5]));
+        }
+
+        private static void updateCtm(PdfCanvasProcessor processor, Matrix matrix) {
             try {
                 processor.getGraphicsState().updateCtm(matrix);
             } catch (PdfException exception) {
@@ -1072,8 +1257,8 @@ public class PdfCanvasProcessor {
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.gsStack.pop();
-            ParserGraphicsState gs = processor.getGraphicsState();
-            processor.eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            processor.eventOccurred(createClippingPathInfo(processor.getGraphicsState()),
+                    EventType.CLIP_PATH_CHANGED);
         }
     }
 
@@ -1340,7 +1525,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (w). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineWidthOperator implements IContentOperator {
+    private static class SetLineWidthOperator implements INumericContentOperator {
         /**
          * {@inheritDoc}
          */
@@ -1348,6 +1533,20 @@ public class PdfCanvasProcessor {
             float lineWidth = ((PdfNumber) operands.get(0)).floatValue();
             processor.getGraphicsState().setLineWidth(lineWidth);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setLineWidth((float) operands[0]);
+        }
     }
 
     /**
@@ -1381,7 +1580,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (M). For more information see Table 51 ISO-32000-1
      */
-    private static class SetMiterLimitOperator implements IContentOperator {
+    private static class SetMiterLimitOperator implements INumericContentOperator {
 
         /**
          * {@inheritDoc}
@@ -1390,6 +1589,20 @@ public class PdfCanvasProcessor {
             float miterLimit = ((PdfNumber) operands.get(0)).floatValue();
             processor.getGraphicsState().setMiterLimit(miterLimit);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.getGraphicsState().setMiterLimit((float) operands[0]);
+        }
     }
 
     /**
@@ -1468,7 +1681,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (m). For more information see Table 51 ISO-32000-1
      */
-    private static class MoveToOperator implements IContentOperator {
+    private static class MoveToOperator implements INumericContentOperator {
 
         /**
          * {@inheritDoc}
@@ -1478,12 +1691,26 @@ public class PdfCanvasProcessor {
             float y = ((PdfNumber) operands.get(1)).floatValue();
             processor.currentPath.moveTo(x, y);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.currentPath.moveTo((float) operands[0], (float) operands[1]);
+        }
     }
 
     /**
      * A handler that implements operator (l). For more information see Table 51 ISO-32000-1
      */
-    private static class LineToOperator implements IContentOperator {
+    private static class LineToOperator implements INumericContentOperator {
 
         /**
          * {@inheritDoc}
@@ -1493,12 +1720,26 @@ public class PdfCanvasProcessor {
             float y = ((PdfNumber) operands.get(1)).floatValue();
             processor.currentPath.lineTo(x, y);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.currentPath.lineTo((float) operands[0], (float) operands[1]);
+        }
     }
 
     /**
      * A handler that implements operator (c). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveOperator implements IContentOperator {
+    private static class CurveOperator implements INumericContentOperator {
 
         /**
          * {@inheritDoc}
@@ -1512,12 +1753,27 @@ public class PdfCanvasProcessor {
             float y3 = ((PdfNumber) operands.get(5)).floatValue();
             processor.currentPath.curveTo(x1, y1, x2, y2, x3, y3);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 6;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.currentPath.curveTo((float) operands[0], (float) operands[1], (float) operands[2],
+                    (float) operands[3], (float) operands[4], (float) operands[5]);
+        }
     }
 
     /**
      * A handler that implements operator (v). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFirstPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFirstPointDuplicatedOperator implements INumericContentOperator {
 
         /**
          * {@inheritDoc}
@@ -1529,12 +1785,27 @@ public class PdfCanvasProcessor {
             float y3 = ((PdfNumber) operands.get(3)).floatValue();
             processor.currentPath.curveTo(x2, y2, x3, y3);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.currentPath.curveTo((float) operands[0], (float) operands[1],
+                    (float) operands[2], (float) operands[3]);
+        }
     }
 
     /**
      * A handler that implements operator (y). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFourhPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFourhPointDuplicatedOperator implements INumericContentOperator {
 
         /**
          * {@inheritDoc}
@@ -1546,6 +1817,21 @@ public class PdfCanvasProcessor {
             float y3 = ((PdfNumber) operands.get(3)).floatValue();
             processor.currentPath.curveFromTo(x1, y1, x3, y3);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.currentPath.curveFromTo((float) operands[0], (float) operands[1],
+                    (float) operands[2], (float) operands[3]);
+        }
     }
 
     /**
@@ -1564,7 +1850,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (re). For more information see Table 51 ISO-32000-1
      */
-    private static class RectangleOperator implements IContentOperator {
+    private static class RectangleOperator implements INumericContentOperator {
 
         /**
          * {@inheritDoc}
@@ -1576,6 +1862,21 @@ public class PdfCanvasProcessor {
             float h = ((PdfNumber) operands.get(3)).floatValue();
             processor.currentPath.rectangle(x, y, w, h);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getNumericOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            processor.currentPath.rectangle((float) operands[0], (float) operands[1],
+                    (float) operands[2], (float) operands[3]);
+        }
     }
 
     /**
@@ -1634,4 +1935,102 @@ public class PdfCanvasProcessor {
             processor.clippingRule = rule;
         }
     }
+
+    /**
+     * Clipping path event data which calculates the clipping path on the first request.
+     */
+    private static final class LazyClippingPathInfo extends ClippingPathInfo {
+        private final ParserGraphicsState.LazyClippingPath clippingPath;
+
+        LazyClippingPathInfo(ParserGraphicsState gs, ParserGraphicsState.LazyClippingPath clippingPath) {
+            super(gs, null, gs.getCtm());
+            this.clippingPath = clippingPath;
+        }
+
+        @Override
+        public Path getClippingPath() {
+            return clippingPath == null ? null : clippingPath.getPath();
+        }
+    }
+
+    /**
+     * An open addressing hash table which maps the integer operator codes calculated by {@link ContentStreamLexer}
+     * to the registered operators and their literals.
+     */
+    private static final class ContentOperatorTable {
+        private static final int INITIAL_CAPACITY = 128;
+
+        private int[] codes = new int[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private IContentOperator[] operators = new IContentOperator[INITIAL_CAPACITY];
+        private PdfLiteral[] literals = new PdfLiteral[INITIAL_CAPACITY];
+        private int size;
+
+        int indexOf(int code) {
+            if (code == ContentStreamLexer.NO_OPERATOR_CODE) {
+                return -1;
+            }
+            int mask = codes.length - 1;
+            for (int i = hash(code) & mask; used[i]; i = (i + 1) & mask) {
+                if (codes[i] == code) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        IContentOperator getOperator(int index) {
+            return operators[index];
+        }
+
+        PdfLiteral getLiteral(int index) {
+            return literals[index];
+        }
+
+        void put(int code, String operatorString, IContentOperator operator) {
+            int index = indexOf(code);
+            if (index >= 0) {
+                operators[index] = operator;
+                return;
+            }
+            if ((size + 1) * 2 > codes.length) {
+                rehash(codes.length * 2);
+            }
+            insert(code, operator, new PdfLiteral(operatorString));
+            size++;
+        }
+
+        private static int hash(int code) {
+            int h = code * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private void insert(int code, IContentOperator operator, PdfLiteral literal) {
+            int mask = codes.length - 1;
+            int i = hash(code) & mask;
+            while (used[i]) {
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            codes[i] = code;
+            operators[i] = operator;
+            literals[i] = literal;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldCodes = codes;
+            boolean[] oldUsed = used;
+            IContentOperator[] oldOperators = operators;
+            PdfLiteral[] oldLiterals = literals;
+            codes = new int[capacity];
+            used = new boolean[capacity];
+            operators = new IContentOperator[capacity];
+            literals = new PdfLiteral[capacity];
+            for (int i = 0; i < oldCodes.length; i++) {
+                if (oldUsed[i]) {
+                    insert(oldCodes[i], oldOperators[i], oldLiterals[i]);
+                }
+            }
+        }
+    }
 }
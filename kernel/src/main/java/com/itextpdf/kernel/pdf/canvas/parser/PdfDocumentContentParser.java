@@ -22,11 +22,29 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
-import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
+import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListenerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A utility class that makes it cleaner to process content from pages of a {@link PdfDocument}
@@ -69,4 +87,172 @@ public class PdfDocumentContentParser {
         return processContent(pageNumber, renderListener, new HashMap<String, IContentOperator>());
     }
 
+    /**
+     * Processes content of all the pages of the document in parallel using the common {@link ForkJoinPool}.
+     *
+     * @param <E>             the type of the renderListeners
+     * @param listenerFactory the factory which creates a listener for every page
+     * @return the list of the listeners which received the events of the pages, in page order
+     * @see #processContentInParallel(IEventListenerFactory, Map, ExecutorService)
+     */
+    public <E extends IEventListener> List<E> processContentInParallel(IEventListenerFactory<E> listenerFactory) {
+        return processContentInParallel(listenerFactory, new HashMap<String, IContentOperator>(),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Processes content of all the pages of the document in parallel.
+     * <p>
+     * The document shall be opened in reading mode. Pages are loaded on the calling thread and then
+     * their content streams are processed by at most {@link Runtime#availableProcessors()} tasks submitted
+     * to the given executor, each task having its own {@link PdfCanvasProcessor} and font cache. Indirect
+     * objects shared between pages, e.g. fonts and XObjects, are read by the {@link com.itextpdf.kernel.pdf.PdfReader}
+     * only once and are then reused by all the tasks. The document shall not be used by other threads
+     * until this method returns.
+     *
+     * @param <E>                        the type of the renderListeners
+     * @param listenerFactory            the factory which creates a listener for every page, shall be thread-safe
+     * @param additionalContentOperators an optional map of custom ContentOperators for rendering instructions,
+     *                                   the operators are shared between tasks, so they shall be thread-safe
+     * @param executorService            the executor to run page processing tasks on
+     * @return the list of the listeners which received the events of the pages, in page order
+     */
+    public <E extends IEventListener> List<E> processContentInParallel(IEventListenerFactory<E> listenerFactory,
+            Map<String, IContentOperator> additionalContentOperators, ExecutorService executorService) {
+        if (pdfDocument.getWriter() != null) {
+            throw new PdfException(KernelExceptionMessageConstant.PARALLEL_CONTENT_PROCESSING_REQUIRES_READING_MODE);
+        }
+        int numberOfPages = pdfDocument.getNumberOfPages();
+        List<PdfPage> pages = new ArrayList<>(numberOfPages);
+        List<E> listeners = new ArrayList<>(numberOfPages);
+        for (int i = 1; i <= numberOfPages; i++) {
+            PdfPage page = pdfDocument.getPage(i);
+            // pages tree and page resources are lazily initialized, so do it before the pages are shared
+            page.getResources();
+            pages.add(page);
+            listeners.add(null);
+        }
+
+        ParallelProcessingContext<E> context = new ParallelProcessingContext<>(pages, listeners, listenerFactory,
+                additionalContentOperators);
+        int numberOfTasks = Math.min(numberOfPages, Runtime.getRuntime().availableProcessors());
+        List<Future<Void>> futures = new ArrayList<>(numberOfTasks);
+        for (int i = 0; i < numberOfTasks; i++) {
+            futures.add(executorService.submit(new PageProcessingTask<>(context)));
+        }
+        RuntimeException failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                context.cancel();
+                Thread.currentThread().interrupt();
+                throw new PdfException(KernelExceptionMessageConstant.PARALLEL_CONTENT_PROCESSING_INTERRUPTED, e);
+            } catch (ExecutionException e) {
+                // keep waiting for the remaining tasks, so that none of them uses the document after return
+                context.cancel();
+                if (failure == null) {
+                    Throwable cause = getTaskFailure(future, e);
+                    failure = cause instanceof RuntimeException ? (RuntimeException) cause : new PdfException(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return listeners;
+    }
+
+    private static Throwable getTaskFailure(Future<Void> future, ExecutionException e) {
+        Throwable cause = e.getCause();
+        // fork join tasks rethrow the exception of another thread wrapped into a new exception of the same type
+        if (future instanceof ForkJoinTask && cause != null && cause.getCause() != null
+                && cause.getClass() == cause.getCause().getClass()) {
+            return cause.getCause();
+        }
+        return cause;
+    }
+
+    private static final class ParallelProcessingContext<E extends IEventListener> {
+        private final List<PdfPage> pages;
+        private final List<E> listeners;
+        private final IEventListenerFactory<E> listenerFactory;
+        private final Map<String, IContentOperator> additionalContentOperators;
+        // font creation updates the font dictionary which may be shared between pages
+        private final Object fontCreationLock = new Object();
+        private final AtomicInteger nextPageIndex = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        ParallelProcessingContext(List<PdfPage> pages, List<E> listeners, IEventListenerFactory<E> listenerFactory,
+                Map<String, IContentOperator> additionalContentOperators) {
+            this.pages = pages;
+            this.listeners = listeners;
+            this.listenerFactory = listenerFactory;
+            this.additionalContentOperators = additionalContentOperators;
+        }
+
+        void cancel() {
+            cancelled.set(true);
+        }
+
+        int nextPageIndex() {
+            return cancelled.get() ? -1 : nextPageIndex.getAndIncrement();
+        }
+    }
+
+    private static final class PageProcessingTask<E extends IEventListener> implements Callable<Void> {
+        private final ParallelProcessingContext<E> context;
+        private final Map<Integer, PdfFont> fonts = new HashMap<>();
+
+        PageProcessingTask(ParallelProcessingContext<E> context) {
+            this.context = context;
+        }
+
+        @Override
+        public Void call() {
+            try {
+                int pageIndex;
+                while ((pageIndex = context.nextPageIndex()) >= 0 && pageIndex < context.pages.size()) {
+                    E listener = context.listenerFactory.createListener(pageIndex + 1);
+                    new TaskCanvasProcessor(listener, context.additionalContentOperators, this)
+                            .processPageContent(context.pages.get(pageIndex));
+                    context.listeners.set(pageIndex, listener);
+                }
+            } catch (RuntimeException e) {
+                context.cancel();
+                throw e;
+            }
+            return null;
+        }
+
+        PdfFont getFont(PdfDictionary fontDict) {
+            PdfIndirectReference reference = fontDict.getIndirectReference();
+            PdfFont font = reference == null ? null : fonts.get(reference.getObjNumber());
+            if (font == null) {
+                synchronized (context.fontCreationLock) {
+                    font = PdfFontFactory.createFont(fontDict);
+                }
+                if (reference != null) {
+                    fonts.put(reference.getObjNumber(), font);
+                }
+            }
+            return font;
+        }
+    }
+
+    private static final class TaskCanvasProcessor extends PdfCanvasProcessor {
+        private final PageProcessingTask<?> task;
+
+        TaskCanvasProcessor(IEventListener eventListener, Map<String, IContentOperator> additionalContentOperators,
+                PageProcessingTask<?> task) {
+            super(eventListener, additionalContentOperators);
+            this.task = task;
+        }
+
+        @Override
+        protected PdfFont getFont(PdfDictionary fontDict) {
+            return task.getFont(fontDict);
+        }
+    }
+
 }
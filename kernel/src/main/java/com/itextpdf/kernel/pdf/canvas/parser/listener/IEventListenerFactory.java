@@ -0,0 +1,43 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.listener;
+
+import com.itextpdf.kernel.pdf.canvas.parser.PdfDocumentContentParser;
+
+/**
+ * Creates a new {@link IEventListener} for every processed page, so that pages of a document can be
+ * processed independently, see {@link PdfDocumentContentParser#processContentInParallel(IEventListenerFactory)}.
+ *
+ * @param <E> the type of the created listeners
+ */
+public interface IEventListenerFactory<E extends IEventListener> {
+
+    /**
+     * Creates a listener which will receive the events of the given page. The method may be called
+     * concurrently from different threads.
+     *
+     * @param pageNumber the number of the page to be processed by the listener
+     * @return a new listener instance
+     */
+    E createListener(int pageNumber);
+}
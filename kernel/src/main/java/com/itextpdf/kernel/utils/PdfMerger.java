@@ -23,7 +23,12 @@
 package com.itextpdf.kernel.utils;
 
 import com.itextpdf.kernel.pdf.IPdfPageExtraCopier;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfOutline;
+import com.itextpdf.kernel.pdf.PdfPage;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -133,13 +138,57 @@ public class PdfMerger {
             PdfScriptMerger.mergeScripts(from, this.pdfDocument);
         }
 
-        from.copyPagesTo(pages, pdfDocument, copier);
+        PdfOutline rootOutline = null;
+        int rootOutlineChildren = 0;
+        if (properties.isStreamingMode() && properties.isMergeOutlines() && from.hasOutlines()) {
+            rootOutline = pdfDocument.getOutlines(false);
+            rootOutlineChildren = rootOutline.getAllChildren().size();
+        }
+
+        List<PdfPage> mergedPages = from.copyPagesTo(pages, pdfDocument, copier);
+        if (properties.isStreamingMode()) {
+            for (PdfPage page : mergedPages) {
+                // the form fields of the page may be merged with the fields of the documents merged afterwards,
+                // such pages are flushed on closing, only their content is flushed with the copied objects
+                if (copier == null || !hasWidgetAnnotations(page)) {
+                    page.flush(true);
+                }
+            }
+            if (rootOutline != null) {
+                // the top-level outlines are linked to the ones of the documents merged afterwards
+                List<PdfOutline> topLevelOutlines = rootOutline.getAllChildren();
+                for (int i = rootOutlineChildren; i < topLevelOutlines.size(); i++) {
+                    flushOutlineDescendants(topLevelOutlines.get(i));
+                }
+            }
+            pdfDocument.releaseCopiedObjects(from);
+        }
         if (properties.isCloseSrcDocuments()) {
             from.close();
         }
         return this;
     }
 
+    private static boolean hasWidgetAnnotations(PdfPage page) {
+        PdfArray annots = page.getPdfObject().getAsArray(PdfName.Annots);
+        if (annots != null) {
+            for (int i = 0; i < annots.size(); i++) {
+                PdfDictionary annot = annots.getAsDictionary(i);
+                if (annot != null && PdfName.Widget.equals(annot.getAsName(PdfName.Subtype))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void flushOutlineDescendants(PdfOutline outline) {
+        for (PdfOutline child : outline.getAllChildren()) {
+            flushOutlineDescendants(child);
+            child.getContent().flush();
+        }
+    }
+
     /**
      * Closes the current document.
      * <p>
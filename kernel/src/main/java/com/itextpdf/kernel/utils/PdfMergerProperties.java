@@ -31,6 +31,7 @@ public class PdfMergerProperties {
     private boolean mergeTags;
     private boolean mergeOutlines;
     private boolean mergeScripts;
+    private boolean streamingMode;
 
     /**
      * Default constructor, use provided setters for configuration options.
@@ -40,6 +41,7 @@ public class PdfMergerProperties {
         mergeTags = true;
         mergeOutlines = true;
         mergeScripts = false;
+        streamingMode = false;
     }
 
     /**
@@ -78,6 +80,16 @@ public class PdfMergerProperties {
         return mergeScripts;
     }
 
+    /**
+     * check if the merged pages and the objects copied from each source document should be flushed right after
+     * the document is merged
+     *
+     * @return true if they should, false otherwise
+     */
+    public boolean isStreamingMode() {
+        return streamingMode;
+    }
+
     /**
      * close source documents after merging
      *
@@ -126,4 +138,27 @@ public class PdfMergerProperties {
         this.mergeScripts = mergeNames;
         return this;
     }
+
+    /**
+     * flush the merged pages and the objects copied from each source document right after the document is merged,
+     * so the memory used by the merger doesn't grow with the number of the merged documents.
+     * <p>
+     * The pages of the merged documents can't be modified after merging. If the same document is merged again,
+     * its objects are copied once more. The outlines of a merged document, except its top-level ones, are flushed
+     * as well, and the tags are flushed together with the pages.
+     * <p>
+     * The form fields copied by a page copier, such as the one of the forms module, may still be merged with
+     * the same named fields of the documents merged afterwards. So the fields, their widget annotations and
+     * the pages having the widgets are kept in memory until the merged document is closed, only the content of
+     * such pages is flushed right away. Merging many documents with forms therefore still takes memory growing
+     * with the number of the merged fields.
+     *
+     * @param streamingMode true to flush the merged content, false otherwise
+     *
+     * @return <code>PdfMergerProperties</code> instance
+     */
+    public PdfMergerProperties setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+        return this;
+    }
 }
@@ -0,0 +1,197 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.font;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFontFactory.EmbeddingStrategy;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class FontSubsetCacheTest extends ExtendedITextTest {
+
+    private static final String FONTS_FOLDER = "./src/test/resources/com/itextpdf/kernel/pdf/fonts/";
+
+    @Test
+    public void sameSubsetIsReusedTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular_v1.7.ttf");
+        FontSubsetCache cache = new FontSubsetCache();
+
+        byte[] firstFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "Invoice"));
+        byte[] secondFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "ecoivnI"));
+        byte[] uncachedFontFile = readFontFile(writeDocument(null, fontProgram, PdfEncodings.IDENTITY_H, "Invoice"));
+
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertArrayEquals(firstFontFile, secondFontFile);
+        Assertions.assertArrayEquals(uncachedFontFile, secondFontFile);
+    }
+
+    @Test
+    public void simpleTrueTypeFontSubsetIsReusedTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular_v1.7.ttf");
+        FontSubsetCache cache = new FontSubsetCache();
+
+        byte[] firstFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.WINANSI, "Total"));
+        byte[] secondFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.WINANSI, "Total"));
+
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertArrayEquals(firstFontFile, secondFontFile);
+    }
+
+    @Test
+    public void cffSubsetIsReusedTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(FONTS_FOLDER + "Puritan2.otf");
+        FontSubsetCache cache = new FontSubsetCache();
+
+        byte[] firstFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "abc"));
+        byte[] secondFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "cab"));
+
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertArrayEquals(firstFontFile, secondFontFile);
+    }
+
+    @Test
+    public void differentFontProgramsAreNotMixedTest() throws IOException {
+        FontSubsetCache cache = new FontSubsetCache();
+        writeDocument(cache, FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular_v1.7.ttf"),
+                PdfEncodings.IDENTITY_H, "abc");
+        writeDocument(cache, FontProgramFactory.createFont(FONTS_FOLDER + "abserif4_5.ttf"),
+                PdfEncodings.IDENTITY_H, "abc");
+
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void supersetIsReusedTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular_v1.7.ttf");
+        FontSubsetCache cache = new FontSubsetCache().setReuseSupersets(true);
+
+        byte[] supersetFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "abcdef"));
+        byte[] subsetFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "fade"));
+
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertArrayEquals(supersetFontFile, subsetFontFile);
+    }
+
+    @Test
+    public void unitedSubsetIsReusedTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular_v1.7.ttf");
+        FontSubsetCache cache = new FontSubsetCache().setReuseSupersets(true);
+
+        writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "abc");
+        byte[] unitedFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "xyz"));
+        byte[] reusedFontFile = readFontFile(writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "ax"));
+
+        Assertions.assertEquals(2, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertArrayEquals(unitedFontFile, reusedFontFile);
+    }
+
+    @Test
+    public void leastRecentlyUsedSubsetIsEvictedTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular_v1.7.ttf");
+        FontSubsetCache measuringCache = new FontSubsetCache();
+        writeDocument(measuringCache, fontProgram, PdfEncodings.IDENTITY_H, "a");
+        FontSubsetCache cache = new FontSubsetCache(measuringCache.getCachedBytes() * 3 / 2);
+
+        writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "a");
+        writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "b");
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertTrue(cache.getCachedBytes() <= measuringCache.getCachedBytes() * 3 / 2);
+
+        writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "b");
+        Assertions.assertEquals(1, cache.getHitCount());
+        writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "a");
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void subsetsOfCollectedFontsAreDroppedTest() throws IOException, InterruptedException {
+        FontSubsetCache cache = new FontSubsetCache();
+        FontProgram fontProgram = FontProgramFactory.createFont(FONTS_FOLDER + "NotoSerif-Regular_v1.7.ttf", false);
+        writeDocument(cache, fontProgram, PdfEncodings.IDENTITY_H, "abc");
+        Assertions.assertTrue(cache.getCachedBytes() > 0);
+
+        WeakReference<FontProgram> fontReference = new WeakReference<>(fontProgram);
+        fontProgram = null;
+        for (int i = 0; i < 50 && fontReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assumptions.assumeTrue(fontReference.get() == null, "The font program hasn't been garbage collected");
+
+        Assertions.assertEquals(0, cache.getCachedBytes());
+    }
+
+    private static byte[] writeDocument(FontSubsetCache cache, FontProgram fontProgram, String encoding,
+            String text) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PdfDocument pdfDocument = new PdfDocument(
+                new PdfWriter(baos, new WriterProperties().setFontSubsetCache(cache)))) {
+            PdfFont font = PdfFontFactory.createFont(fontProgram, encoding, EmbeddingStrategy.FORCE_EMBEDDED);
+            new PdfCanvas(pdfDocument.addNewPage())
+                    .beginText()
+                    .setFontAndSize(font, 12)
+                    .showText(text)
+                    .endText();
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] readFontFile(byte[] pdf) throws IOException {
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            PdfDictionary fonts = pdfDocument.getPage(1).getResources().getResource(PdfName.Font);
+            PdfDictionary font = fonts.getAsDictionary(fonts.keySet().iterator().next());
+            if (PdfName.Type0.equals(font.getAsName(PdfName.Subtype))) {
+                font = font.getAsArray(PdfName.DescendantFonts).getAsDictionary(0);
+            }
+            PdfDictionary fontDescriptor = font.getAsDictionary(PdfName.FontDescriptor);
+            PdfStream fontFile = fontDescriptor.getAsStream(PdfName.FontFile2);
+            if (fontFile == null) {
+                fontFile = fontDescriptor.getAsStream(PdfName.FontFile3);
+            }
+            return fontFile.getBytes();
+        }
+    }
+}
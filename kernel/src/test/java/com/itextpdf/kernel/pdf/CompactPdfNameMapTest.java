@@ -0,0 +1,154 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class CompactPdfNameMapTest extends ExtendedITextTest {
+
+    @Test
+    public void entriesAreSortedTest() {
+        for (int size : new int[] {3, CompactPdfNameMap.LINEAR_SEARCH_THRESHOLD + 5,
+                CompactPdfNameMap.ARRAY_STORAGE_THRESHOLD + 10}) {
+            CompactPdfNameMap map = new CompactPdfNameMap();
+            TreeMap<PdfName, PdfObject> expected = new TreeMap<>();
+            for (int i = size - 1; i >= 0; i--) {
+                PdfName key = new PdfName("Key" + (i * 7 % size));
+                map.put(key, new PdfNumber(i));
+                expected.put(key, new PdfNumber(i));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            Assertions.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+            for (PdfName key : expected.keySet()) {
+                Assertions.assertTrue(map.containsKey(new PdfName(key.getValue())));
+                Assertions.assertEquals(((PdfNumber) expected.get(key)).intValue(),
+                        ((PdfNumber) map.get(new PdfName(key.getValue()))).intValue());
+            }
+            Assertions.assertNull(map.get(new PdfName("Missing")));
+        }
+    }
+
+    @Test
+    public void putReplacesValueTest() {
+        CompactPdfNameMap map = new CompactPdfNameMap();
+        PdfNumber first = new PdfNumber(1);
+        PdfNumber second = new PdfNumber(2);
+        Assertions.assertNull(map.put(PdfName.Type, first));
+        Assertions.assertSame(first, map.put(new PdfName("Type"), second));
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertSame(second, map.get(PdfName.Type));
+    }
+
+    @Test
+    public void removeTest() {
+        CompactPdfNameMap map = new CompactPdfNameMap();
+        map.put(PdfName.Type, PdfName.Page);
+        map.put(PdfName.Parent, new PdfNull());
+        map.put(PdfName.Contents, new PdfArray());
+        Assertions.assertSame(PdfName.Page, map.remove(new PdfName("Type")));
+        Assertions.assertNull(map.remove(PdfName.Type));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertFalse(map.containsKey(PdfName.Type));
+        Assertions.assertTrue(map.containsKey(PdfName.Parent));
+    }
+
+    @Test
+    public void storageGrowsToTreeMapTest() {
+        CompactPdfNameMap map = new CompactPdfNameMap();
+        List<PdfName> keys = new ArrayList<>();
+        for (int i = 0; i <= CompactPdfNameMap.ARRAY_STORAGE_THRESHOLD; i++) {
+            PdfName key = new PdfName(String.format("K%03d", i));
+            keys.add(key);
+            map.put(key, new PdfNumber(i));
+        }
+        Assertions.assertEquals(keys, new ArrayList<>(map.keySet()));
+        Assertions.assertEquals(0, ((PdfNumber) map.get(new PdfName("K000"))).intValue());
+        map.remove(new PdfName("K000"));
+        Assertions.assertEquals(CompactPdfNameMap.ARRAY_STORAGE_THRESHOLD, map.size());
+    }
+
+    @Test
+    public void iteratorFailsAfterMoveToTreeMapTest() {
+        CompactPdfNameMap map = new CompactPdfNameMap();
+        for (int i = 0; i < CompactPdfNameMap.ARRAY_STORAGE_THRESHOLD; i++) {
+            map.put(new PdfName(String.format("K%03d", i)), new PdfNumber(i));
+        }
+        Iterator<Map.Entry<PdfName, PdfObject>> iterator = map.entrySet().iterator();
+        iterator.next();
+        map.put(new PdfName("Extra"), new PdfNumber(-1));
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> iterator.hasNext());
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> iterator.next());
+    }
+
+    @Test
+    public void iteratorRemoveAndSetValueTest() {
+        CompactPdfNameMap map = new CompactPdfNameMap();
+        for (int i = 0; i < 6; i++) {
+            map.put(new PdfName("N" + i), new PdfNumber(i));
+        }
+        Iterator<Map.Entry<PdfName, PdfObject>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PdfName, PdfObject> entry = iterator.next();
+            int value = ((PdfNumber) entry.getValue()).intValue();
+            if (value % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(new PdfNumber(value * 10));
+            }
+        }
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals(10, ((PdfNumber) map.get(new PdfName("N1"))).intValue());
+        Assertions.assertEquals(30, ((PdfNumber) map.get(new PdfName("N3"))).intValue());
+        Assertions.assertEquals(50, ((PdfNumber) map.get(new PdfName("N5"))).intValue());
+        Assertions.assertNull(map.get(new PdfName("N0")));
+    }
+
+    @Test
+    public void copyTest() {
+        PdfDictionary dictionary = new PdfDictionary();
+        dictionary.put(PdfName.Type, PdfName.Page);
+        dictionary.put(PdfName.Rotate, new PdfNumber(90));
+        PdfDictionary copy = new PdfDictionary(dictionary);
+        copy.remove(PdfName.Rotate);
+        Assertions.assertEquals(2, dictionary.size());
+        Assertions.assertEquals(1, copy.size());
+        Assertions.assertSame(PdfName.Page, copy.get(PdfName.Type));
+    }
+
+    @Test
+    public void nullKeyTest() {
+        CompactPdfNameMap map = new CompactPdfNameMap();
+        Assertions.assertThrows(NullPointerException.class, () -> map.get(null));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.kernel.xmp.XMPException;
+import com.itextpdf.kernel.xmp.XMPMetaFactory;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class CompressedStreamRegistryTest extends ExtendedITextTest {
+
+    @Test
+    public void sameContentIsDeflatedOnceTest() {
+        byte[] expected = createDocument(new WriterProperties());
+
+        CompressedStreamRegistry registry = new CompressedStreamRegistry();
+        Assertions.assertArrayEquals(expected, createDocument(new WriterProperties()
+                .setCompressedStreamRegistry(registry)));
+        // the same form XObject content is used on three pages, the small page content isn't registered
+        Assertions.assertEquals(1, registry.getMissCount());
+        Assertions.assertEquals(2, registry.getHitCount());
+        Assertions.assertTrue(registry.getCachedBytes() > 0);
+
+        Assertions.assertArrayEquals(expected, createDocument(new WriterProperties()
+                .setCompressedStreamRegistry(registry)));
+        Assertions.assertEquals(1, registry.getMissCount());
+        Assertions.assertEquals(5, registry.getHitCount());
+    }
+
+    @Test
+    public void registryIsSharedByConcurrentWritersTest() throws InterruptedException, ExecutionException {
+        final byte[] expected = createDocument(new WriterProperties().setFullCompressionMode(true));
+        final CompressedStreamRegistry registry = new CompressedStreamRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> documents = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                documents.add(executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() {
+                        return createDocument(new WriterProperties().setFullCompressionMode(true)
+                                .setCompressedStreamRegistry(registry));
+                    }
+                }));
+            }
+            for (Future<byte[]> document : documents) {
+                Assertions.assertArrayEquals(expected, document.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertTrue(registry.getHitCount() > 0);
+    }
+
+    @Test
+    public void registryWithCompressionExecutorTest() {
+        byte[] expected = createDocument(new WriterProperties());
+        CompressedStreamRegistry registry = new CompressedStreamRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Assertions.assertArrayEquals(expected, createDocument(new WriterProperties()
+                    .setCompressionExecutor(executor).setCompressedStreamRegistry(registry)));
+            Assertions.assertTrue(registry.getCachedBytes() > 0);
+            Assertions.assertArrayEquals(expected, createDocument(new WriterProperties()
+                    .setCompressedStreamRegistry(registry)));
+            Assertions.assertTrue(registry.getHitCount() > 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void maxCachedBytesTest() {
+        CompressedStreamRegistry registry = new CompressedStreamRegistry(1, 0);
+        byte[] expected = createDocument(new WriterProperties());
+        Assertions.assertArrayEquals(expected, createDocument(new WriterProperties()
+                .setCompressedStreamRegistry(registry)));
+        Assertions.assertArrayEquals(expected, createDocument(new WriterProperties()
+                .setCompressedStreamRegistry(registry)));
+        Assertions.assertEquals(0, registry.getCachedBytes());
+        Assertions.assertEquals(0, registry.getHitCount());
+    }
+
+    @Test
+    public void differentCompressionLevelsTest() {
+        CompressedStreamRegistry registry = new CompressedStreamRegistry();
+        createDocument(new WriterProperties().setCompressedStreamRegistry(registry)
+                .setCompressionLevel(CompressionConstants.BEST_SPEED));
+        byte[] expected = createDocument(new WriterProperties()
+                .setCompressionLevel(CompressionConstants.BEST_COMPRESSION));
+        Assertions.assertArrayEquals(expected, createDocument(new WriterProperties()
+                .setCompressedStreamRegistry(registry).setCompressionLevel(CompressionConstants.BEST_COMPRESSION)));
+        Assertions.assertEquals(2, registry.getMissCount());
+
+        registry.clear();
+        Assertions.assertEquals(0, registry.getCachedBytes());
+    }
+
+    @Test
+    public void dctImageAndMetadataAreNotDeflatedTest() throws IOException, XMPException {
+        CompressedStreamRegistry registry = new CompressedStreamRegistry(
+                CompressedStreamRegistry.DEFAULT_MAX_CACHED_BYTES, 0);
+        byte[] content = new byte[4096];
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, new WriterProperties()
+                .setCompressedStreamRegistry(registry)));
+        PdfStream image = new PdfStream(content);
+        image.put(PdfName.Type, PdfName.XObject);
+        image.put(PdfName.Subtype, PdfName.Image);
+        image.put(PdfName.Filter, PdfName.DCTDecode);
+        pdfDocument.addNewPage().getPdfObject().put(new PdfName("TestImage"), image.makeIndirect(pdfDocument));
+        pdfDocument.setXmpMetadata(XMPMetaFactory.create());
+        pdfDocument.close();
+
+        try (PdfDocument resultDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())))) {
+            PdfStream resultImage = resultDocument.getPage(1).getPdfObject().getAsStream(new PdfName("TestImage"));
+            Assertions.assertEquals(PdfName.DCTDecode, resultImage.get(PdfName.Filter));
+            Assertions.assertArrayEquals(content, resultImage.getBytes(false));
+            PdfStream resultMetadata = resultDocument.getCatalog().getPdfObject().getAsStream(PdfName.Metadata);
+            Assertions.assertNull(resultMetadata.get(PdfName.Filter));
+            Assertions.assertArrayEquals(resultMetadata.getBytes(), resultMetadata.getBytes(false));
+        }
+        // only the empty page content is deflated
+        Assertions.assertEquals(1, registry.getMissCount());
+    }
+
+    private static byte[] createDocument(WriterProperties properties) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, properties));
+        byte[] logo = new byte[20000];
+        new Random(1).nextBytes(logo);
+        for (int i = 0; i < logo.length; i += 2) {
+            logo[i] = 0;
+        }
+        for (int i = 0; i < 3; i++) {
+            PdfFormXObject xObject = new PdfFormXObject(new Rectangle(100, 100));
+            xObject.getPdfObject().setData(logo);
+            pdfDocument.addNewPage().getResources().addForm(xObject);
+        }
+        pdfDocument.close();
+        return readRawStreams(baos.toByteArray());
+    }
+
+    private static byte[] readRawStreams(byte[] document) {
+        ByteArrayOutputStream rawStreams = new ByteArrayOutputStream();
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)))) {
+            for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+                PdfObject object = pdfDocument.getPdfObject(i);
+                if (object instanceof PdfStream && !PdfName.XRef.equals(((PdfStream) object).getAsName(PdfName.Type))
+                        && !PdfName.ObjStm.equals(((PdfStream) object).getAsName(PdfName.Type))) {
+                    byte[] bytes = ((PdfStream) object).getBytes(false);
+                    rawStreams.write(bytes, 0, bytes.length);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return rawStreams.toByteArray();
+    }
+}
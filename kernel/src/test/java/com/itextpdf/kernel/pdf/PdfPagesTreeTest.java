@@ -34,6 +34,11 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 @Tag("UnitTest")
 public class PdfPagesTreeTest extends ExtendedITextTest {
     @Test
@@ -96,4 +101,65 @@ public class PdfPagesTreeTest extends ExtendedITextTest {
         dict.put(PdfName.Count, new PdfNull());
         Assertions.assertTrue(factory.<Object>createList(dict) instanceof NullUnlimitedList<?>);
     }
+
+    @Test
+    public void pageNumbersAfterInsertAndRemoveTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        List<PdfPage> pages = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            pages.add(pdfDoc.addNewPage());
+        }
+        pages.add(2, pdfDoc.addNewPage(3));
+        Assertions.assertEquals(3, pdfDoc.getPageNumber(pages.get(2)));
+        PdfPage removed = pages.remove(10);
+        pdfDoc.removePage(11);
+        pages.add(0, pdfDoc.addNewPage(1));
+        pages.add(pdfDoc.addNewPage());
+
+        Assertions.assertEquals(0, pdfDoc.getPageNumber(removed));
+        Assertions.assertEquals(0, pdfDoc.getPageNumber(removed.getPdfObject()));
+        for (int i = 0; i < pages.size(); i++) {
+            Assertions.assertEquals(i + 1, pdfDoc.getPageNumber(pages.get(i)));
+            Assertions.assertEquals(i + 1, pdfDoc.getPageNumber(pages.get(i).getPdfObject()));
+        }
+
+        PdfDocument otherDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfPage otherPage = otherDoc.addNewPage();
+        Assertions.assertEquals(0, pdfDoc.getPageNumber(otherPage));
+        Assertions.assertEquals(0, pdfDoc.getPageNumber(otherPage.getPdfObject()));
+    }
+
+    @Test
+    public void pageNumbersOfLazilyLoadedPagesTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        for (int i = 0; i < 45; i++) {
+            pdfDoc.addNewPage();
+        }
+        pdfDoc.close();
+        byte[] bytes = baos.toByteArray();
+
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)));
+        int pageObjNumber = pdfDoc.getPage(37).getPdfObject().getIndirectReference().getObjNumber();
+        pdfDoc.close();
+
+        StampingProperties properties = new StampingProperties();
+        properties.registerDependency(IPageTreeListFactory.class, new DefaultPageTreeListFactory(0));
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)),
+                new PdfWriter(new ByteArrayOutputStream()), properties);
+        PdfDictionary pageDictionary = (PdfDictionary) pdfDoc.getPdfObject(pageObjNumber);
+        Assertions.assertEquals(37, pdfDoc.getPageNumber(pageDictionary));
+        PdfPage page = pdfDoc.getPage(pageDictionary);
+        Assertions.assertEquals(37, pdfDoc.getPageNumber(page));
+
+        pdfDoc.addNewPage(1);
+        Assertions.assertEquals(38, pdfDoc.getPageNumber(pageDictionary));
+        Assertions.assertEquals(38, pdfDoc.getPageNumber(page));
+        pdfDoc.removePage(2);
+        Assertions.assertEquals(37, pdfDoc.getPageNumber(page));
+        PdfDictionary notPageDictionary = new PdfDictionary();
+        notPageDictionary.makeIndirect(pdfDoc);
+        Assertions.assertEquals(0, pdfDoc.getPageNumber(notPageDictionary));
+        pdfDoc.close();
+    }
 }
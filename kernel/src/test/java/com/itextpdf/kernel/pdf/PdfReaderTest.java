@@ -63,6 +63,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
@@ -1291,6 +1294,76 @@ public class PdfReaderTest extends ExtendedITextTest {
         document.close();
     }
 
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate =
+            IoLogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT_WITH_CAUSE, ignore = true))
+    public void parallelRebuildXrefTest() throws IOException {
+        String[] fileNames = new String[] {"noXrefAndTrailerWithInfo.pdf", "XRefWithBreaks.pdf", "OnlyTrailer.pdf",
+                "XrefWithNullOffsets.pdf", "correctSimpleDoc1.pdf"};
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            for (String fileName : fileNames) {
+                assertParallelRebuildXref(SOURCE_FOLDER + fileName, executorService);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate =
+            IoLogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT_WITH_CAUSE, ignore = true))
+    public void parallelRebuildXrefLineBoundariesTest() throws IOException {
+        StringBuilder longLine = new StringBuilder("%");
+        for (int i = 0; i < 10; i++) {
+            longLine.append(" long comment ");
+        }
+        String content = "%PDF-1.4\r\n"
+                + "1 0 obj\r<</Type/Catalog/Pages 2 0 R>>\rendobj\r\n"
+                + "   \n\n\t 2 0 obj <</Type/Pages/Kids[3 1 R]/Count 1>> endobj\n"
+                + "3 0 obj\n<</Type/Page/Parent 2 0 R/MediaBox[0 0 100 100]>>\nendobj\n"
+                + "trailer\n<</Size 4/Root 1 0 R>>3 1 obj\n<</Type/Page/Parent 2 0 R/MediaBox[0 0 200 200]>>\n"
+                + "endobj\n"
+                + longLine + "4 0 obj\n"
+                + "trailer 4 0 obj\r\n"
+                + "trailer\n5 0 obj\n<</Producer(test)>>\nendobj\n"
+                + "3 0 obj <</Type/Page/Parent 2 0 R/MediaBox[0 0 300 300]>> endobj\n"
+                + "trailer\n<</Size 4/Root 1 0 R>>\n"
+                + "startxref\n999999\n%%EOF";
+        String fileName = DESTINATION_FOLDER + "parallelRebuildXrefLineBoundaries.pdf";
+        Files.write(Paths.get(fileName), content.getBytes(StandardCharsets.ISO_8859_1));
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            assertParallelRebuildXref(fileName, executorService);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate =
+            IoLogMessageConstant.XREF_ERROR_WHILE_READING_TABLE_WILL_BE_REBUILT_WITH_CAUSE, ignore = true))
+    public void parallelRebuildXrefFallsBackToSequentialForStreamsTest() throws IOException {
+        String fileName = SOURCE_FOLDER + "XRefWithBreaks.pdf";
+        ThreadPoolExecutor executorService = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+        try {
+            List<String> expected = getRebuiltXrefEntries(new PdfReader(fileName));
+            PdfReader reader = new PdfReader(new ByteArrayInputStream(Files.readAllBytes(Paths.get(fileName))))
+                    .setXrefRebuildExecutor(executorService);
+            reader.xrefRebuildMinChunkSize = 64;
+            Assertions.assertEquals(expected, getRebuiltXrefEntries(reader));
+            // a stream can't be read without locking, so the chunks are not scanned on the executor
+            Assertions.assertEquals(0, executorService.getTaskCount());
+
+            reader = new PdfReader(fileName).setXrefRebuildExecutor(executorService);
+            reader.xrefRebuildMinChunkSize = 64;
+            Assertions.assertEquals(expected, getRebuiltXrefEntries(reader));
+            Assertions.assertTrue(executorService.getTaskCount() > 0);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
     @Test
     public void appendModeWith1000Pages() throws IOException {
         String filename = SOURCE_FOLDER + "1000PagesDocumentAppended.pdf";
@@ -2959,4 +3032,97 @@ public class PdfReaderTest extends ExtendedITextTest {
             return getXmpMetadataCounter;
         }
     }
+
+    @Test
+    public void memorySavingModeReadsSingleObjectFromObjectStreamTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PdfDocument document = new PdfDocument(new PdfWriter(baos,
+                new WriterProperties().setFullCompressionMode(true)))) {
+            for (int i = 0; i < 10; i++) {
+                document.addNewPage().getPdfObject().put(new PdfName("Index"), new PdfNumber(i));
+            }
+        }
+        byte[] bytes = baos.toByteArray();
+
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes))
+                .setMemorySavingMode(true))) {
+            PdfIndirectReference pageReference = document.getPage(5).getPdfObject().getIndirectReference();
+            Assertions.assertTrue(pageReference.getObjStreamNumber() > 0);
+            Assertions.assertTrue(countReadObjects(document, pageReference.getObjStreamNumber())
+                    < countObjects(document, pageReference.getObjStreamNumber()));
+
+            int readObjects = countReadObjects(document, pageReference.getObjStreamNumber());
+            PdfIndirectReference notReadReference = null;
+            PdfXrefTable xref = document.getXref();
+            for (int i = 0; i < xref.size() && notReadReference == null; i++) {
+                PdfIndirectReference reference = xref.get(i);
+                if (reference != null && reference.getObjStreamNumber() == pageReference.getObjStreamNumber()
+                        && reference.refersTo == null) {
+                    notReadReference = reference;
+                }
+            }
+            Assertions.assertNotNull(notReadReference);
+            Assertions.assertNotNull(notReadReference.getRefersTo());
+            Assertions.assertEquals(readObjects + 1, countReadObjects(document, pageReference.getObjStreamNumber()));
+        }
+
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)))) {
+            PdfIndirectReference pageReference = document.getPage(5).getPdfObject().getIndirectReference();
+            Assertions.assertEquals(countObjects(document, pageReference.getObjStreamNumber()),
+                    countReadObjects(document, pageReference.getObjStreamNumber()));
+        }
+    }
+
+    private static int countObjects(PdfDocument document, int objectStreamNumber) {
+        int count = 0;
+        PdfXrefTable xref = document.getXref();
+        for (int i = 0; i < xref.size(); i++) {
+            PdfIndirectReference reference = xref.get(i);
+            if (reference != null && reference.getObjStreamNumber() == objectStreamNumber) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countReadObjects(PdfDocument document, int objectStreamNumber) {
+        int count = 0;
+        PdfXrefTable xref = document.getXref();
+        for (int i = 0; i < xref.size(); i++) {
+            PdfIndirectReference reference = xref.get(i);
+            if (reference != null && reference.getObjStreamNumber() == objectStreamNumber
+                    && reference.refersTo != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void assertParallelRebuildXref(String fileName, ExecutorService executorService)
+            throws IOException {
+        PdfReader reader = new PdfReader(fileName);
+        List<String> expected = getRebuiltXrefEntries(reader);
+        for (long chunkSize : new long[] {1, 7, 64, 1000}) {
+            reader = new PdfReader(fileName).setXrefRebuildExecutor(executorService);
+            reader.xrefRebuildMinChunkSize = chunkSize;
+            Assertions.assertEquals(expected, getRebuiltXrefEntries(reader));
+        }
+    }
+
+    private static List<String> getRebuiltXrefEntries(PdfReader reader) throws IOException {
+        reader.setStrictnessLevel(StrictnessLevel.LENIENT);
+        PdfDocument document = new PdfDocument(reader);
+        Assertions.assertTrue(reader.hasRebuiltXref(), "Need rebuildXref()");
+        List<String> entries = new ArrayList<>();
+        PdfXrefTable xref = document.getXref();
+        for (int i = 0; i < xref.size(); i++) {
+            PdfIndirectReference reference = xref.get(i);
+            if (reference != null) {
+                entries.add(reference.getObjNumber() + " " + reference.getGenNumber() + " " + reference.getOffset());
+            }
+        }
+        entries.add(reader.trailer.toString());
+        document.close();
+        return entries;
+    }
 }
@@ -22,9 +22,14 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.RASInputStream;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.WindowRandomAccessSource;
 import com.itextpdf.test.ExtendedITextTest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -206,6 +211,52 @@ public class PdfRevisionsReaderTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    public void revisionReaderTest() throws IOException {
+        assertRevisionReaders(SOURCE_FOLDER + "freeReferencesDocument.pdf");
+    }
+
+    @Test
+    public void revisionReaderWithXrefStreamTest() throws IOException {
+        assertRevisionReaders(SOURCE_FOLDER + "freeReferencesWithXrefStream.pdf");
+    }
+
+    @Test
+    public void revisionReaderMultipleRevisionsTest() throws IOException {
+        assertRevisionReaders(SOURCE_FOLDER + "multipleRevisionsDocument.pdf");
+        assertRevisionReaders(SOURCE_FOLDER + "multipleRevisionsWithXrefStream.pdf");
+    }
+
+    private static void assertRevisionReaders(String filename) throws IOException {
+        try (PdfReader reader = new PdfReader(filename)) {
+            PdfRevisionsReader revisionsReader = new PdfRevisionsReader(reader);
+            for (DocumentRevision revision : revisionsReader.getAllRevisions()) {
+                RandomAccessFileOrArray raf = reader.getSafeFile();
+                InputStream inputStream = new RASInputStream(new WindowRandomAccessSource(
+                        raf.createSourceView(), 0, revision.getEofOffset()));
+                try (PdfDocument expected = new PdfDocument(new PdfReader(inputStream));
+                        PdfDocument actual = new PdfDocument(revisionsReader.createRevisionReader(revision))) {
+                    Assertions.assertEquals(getXrefEntries(expected), getXrefEntries(actual));
+                    Assertions.assertEquals(expected.getTrailer().toString(), actual.getTrailer().toString());
+                    Assertions.assertEquals(expected.getNumberOfPages(), actual.getNumberOfPages());
+                }
+            }
+        }
+    }
+
+    private static List<String> getXrefEntries(PdfDocument document) {
+        List<String> entries = new ArrayList<>();
+        PdfXrefTable xref = document.getXref();
+        for (int i = 0; i < xref.size(); ++i) {
+            PdfIndirectReference reference = xref.get(i);
+            if (reference != null) {
+                entries.add(reference.getObjNumber() + " " + reference.getGenNumber() + " " + reference.getOffset()
+                        + " " + reference.getObjStreamNumber() + " " + reference.isFree());
+            }
+        }
+        return entries;
+    }
+
     private void assertResultingRevision(DocumentRevision documentRevision, int... objNumbers) {
         assertResultingRevision(documentRevision, objNumbers, new int[objNumbers.length]);
     }
@@ -31,6 +31,8 @@ import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.test.ExtendedITextTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
@@ -85,6 +87,112 @@ public class PdfStreamTest extends ExtendedITextTest {
         Assertions.assertNull(new CompareTool().compareByContent(destFile, cmpFile, destinationFolder, "diff_"));
     }
 
+    @Test
+    public void rawStreamCopyTest() throws IOException {
+        String srcFile = sourceFolder + "runLengthEncodedImages.pdf";
+        String destFile = destinationFolder + "rawStreamCopyTest.pdf";
+        String cmpFile = destinationFolder + "rawStreamCopyTestInMemory.pdf";
+
+        PdfDocument srcDocument = new PdfDocument(new PdfReader(srcFile));
+        PdfDocument cmpDocument = new PdfDocument(new PdfWriter(cmpFile));
+        srcDocument.copyPagesTo(1, srcDocument.getNumberOfPages(), cmpDocument);
+        cmpDocument.close();
+
+        PdfDocument document = new PdfDocument(new PdfWriter(destFile, new WriterProperties().useRawStreamCopy()));
+        srcDocument.copyPagesTo(1, srcDocument.getNumberOfPages(), document);
+        document.close();
+        srcDocument.close();
+
+        PdfDocument resultDocument = new PdfDocument(new PdfReader(destFile));
+        cmpDocument = new PdfDocument(new PdfReader(cmpFile));
+        Assertions.assertEquals(cmpDocument.getNumberOfPdfObjects(), resultDocument.getNumberOfPdfObjects());
+        for (int i = 1; i < resultDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = resultDocument.getPdfObject(i);
+            if (object instanceof PdfStream) {
+                Assertions.assertEquals(((PdfStream) cmpDocument.getPdfObject(i)).getLength(),
+                        ((PdfStream) object).getLength());
+                Assertions.assertArrayEquals(((PdfStream) cmpDocument.getPdfObject(i)).getBytes(false),
+                        ((PdfStream) object).getBytes(false));
+            }
+        }
+        resultDocument.close();
+        cmpDocument.close();
+    }
+
+    @Test
+    public void rawStreamCopyKeepsSourceRangeTest() throws IOException {
+        String srcFile = sourceFolder + "runLengthEncodedImages.pdf";
+
+        PdfDocument srcDocument = new PdfDocument(new PdfReader(srcFile));
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().useRawStreamCopy()));
+        PdfStream image = null;
+        for (int i = 1; i < srcDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = srcDocument.getPdfObject(i);
+            if (object instanceof PdfStream && PdfName.Image.equals(((PdfStream) object).getAsName(PdfName.Subtype))) {
+                image = (PdfStream) object;
+                break;
+            }
+        }
+        Assertions.assertNotNull(image);
+        PdfStream copy = (PdfStream) image.copyTo(document);
+        Assertions.assertTrue(copy.hasRawContent());
+        PdfStream clone = (PdfStream) copy.clone();
+        Assertions.assertFalse(clone.hasRawContent());
+        Assertions.assertFalse(copy.hasRawContent());
+
+        Assertions.assertArrayEquals(image.getBytes(false), copy.getBytes(false));
+        Assertions.assertArrayEquals(image.getBytes(), clone.getBytes());
+        document.close();
+        srcDocument.close();
+    }
+
+    @Test
+    public void rawStreamCopyAppendDataTest() throws IOException, InterruptedException {
+        String srcFile = sourceFolder + "pageWithContent.pdf";
+        String cmpFile = sourceFolder + "cmp_streamAppendDataOnJustCopiedWithCompression.pdf";
+        String destFile = destinationFolder + "rawStreamCopyAppendDataTest.pdf";
+
+        PdfDocument srcDocument = new PdfDocument(new PdfReader(srcFile));
+        PdfDocument document = new PdfDocument(CompareTool.createTestPdfWriter(destFile,
+                new WriterProperties().useRawStreamCopy()));
+        srcDocument.copyPagesTo(1, 1, document);
+
+        String newContentString = "BT\n" +
+                "/F1 36 Tf\n" +
+                "50 700 Td\n" +
+                "(new content here!) Tj\n" +
+                "ET";
+        byte[] newContent = newContentString.getBytes(StandardCharsets.UTF_8);
+        document.getPage(1).getLastContentStream().setData(newContent, true);
+
+        document.close();
+        srcDocument.close();
+        Assertions.assertNull(new CompareTool().compareByContent(destFile, cmpFile, destinationFolder, "diff_"));
+    }
+
+    @Test
+    public void rawStreamCopyOfEncryptedDocumentTest() throws IOException {
+        byte[] password = "password".getBytes(StandardCharsets.ISO_8859_1);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        PdfDocument encryptedDocument = new PdfDocument(new PdfWriter(encrypted, new WriterProperties()
+                .setStandardEncryption(password, password, 0, EncryptionConstants.ENCRYPTION_AES_128)));
+        encryptedDocument.addNewPage().getFirstContentStream()
+                .setData("0 0 m 100 100 l S".getBytes(StandardCharsets.ISO_8859_1));
+        encryptedDocument.close();
+
+        PdfDocument srcDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(
+                encrypted.toByteArray()), new ReaderProperties().setPassword(password)));
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().useRawStreamCopy()));
+        PdfStream contentStream = srcDocument.getPage(1).getFirstContentStream();
+        PdfStream copy = (PdfStream) contentStream.copyTo(document);
+        Assertions.assertFalse(copy.hasRawContent());
+        Assertions.assertArrayEquals(contentStream.getBytes(), copy.getBytes());
+        document.close();
+        srcDocument.close();
+    }
+
     @Test
     // Android-Conversion-Ignore-Test (TODO DEVSIX-6445 fix different DeflaterOutputStream behavior)
     public void runLengthEncodingTest01() throws IOException {
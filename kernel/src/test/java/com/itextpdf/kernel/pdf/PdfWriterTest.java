@@ -23,10 +23,13 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.commons.utils.FileUtil;
+import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.SpillingByteArrayOutputStream;
 import com.itextpdf.commons.utils.DateTimeUtil;
 import com.itextpdf.kernel.exceptions.PdfException;
 import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.test.ExtendedITextTest;
 
@@ -38,11 +41,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Tag("IntegrationTest")
 public class PdfWriterTest extends ExtendedITextTest {
@@ -619,4 +629,325 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assertions.assertArrayEquals(streamContent.getBytes(), pdfStream.getBytes(), "Stream by InputStream");
         document.close();
     }
+
+    @Test
+    public void compressionExecutorKeepsObjectsTest() throws IOException {
+        byte[] sequential = createDocumentWithManyStreams(new WriterProperties());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] parallel = createDocumentWithManyStreams(new WriterProperties().setCompressionExecutor(executor));
+            assertSameObjects(sequential, parallel, true);
+            byte[] fullCompression = createDocumentWithManyStreams(new WriterProperties()
+                    .setCompressionExecutor(executor).setFullCompressionMode(true));
+            assertSameObjects(createDocumentWithManyStreams(new WriterProperties().setFullCompressionMode(true)),
+                    fullCompression, false);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void compressionExecutorWithEncryptionTest() throws IOException {
+        byte[] password = "password".getBytes();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        byte[] encrypted;
+        try {
+            encrypted = createDocumentWithManyStreams(new WriterProperties().setCompressionExecutor(executor)
+                    .setStandardEncryption(password, password, 0, EncryptionConstants.ENCRYPTION_AES_128));
+        } finally {
+            executor.shutdown();
+        }
+        PdfReader reader = new PdfReader(new ByteArrayInputStream(encrypted),
+                new ReaderProperties().setPassword(password));
+        PdfDocument document = new PdfDocument(reader);
+        Assertions.assertFalse(reader.hasRebuiltXref());
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            Assertions.assertArrayEquals(createPageContent(i), document.getPage(i).getContentBytes());
+        }
+        document.close();
+    }
+
+    @Test
+    public void compressionExecutorEncryptsStreamsTest() throws IOException {
+        byte[] password = "password".getBytes();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int encryption : new int[] {EncryptionConstants.STANDARD_ENCRYPTION_128,
+                    EncryptionConstants.ENCRYPTION_AES_128, EncryptionConstants.ENCRYPTION_AES_256}) {
+                byte[] sequential = createDocumentWithManyStreams(new WriterProperties()
+                        .setStandardEncryption(password, password, 0, encryption));
+                byte[] parallel = createDocumentWithManyStreams(new WriterProperties().setCompressionExecutor(executor)
+                        .setStandardEncryption(password, password, 0, encryption));
+                assertSameEncryptedObjects(sequential, parallel, password);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void streamBufferProviderKeepsObjectsTest() throws IOException {
+        byte[] onHeap = createDocumentWithManyStreams(new WriterProperties());
+        // the content of the forms is spilled to temporary files, the medium one is kept in direct buffers
+        IStreamBufferProvider provider = new SpillingStreamBufferProvider(1024, 32 * 1024);
+        assertSameObjects(onHeap, createDocumentWithManyStreams(new WriterProperties()
+                .setStreamBufferProvider(provider)), true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertSameObjects(onHeap, createDocumentWithManyStreams(new WriterProperties()
+                    .setStreamBufferProvider(provider).setCompressionExecutor(executor)), true);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void streamBufferProviderWithEncryptionTest() throws IOException {
+        byte[] password = "password".getBytes();
+        byte[] onHeap = createDocumentWithManyStreams(new WriterProperties()
+                .setStandardEncryption(password, password, 0, EncryptionConstants.ENCRYPTION_AES_128));
+        byte[] spilled = createDocumentWithManyStreams(new WriterProperties()
+                .setStandardEncryption(password, password, 0, EncryptionConstants.ENCRYPTION_AES_128)
+                .setStreamBufferProvider(new SpillingStreamBufferProvider(1024, 1024)));
+        assertSameEncryptedObjects(onHeap, spilled, password);
+    }
+
+    @Test
+    public void streamBufferProviderWithEncryptionClosesBuffersTest() throws IOException {
+        final List<ByteArrayOutputStream> openBuffers = new ArrayList<>();
+        byte[] password = "password".getBytes();
+        createDocumentWithManyStreams(new WriterProperties()
+                .setStandardEncryption(password, password, 0, EncryptionConstants.ENCRYPTION_AES_128)
+                .setStreamBufferProvider(new IStreamBufferProvider() {
+                    @Override
+                    public ByteArrayOutputStream createBuffer() {
+                        ByteArrayOutputStream buffer = new ByteArrayOutputStream() {
+                            @Override
+                            public void close() throws IOException {
+                                openBuffers.remove(this);
+                                super.close();
+                            }
+                        };
+                        openBuffers.add(buffer);
+                        return buffer;
+                    }
+                }));
+        // the deflated content is closed once it is encrypted
+        Assertions.assertEquals(0, openBuffers.size());
+    }
+
+    @Test
+    public void streamBufferProviderSpillsCanvasContentTest() throws IOException {
+        String tempDirectory = destinationFolder + "streamBufferProviderSpillsCanvasContent";
+        createOrClearDestinationFolder(tempDirectory);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos, new WriterProperties().setStreamBufferProvider(
+                new SpillingStreamBufferProvider(1024, 1024, new File(tempDirectory)))));
+        PdfPage page = document.addNewPage();
+        PdfCanvas canvas = new PdfCanvas(page);
+        for (int i = 0; i < 1000; i++) {
+            canvas.moveTo(i, 0).lineTo(i, 100).stroke();
+        }
+        PdfStream contentStream = page.getFirstContentStream();
+        Assertions.assertTrue(((SpillingByteArrayOutputStream) contentStream.getOutputStream().getOutputStream())
+                .isSpilled());
+        byte[] content = contentStream.getBytes();
+        page.flush();
+        // the temporary file is deleted once the stream is written
+        Assertions.assertEquals(0, new File(tempDirectory).listFiles().length);
+        document.close();
+
+        PdfDocument resultDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assertions.assertArrayEquals(content, resultDocument.getPage(1).getContentBytes());
+        resultDocument.close();
+    }
+
+    @Test
+    public void compressionExecutorDeflatesLargeStreamInBlocksTest() throws IOException {
+        byte[] content = new byte[StreamCompressionPipeline.BLOCK_DEFLATE_THRESHOLD * 2 + 12345];
+        Random random = new Random(42);
+        for (int i = 0; i < content.length; i++) {
+            // compressible content with matches crossing the block boundaries
+            content[i] = (byte) ('a' + random.nextInt(4));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        int streamNumber;
+        try {
+            PdfDocument document = new PdfDocument(new PdfWriter(baos,
+                    new WriterProperties().setCompressionExecutor(executor)));
+            document.addNewPage();
+            PdfStream stream = new PdfStream(content);
+            stream.makeIndirect(document);
+            streamNumber = stream.getIndirectReference().getObjNumber();
+            stream.flush();
+            document.close();
+        } finally {
+            executor.shutdown();
+        }
+        PdfReader reader = new PdfReader(new ByteArrayInputStream(baos.toByteArray()));
+        PdfDocument document = new PdfDocument(reader);
+        Assertions.assertFalse(reader.hasRebuiltXref());
+        PdfStream stream = (PdfStream) document.getPdfObject(streamNumber);
+        Assertions.assertEquals(PdfName.FlateDecode, stream.get(PdfName.Filter));
+        Assertions.assertTrue(stream.getLength() < content.length / 2);
+        Assertions.assertArrayEquals(content, stream.getBytes());
+        document.close();
+    }
+
+    @Test
+    public void objectStreamsPerPageTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos,
+                new WriterProperties().setFullCompressionMode(true).useObjectStreamsPerPage(16 * 1024)));
+        PdfDictionary shared = new PdfDictionary();
+        shared.makeIndirect(document);
+        for (int i = 1; i <= 30; i++) {
+            PdfPage page = document.addNewPage();
+            PdfArray annots = new PdfArray();
+            for (int j = 0; j < 5; j++) {
+                PdfDictionary annot = new PdfDictionary();
+                annot.put(PdfName.Subtype, PdfName.Link);
+                annot.put(PdfName.Contents, new PdfString("page " + i + " annotation " + j));
+                annot.put(PdfName.Data, shared);
+                annots.add(annot.makeIndirect(document));
+            }
+            page.getPdfObject().put(PdfName.Annots, annots);
+            if (i % 2 == 0) {
+                page.flush();
+            }
+        }
+        document.close();
+
+        document = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Set<Integer> usedObjectStreams = new HashSet<>();
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfDictionary page = document.getPage(i).getPdfObject();
+            Set<Integer> pageObjectStreams = new HashSet<>();
+            pageObjectStreams.add(page.getIndirectReference().getObjStreamNumber());
+            PdfArray annots = page.getAsArray(PdfName.Annots);
+            for (int j = 0; j < annots.size(); j++) {
+                pageObjectStreams.add(((PdfIndirectReference) annots.get(j, false)).getObjStreamNumber());
+            }
+            Assertions.assertEquals(1, pageObjectStreams.size());
+            Assertions.assertNotEquals(0, (int) pageObjectStreams.iterator().next());
+            Assertions.assertTrue(usedObjectStreams.add(pageObjectStreams.iterator().next()));
+        }
+        Assertions.assertFalse(usedObjectStreams.contains(
+                document.getPage(1).getPdfObject().getAsArray(PdfName.Annots).getAsDictionary(0)
+                        .getAsDictionary(PdfName.Data).getIndirectReference().getObjStreamNumber()));
+        document.close();
+    }
+
+    @Test
+    public void objectStreamByteBudgetTest() throws IOException {
+        int byteBudget = 8000;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos,
+                new WriterProperties().setFullCompressionMode(true).useObjectStreamsPerPage(byteBudget)));
+        document.addNewPage();
+        List<Integer> objectNumbers = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.put(PdfName.N, new PdfNumber(i));
+            objectNumbers.add(dictionary.makeIndirect(document).getIndirectReference().getObjNumber());
+            dictionary.flush();
+        }
+        document.close();
+
+        document = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Set<Integer> objectStreams = new HashSet<>();
+        for (int objectNumber : objectNumbers) {
+            objectStreams.add(document.getPdfObject(objectNumber).getIndirectReference().getObjStreamNumber());
+        }
+        // 600 objects would take three object streams limited by the number of objects
+        Assertions.assertEquals(2, objectStreams.size());
+        for (int objectStreamNumber : objectStreams) {
+            PdfStream objectStream = (PdfStream) document.getPdfObject(objectStreamNumber);
+            Assertions.assertTrue(objectStream.getBytes().length < byteBudget + 100);
+        }
+        document.close();
+    }
+
+    private static byte[] createDocumentWithManyStreams(WriterProperties properties) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument document = new PdfDocument(new PdfWriter(baos, properties));
+        for (int i = 1; i <= 100; i++) {
+            PdfPage page = document.addNewPage();
+            page.getFirstContentStream().setData(createPageContent(i));
+            PdfStream form = new PdfStream(createPageContent(i + 1000));
+            form.makeIndirect(document);
+            page.getResources().addForm(form);
+            if (i % 10 == 0) {
+                page.flush();
+            }
+        }
+        PdfStream uncompressed = new PdfStream(createPageContent(0));
+        uncompressed.setCompressionLevel(CompressionConstants.NO_COMPRESSION);
+        uncompressed.makeIndirect(document).flush();
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] createPageContent(int index) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < index % 37 * 50; i++) {
+            content.append("BT /F1 12 Tf ").append(i).append(' ').append(index).append(" Td (Text) Tj ET\n");
+        }
+        return content.toString().getBytes();
+    }
+
+    private static void assertSameEncryptedObjects(byte[] expected, byte[] actual, byte[] password)
+            throws IOException {
+        PdfReader expectedReader = new PdfReader(new ByteArrayInputStream(expected),
+                new ReaderProperties().setPassword(password));
+        PdfReader actualReader = new PdfReader(new ByteArrayInputStream(actual),
+                new ReaderProperties().setPassword(password));
+        PdfDocument expectedDocument = new PdfDocument(expectedReader);
+        PdfDocument actualDocument = new PdfDocument(actualReader);
+        Assertions.assertFalse(actualReader.hasRebuiltXref());
+        Assertions.assertEquals(expectedDocument.getNumberOfPdfObjects(), actualDocument.getNumberOfPdfObjects());
+        for (int i = 1; i < expectedDocument.getNumberOfPdfObjects(); i++) {
+            PdfIndirectReference expectedReference = expectedDocument.getXref().get(i);
+            PdfIndirectReference actualReference = actualDocument.getXref().get(i);
+            PdfObject expectedObject = expectedReference.getRefersTo();
+            PdfObject actualObject = actualReference.getRefersTo();
+            if (expectedObject instanceof PdfStream) {
+                // the initialization vectors differ, but the encrypted content has the same length
+                Assertions.assertEquals(((PdfStream) expectedObject).getLength(),
+                        ((PdfStream) actualObject).getLength());
+                Assertions.assertEquals(((PdfStream) expectedObject).get(PdfName.Filter),
+                        ((PdfStream) actualObject).get(PdfName.Filter));
+                Assertions.assertArrayEquals(((PdfStream) expectedObject).getBytes(),
+                        ((PdfStream) actualObject).getBytes());
+            }
+        }
+        expectedDocument.close();
+        actualDocument.close();
+    }
+
+    private static void assertSameObjects(byte[] expected, byte[] actual, boolean compareOffsets)
+            throws IOException {
+        PdfReader expectedReader = new PdfReader(new ByteArrayInputStream(expected));
+        PdfReader actualReader = new PdfReader(new ByteArrayInputStream(actual));
+        PdfDocument expectedDocument = new PdfDocument(expectedReader);
+        PdfDocument actualDocument = new PdfDocument(actualReader);
+        Assertions.assertFalse(actualReader.hasRebuiltXref());
+        Assertions.assertEquals(expectedDocument.getNumberOfPdfObjects(), actualDocument.getNumberOfPdfObjects());
+        for (int i = 1; i < expectedDocument.getNumberOfPdfObjects(); i++) {
+            PdfIndirectReference expectedReference = expectedDocument.getXref().get(i);
+            PdfIndirectReference actualReference = actualDocument.getXref().get(i);
+            if (compareOffsets) {
+                Assertions.assertEquals(expectedReference.getOffset(), actualReference.getOffset());
+            }
+            PdfObject expectedObject = expectedReference.getRefersTo();
+            PdfObject actualObject = actualReference.getRefersTo();
+            if (expectedObject instanceof PdfStream) {
+                Assertions.assertArrayEquals(expectedReader.readStreamBytesRaw((PdfStream) expectedObject),
+                        actualReader.readStreamBytesRaw((PdfStream) actualObject));
+            }
+        }
+        expectedDocument.close();
+        actualDocument.close();
+    }
 }
@@ -30,6 +30,9 @@ import com.itextpdf.test.AssertUtil;
 import com.itextpdf.test.ExceptionTestUtil;
 import com.itextpdf.test.ExtendedITextTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
@@ -184,6 +187,140 @@ public class PdfXrefTableUnitTest extends ExtendedITextTest {
         AssertUtil.doesNotThrow(() -> document.close());
     }
 
+    @Test
+    public void stateMarksOfAddedReferencesTest() {
+        PdfXrefTable table = new PdfXrefTable();
+        table.add(new PdfIndirectReference(null, 1));
+        table.add((PdfIndirectReference) new PdfIndirectReference(null, 3).setState(PdfObject.MUST_BE_FLUSHED));
+        table.add((PdfIndirectReference) new PdfIndirectReference(null, 7).setState(PdfObject.MODIFIED));
+
+        Assertions.assertEquals(3, table.nextMustBeFlushedMark(1));
+        Assertions.assertEquals(-1, table.nextMustBeFlushedMark(4));
+        Assertions.assertEquals(7, table.nextModifiedMark(1));
+
+        table.clearModifiedMark(7);
+        Assertions.assertEquals(-1, table.nextModifiedMark(1));
+        table.clearAllReferences();
+        Assertions.assertEquals(-1, table.nextMustBeFlushedMark(1));
+    }
+
+    @Test
+    public void stateMarksOfDocumentReferencesTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        document.addNewPage();
+        PdfIndirectReference reference = new PdfDictionary().makeIndirect(document).getIndirectReference();
+        int objNr = reference.getObjNumber();
+        Assertions.assertEquals(objNr, document.getXref().nextModifiedMark(objNr));
+        Assertions.assertEquals(-1, document.getXref().nextMustBeFlushedMark(objNr));
+
+        reference.setState(PdfObject.MUST_BE_FLUSHED);
+        Assertions.assertEquals(objNr, document.getXref().nextMustBeFlushedMark(objNr));
+
+        document.close();
+        Assertions.assertTrue(reference.checkState(PdfObject.FLUSHED));
+        Assertions.assertEquals(-1, document.getXref().nextMustBeFlushedMark(1));
+    }
+
+    @Test
+    public void notLoadedEntriesTest() {
+        PdfXrefTable table = new PdfXrefTable();
+        table.addNotLoadedEntry(null, 1, 1, 100, 2);
+        table.addNotLoadedEntry(null, 2, 2, 5, 7);
+        table.addNotLoadedEntry(null, 3, 0, 0, 1);
+
+        Assertions.assertEquals(4, table.size());
+        Assertions.assertEquals(2, table.getCountOfIndirectObjects());
+        Assertions.assertTrue(table.isNotLoaded(1));
+
+        PdfIndirectReference inUse = table.get(1);
+        Assertions.assertFalse(table.isNotLoaded(1));
+        Assertions.assertSame(inUse, table.get(1));
+        Assertions.assertEquals(100, inUse.getOffset());
+        Assertions.assertEquals(2, inUse.getGenNumber());
+        Assertions.assertFalse(inUse.isFree());
+
+        PdfIndirectReference compressed = table.get(2);
+        Assertions.assertEquals(5, compressed.getObjStreamNumber());
+        Assertions.assertEquals(7, compressed.getIndex());
+        Assertions.assertEquals(0, compressed.getGenNumber());
+
+        PdfIndirectReference free = table.get(3);
+        Assertions.assertTrue(free.isFree());
+        Assertions.assertEquals(1, free.getGenNumber());
+    }
+
+    @Test
+    public void concurrentlyLoadedEntriesTest() throws Exception {
+        PdfXrefTable table = new PdfXrefTable();
+        int entriesCount = 10000;
+        for (int i = 1; i <= entriesCount; i++) {
+            table.addNotLoadedEntry(null, i, 1, 100L * i, 0);
+        }
+        PdfIndirectReference[][] loaded = new PdfIndirectReference[4][entriesCount + 1];
+        Thread[] threads = new Thread[loaded.length];
+        for (int t = 0; t < threads.length; t++) {
+            PdfIndirectReference[] references = loaded[t];
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= entriesCount; i++) {
+                    references[i] = table.get(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 1; i <= entriesCount; i++) {
+            Assertions.assertEquals(100L * i, loaded[0][i].getOffset());
+            for (int t = 1; t < loaded.length; t++) {
+                Assertions.assertSame(loaded[0][i], loaded[t][i]);
+            }
+        }
+    }
+
+    @Test
+    public void clearNotLoadedEntriesTest() {
+        PdfXrefTable table = new PdfXrefTable();
+        table.addNotLoadedEntry(null, 1, 1, 100, 0);
+        table.addNotLoadedEntry(null, 2, 0, 0, 1);
+        table.clear();
+        table.addNotLoadedEntry(null, 3, 1, 100, 0);
+        Assertions.assertNull(table.get(1));
+        Assertions.assertTrue(table.get(2).isFree());
+
+        table.add(new PdfIndirectReference(null, 3));
+        Assertions.assertFalse(table.isNotLoaded(3));
+        table.clearAllReferences();
+        Assertions.assertNull(table.get(1));
+    }
+
+    @Test
+    public void referencesAreCreatedOnRequestTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PdfDocument document = new PdfDocument(new PdfWriter(baos))) {
+            document.addNewPage();
+            PdfDictionary[] chain = new PdfDictionary[10];
+            for (int i = 0; i < chain.length; i++) {
+                chain[i] = (PdfDictionary) new PdfDictionary().makeIndirect(document);
+            }
+            for (int i = 0; i < chain.length - 1; i++) {
+                chain[i].put(PdfName.Next, chain[i + 1]);
+            }
+            document.getCatalog().put(new PdfName("Chain"), chain[0]);
+        }
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())))) {
+            // the reference of the next dictionary is created when the dictionary referring to it is read
+            PdfDictionary first = document.getCatalog().getPdfObject().getAsDictionary(new PdfName("Chain"));
+            int objNr = first.getIndirectReference().getObjNumber();
+            Assertions.assertFalse(document.getXref().isNotLoaded(objNr + 1));
+            Assertions.assertTrue(document.getXref().isNotLoaded(objNr + 2));
+            Assertions.assertSame(first.getAsDictionary(PdfName.Next).getIndirectReference(),
+                    document.getXref().get(objNr + 1));
+            Assertions.assertNotNull(document.getPdfObject(objNr + 2));
+            Assertions.assertFalse(document.getXref().isNotLoaded(objNr + 2));
+        }
+    }
+
 
 
 
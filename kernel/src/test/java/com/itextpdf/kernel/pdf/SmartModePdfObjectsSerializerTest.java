@@ -55,16 +55,143 @@ public class SmartModePdfObjectsSerializerTest extends ExtendedITextTest {
         SerializedObjectContent serializedObject = serializer.serializeObject(dict1);
 
         //It is essential to serialize object with huge amount of memory
-        StringBuilder stringBytes = new StringBuilder().append("$D$N/FirstDict$A$S");
-        String end = "$D$\\D$\\A$\\D";
+        StringBuilder arrayBytes = new StringBuilder().append("$A$S");
         for (int i = 0; i < 10000; i++) {
-            stringBytes.append("\0");
+            arrayBytes.append("\0");
         }
-        stringBytes.append(end);
+        arrayBytes.append("$D$\\D$\\A");
+        SerializedObjectContent arrayContent = new SerializedObjectContent(
+                arrayBytes.toString().getBytes(StandardCharsets.UTF_8));
 
-        SerializedObjectContent expected = new SerializedObjectContent(
-                stringBytes.toString().getBytes(StandardCharsets.UTF_8));
+        SerializedObjectContent expected = new SerializedObjectContent.Builder()
+                .append("$D$N/FirstDict$R").append(arrayContent).append("$\\D").build();
 
         Assertions.assertEquals(expected, serializedObject);
     }
+
+    @Test
+    public void fingerprintDoesNotDependOnAppendedPartsTest() {
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        SerializedObjectContent expected = new SerializedObjectContent(content);
+        for (int partLength = 1; partLength < 40; partLength += 3) {
+            SerializedObjectContent.Builder builder = new SerializedObjectContent.Builder();
+            for (int off = 0; off < content.length; off += partLength) {
+                builder.append(content, off, Math.min(partLength, content.length - off));
+            }
+            Assertions.assertEquals(expected, builder.build());
+        }
+        byte[] changedContent = content.clone();
+        changedContent[500]++;
+        Assertions.assertNotEquals(expected, new SerializedObjectContent(changedContent));
+        Assertions.assertNotEquals(expected, new SerializedObjectContent(new byte[999]));
+    }
+
+    @Test
+    public void sameObjectsInDifferentDocumentsTest() {
+        PdfDocument document1 = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfDocument document2 = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+
+        SerializedObjectContent content1 = serializer.serializeObject(createFontDictionary(document1, "Helvetica"));
+        SerializedObjectContent content2 = serializer.serializeObject(createFontDictionary(document2, "Helvetica"));
+        SerializedObjectContent content3 = serializer.serializeObject(createFontDictionary(document2, "Courier"));
+
+        Assertions.assertEquals(content1, content2);
+        Assertions.assertNotEquals(content1, content3);
+    }
+
+    @Test
+    public void leastRecentlyUsedObjectIsEvictedTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer(2);
+        SerializedObjectContent[] contents = new SerializedObjectContent[3];
+        for (int i = 0; i < contents.length; i++) {
+            PdfDictionary font = createFontDictionary(document, "Font" + i);
+            contents[i] = serializer.serializeObject(font);
+            Assertions.assertNull(serializer.getSavedSerializedObject(contents[i]));
+            serializer.saveSerializedObject(contents[i], font.getIndirectReference());
+            if (i == 1) {
+                Assertions.assertNotNull(serializer.getSavedSerializedObject(contents[0]));
+            }
+        }
+        Assertions.assertNotNull(serializer.getSavedSerializedObject(contents[0]));
+        Assertions.assertNull(serializer.getSavedSerializedObject(contents[1]));
+        Assertions.assertNotNull(serializer.getSavedSerializedObject(contents[2]));
+        Assertions.assertEquals(3, serializer.getHitCount());
+        Assertions.assertEquals(4, serializer.getMissCount());
+    }
+
+    @Test
+    public void objectsWithCollidingFingerprintsAreNotMergedTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+
+        PdfDictionary helvetica = createFontDictionary(document, "Helvetica");
+        PdfDictionary sameHelvetica = createFontDictionary(document, "Helvetica");
+        final SerializedObjectContent helveticaContent = serializer.serializeObject(helvetica);
+        serializer.saveSerializedObject(helveticaContent, helvetica.getIndirectReference());
+
+        SerializedObjectContent collidingContent = new SerializedObjectContent(new byte[] {1, 2, 3}) {
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof SerializedObjectContent;
+            }
+
+            @Override
+            public int hashCode() {
+                return helveticaContent.hashCode();
+            }
+        };
+        Assertions.assertNull(serializer.getSavedSerializedObject(collidingContent));
+        Assertions.assertEquals(helvetica.getIndirectReference(),
+                serializer.getSavedSerializedObject(serializer.serializeObject(sameHelvetica)));
+        Assertions.assertEquals(1, serializer.getHitCount());
+        Assertions.assertEquals(1, serializer.getMissCount());
+    }
+
+    @Test
+    public void streamsWithDifferentDataHaveDifferentContentTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+
+        PdfStream stream1 = new PdfStream(new byte[] {1, 2, 3});
+        stream1.makeIndirect(document);
+        PdfStream stream2 = new PdfStream(new byte[] {1, 2, 4});
+        stream2.makeIndirect(document);
+        PdfStream stream3 = new PdfStream(new byte[] {1, 2, 3});
+        stream3.makeIndirect(document);
+
+        SerializedObjectContent content1 = serializer.serializeObject(stream1);
+        SerializedObjectContent content2 = serializer.serializeObject(stream2);
+        SerializedObjectContent content3 = serializer.serializeObject(stream3);
+        Assertions.assertNotEquals(content1, content2);
+        Assertions.assertFalse(content1.hasSameDigest(content2));
+        Assertions.assertEquals(content1, content3);
+        Assertions.assertTrue(content1.hasSameDigest(content3));
+    }
+
+    @Test
+    public void objectIsSerializedOncePerDocumentTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer();
+        PdfDictionary font = createFontDictionary(document, "Helvetica");
+
+        Assertions.assertSame(serializer.serializeObject(font), serializer.serializeObject(font));
+    }
+
+    private static PdfDictionary createFontDictionary(PdfDocument document, String baseFont) {
+        PdfStream fontFile = new PdfStream(new byte[] {1, 2, 3, 4, 5});
+        fontFile.makeIndirect(document);
+        PdfDictionary descriptor = new PdfDictionary();
+        descriptor.put(PdfName.FontFile2, fontFile);
+        descriptor.makeIndirect(document);
+        PdfDictionary font = new PdfDictionary();
+        font.put(PdfName.BaseFont, new PdfName(baseFont));
+        font.put(PdfName.FontDescriptor, descriptor);
+        font.makeIndirect(document);
+        return font;
+    }
 }
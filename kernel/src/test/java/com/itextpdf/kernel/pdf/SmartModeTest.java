@@ -22,6 +22,7 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
@@ -576,4 +577,36 @@ public class SmartModeTest extends ExtendedITextTest {
             }
         }
     }
+
+    @Test
+    public void smartModeCacheStatisticsTest() throws IOException {
+        String srcFile = sourceFolder + "indirectResourcesStructure.pdf";
+
+        PdfWriter writer = new PdfWriter(new ByteArrayOutputStream(), new WriterProperties().useSmartMode());
+        PdfDocument outputDoc = new PdfDocument(writer);
+        copyPagesTwice(srcFile, outputDoc);
+        long hitCount = writer.getSmartModeHitCount();
+        long missCount = writer.getSmartModeMissCount();
+        outputDoc.close();
+
+        Assertions.assertTrue(hitCount > 0);
+        Assertions.assertTrue(missCount > 0);
+
+        PdfWriter boundedWriter = new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().useSmartMode().setSmartModeCacheSize(1));
+        PdfDocument boundedOutputDoc = new PdfDocument(boundedWriter);
+        copyPagesTwice(srcFile, boundedOutputDoc);
+        boundedOutputDoc.close();
+
+        Assertions.assertTrue(boundedWriter.getSmartModeHitCount() < hitCount);
+        Assertions.assertTrue(boundedWriter.getSmartModeMissCount() > missCount);
+    }
+
+    private static void copyPagesTwice(String srcFile, PdfDocument outputDoc) throws IOException {
+        for (int i = 0; i < 2; i++) {
+            PdfDocument sourceDoc = new PdfDocument(new PdfReader(srcFile));
+            sourceDoc.copyPagesTo(1, sourceDoc.getNumberOfPages(), outputDoc);
+            sourceDoc.close();
+        }
+    }
 }
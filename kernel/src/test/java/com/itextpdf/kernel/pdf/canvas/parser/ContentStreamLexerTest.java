@@ -0,0 +1,147 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class ContentStreamLexerTest extends ExtendedITextTest {
+
+    @Test
+    public void numericOperandsTest() throws IOException {
+        ContentStreamLexer lexer = createLexer("1 -2.5 .5 +3 4. 0.1 m");
+        Assertions.assertTrue(lexer.nextOperator());
+        Assertions.assertEquals(ContentStreamLexer.getOperatorCode("m"), lexer.getOperatorCode());
+        Assertions.assertTrue(lexer.hasOnlyNumericOperands());
+        Assertions.assertEquals(6, lexer.getOperandsCount());
+        double[] operands = lexer.getNumericOperands();
+        Assertions.assertEquals(1, operands[0]);
+        Assertions.assertEquals(-2.5, operands[1]);
+        Assertions.assertEquals(0.5, operands[2]);
+        Assertions.assertEquals(3, operands[3]);
+        Assertions.assertEquals(4, operands[4]);
+        Assertions.assertEquals(0.1, operands[5]);
+        Assertions.assertFalse(lexer.nextOperator());
+    }
+
+    @Test
+    public void numbersAreParsedAsByPdfNumberTest() throws IOException {
+        String[] numbers = new String[] {"0", "-0", "123456789", "0.000001", "3.14159265358979323846",
+                "12345678901234567890", "-.25", "1.00000000000000000000000001", "99999999999999999"};
+        for (String number : numbers) {
+            ContentStreamLexer lexer = createLexer(number + " w");
+            Assertions.assertTrue(lexer.nextOperator());
+            Assertions.assertEquals(Double.parseDouble(number), lexer.getNumericOperands()[0], number);
+        }
+    }
+
+    @Test
+    public void operandsAreTheSameAsParsedByCanvasParserTest() throws IOException {
+        String content = "q 1 0 0 1 10 20 cm /F1 12 Tf [(Hello) -250 <0041>] TJ --5 5.-3 .5.5 Tz\n"
+                + "% comment 1 2 m\n<< /MCID 0 >> /P BDC (a\\)b) Tj EMC -. + sc BT ET 1.5 2.5 3.5 re f* Q";
+        List<List<PdfObject>> expected = parseWithCanvasParser(content);
+        ContentStreamLexer lexer = createLexer(content);
+        List<PdfObject> operands = new ArrayList<>();
+        int index = 0;
+        while (lexer.nextOperator()) {
+            lexer.getOperands(operands, lexer.createOperatorLiteral());
+            Assertions.assertEquals(expected.get(index).toString(), operands.toString());
+            index++;
+        }
+        Assertions.assertEquals(expected.size(), index);
+    }
+
+    @Test
+    public void nonNumericOperandsTest() throws IOException {
+        ContentStreamLexer lexer = createLexer("/GS1 gs 1 0 0 rg");
+        Assertions.assertTrue(lexer.nextOperator());
+        Assertions.assertFalse(lexer.hasOnlyNumericOperands());
+        Assertions.assertEquals(1, lexer.getOperandsCount());
+        Assertions.assertTrue(lexer.nextOperator());
+        Assertions.assertTrue(lexer.hasOnlyNumericOperands());
+        Assertions.assertEquals(3, lexer.getOperandsCount());
+        Assertions.assertEquals("rg", lexer.createOperatorLiteral().toString());
+    }
+
+    @Test
+    public void inlineImageTest() throws IOException {
+        ContentStreamLexer lexer = createLexer("q BI /W 1 /H 1 /BPC 8 /CS /G ID \u0080 EI Q");
+        Assertions.assertTrue(lexer.nextOperator());
+        Assertions.assertEquals("q", lexer.createOperatorLiteral().toString());
+        Assertions.assertTrue(lexer.nextOperator());
+        Assertions.assertEquals(ContentStreamLexer.getOperatorCode("EI"), lexer.getOperatorCode());
+        Assertions.assertEquals(1, lexer.getOperandsCount());
+        List<PdfObject> operands = lexer.getOperands(new ArrayList<PdfObject>(), lexer.createOperatorLiteral());
+        Assertions.assertTrue(operands.get(0) instanceof PdfStream);
+        Assertions.assertTrue(lexer.nextOperator());
+        Assertions.assertEquals("Q", lexer.createOperatorLiteral().toString());
+        Assertions.assertFalse(lexer.nextOperator());
+    }
+
+    @Test
+    public void operatorCodesTest() {
+        String[] operators = new String[] {"m", "l", "c", "v", "y", "re", "Tj", "TJ", "'", "\"", "BDC", "BMC", "d0",
+                "d1", "T*", "W*", "f*", "B*", "b*", "EI"};
+        for (int i = 0; i < operators.length; i++) {
+            int code = ContentStreamLexer.getOperatorCode(operators[i]);
+            Assertions.assertNotEquals(ContentStreamLexer.NO_OPERATOR_CODE, code);
+            for (int j = 0; j < i; j++) {
+                Assertions.assertNotEquals(ContentStreamLexer.getOperatorCode(operators[j]), code);
+            }
+        }
+        Assertions.assertNotEquals(ContentStreamLexer.getOperatorCode("a"), ContentStreamLexer.getOperatorCode("a\0"));
+        Assertions.assertEquals(ContentStreamLexer.NO_OPERATOR_CODE, ContentStreamLexer.getOperatorCode("DefaultOperator"));
+        Assertions.assertEquals(ContentStreamLexer.NO_OPERATOR_CODE, ContentStreamLexer.getOperatorCode(""));
+    }
+
+    private static ContentStreamLexer createLexer(String content) {
+        return new ContentStreamLexer(content.getBytes(StandardCharsets.ISO_8859_1), new PdfResources());
+    }
+
+    private static List<List<PdfObject>> parseWithCanvasParser(String content) throws IOException {
+        PdfTokenizer tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(content.getBytes(StandardCharsets.ISO_8859_1))));
+        PdfCanvasParser parser = new PdfCanvasParser(tokenizer, new PdfResources());
+        List<List<PdfObject>> result = new ArrayList<>();
+        List<PdfObject> operands = new ArrayList<>();
+        while (parser.parse(operands).size() > 0) {
+            result.add(new ArrayList<>(operands));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.geom.IShape;
+import com.itextpdf.kernel.geom.Matrix;
+import com.itextpdf.kernel.geom.Path;
+import com.itextpdf.kernel.geom.Point;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.geom.Subpath;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvasConstants.FillingRule;
+import com.itextpdf.test.ExtendedITextTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class ParserGraphicsStateTest extends ExtendedITextTest {
+
+    @Test
+    public void nestedClipsTest() {
+        ParserGraphicsState gs = createGraphicsState();
+        gs.clip(createRectanglePath(50, 50, 100, 100), FillingRule.NONZERO_WINDING);
+        gs.clip(createRectanglePath(0, 0, 75, 75), FillingRule.EVEN_ODD);
+        assertBounds(new Rectangle(50, 50, 25, 25), gs.getClippingPath());
+    }
+
+    @Test
+    public void copiedStateIsNotAffectedTest() {
+        ParserGraphicsState gs = createGraphicsState();
+        gs.clip(createRectanglePath(50, 0, 100, 100), FillingRule.NONZERO_WINDING);
+        ParserGraphicsState copy = new ParserGraphicsState(gs);
+        copy.clip(createRectanglePath(0, 50, 100, 100), FillingRule.EVEN_ODD);
+        gs.clip(createRectanglePath(0, 0, 60, 100), FillingRule.NONZERO_WINDING);
+
+        assertBounds(new Rectangle(50, 50, 50, 50), copy.getClippingPath());
+        assertBounds(new Rectangle(50, 0, 10, 100), gs.getClippingPath());
+    }
+
+    @Test
+    public void emptyClippingPathTest() {
+        ParserGraphicsState gs = createGraphicsState();
+        gs.clip(createRectanglePath(200, 200, 10, 10), FillingRule.NONZERO_WINDING);
+        Assertions.assertTrue(gs.getClippingPath().isEmpty());
+        gs.clip(createRectanglePath(0, 0, 10, 10), FillingRule.NONZERO_WINDING);
+        gs.updateCtm(new Matrix(2, 0, 0, 2, 0, 0));
+        Assertions.assertTrue(gs.getClippingPath().isEmpty());
+    }
+
+    @Test
+    public void noninvertibleMatrixTest() {
+        ParserGraphicsState gs = createGraphicsState();
+        Assertions.assertThrows(PdfException.class, () -> gs.updateCtm(new Matrix(0, 0, 0, 0, 0, 0)));
+        assertBounds(new Rectangle(0, 0, 100, 100), gs.getClippingPath());
+    }
+
+    private static ParserGraphicsState createGraphicsState() {
+        ParserGraphicsState gs = new ParserGraphicsState();
+        gs.setClippingPath(createRectanglePath(0, 0, 100, 100));
+        return gs;
+    }
+
+    private static Path createRectanglePath(float x, float y, float width, float height) {
+        Path path = new Path();
+        path.rectangle(x, y, width, height);
+        return path;
+    }
+
+    private static void assertBounds(Rectangle expected, Path path) {
+        double left = Double.MAX_VALUE;
+        double bottom = Double.MAX_VALUE;
+        double right = -Double.MAX_VALUE;
+        double top = -Double.MAX_VALUE;
+        for (Subpath subpath : path.getSubpaths()) {
+            for (IShape segment : subpath.getSegments()) {
+                for (Point point : segment.getBasePoints()) {
+                    left = Math.min(left, point.getX());
+                    bottom = Math.min(bottom, point.getY());
+                    right = Math.max(right, point.getX());
+                    top = Math.max(top, point.getY());
+                }
+            }
+        }
+        Assertions.assertEquals(expected.getLeft(), left, 1e-3);
+        Assertions.assertEquals(expected.getBottom(), bottom, 1e-3);
+        Assertions.assertEquals(expected.getRight(), right, 1e-3);
+        Assertions.assertEquals(expected.getTop(), top, 1e-3);
+    }
+}
@@ -23,15 +23,21 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfLiteral;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfResources;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredEventListener;
 import com.itextpdf.test.ExtendedITextTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 @Tag("UnitTest")
 public class PdfCanvasProcessorUnitTest extends ExtendedITextTest {
@@ -48,4 +54,69 @@ public class PdfCanvasProcessorUnitTest extends ExtendedITextTest {
         processor.registerContentOperator("BMC", contentOperator);
         contentOperator.invoke(processor, null, Collections.singletonList((PdfObject) null));
     }
+
+    @Test
+    public void numericContentOperatorTest() {
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new FilteredEventListener());
+        RecordingNumericOperator operator = new RecordingNumericOperator();
+        processor.registerContentOperator("xy", operator);
+        processor.processContent("1 2.5 xy /N 3 xy 4 xy".getBytes(StandardCharsets.ISO_8859_1), new PdfResources());
+        Assertions.assertEquals(3, operator.invocations.size());
+        Assertions.assertEquals("numeric xy [1.0, 2.5]", operator.invocations.get(0));
+        Assertions.assertEquals("list xy [/N, 3]", operator.invocations.get(1));
+        Assertions.assertEquals("list xy [4]", operator.invocations.get(2));
+    }
+
+    @Test
+    public void overriddenInvokeOperatorSeesNumericOperatorsTest() {
+        OperatorRecordingProcessor processor = new OperatorRecordingProcessor();
+        RecordingNumericOperator operator = new RecordingNumericOperator();
+        processor.registerContentOperator("xy", operator);
+        processor.processContent("1 0 0 1 5 5 cm 1 2.5 xy 0 0 10 10 re n".getBytes(StandardCharsets.ISO_8859_1),
+                new PdfResources());
+        Assertions.assertEquals(Arrays.asList("cm", "xy", "re", "n"), processor.invokedOperators);
+        Assertions.assertEquals(Collections.singletonList("list xy [1, 2.5]"), operator.invocations);
+    }
+
+    private static class OperatorRecordingProcessor extends PdfCanvasProcessor {
+        private final List<String> invokedOperators = new ArrayList<>();
+
+        OperatorRecordingProcessor() {
+            super(new FilteredEventListener());
+        }
+
+        @Override
+        protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
+            invokedOperators.add(operator.toString());
+            super.invokeOperator(operator, operands);
+        }
+
+        @Override
+        protected boolean isNumericOperatorFastPathAllowed() {
+            return false;
+        }
+    }
+
+    private static class RecordingNumericOperator implements INumericContentOperator {
+        private final List<String> invocations = new ArrayList<>();
+
+        @Override
+        public int getNumericOperandsCount() {
+            return 2;
+        }
+
+        @Override
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, double[] operands, int operandsCount) {
+            List<Double> values = new ArrayList<>();
+            for (int i = 0; i < operandsCount; i++) {
+                values.add(operands[i]);
+            }
+            invocations.add("numeric " + operator + " " + values);
+        }
+
+        @Override
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+            invocations.add("list " + operator + " " + operands.subList(0, operands.size() - 1));
+        }
+    }
 }
@@ -22,11 +22,17 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
+import com.itextpdf.kernel.exceptions.KernelExceptionMessageConstant;
+import com.itextpdf.kernel.exceptions.PdfException;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.ClipperBridge;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.ClipperException;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.ClipperExceptionConstant;
+import com.itextpdf.kernel.pdf.canvas.parser.data.ClippingPathInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListenerFactory;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import com.itextpdf.test.AssertUtil;
 import com.itextpdf.test.ExtendedITextTest;
@@ -34,7 +40,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Tag("IntegrationTest")
 public class PdfContentExtractionTest extends ExtendedITextTest {
@@ -42,6 +53,9 @@ public class PdfContentExtractionTest extends ExtendedITextTest {
     private static final String SOURCE_FOLDER =
             "./src/test/resources/com/itextpdf/kernel/parser/PdfContentExtractionTest/";
 
+    private static final String MULTI_PAGE_DOCUMENT =
+            "./src/test/resources/com/itextpdf/kernel/parser/LocationExtractionTest/aliceInWonderland.pdf";
+
     @Test
     public void contentExtractionInDocWithBigCoordinatesTest() throws IOException {
         String inputFileName = SOURCE_FOLDER + "docWithBigCoordinates.pdf";
@@ -65,11 +79,110 @@ public class PdfContentExtractionTest extends ExtendedITextTest {
         try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(inputFileName))) {
             PdfDocumentContentParser contentParser = new PdfDocumentContentParser(pdfDocument);
             ClipperBridge.floatMultiplier = Math.pow(10, 14);
-            Exception e = Assertions.assertThrows(ClipperException.class,
-                    () -> contentParser.processContent(1, new LocationTextExtractionStrategy())
+            try {
+                // the clipping path is only calculated when the listener requests it
+                AssertUtil.doesNotThrow(() -> contentParser.processContent(1, new LocationTextExtractionStrategy()));
+                Exception e = Assertions.assertThrows(ClipperException.class,
+                        () -> contentParser.processContent(1, new ClippingPathRequestingStrategy())
+                );
+                Assertions.assertEquals(ClipperExceptionConstant.COORDINATE_OUTSIDE_ALLOWED_RANGE, e.getMessage());
+            } finally {
+                ClipperBridge.floatMultiplier = null;
+            }
+        }
+    }
+
+    @Test
+    public void parallelContentExtractionTest() throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(MULTI_PAGE_DOCUMENT))) {
+            List<LocationTextExtractionStrategy> listeners = new PdfDocumentContentParser(pdfDocument)
+                    .processContentInParallel(new LocationTextExtractionStrategyFactory(),
+                            new HashMap<String, IContentOperator>(), executorService);
+
+            Assertions.assertEquals(pdfDocument.getNumberOfPages(), listeners.size());
+            try (PdfDocument sequentialDocument = new PdfDocument(new PdfReader(MULTI_PAGE_DOCUMENT))) {
+                for (int i = 1; i <= sequentialDocument.getNumberOfPages(); i++) {
+                    String expected = PdfTextExtractor.getTextFromPage(sequentialDocument.getPage(i),
+                            new LocationTextExtractionStrategy());
+                    Assertions.assertEquals(expected, listeners.get(i - 1).getResultantText());
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelContentExtractionRethrowsListenerExceptionTest() throws IOException {
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(MULTI_PAGE_DOCUMENT))) {
+            PdfDocumentContentParser contentParser = new PdfDocumentContentParser(pdfDocument);
+            Exception e = Assertions.assertThrows(IllegalStateException.class,
+                    () -> contentParser.processContentInParallel(new IEventListenerFactory<LocationTextExtractionStrategy>() {
+                        @Override
+                        public LocationTextExtractionStrategy createListener(int pageNumber) {
+                            if (pageNumber == 3) {
+                                throw new IllegalStateException("page 3");
+                            }
+                            return new LocationTextExtractionStrategy();
+                        }
+                    })
+            );
+            Assertions.assertEquals("page 3", e.getMessage());
+        }
+    }
+
+    @Test
+    public void parallelContentExtractionKeepsNestedExceptionOfSameTypeTest() throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(MULTI_PAGE_DOCUMENT))) {
+            PdfDocumentContentParser contentParser = new PdfDocumentContentParser(pdfDocument);
+            Exception e = Assertions.assertThrows(IllegalStateException.class,
+                    () -> contentParser.processContentInParallel(new IEventListenerFactory<LocationTextExtractionStrategy>() {
+                        @Override
+                        public LocationTextExtractionStrategy createListener(int pageNumber) {
+                            if (pageNumber == 2) {
+                                throw new IllegalStateException("page 2", new IllegalStateException("cause"));
+                            }
+                            return new LocationTextExtractionStrategy();
+                        }
+                    }, new HashMap<String, IContentOperator>(), executorService)
             );
-            Assertions.assertEquals(ClipperExceptionConstant.COORDINATE_OUTSIDE_ALLOWED_RANGE, e.getMessage());
-            ClipperBridge.floatMultiplier = null;
+            Assertions.assertEquals("page 2", e.getMessage());
+            Assertions.assertEquals("cause", e.getCause().getMessage());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelContentExtractionInWritingModeTest() {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDocument.addNewPage();
+        PdfDocumentContentParser contentParser = new PdfDocumentContentParser(pdfDocument);
+        Exception e = Assertions.assertThrows(PdfException.class,
+                () -> contentParser.processContentInParallel(new LocationTextExtractionStrategyFactory())
+        );
+        Assertions.assertEquals(KernelExceptionMessageConstant.PARALLEL_CONTENT_PROCESSING_REQUIRES_READING_MODE,
+                e.getMessage());
+        pdfDocument.close();
+    }
+
+    private static final class ClippingPathRequestingStrategy extends LocationTextExtractionStrategy {
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            if (type == EventType.CLIP_PATH_CHANGED) {
+                ((ClippingPathInfo) data).getClippingPath();
+            }
+            super.eventOccurred(data, type);
+        }
+    }
+
+    private static final class LocationTextExtractionStrategyFactory
+            implements IEventListenerFactory<LocationTextExtractionStrategy> {
+        @Override
+        public LocationTextExtractionStrategy createListener(int pageNumber) {
+            return new LocationTextExtractionStrategy();
         }
     }
 }
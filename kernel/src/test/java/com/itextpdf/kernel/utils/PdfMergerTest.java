@@ -647,6 +647,54 @@ public class PdfMergerTest extends ExtendedITextTest {
         Assertions.assertNull(new CompareTool().compareByContent(mergedDocument, cmpDocument, destinationFolder));
     }
 
+    @Test
+    public void streamingModeMergesOutlinesTest() throws IOException, InterruptedException {
+        String firstPdfDocument = sourceFolder + "firstDocumentWithOutlines.pdf";
+        String secondPdfDocument = sourceFolder + "secondDocumentWithOutlines.pdf";
+        String cmpDocument = sourceFolder + "cmp_mergeDocumentsWithOutlines.pdf";
+        String mergedDocument = destinationFolder + "streamingModeMergesOutlines.pdf";
+
+        try (PdfDocument documentA = new PdfDocument(new PdfReader(firstPdfDocument));
+                PdfDocument documentB = new PdfDocument(new PdfReader(secondPdfDocument));
+                PdfDocument mergedPdf = new PdfDocument(CompareTool.createTestPdfWriter(mergedDocument))) {
+            PdfMerger merger = new PdfMerger(mergedPdf, new PdfMergerProperties().setMergeTags(false)
+                    .setMergeOutlines(true).setStreamingMode(true));
+            merger.merge(documentA, 1, documentA.getNumberOfPages());
+            Assertions.assertTrue(mergedPdf.getPage(documentA.getNumberOfPages()).isFlushed());
+            merger.merge(documentB, 1, documentB.getNumberOfPages());
+            Assertions.assertTrue(mergedPdf.getPage(mergedPdf.getNumberOfPages()).isFlushed());
+
+            merger.close();
+        }
+
+        Assertions.assertNull(new CompareTool().compareByContent(mergedDocument, cmpDocument, destinationFolder));
+    }
+
+    @Test
+    public void streamingModeMergesTagsTest()
+            throws IOException, ParserConfigurationException, SAXException, InterruptedException {
+        String source = sourceFolder + "splitTableWithEmptyTd.pdf";
+        String mergedDocument = destinationFolder + "streamingModeMergesTags.pdf";
+        String cmpDocument = destinationFolder + "cmp_streamingModeMergesTags.pdf";
+
+        for (String output : new String[] {mergedDocument, cmpDocument}) {
+            PdfDocument mergedPdf = new PdfDocument(CompareTool.createTestPdfWriter(output));
+            mergedPdf.setTagged();
+            PdfMerger merger = new PdfMerger(mergedPdf, new PdfMergerProperties().setCloseSrcDocuments(true)
+                    .setStreamingMode(output.equals(mergedDocument)));
+            for (int i = 0; i < 10; i++) {
+                PdfDocument sourcePdf = new PdfDocument(new PdfReader(source));
+                merger.merge(sourcePdf, 1, sourcePdf.getNumberOfPages());
+            }
+            Assertions.assertEquals(20, mergedPdf.getNumberOfPages());
+            Assertions.assertEquals(output.equals(mergedDocument), mergedPdf.getPage(20).isFlushed());
+            merger.close();
+        }
+
+        Assertions.assertNull(new CompareTool().compareTagStructures(mergedDocument, cmpDocument));
+        Assertions.assertNull(new CompareTool().compareByContent(mergedDocument, cmpDocument, destinationFolder));
+    }
+
     @Test
     public void MergeWithSameNamedOcgTest() throws IOException, InterruptedException {
         String firstPdfDocument = sourceFolder + "sameNamdOCGSource.pdf";
@@ -23,6 +23,7 @@
 package com.itextpdf.layout.font;
 
 import com.itextpdf.io.font.FontCacheKey;
+import com.itextpdf.io.font.FontIndex;
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.io.font.FontProgramDescriptor;
 import com.itextpdf.io.font.FontProgramDescriptorFactory;
@@ -87,6 +88,15 @@ public final class FontInfo {
     }
 
     static FontInfo create(String fontName, String encoding, String alias, Range range) {
+        return create(fontName, encoding, alias, range, null);
+    }
+
+    static FontInfo create(String fontName, String encoding, String alias, Range range, FontIndex fontIndex) {
+        if (fontIndex != null) {
+            // The index validates its entries against the font files itself.
+            FontProgramDescriptor descriptor = fontIndex.fetchDescriptor(fontName);
+            return descriptor != null ? new FontInfo(fontName, null, encoding, descriptor, range, alias) : null;
+        }
         FontCacheKey cacheKey = FontCacheKey.create(fontName);
         FontProgramDescriptor descriptor = getFontNamesFromCache(cacheKey);
         if (descriptor == null) {
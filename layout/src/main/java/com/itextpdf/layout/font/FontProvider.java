@@ -24,6 +24,7 @@ package com.itextpdf.layout.font;
 
 import com.itextpdf.commons.utils.FileUtil;
 import com.itextpdf.io.font.FontCache;
+import com.itextpdf.io.font.FontIndex;
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.PdfEncodings;
@@ -244,12 +245,37 @@ public class FontProvider {
         return fontSet.addDirectory(dir);
     }
 
+    /**
+     * Add all the fonts from a directory, taking font names and style from the font index where possible.
+     *
+     * @param dir       path to directory.
+     * @param fontIndex {@link FontIndex} to fetch font descriptors from.
+     *
+     * @return number of added fonts.
+     */
+    public int addDirectory(String dir, FontIndex fontIndex) {
+        return fontSet.addDirectory(dir, false, fontIndex);
+    }
+
     /**
      * Add all fonts from system directories to {@link FontSet} cache.
      *
      * @return number of added fonts.
      */
     public int addSystemFonts() {
+        return addSystemFonts(null);
+    }
+
+    /**
+     * Add all fonts from system directories to {@link FontSet} cache, taking font names and style
+     * from the font index where possible. Call {@link FontIndex#save()} afterwards to persist
+     * the fonts which have been indexed.
+     *
+     * @param fontIndex {@link FontIndex} to fetch font descriptors from, may be {@code null}.
+     *
+     * @return number of added fonts.
+     */
+    public int addSystemFonts(FontIndex fontIndex) {
         int count = 0;
         String[] withSubDirs = {
                 FileUtil.getFontsDir(),
@@ -260,7 +286,7 @@ public class FontProvider {
                 "/usr/X11R6/lib/X11/fonts"
         };
         for (String directory : withSubDirs) {
-            count += fontSet.addDirectory(directory, true);
+            count += fontSet.addDirectory(directory, true, fontIndex);
         }
 
         String[] withoutSubDirs = {
@@ -268,7 +294,7 @@ public class FontProvider {
                 "/System/Library/Fonts"
         };
         for (String directory : withoutSubDirs) {
-            count += fontSet.addDirectory(directory, false);
+            count += fontSet.addDirectory(directory, false, fontIndex);
         }
 
         return count;
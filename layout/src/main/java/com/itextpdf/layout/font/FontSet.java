@@ -23,6 +23,7 @@
 package com.itextpdf.layout.font;
 
 import com.itextpdf.io.logs.IoLogMessageConstant;
+import com.itextpdf.io.font.FontIndex;
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.commons.utils.FileUtil;
 import com.itextpdf.kernel.font.Type3Font;
@@ -74,6 +75,20 @@ public final class FontSet {
      * @return number of added fonts.
      */
     public int addDirectory(String dir, boolean scanSubdirectories) {
+        return addDirectory(dir, scanSubdirectories, null);
+    }
+
+    /**
+     * Add all the fonts in a directory and possibly its subdirectories, taking font names and style
+     * from the font index where possible. Only fonts which are not indexed yet or have been changed since
+     * they were indexed are parsed, font programs themselves are created only when a font is selected.
+     *
+     * @param dir                path to directory.
+     * @param scanSubdirectories recursively scan subdirectories if {@code true}.
+     * @param fontIndex          {@link FontIndex} to fetch font descriptors from, may be {@code null}.
+     * @return number of added fonts.
+     */
+    public int addDirectory(String dir, boolean scanSubdirectories, FontIndex fontIndex) {
         int count = 0;
         String[] files = FileUtil.listFilesInDirectory(dir, scanSubdirectories);
         if (files == null)
@@ -84,11 +99,11 @@ public final class FontSet {
                 if (".afm".equals(suffix) || ".pfm".equals(suffix)) {
                     // Add only Type 1 fonts with matching .pfb files.
                     String pfb = file.substring(0, file.length() - 4) + ".pfb";
-                    if (FileUtil.fileExists(pfb) && addFont(file)) {
+                    if (FileUtil.fileExists(pfb) && addFont(FontInfo.create(file, null, null, null, fontIndex))) {
                         count++;
                     }
                 } else if ((".ttf".equals(suffix) || ".otf".equals(suffix) || ".ttc".equals(suffix))
-                        && addFont(file)) {
+                        && addFont(FontInfo.create(file, null, null, null, fontIndex))) {
                     count++;
                 }
             } catch (Exception ignored) {
@@ -23,6 +23,7 @@
 package com.itextpdf.layout;
 
 import com.itextpdf.commons.utils.FileUtil;
+import com.itextpdf.io.font.FontIndex;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.font.constants.StandardFontFamilies;
 import com.itextpdf.io.font.constants.StandardFonts;
@@ -47,10 +48,12 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Tag("IntegrationTest")
@@ -191,4 +194,25 @@ public class FontProviderTest extends ExtendedITextTest {
             Assertions.assertEquals(LayoutExceptionMessageConstant.FONT_PROVIDER_NOT_SET_FONT_FAMILY_NOT_RESOLVED, e.getMessage());
         }
     }
+
+    @Test
+    public void addDirectoryWithFontIndexTest() {
+        String indexPath = destinationFolder + "addDirectoryWithFontIndexTest.idx";
+        FileUtil.deleteFile(new File(indexPath));
+
+        FontIndex fontIndex = FontIndex.load(indexPath);
+        FontProvider fontProvider = new FontProvider();
+        Assertions.assertEquals(4, fontProvider.addDirectory(fontsFolder + "Lato", fontIndex));
+        Assertions.assertEquals(4, fontIndex.size());
+        fontIndex.save();
+
+        FontProvider indexedFontProvider = new FontProvider();
+        Assertions.assertEquals(4, indexedFontProvider.addDirectory(fontsFolder + "Lato", FontIndex.load(indexPath)));
+        for (FontInfo fontInfo : fontProvider.getFontSet().getFonts()) {
+            Assertions.assertTrue(indexedFontProvider.getFontSet().contains(fontInfo.getDescriptor().getFontName()));
+        }
+        FontSelector selector = indexedFontProvider.getFontSelector(Collections.singletonList("lato"),
+                new FontCharacteristics().setFontStyle("italic"));
+        Assertions.assertEquals("Lato-Italic", selector.bestMatch().getDescriptor().getFontName());
+    }
 }
@@ -159,6 +159,7 @@ public class DocumentRevisionsValidator {
     private Set<PdfDictionary> removedTaggedObjects;
     private Set<PdfDictionary> addedTaggedObjects;
     private Pair<Set<PdfIndirectReference>, Set<PdfIndirectReference>> usuallyModifiedObjects;
+    private PdfRevisionsReader revisionsReader;
 
     /**
      * Creates new instance of {@link DocumentRevisionsValidator}.
@@ -234,7 +235,7 @@ public class DocumentRevisionsValidator {
         resetClassFields();
         ValidationContext localContext = context.setValidatorContext(ValidatorContext.DOCUMENT_REVISIONS_VALIDATOR);
         ValidationReport report = new ValidationReport();
-        PdfRevisionsReader revisionsReader = new PdfRevisionsReader(document.getReader());
+        revisionsReader = new PdfRevisionsReader(document.getReader());
         revisionsReader.setEventCountingMetaInfo(metaInfo);
         List<DocumentRevision> documentRevisions;
         try {
@@ -574,9 +575,8 @@ public class DocumentRevisionsValidator {
 
     private boolean createDocumentAndPerformOperation(DocumentRevision revision, PdfDocument originalDocument,
             ValidationReport report, Function<PdfDocument, Boolean> operation) {
-        try (InputStream inputStream = createInputStreamFromRevision(originalDocument, revision);
-                PdfReader reader = new PdfReader(inputStream, originalDocument.getReader().getPropertiesCopy())
-                        .setStrictnessLevel(StrictnessLevel.CONSERVATIVE);
+        try (PdfReader reader = createRevisionReader(revision, originalDocument)
+                .setStrictnessLevel(StrictnessLevel.CONSERVATIVE);
                 PdfDocument documentWithRevision = new PdfDocument(reader,
                         new DocumentProperties().setEventCountingMetaInfo(metaInfo))) {
             return (boolean) operation.apply(documentWithRevision);
@@ -587,9 +587,20 @@ public class DocumentRevisionsValidator {
         }
     }
 
+    private PdfReader createRevisionReader(DocumentRevision revision, PdfDocument originalDocument)
+            throws IOException {
+        if (revisionsReader != null && revisionsReader.getAllRevisions().contains(revision)) {
+            // the cross-reference sections parsed while collecting the revisions are reused
+            return revisionsReader.createRevisionReader(revision);
+        }
+        return new PdfReader(createInputStreamFromRevision(originalDocument, revision),
+                originalDocument.getReader().getPropertiesCopy());
+    }
+
     private void resetClassFields() {
         lockedFields.clear();
         accessPermissions = AccessPermissions.ANNOTATION_MODIFICATION;
+        revisionsReader = null;
     }
 
     //